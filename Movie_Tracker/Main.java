@@ -1,17 +1,177 @@
 package Movie_Tracker;
 
 import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.FsyncPolicy;
+import Movie_Tracker.enums.OutputFormat;
+import Movie_Tracker.persistence.MediaStore;
+import Movie_Tracker.server.MediaHttpServer;
+import Movie_Tracker.ui.BatchRunner;
 import Movie_Tracker.ui.ConsoleUI; 
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Main class for the Movie/TV Show Tracker application.
  * This class serves as the application's entry point and orchestrates
  * the start of the user interface.
+ * <p>
+ * Usage: {@code Main [--batch [file|-]] [--format text|json] | [--serve [port]] [--metrics seconds]}.
+ * By default the interactive console is started. With {@code --batch}, commands are read from the
+ * file (or standard input) as described in {@link BatchRunner}; with {@code --serve}, the tracker
+ * is served over HTTP by {@link MediaHttpServer} until the process is stopped. The tracker's
+ * operation metrics are always published over JMX; {@code --metrics} also prints them to
+ * standard error every given number of seconds.
  */
 public class Main {
-    public static void main(String[] args) {
-        MediaTracker tracker = new MediaTracker(); // Initialize the core tracker
-        ConsoleUI ui = new ConsoleUI(tracker);    // Create the UI instance
-        ui.start();                               // Start the user interface
+    private static final String DATA_DIRECTORY = "media_data";
+    private static final String USAGE =
+            "Usage: Main [--batch [file|-]] [--format text|json] | [--serve [port]] [--metrics seconds]";
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final CountDownLatch STOPPED = new CountDownLatch(1); // Counted down once the store is closed
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean batch = false;
+        int port = -1;
+        String script = "-";
+        OutputFormat format = OutputFormat.TEXT;
+        int metricsSeconds = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch")) {
+                batch = true;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    script = args[++i];
+                }
+            } else if (args[i].equals("--serve")) {
+                port = MediaHttpServer.DEFAULT_PORT;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    port = parsePort(args[++i]);
+                }
+            } else if (args[i].equals("--metrics") && i + 1 < args.length) {
+                metricsSeconds = parsePositive(args[++i]);
+            } else if (args[i].equals("--format") && i + 1 < args.length) {
+                format = parseFormat(args[++i]);
+                if (format == null) {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            } else {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+        }
+        if (batch && port >= 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try (MediaStore store = MediaStore.open(Paths.get(DATA_DIRECTORY), FsyncPolicy.BATCHED)) {
+            MediaTracker tracker = store.getTracker(); // Load the tracker from the latest snapshot and journal
+            Closeable mbeans = tracker.getMetrics().registerMBeans("default");
+            Closeable reporter = metricsSeconds > 0
+                    ? tracker.getMetrics().startReporter(System.err, metricsSeconds, TimeUnit.SECONDS) : null;
+            try {
+                if (batch) {
+                    runBatch(tracker, script, format);
+                } else if (port >= 0) {
+                    serve(tracker, port);
+                } else {
+                    ConsoleUI ui = new ConsoleUI(tracker);    // Create the UI instance
+                    ui.start();                               // Start the user interface
+                }
+            } finally {
+                if (reporter != null) {
+                    reporter.close();
+                }
+                mbeans.close();
+            }
+        } finally {
+            STOPPED.countDown();
+        }
+    }
+
+    private static void runBatch(MediaTracker tracker, String script, OutputFormat format) throws IOException {
+        BatchRunner runner = new BatchRunner(tracker, format);
+        long start = System.nanoTime();
+        BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), IO_BUFFER_SIZE)
+                : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8);
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new BufferedOutputStream(System.out, IO_BUFFER_SIZE), StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+        try (in) {
+            runner.run(in, out);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.err.println("Processed " + runner.getCommands() + " command(s), " + runner.getFailures()
+                + " failed, in " + millis + " ms.");
+    }
+
+    /**
+     * Serves the tracker until the JVM is asked to shut down (e.g. Ctrl+C). The shutdown hook
+     * waits until main has closed the store, so the journal is flushed before the JVM exits.
+     */
+    private static void serve(MediaTracker tracker, int port) throws IOException, InterruptedException {
+        CountDownLatch stopRequested = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopRequested.countDown();
+            try {
+                STOPPED.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try (MediaHttpServer server = MediaHttpServer.start(tracker, new InetSocketAddress(port))) {
+            System.out.println("Serving on http://localhost:" + server.getPort() + "/ (Ctrl+C to stop)");
+            stopRequested.await();
+        }
+    }
+
+    private static int parsePort(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return -1;
+        }
+    }
+
+    private static int parsePositive(String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println(USAGE);
+        System.exit(2);
+        return -1;
+    }
+
+    private static OutputFormat parseFormat(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "text":
+                return OutputFormat.TEXT;
+            case "json":
+            case "json_lines":
+                return OutputFormat.JSON_LINES;
+            default:
+                return null;
+        }
     }
 }
@@ -0,0 +1,58 @@
+package Movie_Tracker.core;
+
+import java.util.Arrays;
+
+/**
+ * Growable array that one writer appends to while any number of readers access it without locks.
+ * Elements live in fixed-size chunks that are never moved, and a new element only becomes
+ * visible once the volatile size is bumped, so readers never see a half-published slot.
+ * @param <T> The element type.
+ */
+public class AppendOnlyArray<T> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[4][];
+    private volatile int size;
+
+    /**
+     * Appends an element. Must only be called by one thread at a time.
+     * @param value The element to append.
+     */
+    public void add(T value) {
+        int index = size;
+        int chunk = index >>> CHUNK_BITS;
+        Object[][] directory = chunks;
+        if (chunk == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+            chunks = directory;
+        }
+        if (directory[chunk] == null) {
+            directory[chunk] = new Object[CHUNK_SIZE];
+        }
+        directory[chunk][index & CHUNK_MASK] = value;
+        size = index + 1; // Publishes the element
+    }
+
+    /**
+     * Gets the element at the given index.
+     * @param index The index, below the size observed by the caller.
+     * @return The element.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Gets the number of published elements.
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+}
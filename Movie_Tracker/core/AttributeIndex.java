@@ -0,0 +1,146 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+
+/**
+ * Per-value bitmaps over item positions for the status, genre and platform attributes.
+ * Each bitmap has a bit set for every item holding that value, so filters are
+ * answered by combining bitmaps instead of inspecting every item.
+ * One writer may update the index while readers select from it without locking.
+ */
+public class AttributeIndex {
+    private EnumMap<MovieStatus, ConcurrentBitSet> movieStatusBits;
+    private EnumMap<TVShowStatus, ConcurrentBitSet> tvShowStatusBits;
+    private volatile ConcurrentBitSet[] genreBits; // Genre id -> items with that genre, null if none
+    private volatile ConcurrentBitSet[] platformBits; // Platform id -> items on that platform, null if none
+
+    /**
+     * Constructor for AttributeIndex. Initializes empty bitmaps for every status value.
+     */
+    public AttributeIndex() {
+        this.movieStatusBits = new EnumMap<>(MovieStatus.class);
+        for (MovieStatus status : MovieStatus.values()) {
+            movieStatusBits.put(status, new ConcurrentBitSet());
+        }
+        this.tvShowStatusBits = new EnumMap<>(TVShowStatus.class);
+        for (TVShowStatus status : TVShowStatus.values()) {
+            tvShowStatusBits.put(status, new ConcurrentBitSet());
+        }
+        this.genreBits = new ConcurrentBitSet[0];
+        this.platformBits = new ConcurrentBitSet[0];
+    }
+
+    /**
+     * Records the genres of the item at the given position.
+     * @param id The position of the item.
+     * @param genreIds The ids in SymbolTable.GENRES.
+     */
+    public void addGenres(int id, int[] genreIds) {
+        for (int genreId : genreIds) {
+            genreBits = withSlot(genreBits, genreId);
+            genreBits[genreId].set(id);
+        }
+    }
+
+    /**
+     * Records the platform of the item at the given position.
+     * @param id The position of the item.
+     * @param platformId The id in SymbolTable.PLATFORMS.
+     */
+    public void addPlatform(int id, int platformId) {
+        platformBits = withSlot(platformBits, platformId);
+        platformBits[platformId].set(id);
+    }
+
+    /**
+     * Moves a movie from one status bitmap to another.
+     * @param id The position of the movie.
+     * @param oldStatus The previous status, or null for a newly added movie.
+     * @param newStatus The new status.
+     */
+    public void setMovieStatus(int id, MovieStatus oldStatus, MovieStatus newStatus) {
+        if (newStatus != null) {
+            movieStatusBits.get(newStatus).set(id);
+        }
+        if (oldStatus != null && oldStatus != newStatus) {
+            movieStatusBits.get(oldStatus).clear(id); // Cleared after setting, so readers never miss the item
+        }
+    }
+
+    /**
+     * Moves a TV show from one status bitmap to another.
+     * @param id The position of the TV show.
+     * @param oldStatus The previous status, or null for a newly added show.
+     * @param newStatus The new status.
+     */
+    public void setTVShowStatus(int id, TVShowStatus oldStatus, TVShowStatus newStatus) {
+        if (newStatus != null) {
+            tvShowStatusBits.get(newStatus).set(id);
+        }
+        if (oldStatus != null && oldStatus != newStatus) {
+            tvShowStatusBits.get(oldStatus).clear(id); // Cleared after setting, so readers never miss the item
+        }
+    }
+
+    /**
+     * Builds the bitmap of items matching the status clause of a plan.
+     * @param plan The compiled filter; must have a status clause.
+     * @return A new BitSet owned by the caller.
+     */
+    public BitSet selectStatus(FilterPlan plan) {
+        BitSet result = new BitSet();
+        for (MovieStatus status : plan.getMovieStatuses()) {
+            result.or(movieStatusBits.get(status).toBitSet());
+        }
+        for (TVShowStatus status : plan.getTVShowStatuses()) {
+            result.or(tvShowStatusBits.get(status).toBitSet());
+        }
+        return result;
+    }
+
+    /**
+     * Builds the bitmap of items that have any of the given genres.
+     * @param genreIds The ids in SymbolTable.GENRES.
+     * @return A new BitSet owned by the caller.
+     */
+    public BitSet selectGenres(int[] genreIds) {
+        ConcurrentBitSet[] bits = genreBits;
+        BitSet result = new BitSet();
+        for (int genreId : genreIds) {
+            if (genreId < bits.length && bits[genreId] != null) {
+                result.or(bits[genreId].toBitSet());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the bitmap of items on the given platform.
+     * @param platformId The id in SymbolTable.PLATFORMS, or -1 for an unknown platform.
+     * @return A new BitSet owned by the caller; empty if no item is on the platform.
+     */
+    public BitSet selectPlatform(int platformId) {
+        ConcurrentBitSet[] bits = platformBits;
+        return platformId < 0 || platformId >= bits.length || bits[platformId] == null
+                ? new BitSet() : bits[platformId].toBitSet();
+    }
+
+    /**
+     * Makes sure a bitmap exists for a dictionary id, growing the table if needed.
+     * A grown table is a copy, so readers holding the old one are not affected.
+     * @return The table to publish, with a bitmap at the given id.
+     */
+    private static ConcurrentBitSet[] withSlot(ConcurrentBitSet[] bits, int symbol) {
+        if (symbol < bits.length && bits[symbol] != null) {
+            return bits;
+        }
+        ConcurrentBitSet[] grown = Arrays.copyOf(bits, Math.max(bits.length, Math.max(8, Integer.highestOneBit(symbol) * 2)));
+        grown[symbol] = new ConcurrentBitSet();
+        return grown;
+    }
+}
@@ -0,0 +1,264 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.BackpressurePolicy;
+import Movie_Tracker.enums.ChangeType;
+import Movie_Tracker.models.MediaItem;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers the changes made through a MediaTracker to subscribers on a separate thread, see
+ * {@link MediaTracker#setChangeStream(ChangeStream)}.
+ * <p>
+ * The changes are written into a preallocated ring buffer in the style of the LMAX Disruptor:
+ * the tracker's writer fills the next free slot in place and publishes a whole operation's
+ * changes with one ordered store, without allocating or taking a lock; the dispatcher thread
+ * reads everything published since its last pass and hands it to the listeners as one batch.
+ * A slot is reused once the dispatcher has delivered it, so a slow listener only delays the
+ * writer when the buffer is full, and then as the {@link BackpressurePolicy} says: BLOCK waits
+ * for free space, DROP discards the change and reports the count to the listeners.
+ * <p>
+ * A stream is meant for one tracker. It starts its dispatcher thread when created and stops it,
+ * after delivering what was published, when closed.
+ */
+public class ChangeStream implements Closeable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final MediaChangeListener[] NO_LISTENERS = new MediaChangeListener[0];
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final MediaChange[] ring;
+    private final int mask;
+    private final int maxBatch;
+    private final BackpressurePolicy policy;
+    private final AtomicLong published; // Sequence of the last change the dispatcher may read
+    private final AtomicLong dropped;
+    private final Thread dispatcher;
+
+    private long claimed; // Sequence of the last claimed slot; written by the tracker's writer only
+    private volatile long consumed; // Sequence of the last delivered change; written by the dispatcher only
+    private volatile boolean dispatcherParked;
+    private volatile boolean closed;
+    private volatile MediaChangeListener[] listeners; // Copy on write
+
+    /**
+     * Constructor for ChangeStream with {@link #DEFAULT_CAPACITY} slots that blocks the writer
+     * when full.
+     */
+    public ChangeStream() {
+        this(DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * Constructor for ChangeStream.
+     * @param capacity The number of changes buffered between writer and subscribers; rounded up
+     * to a power of two.
+     * @param policy What the writer does when the buffer is full.
+     * @throws IllegalArgumentException If the capacity is not positive or above 2^30.
+     */
+    public ChangeStream(int capacity, BackpressurePolicy policy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new MediaChange[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new MediaChange();
+        }
+        this.mask = size - 1;
+        this.maxBatch = Math.max(1, size / 4); // Hand back space to a blocked writer while delivering
+        this.policy = policy;
+        this.published = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.listeners = NO_LISTENERS;
+        this.dispatcher = new Thread(this::dispatch, "media-change-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Adds a listener. It receives the changes published from now on.
+     * @param listener The listener.
+     * @return Removes the listener when closed.
+     */
+    public synchronized Closeable subscribe(MediaChangeListener listener) {
+        MediaChangeListener[] current = listeners;
+        MediaChangeListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+        return () -> unsubscribe(listener);
+    }
+
+    private synchronized void unsubscribe(MediaChangeListener listener) {
+        MediaChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                MediaChangeListener[] updated = new MediaChangeListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    // --- Writer side, called under the tracker's write lock ---
+
+    /**
+     * Claims the next slot and starts a change in it. The change becomes visible to the
+     * dispatcher with the next {@link #publish()}.
+     * @return The slot to complete, or null if the change was dropped or the stream is closed.
+     */
+    MediaChange claim(ChangeType type, int position, MediaItem item) {
+        if (closed) {
+            return null;
+        }
+        long sequence = claimed + 1;
+        if (sequence - consumed > ring.length && !awaitSpace(sequence)) {
+            dropped.incrementAndGet();
+            return null;
+        }
+        claimed = sequence;
+        MediaChange change = ring[(int) sequence & mask];
+        change.set(type, sequence, position, item);
+        return change;
+    }
+
+    /**
+     * Waits until the slot for a sequence is free, if the policy allows.
+     * @return true once the slot is free, false if the change should be dropped.
+     */
+    private boolean awaitSpace(long sequence) {
+        if (policy == BackpressurePolicy.DROP) {
+            return false;
+        }
+        publish(); // The dispatcher can only free slots it can see
+        while (sequence - consumed > ring.length) {
+            if (closed) {
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Makes all claimed changes visible to the dispatcher and wakes it if it is idle.
+     */
+    void publish() {
+        if (published.get() != claimed) {
+            published.set(claimed);
+            if (dispatcherParked) {
+                LockSupport.unpark(dispatcher);
+            }
+        }
+    }
+
+    // --- Dispatcher ---
+
+    private void dispatch() {
+        long reportedDrops = 0;
+        long next = 1;
+        while (true) {
+            long available = published.get();
+            if (available >= next) {
+                long end = Math.min(available, next + maxBatch - 1);
+                MediaChangeListener[] current = listeners;
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    for (MediaChangeListener listener : current) {
+                        reportDropped(listener, drops - reportedDrops);
+                    }
+                    reportedDrops = drops;
+                }
+                for (long sequence = next; sequence <= end; sequence++) {
+                    MediaChange change = ring[(int) sequence & mask];
+                    for (MediaChangeListener listener : current) {
+                        deliver(listener, change, sequence == end);
+                    }
+                }
+                consumed = end;
+                next = end + 1;
+            } else if (closed) {
+                return;
+            } else {
+                dispatcherParked = true;
+                if (published.get() < next && !closed) { // Re-check: the writer may have missed the flag
+                    LockSupport.park(this);
+                }
+                dispatcherParked = false;
+            }
+        }
+    }
+
+    private static void deliver(MediaChangeListener listener, MediaChange change, boolean endOfBatch) {
+        try {
+            listener.onChange(change, endOfBatch);
+        } catch (RuntimeException e) {
+            System.err.println("Change listener failed on change " + change.getSequence() + ": " + e);
+        }
+    }
+
+    private static void reportDropped(MediaChangeListener listener, long count) {
+        try {
+            listener.onDropped(count);
+        } catch (RuntimeException e) {
+            System.err.println("Change listener failed on dropped changes: " + e);
+        }
+    }
+
+    /**
+     * Stops the dispatcher after it has delivered all published changes. Changes made after
+     * closing are discarded, so detach the stream from its tracker first.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        if (Thread.currentThread() == dispatcher) {
+            return;
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Getters ---
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of changes published so far.
+     * @return The count.
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of changes published but not yet delivered.
+     * @return The count.
+     */
+    public long getPendingCount() {
+        return published.get() - consumed;
+    }
+
+    /**
+     * Gets the number of changes dropped because the buffer was full.
+     * @return The count, always 0 with {@link BackpressurePolicy#BLOCK} unless the stream was
+     * closed while the writer waited.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,480 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.SymbolTable;
+import Movie_Tracker.models.TVShow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column storage for a MediaTracker: every field lives in its own primitive column and titles
+ * share one UTF-8 byte heap, so an item costs a few dozen bytes instead of several objects.
+ * A store opened on stored rows, e.g. a memory-mapped snapshot, reads them in place: those rows
+ * take no heap until they change, and then only their changed status, rating and episodes are
+ * kept, in sparse maps. {@link #get(int)} hands out short-lived Movie and TVShow views that read
+ * and write the columns directly; two calls for the same position return different but
+ * equivalent objects. Added items are copied into the columns, so later changes to the added
+ * object itself are not seen. Like every tracker mutation, writes through a view must happen
+ * under the tracker's write lock.
+ */
+class ColumnStore implements ItemStore, MediaColumns {
+    private static final int KIND_MOVIE = 0;
+    private static final int KIND_TV_SHOW = 1;
+
+    // Layout of the flags column: kind in bit 0, status ordinal in bits 1-4, rating in bits 5-8
+    private static final int STATUS_SHIFT = 1;
+    private static final int RATING_SHIFT = 5;
+    private static final int FIELD_MASK = 0xF;
+    private static final int NO_STATUS = FIELD_MASK; // Status field of an item added without a status
+    // Rough heap cost of one changed stored row in the sparse maps: entry, node and boxed values
+    private static final int BYTES_PER_CHANGED_ROW = 64;
+
+    private final MediaColumns base; // null if the store did not start from stored rows
+    private final int baseSize;
+    private final Map<Integer, Integer> changedFlags = new ConcurrentHashMap<>(); // Stored row -> flags, once changed
+    private final Map<Integer, Integer> changedEpisodes = new ConcurrentHashMap<>(); // Stored row -> episodes, once changed
+
+    private final IntColumn flags = new IntColumn();
+    private final IntColumn years = new IntColumn();
+    private final IntColumn seasons = new IntColumn();
+    private final IntColumn episodes = new IntColumn();
+    private final IntColumn genreSets = new IntColumn(); // Index into genreSetValues
+    private final IntColumn platforms = new IntColumn(); // Id in SymbolTable.PLATFORMS
+    private final IntColumn titleEnds = new IntColumn(); // End of the title in the heap; starts where the previous ends
+    // The columns above hold the added rows only, at their position minus baseSize
+    private final AppendOnlyArray<int[]> genreSetValues = new AppendOnlyArray<>(); // Distinct genre id sets
+    private final Map<String, Integer> genreSetIds = new HashMap<>(); // Only used by the writer
+    private final Map<Integer, EpisodeProgress> episodeProgress = new ConcurrentHashMap<>(); // Sparse: added or changed shows tracked by episode
+    private volatile byte[] titleHeap = new byte[1 << 12];
+    private int titleHeapSize; // Only used by the writer
+    private volatile int size;
+    private volatile ItemOwner owner; // Guards changes made through the views
+
+    ColumnStore() {
+        this(null);
+    }
+
+    /**
+     * Creates a store on top of stored rows, which are read in place rather than copied.
+     * @param base The stored rows, e.g. a memory-mapped snapshot, or null to start empty.
+     */
+    ColumnStore(MediaColumns base) {
+        this.base = base;
+        this.baseSize = base == null ? 0 : base.size();
+        this.size = baseSize;
+    }
+
+    @Override
+    public MediaItem get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Index: " + id + ", Size: " + size);
+        }
+        return (flags(id) & 1) == KIND_MOVIE ? new MovieView(id) : new TVShowView(id);
+    }
+
+    @Override
+    public void add(MediaItem item) {
+        int status;
+        if (item instanceof Movie) {
+            Movie movie = (Movie) item;
+            status = movie.getStatus() == null ? NO_STATUS : movie.getStatus().ordinal();
+            years.add(movie.getReleaseYear());
+            seasons.add(0);
+            episodes.add(0);
+        } else if (item instanceof TVShow) {
+            TVShow tvShow = (TVShow) item;
+            status = tvShow.getOverallStatus() == null ? NO_STATUS : tvShow.getOverallStatus().ordinal();
+            years.add(tvShow.getFirstReleaseYear());
+            seasons.add(tvShow.getNumberOfSeasons());
+            episodes.add(tvShow.getEpisodesWatched());
+            EpisodeProgress progress = tvShow.getEpisodeProgress();
+            if (progress != null) {
+                episodeProgress.put(size, progress); // Before the row is published
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported media item type: " + item.getClass().getName());
+        }
+        int kind = item instanceof Movie ? KIND_MOVIE : KIND_TV_SHOW;
+        flags.add(kind | status << STATUS_SHIFT | item.getRating() << RATING_SHIFT);
+        genreSets.add(genreSetId(item.getGenreIds()));
+        platforms.add(item.getPlatformId());
+        titleEnds.add(appendTitle(item.getTitle()));
+        size = size + 1; // Publishes the row
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOwner(ItemOwner owner) {
+        this.owner = owner; // Added items are copied, so only the views need it
+    }
+
+    /**
+     * Every row can be read from the columns without creating a view, so checkpoints copy
+     * them column by column.
+     * @return This store.
+     */
+    @Override
+    public MediaColumns storedRow(int id) {
+        return this;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        // Seven int columns plus the title heap for added rows; stored rows live off-heap until they change
+        return (size - baseSize) * (7L * Integer.BYTES) + titleHeap.length
+                + (long) (changedFlags.size() + changedEpisodes.size()) * BYTES_PER_CHANGED_ROW;
+    }
+
+    // --- Columns ---
+    @Override
+    public String title(int id) {
+        if (id < baseSize) {
+            return base.title(id);
+        }
+        int row = id - baseSize;
+        int start = row == 0 ? 0 : titleEnds.get(row - 1);
+        return new String(titleHeap, start, titleEnds.get(row) - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int[] genreIds(int id) {
+        return id < baseSize ? base.genreIds(id) : genreSetValues.get(genreSets.get(id - baseSize));
+    }
+
+    @Override
+    public int platformId(int id) {
+        return id < baseSize ? base.platformId(id) : platforms.get(id - baseSize);
+    }
+
+    @Override
+    public int releaseYear(int id) {
+        return id < baseSize ? base.releaseYear(id) : years.get(id - baseSize);
+    }
+
+    @Override
+    public int rating(int id) {
+        return flags(id) >>> RATING_SHIFT & FIELD_MASK;
+    }
+
+    @Override
+    public MovieStatus movieStatus(int id) {
+        int value = flags(id);
+        int status = value >>> STATUS_SHIFT & FIELD_MASK;
+        return (value & 1) == KIND_MOVIE && status != NO_STATUS ? MovieStatus.values()[status] : null;
+    }
+
+    @Override
+    public TVShowStatus tvShowStatus(int id) {
+        int value = flags(id);
+        int status = value >>> STATUS_SHIFT & FIELD_MASK;
+        return (value & 1) == KIND_TV_SHOW && status != NO_STATUS ? TVShowStatus.values()[status] : null;
+    }
+
+    @Override
+    public int seasons(int id) {
+        return id < baseSize ? base.seasons(id) : seasons.get(id - baseSize);
+    }
+
+    @Override
+    public int episodesWatched(int id) {
+        if (id >= baseSize) {
+            return episodes.get(id - baseSize);
+        }
+        Integer changed = changedEpisodes.get(id);
+        return changed != null ? changed : base.episodesWatched(id);
+    }
+
+    @Override
+    public EpisodeProgress episodeProgress(int id) {
+        EpisodeProgress progress = episodeProgress.get(id);
+        return progress == null && id < baseSize ? base.episodeProgress(id) : progress;
+    }
+
+    /**
+     * Creates a view of a row; it reads the columns rather than holding a copy of the values.
+     */
+    @Override
+    public MediaItem materialize(int id) {
+        return get(id);
+    }
+
+    /**
+     * Reads the packed kind, status and rating of a row.
+     */
+    private int flags(int id) {
+        if (id >= baseSize) {
+            return flags.get(id - baseSize);
+        }
+        Integer changed = changedFlags.get(id);
+        if (changed != null) {
+            return changed;
+        }
+        MovieStatus movieStatus = base.movieStatus(id);
+        int kind = movieStatus != null ? KIND_MOVIE : KIND_TV_SHOW;
+        int status = movieStatus != null ? movieStatus.ordinal() : base.tvShowStatus(id).ordinal();
+        return kind | status << STATUS_SHIFT | base.rating(id) << RATING_SHIFT;
+    }
+
+    private void setField(int id, int shift, int value) {
+        int current = flags(id);
+        int updated = current & ~(FIELD_MASK << shift) | value << shift;
+        if (id >= baseSize) {
+            flags.set(id - baseSize, updated);
+        } else {
+            changedFlags.put(id, updated);
+        }
+    }
+
+    private void setEpisodes(int id, int value) {
+        if (id >= baseSize) {
+            episodes.set(id - baseSize, value);
+        } else {
+            changedEpisodes.put(id, value);
+        }
+    }
+
+    /**
+     * Finds or assigns the id of a set of genres; libraries hold few distinct combinations.
+     */
+    private int genreSetId(int[] genreIds) {
+        String key = Arrays.toString(genreIds);
+        Integer id = genreSetIds.get(key);
+        if (id == null) {
+            id = genreSetValues.size();
+            genreSetValues.add(genreIds.clone());
+            genreSetIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Copies a title into the heap. A grown heap is a copy, so readers holding the old one
+     * still find every title that was published to them.
+     * @return The end position of the title in the heap.
+     */
+    private int appendTitle(String title) {
+        byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+        byte[] heap = titleHeap;
+        if (titleHeapSize + bytes.length > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(heap.length * 2, titleHeapSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, heap, titleHeapSize, bytes.length);
+        titleHeap = heap;
+        titleHeapSize += bytes.length;
+        return titleHeapSize;
+    }
+
+    /**
+     * Movie backed by one row of the columns.
+     */
+    private class MovieView extends Movie {
+        private final int id;
+
+        MovieView(int id) {
+            this.id = id;
+        }
+
+        @Override
+        protected Owner getOwner() {
+            return owner;
+        }
+
+        @Override
+        public String getTitle() {
+            return title(id);
+        }
+
+        @Override
+        public String getGenre() {
+            return SymbolTable.GENRES.join(genreIds(id));
+        }
+
+        @Override
+        public String getPlatform() {
+            return SymbolTable.PLATFORMS.name(platformId(id));
+        }
+
+        @Override
+        public int[] getGenreIds() {
+            return genreIds(id);
+        }
+
+        @Override
+        public int getPlatformId() {
+            return platformId(id);
+        }
+
+        @Override
+        public int getRating() {
+            return rating(id);
+        }
+
+        @Override
+        public void setRating(int rating) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            if (rating < 0 || rating > 5) {
+                super.setRating(rating); // Reports the invalid value without storing it
+                return;
+            }
+            setField(id, RATING_SHIFT, rating);
+        }
+
+        @Override
+        public int getReleaseYear() {
+            return releaseYear(id);
+        }
+
+        @Override
+        public MovieStatus getStatus() {
+            return movieStatus(id);
+        }
+
+        @Override
+        public void setStatus(Object status) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            if (!(status instanceof MovieStatus)) {
+                super.setStatus(status); // Reports the invalid value without storing it
+                return;
+            }
+            setField(id, STATUS_SHIFT, ((MovieStatus) status).ordinal());
+        }
+    }
+
+    /**
+     * TV show backed by one row of the columns.
+     */
+    private class TVShowView extends TVShow {
+        private final int id;
+
+        TVShowView(int id) {
+            this.id = id;
+        }
+
+        @Override
+        protected Owner getOwner() {
+            return owner;
+        }
+
+        @Override
+        public String getTitle() {
+            return title(id);
+        }
+
+        @Override
+        public String getGenre() {
+            return SymbolTable.GENRES.join(genreIds(id));
+        }
+
+        @Override
+        public String getPlatform() {
+            return SymbolTable.PLATFORMS.name(platformId(id));
+        }
+
+        @Override
+        public int[] getGenreIds() {
+            return genreIds(id);
+        }
+
+        @Override
+        public int getPlatformId() {
+            return platformId(id);
+        }
+
+        @Override
+        public int getRating() {
+            return rating(id);
+        }
+
+        @Override
+        public void setRating(int rating) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            if (rating < 0 || rating > 5) {
+                super.setRating(rating); // Reports the invalid value without storing it
+                return;
+            }
+            setField(id, RATING_SHIFT, rating);
+        }
+
+        @Override
+        public int getFirstReleaseYear() {
+            return releaseYear(id);
+        }
+
+        @Override
+        public TVShowStatus getOverallStatus() {
+            return tvShowStatus(id);
+        }
+
+        @Override
+        public int getNumberOfSeasons() {
+            return seasons(id);
+        }
+
+        @Override
+        public int getEpisodesWatched() {
+            return episodesWatched(id);
+        }
+
+        @Override
+        public void setStatus(Object status) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            if (!(status instanceof TVShowStatus)) {
+                super.setStatus(status); // Reports the invalid value without storing it
+                return;
+            }
+            setField(id, STATUS_SHIFT, ((TVShowStatus) status).ordinal());
+        }
+
+        @Override
+        public void setEpisodesWatched(int episodesWatched) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            if (episodesWatched < 0 || getEpisodeProgress() != null) {
+                super.setEpisodesWatched(episodesWatched); // Reports the invalid value without storing it
+                return;
+            }
+            setEpisodes(id, episodesWatched);
+        }
+
+        @Override
+        public EpisodeProgress getEpisodeProgress() {
+            return episodeProgress(id);
+        }
+
+        @Override
+        public void setEpisodeProgress(EpisodeProgress progress) {
+            if (!isChangeAllowed()) {
+                return;
+            }
+            EpisodeProgress current = getEpisodeProgress();
+            if (current == null || progress.getSeasonCount() != current.getSeasonCount()) {
+                super.setEpisodeProgress(progress); // Reports the invalid value without storing it
+                return;
+            }
+            episodeProgress.put(id, progress);
+            setEpisodes(id, progress.getWatchedCount());
+            setField(id, STATUS_SHIFT, statusOf(progress, getOverallStatus()).ordinal());
+        }
+    }
+}
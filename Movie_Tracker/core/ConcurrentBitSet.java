@@ -0,0 +1,77 @@
+package Movie_Tracker.core;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap that one writer updates while readers take copies of it without locking.
+ * Bits are stored in an AtomicLongArray, so every word a reader sees is one the writer wrote;
+ * growing the bitmap publishes a new, larger array.
+ */
+public class ConcurrentBitSet {
+    private volatile AtomicLongArray words = new AtomicLongArray(1);
+
+    /**
+     * Sets a bit. Must only be called by one thread at a time.
+     * @param index The bit to set.
+     */
+    public void set(int index) {
+        int word = index >>> 6;
+        AtomicLongArray current = words;
+        if (word >= current.length()) {
+            AtomicLongArray grown = new AtomicLongArray(Math.max(word + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            words = grown;
+            current = grown;
+        }
+        current.set(word, current.get(word) | (1L << index));
+    }
+
+    /**
+     * Clears a bit. Must only be called by one thread at a time.
+     * @param index The bit to clear.
+     */
+    public void clear(int index) {
+        int word = index >>> 6;
+        AtomicLongArray current = words;
+        if (word < current.length()) {
+            current.set(word, current.get(word) & ~(1L << index));
+        }
+    }
+
+    /**
+     * Finds the next set bit without copying the bitmap.
+     * @param fromIndex The first bit to check.
+     * @return The index of the next set bit at or after fromIndex, or -1 if there is none.
+     */
+    public int nextSetBit(int fromIndex) {
+        AtomicLongArray current = words;
+        int word = fromIndex >>> 6;
+        if (word >= current.length()) {
+            return -1;
+        }
+        long bits = current.get(word) & (-1L << fromIndex);
+        while (bits == 0) {
+            if (++word == current.length()) {
+                return -1;
+            }
+            bits = current.get(word);
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Copies the current bits into a BitSet owned by the caller.
+     * @return A new BitSet.
+     */
+    public BitSet toBitSet() {
+        AtomicLongArray current = words;
+        long[] copy = new long[current.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = current.get(i);
+        }
+        return BitSet.valueOf(copy);
+    }
+}
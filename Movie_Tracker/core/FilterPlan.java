@@ -0,0 +1,89 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A filter compiled once from a criteria map, so that executing it does not re-parse
+ * strings or compare enum names per item. All clauses are combined with AND.
+ * Supported criteria are "status", "genre" (substring of any one of an item's genres) and
+ * "platform" (exact match), all case-insensitive; unknown criteria are ignored.
+ */
+public class FilterPlan {
+    private Set<MovieStatus> movieStatuses; // null if there is no status clause
+    private Set<TVShowStatus> tvShowStatuses; // null if there is no status clause
+    private String genre; // Case-folded and trimmed, null if there is no genre clause
+    private String platform; // Case-folded, null if there is no platform clause
+
+    private FilterPlan() {
+    }
+
+    /**
+     * Compiles a criteria map into a FilterPlan.
+     * @param criteria A Map where keys are filter names (e.g., "status", "genre")
+     * and values are the filter values (e.g., "WATCHED", "Action").
+     * @return The compiled FilterPlan.
+     */
+    public static FilterPlan compile(Map<String, String> criteria) {
+        FilterPlan plan = new FilterPlan();
+        for (Map.Entry<String, String> entry : criteria.entrySet()) {
+            String filterName = entry.getKey().toLowerCase(Locale.ROOT);
+            String filterValue = entry.getValue();
+
+            switch (filterName) {
+                case "status":
+                    filterValue = filterValue.trim();
+                    plan.movieStatuses = EnumSet.noneOf(MovieStatus.class);
+                    plan.tvShowStatuses = EnumSet.noneOf(TVShowStatus.class);
+                    for (MovieStatus status : MovieStatus.values()) {
+                        if (status.name().equalsIgnoreCase(filterValue)) {
+                            plan.movieStatuses.add(status);
+                        }
+                    }
+                    for (TVShowStatus status : TVShowStatus.values()) {
+                        if (status.name().equalsIgnoreCase(filterValue)) {
+                            plan.tvShowStatuses.add(status);
+                        }
+                    }
+                    break;
+                case "genre":
+                    plan.genre = filterValue.trim().toLowerCase(Locale.ROOT);
+                    break;
+                case "platform":
+                    plan.platform = filterValue.toLowerCase(Locale.ROOT);
+                    break;
+            }
+        }
+        return plan;
+    }
+
+    // --- Getters ---
+    public Set<MovieStatus> getMovieStatuses() {
+        return movieStatuses;
+    }
+
+    public Set<TVShowStatus> getTVShowStatuses() {
+        return tvShowStatuses;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Checks whether the plan has a status clause.
+     * @return true if items are restricted by status.
+     */
+    public boolean hasStatusClause() {
+        return movieStatuses != null;
+    }
+}
@@ -0,0 +1,146 @@
+package Movie_Tracker.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Finds the keys of a sorted dictionary that are closest to a query in edit distance, counting
+ * insertions, deletions, substitutions and swaps of two adjacent characters (optimal string
+ * alignment distance). The dictionary is walked in order like a trie: keys that share a prefix
+ * share the rows of the distance table computed for it, and once every cell of a row exceeds
+ * the allowed distance, all keys with that prefix are skipped with a single ceiling lookup.
+ * Only the keys whose prefixes stay within the distance are visited, never the whole dictionary.
+ */
+final class FuzzyTitleMatcher {
+    private FuzzyTitleMatcher() {
+    }
+
+    /**
+     * Finds the closest keys.
+     * @param dictionary The sorted keys; may be modified concurrently if the map allows it.
+     * @param query The text to match, folded the same way as the keys.
+     * @param maxDistance The largest edit distance accepted.
+     * @param limit The maximum number of keys returned.
+     * @param accept Decides whether a key within the distance may be returned.
+     * @return The keys, closest first, ties in key order.
+     */
+    static List<String> closest(NavigableMap<String, ?> dictionary, String query, int maxDistance, int limit,
+                                Predicate<String> accept) {
+        int length = query.length();
+        // A prefix longer than the query plus the distance cannot match, so these rows suffice
+        int[][] rows = new int[length + maxDistance + 2][length + 1];
+        for (int j = 0; j <= length; j++) {
+            rows[0][j] = j;
+        }
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.reverseOrder()); // Worst first
+        int bound = maxDistance;
+        String previous = "";
+        int computed = 0; // rows[0..computed] belong to the prefixes of previous
+        String key = dictionary.ceilingKey("");
+        while (key != null) {
+            int depth = Math.min(computed, commonPrefixLength(previous, key));
+            int prunedAt = -1;
+            while (depth < key.length()) {
+                int rowMin = step(rows, depth, query, key);
+                depth++;
+                if (rowMin > bound) {
+                    prunedAt = depth;
+                    break;
+                }
+            }
+            previous = key;
+            computed = depth;
+            if (prunedAt >= 0) {
+                key = skipPrefix(dictionary, key, prunedAt);
+                continue;
+            }
+            int distance = rows[key.length()][length];
+            if (distance <= bound && accept.test(key)) {
+                best.add(new Candidate(key, distance));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (best.size() == limit) {
+                    bound = best.peek().distance - 1; // Later keys only win with a smaller distance
+                }
+            }
+            key = dictionary.higherKey(key);
+        }
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(null);
+        List<String> keys = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            keys.add(candidate.key);
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the row for the prefix of the key ending at position depth from the rows before it.
+     * @return The smallest distance in the new row; no extension of the prefix can do better.
+     */
+    private static int step(int[][] rows, int depth, String query, String key) {
+        int[] above = rows[depth];
+        int[] row = rows[depth + 1];
+        char c = key.charAt(depth);
+        row[0] = above[0] + 1;
+        int min = row[0];
+        for (int j = 1; j < row.length; j++) {
+            char q = query.charAt(j - 1);
+            int distance = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + (q == c ? 0 : 1));
+            if (depth > 0 && j > 1 && c == query.charAt(j - 2) && key.charAt(depth - 1) == q) {
+                distance = Math.min(distance, rows[depth - 1][j - 2] + 1); // Adjacent characters swapped
+            }
+            row[j] = distance;
+            min = Math.min(min, distance);
+        }
+        return min;
+    }
+
+    /**
+     * Finds the first key after the given one that does not start with its first prefixLength characters.
+     */
+    private static String skipPrefix(NavigableMap<String, ?> dictionary, String key, int prefixLength) {
+        char last = key.charAt(prefixLength - 1);
+        if (last != Character.MAX_VALUE) {
+            return dictionary.ceilingKey(key.substring(0, prefixLength - 1) + (char) (last + 1));
+        }
+        String prefix = key.substring(0, prefixLength);
+        String next = dictionary.higherKey(key);
+        while (next != null && next.startsWith(prefix)) {
+            next = dictionary.higherKey(next);
+        }
+        return next;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * A key within the distance, ordered by distance and then by key.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final String key;
+        private final int distance;
+
+        private Candidate(String key, int distance) {
+            this.key = key;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return distance != other.distance ? Integer.compare(distance, other.distance) : key.compareTo(other.key);
+        }
+    }
+}
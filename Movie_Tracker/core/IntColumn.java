@@ -0,0 +1,51 @@
+package Movie_Tracker.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Growable column of ints kept in large fixed-size chunks, so values are contiguous in memory
+ * and never move once written. One writer appends and updates values while readers access
+ * them without locking; updates are published with release/acquire semantics.
+ * Readers must only access positions that were published to them by other means.
+ */
+class IntColumn {
+    private static final VarHandle VALUE = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile int[][] chunks = new int[4][];
+    private int size; // Only used by the writer
+
+    /**
+     * Appends a value. Must only be called by one thread at a time.
+     * @param value The value to append.
+     */
+    void add(int value) {
+        int index = size;
+        int chunk = index >>> CHUNK_BITS;
+        int[][] directory = chunks;
+        if (chunk == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+            chunks = directory;
+        }
+        if (directory[chunk] == null) {
+            directory[chunk] = new int[CHUNK_SIZE];
+        }
+        VALUE.setRelease(directory[chunk], index & CHUNK_MASK, value);
+        size = index + 1;
+    }
+
+    int get(int index) {
+        return (int) VALUE.getAcquire(chunks[index >>> CHUNK_BITS], index & CHUNK_MASK);
+    }
+
+    /**
+     * Replaces a value. Must only be called by the writer.
+     */
+    void set(int index, int value) {
+        VALUE.setRelease(chunks[index >>> CHUNK_BITS], index & CHUNK_MASK, value);
+    }
+}
@@ -0,0 +1,48 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.models.MediaItem;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The owner of the items in a MediaTracker. Their setters only work on the writer's thread
+ * while the tracker applies an update, so every change is indexed, journaled and announced.
+ */
+final class ItemOwner extends MediaItem.Owner {
+    private final ReentrantLock writeLock;
+    private boolean applying; // Only used by the thread holding the write lock
+
+    ItemOwner(ReentrantLock writeLock) {
+        this.writeLock = writeLock;
+    }
+
+    /**
+     * Hands an item to the tracker.
+     * @param item The item.
+     */
+    void own(MediaItem item) {
+        takeOwnership(item);
+    }
+
+    /**
+     * Checks whether an item is held by a tracker already, this one or another.
+     * @param item The item.
+     * @return true if the item is tracked.
+     */
+    static boolean isTracked(MediaItem item) {
+        return isOwned(item);
+    }
+
+    /**
+     * Opens or closes the window in which the writer may change items. Called with the write lock held.
+     * @param applying true while an update is applied.
+     */
+    void setApplying(boolean applying) {
+        this.applying = applying;
+    }
+
+    @Override
+    protected boolean allowsChange() {
+        return writeLock.isHeldByCurrentThread() && applying;
+    }
+}
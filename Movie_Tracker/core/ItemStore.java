@@ -0,0 +1,76 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.models.MediaItem;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The items of a MediaTracker, addressed by position.
+ * One writer may append while readers call {@link #get(int)} without locking.
+ */
+interface ItemStore {
+    /**
+     * Gets the item at a position below the size observed by the caller.
+     */
+    MediaItem get(int id);
+
+    /**
+     * Appends an item. Must only be called by one thread at a time.
+     */
+    void add(MediaItem item);
+
+    int size();
+
+    /**
+     * Sets the tracker that owns the stored items, see {@link MediaItem.Owner}. Items
+     * stored afterwards, and items handed out by {@link #get(int)}, belong to it.
+     */
+    void setOwner(ItemOwner owner);
+
+    /**
+     * Gets columns that hold the current values of a row, so the row can be read without
+     * creating an item, e.g. to write a checkpoint of a library opened from a snapshot.
+     * @return The columns holding the row, or null if the row must be read through {@link #get(int)}.
+     */
+    default MediaColumns storedRow(int id) {
+        return null;
+    }
+
+    /**
+     * Estimates the heap used by the stored items, e.g. for a metrics gauge. Must be cheap:
+     * implementations keep running totals instead of walking the items.
+     */
+    long estimatedBytes();
+
+    /**
+     * Gets a read-only list view of the first {@code size} items. Creating it is O(1).
+     */
+    default List<MediaItem> view(int size) {
+        return new View(this, size);
+    }
+
+    class View extends AbstractList<MediaItem> implements RandomAccess {
+        private final ItemStore store;
+        private final int size;
+
+        View(ItemStore store, int size) {
+            this.store = store;
+            this.size = size;
+        }
+
+        @Override
+        public MediaItem get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return store.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.models.MediaItem;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Object storage for a MediaTracker: one MediaItem object per item. The first rows may come
+ * from a MediaColumns view and are only turned into objects when first read; materialized rows
+ * are cached so that mutations on them stick. Items added later are appended.
+ */
+class ItemTable implements ItemStore {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    // Measured heap cost of a Movie or TVShow with its Strings and arrays, and per title character
+    private static final int BYTES_PER_ITEM = 208;
+    private static final int BYTES_PER_TITLE_CHAR = 2;
+
+    private final MediaColumns base; // null if the table did not start from stored rows
+    private final int baseSize;
+    private volatile Object[] materialized; // Cache for base rows, allocated on first access
+    private final AppendOnlyArray<MediaItem> appended;
+    private final AtomicLong itemBytes; // Estimated size of the materialized and appended items
+    private volatile ItemOwner owner;
+
+    ItemTable() {
+        this(null);
+    }
+
+    ItemTable(MediaColumns base) {
+        this.base = base;
+        this.baseSize = base == null ? 0 : base.size();
+        this.appended = new AppendOnlyArray<>();
+        this.itemBytes = new AtomicLong();
+    }
+
+    @Override
+    public MediaItem get(int id) {
+        if (id >= baseSize) {
+            return appended.get(id - baseSize);
+        }
+        if (id < 0) {
+            throw new IndexOutOfBoundsException("Index: " + id);
+        }
+        Object[] slots = materialized;
+        if (slots == null) {
+            synchronized (this) {
+                if (materialized == null) {
+                    materialized = new Object[baseSize];
+                }
+                slots = materialized;
+            }
+        }
+        MediaItem item = (MediaItem) SLOT.getAcquire(slots, id);
+        if (item == null) {
+            MediaItem created = base.materialize(id);
+            owner.own(created);
+            // Readers racing on the same row all end up with the first object stored
+            Object witness = SLOT.compareAndExchange(slots, id, null, created);
+            if (witness == null) {
+                itemBytes.addAndGet(BYTES_PER_ITEM + BYTES_PER_TITLE_CHAR * created.getTitle().length());
+            }
+            item = witness == null ? created : (MediaItem) witness;
+        }
+        return item;
+    }
+
+    @Override
+    public MediaColumns storedRow(int id) {
+        if (id >= baseSize) {
+            return null;
+        }
+        Object[] slots = materialized;
+        // A row that was never materialized was never changed either
+        return slots == null || SLOT.getAcquire(slots, id) == null ? base : null;
+    }
+
+    @Override
+    public void add(MediaItem item) {
+        owner.own(item);
+        appended.add(item);
+        itemBytes.addAndGet(BYTES_PER_ITEM + BYTES_PER_TITLE_CHAR * item.getTitle().length());
+    }
+
+    @Override
+    public int size() {
+        return baseSize + appended.size();
+    }
+
+    @Override
+    public void setOwner(ItemOwner owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        // Stored base rows live off-heap until they are materialized
+        return itemBytes.get() + (materialized == null ? 0 : (long) baseSize * Integer.BYTES);
+    }
+}
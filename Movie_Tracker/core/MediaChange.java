@@ -0,0 +1,136 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.ChangeType;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+
+/**
+ * One change made through a MediaTracker, as delivered by a {@link ChangeStream}.
+ * Events are slots of a preallocated ring buffer that are reused once every subscriber has
+ * seen them, so a listener must copy what it needs during the callback and not keep the event.
+ * The old and new values describe the change itself; the item may already show later changes
+ * by the time the event is delivered.
+ */
+public class MediaChange {
+    private ChangeType type;
+    private long sequence;
+    private int position;
+    private MediaItem item;
+    private MovieStatus oldMovieStatus;
+    private MovieStatus newMovieStatus;
+    private TVShowStatus oldTVShowStatus;
+    private TVShowStatus newTVShowStatus;
+    private int oldValue; // Episodes watched or rating, depending on the type
+    private int newValue;
+
+    /**
+     * Constructor for MediaChange. Only ring buffers create events.
+     */
+    MediaChange() {
+    }
+
+    /**
+     * Overwrites the slot with a new event. Called by the writer only.
+     */
+    void set(ChangeType type, long sequence, int position, MediaItem item) {
+        this.type = type;
+        this.sequence = sequence;
+        this.position = position;
+        this.item = item;
+        this.oldMovieStatus = null;
+        this.newMovieStatus = null;
+        this.oldTVShowStatus = null;
+        this.newTVShowStatus = null;
+        this.oldValue = 0;
+        this.newValue = 0;
+    }
+
+    void setMovieStatuses(MovieStatus oldStatus, MovieStatus newStatus) {
+        this.oldMovieStatus = oldStatus;
+        this.newMovieStatus = newStatus;
+    }
+
+    void setTVShowStatuses(TVShowStatus oldStatus, TVShowStatus newStatus) {
+        this.oldTVShowStatus = oldStatus;
+        this.newTVShowStatus = newStatus;
+    }
+
+    void setValues(int oldValue, int newValue) {
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    // --- Getters ---
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of the event; events are numbered from 1 in the order the changes were made.
+     * @return The sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the position of the item in the tracker, which identifies it even if titles repeat.
+     * @return The position.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public MediaItem getItem() {
+        return item;
+    }
+
+    /**
+     * Gets the previous status of a movie for STATUS_CHANGED events.
+     * @return The status, or null if the item is a TV show or the event has another type.
+     */
+    public MovieStatus getOldMovieStatus() {
+        return oldMovieStatus;
+    }
+
+    /**
+     * Gets the new status of a movie for ADDED and STATUS_CHANGED events.
+     * @return The status, or null if the item is a TV show or the event has another type.
+     */
+    public MovieStatus getNewMovieStatus() {
+        return newMovieStatus;
+    }
+
+    /**
+     * Gets the previous overall status of a TV show for STATUS_CHANGED events.
+     * @return The status, or null if the item is a movie or the event has another type.
+     */
+    public TVShowStatus getOldTVShowStatus() {
+        return oldTVShowStatus;
+    }
+
+    /**
+     * Gets the new overall status of a TV show for ADDED and STATUS_CHANGED events.
+     * @return The status, or null if the item is a movie or the event has another type.
+     */
+    public TVShowStatus getNewTVShowStatus() {
+        return newTVShowStatus;
+    }
+
+    /**
+     * Gets the previous episodes watched (EPISODES_CHANGED) or rating (RATED).
+     * @return The old value, 0 for other types.
+     */
+    public int getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Gets the new episodes watched (EPISODES_CHANGED) or rating (RATED).
+     * @return The new value, 0 for other types.
+     */
+    public int getNewValue() {
+        return newValue;
+    }
+}
@@ -0,0 +1,26 @@
+package Movie_Tracker.core;
+
+/**
+ * Receives the changes made through a MediaTracker, see {@link ChangeStream#subscribe}.
+ * Callbacks run on the stream's dispatcher thread, one at a time and in the order the changes
+ * were made. A listener may query the tracker but must not change it: with
+ * {@link Movie_Tracker.enums.BackpressurePolicy#BLOCK} the writer may be waiting for this very
+ * thread while holding the tracker's write lock.
+ */
+public interface MediaChangeListener {
+    /**
+     * Called for every change.
+     * @param change The change; only valid during the call, see {@link MediaChange}.
+     * @param endOfBatch true for the last change of the batch being delivered, e.g. to flush
+     * work accumulated over the batch.
+     */
+    void onChange(MediaChange change, boolean endOfBatch);
+
+    /**
+     * Called before the next delivered change if changes were dropped because the buffer was
+     * full (only with {@link Movie_Tracker.enums.BackpressurePolicy#DROP}).
+     * @param count The number of changes dropped since the last call.
+     */
+    default void onDropped(long count) {
+    }
+}
@@ -0,0 +1,91 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+
+/**
+ * Read-only, column-oriented view of a stored library, e.g. a memory-mapped snapshot.
+ * A MediaTracker opened on top of it builds its indexes from these accessors and only
+ * creates MediaItem objects for the rows that are actually accessed.
+ */
+public interface MediaColumns {
+    /**
+     * Gets the number of stored items.
+     * @return The item count.
+     */
+    int size();
+
+    String title(int id);
+
+    /**
+     * Gets the genres of a stored item.
+     * @param id The position of the item.
+     * @return The ids in SymbolTable.GENRES; the array must not be modified.
+     */
+    int[] genreIds(int id);
+
+    /**
+     * Gets the platform of a stored item.
+     * @param id The position of the item.
+     * @return The id in SymbolTable.PLATFORMS.
+     */
+    int platformId(int id);
+
+    /**
+     * Gets the release year of a stored item (first release year for TV shows).
+     * @param id The position of the item.
+     * @return The year.
+     */
+    int releaseYear(int id);
+
+    /**
+     * Gets the rating of a stored item.
+     * @param id The position of the item.
+     * @return The rating, 0 if not rated.
+     */
+    int rating(int id);
+
+    /**
+     * Gets the status of a stored movie.
+     * @param id The position of the item.
+     * @return The MovieStatus, or null if the item is not a movie.
+     */
+    MovieStatus movieStatus(int id);
+
+    /**
+     * Gets the overall status of a stored TV show.
+     * @param id The position of the item.
+     * @return The TVShowStatus, or null if the item is not a TV show.
+     */
+    TVShowStatus tvShowStatus(int id);
+
+    /**
+     * Gets the number of seasons of a stored TV show.
+     * @param id The position of the item.
+     * @return The number of seasons, or 0 if the item is not a TV show.
+     */
+    int seasons(int id);
+
+    /**
+     * Gets the number of episodes watched of a stored TV show.
+     * @param id The position of the item.
+     * @return The episodes watched, or 0 if the item is not a TV show.
+     */
+    int episodesWatched(int id);
+
+    /**
+     * Gets the episode-by-episode progress of a stored TV show.
+     * @param id The position of the item.
+     * @return The progress, or null if the item is not a TV show tracked episode by episode.
+     */
+    EpisodeProgress episodeProgress(int id);
+
+    /**
+     * Creates a MediaItem object for a stored row.
+     * @param id The position of the item.
+     * @return A new MediaItem holding the stored values.
+     */
+    MediaItem materialize(int id);
+}
@@ -0,0 +1,84 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.SortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a sorted listing, used to continue with the next page. A cursor remembers the
+ * sort key of the last item returned rather than an offset, so items added or changed in the
+ * meantime do not shift the following pages. Obtained from {@link MediaPage#getNextCursor()}.
+ */
+public class MediaCursor {
+    private final SortKey sortKey;
+    private final String title; // Case-folded title of the last item, for TITLE order
+    private final int value; // Year or rating of the last item, for YEAR and RATING order
+    private final int id; // Position of the last item, breaks ties
+
+    MediaCursor(SortKey sortKey, String title, int value, int id) {
+        this.sortKey = sortKey;
+        this.title = title;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token, e.g. to hand it to a remote client.
+     * @return The token, see {@link #fromToken(String)}.
+     */
+    public String toToken() {
+        String text = sortKey + ":" + value + ":" + id + ":" + (title == null ? "" : title);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #toToken()}.
+     * @param token The token.
+     * @return The cursor.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static MediaCursor fromToken(String token) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        String[] parts = text.split(":", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        SortKey sortKey;
+        int value;
+        int id;
+        try {
+            sortKey = SortKey.valueOf(parts[0]);
+            value = Integer.parseInt(parts[1]);
+            id = Integer.parseInt(parts[2]);
+        } catch (IllegalArgumentException e) { // Unknown sort key or malformed number
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        if (id < -1) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        return new MediaCursor(sortKey, sortKey == SortKey.TITLE ? parts[3] : null, value, id);
+    }
+
+    // --- Getters ---
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    int getValue() {
+        return value;
+    }
+
+    int getId() {
+        return id;
+    }
+}
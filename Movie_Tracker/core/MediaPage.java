@@ -0,0 +1,39 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.models.MediaItem;
+
+import java.util.List;
+
+/**
+ * One page of a sorted listing, see {@link MediaTracker#listMediaItems(Movie_Tracker.enums.SortKey, MediaCursor, int)}.
+ */
+public class MediaPage {
+    private final List<MediaItem> items;
+    private final MediaCursor nextCursor;
+
+    MediaPage(List<MediaItem> items, MediaCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // --- Getters ---
+    public List<MediaItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor for the page after this one.
+     * @return The cursor, or null if this is the last page.
+     */
+    public MediaCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more items follow this page.
+     * @return true if there is a next page.
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,383 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.io.Closeable;
+import java.lang.ref.Cleaner;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A consistent, read-only view of a MediaTracker at one point in time, see
+ * {@link MediaTracker#snapshot()}. Taking a snapshot is O(1) and copies nothing: it records
+ * the number of items and the current version, and the tracker keeps the earlier state of
+ * every item changed afterwards until the snapshot is closed. Writers are never blocked by an
+ * open snapshot.
+ * <p>
+ * Items are returned as frozen copies with the status, progress and rating they had when the
+ * snapshot was taken; they cannot be changed. The snapshot can also be read field by field as
+ * {@link MediaColumns}, which reads rows still held in stored columns, e.g. the memory-mapped
+ * snapshot a library was opened from, without creating an item for them. Close the snapshot when done so that the old
+ * states can be dropped; a snapshot that is never closed releases them once it is garbage
+ * collected.
+ */
+public class MediaSnapshot extends AbstractList<MediaItem> implements MediaColumns, RandomAccess, Closeable {
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final MediaItem.Owner FROZEN = new MediaItem.Owner() {
+        @Override
+        protected boolean allowsChange() {
+            return false;
+        }
+    };
+
+    private final ItemStore store;
+    private final VersionHistory history;
+    private final int size;
+    private final long version;
+    private final long logPosition;
+    private final Cleaner.Cleanable release;
+    private final Runnable reclaim;
+
+    /**
+     * Constructor for MediaSnapshot. Called by the tracker with its write lock held.
+     * @param store The items of the tracker.
+     * @param history The old versions of the tracker's items.
+     * @param size The number of items visible to queries.
+     * @param logPosition The position of the tracker's MutationLog, see {@link MutationLog#position()}.
+     * @param reclaim Drops the old versions no longer needed after closing, if it can do so without waiting.
+     */
+    MediaSnapshot(ItemStore store, VersionHistory history, int size, long logPosition, Runnable reclaim) {
+        this.store = store;
+        this.history = history;
+        this.size = size;
+        this.logPosition = logPosition;
+        long pinned = history.pin();
+        this.version = pinned;
+        this.release = CLEANER.register(this, () -> history.unpin(pinned)); // Must not capture this
+        this.reclaim = reclaim;
+    }
+
+    /**
+     * Gets an item as it was when the snapshot was taken.
+     * @param index The position of the item.
+     * @return A frozen copy of the item.
+     * @throws IndexOutOfBoundsException If the position is outside the snapshot.
+     */
+    @Override
+    public MediaItem get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        MediaItem current = store.get(index);
+        // Read the live state first: an old version is always recorded before the item changes,
+        // so if this state is newer than the snapshot, the lookup below finds the older one
+        int rating = current.getRating();
+        if (current instanceof Movie) {
+            Movie movie = (Movie) current;
+            MovieStatus status = movie.getStatus();
+            VersionHistory.ItemVersion old = history.stateAt(index, version);
+            return old == null ? new FrozenMovie(movie, status, rating) : new FrozenMovie(movie, old.movieStatus, old.rating);
+        }
+        TVShow tvShow = (TVShow) current;
+        TVShowStatus status = tvShow.getOverallStatus();
+        int episodesWatched = tvShow.getEpisodesWatched();
+        EpisodeProgress progress = tvShow.getEpisodeProgress();
+        VersionHistory.ItemVersion old = history.stateAt(index, version);
+        return old == null ? new FrozenTVShow(tvShow, status, episodesWatched, progress, rating)
+                : new FrozenTVShow(tvShow, old.tvShowStatus, old.episodesWatched, old.episodeProgress, old.rating);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the version of the tracker the snapshot shows, i.e. the number of changes applied before it.
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the position the tracker's MutationLog had when the snapshot was taken, e.g. the
+     * journal LSN a checkpoint written from the snapshot covers.
+     * @return The position, or 0 if the tracker had no log.
+     */
+    public long getLogPosition() {
+        return logPosition;
+    }
+
+    // --- Columns ---
+    // Immutable fields come from wherever the row lives. Changing fields read the live state
+    // first and then look for an older version, like get(int).
+
+    @Override
+    public String title(int id) {
+        MediaColumns row = storedRow(id);
+        return row != null ? row.title(id) : store.get(id).getTitle();
+    }
+
+    @Override
+    public int[] genreIds(int id) {
+        MediaColumns row = storedRow(id);
+        return row != null ? row.genreIds(id) : store.get(id).getGenreIds();
+    }
+
+    @Override
+    public int platformId(int id) {
+        MediaColumns row = storedRow(id);
+        return row != null ? row.platformId(id) : store.get(id).getPlatformId();
+    }
+
+    @Override
+    public int releaseYear(int id) {
+        MediaColumns row = storedRow(id);
+        if (row != null) {
+            return row.releaseYear(id);
+        }
+        MediaItem item = store.get(id);
+        return item instanceof Movie ? ((Movie) item).getReleaseYear() : ((TVShow) item).getFirstReleaseYear();
+    }
+
+    @Override
+    public int seasons(int id) {
+        MediaColumns row = storedRow(id);
+        if (row != null) {
+            return row.seasons(id);
+        }
+        MediaItem item = store.get(id);
+        return item instanceof TVShow ? ((TVShow) item).getNumberOfSeasons() : 0;
+    }
+
+    @Override
+    public int rating(int id) {
+        MediaColumns row = storedRow(id);
+        int rating = row != null ? row.rating(id) : store.get(id).getRating();
+        VersionHistory.ItemVersion old = history.stateAt(id, version);
+        return old == null ? rating : old.rating;
+    }
+
+    @Override
+    public MovieStatus movieStatus(int id) {
+        MediaColumns row = storedRow(id);
+        MovieStatus status;
+        if (row != null) {
+            status = row.movieStatus(id);
+        } else {
+            MediaItem item = store.get(id);
+            status = item instanceof Movie ? ((Movie) item).getStatus() : null;
+        }
+        VersionHistory.ItemVersion old = history.stateAt(id, version);
+        return old == null ? status : old.movieStatus;
+    }
+
+    @Override
+    public TVShowStatus tvShowStatus(int id) {
+        MediaColumns row = storedRow(id);
+        TVShowStatus status;
+        if (row != null) {
+            status = row.tvShowStatus(id);
+        } else {
+            MediaItem item = store.get(id);
+            status = item instanceof TVShow ? ((TVShow) item).getOverallStatus() : null;
+        }
+        VersionHistory.ItemVersion old = history.stateAt(id, version);
+        return old == null ? status : old.tvShowStatus;
+    }
+
+    @Override
+    public int episodesWatched(int id) {
+        MediaColumns row = storedRow(id);
+        int episodesWatched;
+        if (row != null) {
+            episodesWatched = row.episodesWatched(id);
+        } else {
+            MediaItem item = store.get(id);
+            episodesWatched = item instanceof TVShow ? ((TVShow) item).getEpisodesWatched() : 0;
+        }
+        VersionHistory.ItemVersion old = history.stateAt(id, version);
+        return old == null ? episodesWatched : old.episodesWatched;
+    }
+
+    @Override
+    public EpisodeProgress episodeProgress(int id) {
+        MediaColumns row = storedRow(id);
+        EpisodeProgress progress;
+        if (row != null) {
+            progress = row.episodeProgress(id);
+        } else {
+            MediaItem item = store.get(id);
+            progress = item instanceof TVShow ? ((TVShow) item).getEpisodeProgress() : null;
+        }
+        VersionHistory.ItemVersion old = history.stateAt(id, version);
+        return old == null ? progress : old.episodeProgress;
+    }
+
+    @Override
+    public MediaItem materialize(int id) {
+        return get(id);
+    }
+
+    private MediaColumns storedRow(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Index: " + id + ", Size: " + size);
+        }
+        return store.storedRow(id);
+    }
+
+    /**
+     * Releases the snapshot. Reading it afterwards may show later changes. Idempotent.
+     */
+    @Override
+    public void close() {
+        release.clean();
+        reclaim.run();
+    }
+
+    /**
+     * Movie frozen in the state it had when the snapshot was taken.
+     */
+    private static final class FrozenMovie extends Movie {
+        private final Movie source; // Title, genres, platform and year never change
+        private final MovieStatus status;
+        private final int rating;
+
+        FrozenMovie(Movie source, MovieStatus status, int rating) {
+            this.source = source;
+            this.status = status;
+            this.rating = rating;
+        }
+
+        @Override
+        protected Owner getOwner() {
+            return FROZEN;
+        }
+
+        @Override
+        public String getTitle() {
+            return source.getTitle();
+        }
+
+        @Override
+        public String getGenre() {
+            return source.getGenre();
+        }
+
+        @Override
+        public String getPlatform() {
+            return source.getPlatform();
+        }
+
+        @Override
+        public int[] getGenreIds() {
+            return source.getGenreIds();
+        }
+
+        @Override
+        public int getPlatformId() {
+            return source.getPlatformId();
+        }
+
+        @Override
+        public int getRating() {
+            return rating;
+        }
+
+        @Override
+        public int getReleaseYear() {
+            return source.getReleaseYear();
+        }
+
+        @Override
+        public MovieStatus getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * TV show frozen in the state it had when the snapshot was taken.
+     */
+    private static final class FrozenTVShow extends TVShow {
+        private final TVShow source; // Title, genres, platform, year and seasons never change
+        private final TVShowStatus overallStatus;
+        private final int episodesWatched;
+        private final EpisodeProgress episodeProgress;
+        private final int rating;
+
+        FrozenTVShow(TVShow source, TVShowStatus overallStatus, int episodesWatched, EpisodeProgress episodeProgress,
+                     int rating) {
+            this.source = source;
+            this.overallStatus = overallStatus;
+            this.episodesWatched = episodesWatched;
+            this.episodeProgress = episodeProgress;
+            this.rating = rating;
+        }
+
+        @Override
+        protected Owner getOwner() {
+            return FROZEN;
+        }
+
+        @Override
+        public String getTitle() {
+            return source.getTitle();
+        }
+
+        @Override
+        public String getGenre() {
+            return source.getGenre();
+        }
+
+        @Override
+        public String getPlatform() {
+            return source.getPlatform();
+        }
+
+        @Override
+        public int[] getGenreIds() {
+            return source.getGenreIds();
+        }
+
+        @Override
+        public int getPlatformId() {
+            return source.getPlatformId();
+        }
+
+        @Override
+        public int getRating() {
+            return rating;
+        }
+
+        @Override
+        public int getFirstReleaseYear() {
+            return source.getFirstReleaseYear();
+        }
+
+        @Override
+        public TVShowStatus getOverallStatus() {
+            return overallStatus;
+        }
+
+        @Override
+        public int getNumberOfSeasons() {
+            return source.getNumberOfSeasons();
+        }
+
+        @Override
+        public int getEpisodesWatched() {
+            return episodesWatched;
+        }
+
+        @Override
+        public EpisodeProgress getEpisodeProgress() {
+            return episodeProgress;
+        }
+    }
+}
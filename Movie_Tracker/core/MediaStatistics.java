@@ -0,0 +1,256 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.SymbolTable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live dashboard numbers for a MediaTracker: counts by status, genre, platform, rating and
+ * release year, the average rating and the total number of episodes watched.
+ * The tracker updates the counters in O(1) on every add, status change and rating change, so
+ * reading a value never scans the library. Obtained from {@link MediaTracker#getStatistics()}.
+ * <p>
+ * Updates come from the tracker's single writer; reads take no lock. Each value is exact when
+ * read, but values read one after another may straddle a concurrent mutation.
+ */
+public class MediaStatistics {
+    private static final int MAX_RATING = 5;
+
+    private final AtomicLongArray movieStatusCounts;
+    private final AtomicLongArray tvShowStatusCounts;
+    private final AtomicLongArray ratingCounts; // Index 0 counts unrated items
+    private final Map<Integer, AtomicLong> releaseYearCounts;
+    private volatile AtomicLongArray genreCounts; // Indexed by id in SymbolTable.GENRES, grown by copying
+    private volatile AtomicLongArray platformCounts; // Indexed by id in SymbolTable.PLATFORMS, grown by copying
+    private volatile long ratingSum;
+    private volatile long episodesWatched;
+
+    /**
+     * Constructor for MediaStatistics. All counters start at zero.
+     */
+    MediaStatistics() {
+        this.movieStatusCounts = new AtomicLongArray(MovieStatus.values().length);
+        this.tvShowStatusCounts = new AtomicLongArray(TVShowStatus.values().length);
+        this.ratingCounts = new AtomicLongArray(MAX_RATING + 1);
+        this.releaseYearCounts = new ConcurrentHashMap<>();
+        this.genreCounts = new AtomicLongArray(16);
+        this.platformCounts = new AtomicLongArray(16);
+    }
+
+    // --- Updates, called by the tracker with its write lock held ---
+
+    /**
+     * Counts a newly added item.
+     * @param genreIds The ids of the item's genres in SymbolTable.GENRES.
+     * @param platformId The id of the item's platform in SymbolTable.PLATFORMS.
+     * @param releaseYear The release year (first release year for TV shows).
+     * @param rating The rating, 0 if not rated.
+     * @param movieStatus The status if the item is a movie, otherwise null.
+     * @param tvShowStatus The overall status if the item is a TV show, otherwise null.
+     * @param episodes The number of episodes watched, 0 for movies.
+     */
+    void itemAdded(int[] genreIds, int platformId, int releaseYear, int rating, MovieStatus movieStatus,
+                   TVShowStatus tvShowStatus, int episodes) {
+        for (int genreId : genreIds) {
+            genreCounts = increment(genreCounts, genreId);
+        }
+        platformCounts = increment(platformCounts, platformId);
+        releaseYearCounts.computeIfAbsent(releaseYear, year -> new AtomicLong()).incrementAndGet();
+        ratingCounts.incrementAndGet(rating);
+        ratingSum += rating;
+        if (movieStatus != null) {
+            movieStatusCounts.incrementAndGet(movieStatus.ordinal());
+        } else if (tvShowStatus != null) {
+            tvShowStatusCounts.incrementAndGet(tvShowStatus.ordinal());
+        }
+        episodesWatched += episodes;
+    }
+
+    /**
+     * Moves a movie from one status count to another.
+     * @param oldStatus The previous status.
+     * @param newStatus The current status.
+     */
+    void movieStatusChanged(MovieStatus oldStatus, MovieStatus newStatus) {
+        if (oldStatus != newStatus) {
+            movieStatusCounts.decrementAndGet(oldStatus.ordinal());
+            movieStatusCounts.incrementAndGet(newStatus.ordinal());
+        }
+    }
+
+    /**
+     * Moves a TV show from one status count to another and adjusts the episodes watched.
+     * @param oldStatus The previous overall status.
+     * @param newStatus The current overall status.
+     * @param oldEpisodes The previous number of episodes watched.
+     * @param newEpisodes The current number of episodes watched.
+     */
+    void tvShowProgressChanged(TVShowStatus oldStatus, TVShowStatus newStatus, int oldEpisodes, int newEpisodes) {
+        if (oldStatus != newStatus) {
+            tvShowStatusCounts.decrementAndGet(oldStatus.ordinal());
+            tvShowStatusCounts.incrementAndGet(newStatus.ordinal());
+        }
+        episodesWatched += newEpisodes - oldEpisodes;
+    }
+
+    /**
+     * Moves an item from one rating count to another.
+     * @param oldRating The previous rating, 0 if not rated.
+     * @param newRating The current rating, 0 if not rated.
+     */
+    void ratingChanged(int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            ratingCounts.decrementAndGet(oldRating);
+            ratingCounts.incrementAndGet(newRating);
+            ratingSum += newRating - oldRating;
+        }
+    }
+
+    /**
+     * Increments one slot, first growing the array if the slot is past its end.
+     * @return The array to publish, which is the given one unless it had to grow.
+     */
+    private static AtomicLongArray increment(AtomicLongArray counts, int slot) {
+        if (slot >= counts.length()) {
+            AtomicLongArray grown = new AtomicLongArray(Math.max(slot + 1, counts.length() * 2));
+            for (int i = 0; i < counts.length(); i++) {
+                grown.set(i, counts.get(i));
+            }
+            counts = grown;
+        }
+        counts.incrementAndGet(slot);
+        return counts;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Gets the total number of items.
+     * @return The item count.
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (int rating = 0; rating <= MAX_RATING; rating++) {
+            total += ratingCounts.get(rating); // Every item has exactly one rating, 0 included
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of movies with a given status.
+     * @param status The MovieStatus.
+     * @return The count.
+     */
+    public long getMovieCount(MovieStatus status) {
+        return movieStatusCounts.get(status.ordinal());
+    }
+
+    /**
+     * Gets the number of TV shows with a given overall status.
+     * @param status The TVShowStatus.
+     * @return The count.
+     */
+    public long getTVShowCount(TVShowStatus status) {
+        return tvShowStatusCounts.get(status.ordinal());
+    }
+
+    /**
+     * Gets the number of items listing a genre.
+     * An item with several genres counts once for each of them.
+     * @param genre The genre name (case-insensitive).
+     * @return The count, 0 for an unknown genre.
+     */
+    public long getGenreCount(String genre) {
+        return count(genreCounts, SymbolTable.GENRES.find(genre));
+    }
+
+    /**
+     * Gets the number of items available on a platform.
+     * @param platform The platform name (case-insensitive).
+     * @return The count, 0 for an unknown platform.
+     */
+    public long getPlatformCount(String platform) {
+        return count(platformCounts, SymbolTable.PLATFORMS.find(platform));
+    }
+
+    /**
+     * Gets the item count of every genre that has items.
+     * @return Genre name to count, in the order the genres were first seen.
+     */
+    public Map<String, Long> getGenreCounts() {
+        return nonZeroCounts(genreCounts, SymbolTable.GENRES);
+    }
+
+    /**
+     * Gets the item count of every platform that has items.
+     * @return Platform name to count, in the order the platforms were first seen.
+     */
+    public Map<String, Long> getPlatformCounts() {
+        return nonZeroCounts(platformCounts, SymbolTable.PLATFORMS);
+    }
+
+    /**
+     * Gets the number of items per release year (first release year for TV shows).
+     * @return Year to count, in ascending year order.
+     */
+    public SortedMap<Integer, Long> getReleaseYearCounts() {
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        for (Map.Entry<Integer, AtomicLong> entry : releaseYearCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the number of items with a given rating.
+     * @param rating The rating, 0 for unrated items.
+     * @return The count.
+     * @throws IllegalArgumentException If the rating is outside 0-5.
+     */
+    public long getRatingCount(int rating) {
+        if (rating < 0 || rating > MAX_RATING) {
+            throw new IllegalArgumentException("Rating must be between 0 and " + MAX_RATING + ": " + rating);
+        }
+        return ratingCounts.get(rating);
+    }
+
+    /**
+     * Gets the average rating of the rated items.
+     * @return The average, or 0 if no item is rated.
+     */
+    public double getAverageRating() {
+        long rated = getTotalCount() - ratingCounts.get(0);
+        return rated == 0 ? 0 : (double) ratingSum / rated;
+    }
+
+    /**
+     * Gets the number of episodes watched across all TV shows.
+     * @return The total.
+     */
+    public long getTotalEpisodesWatched() {
+        return episodesWatched;
+    }
+
+    private static long count(AtomicLongArray counts, int slot) {
+        return slot >= 0 && slot < counts.length() ? counts.get(slot) : 0;
+    }
+
+    private static Map<String, Long> nonZeroCounts(AtomicLongArray counts, SymbolTable symbols) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int id = 0; id < counts.length(); id++) {
+            long count = counts.get(id);
+            if (count > 0) {
+                result.put(symbols.name(id), count);
+            }
+        }
+        return result;
+    }
+}
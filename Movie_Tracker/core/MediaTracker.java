@@ -1,58 +1,707 @@
 package Movie_Tracker.core;
 
+import Movie_Tracker.enums.ChangeType;
+import Movie_Tracker.enums.MergePolicy;
 import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.QueryExecution;
+import Movie_Tracker.enums.RangeKey;
+import Movie_Tracker.enums.SortKey;
+import Movie_Tracker.enums.StorageEngine;
 import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.TrackerOperation;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.enums.UpdateType;
+import Movie_Tracker.metrics.TrackerMetrics;
+import Movie_Tracker.models.EpisodeProgress;
 import Movie_Tracker.models.MediaItem;
 import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.SymbolTable;
 import Movie_Tracker.models.TVShow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages the collection of MediaItems (Movies and TV Shows) and provides
  * core functionalities for adding, viewing, updating, rating, and searching/filtering.
+ * <p>
+ * A tracker can be shared between threads. Mutations are serialized by a single write lock,
+ * which also keeps the MutationLog in the order the mutations were applied. Lookups, searches,
+ * filters and listings never take that lock: every index is safe to read while one writer
+ * modifies it, and an added item only becomes visible once all of its index entries exist.
+ * <p>
+ * Tracked items can only be changed through the tracker, so that the indexes, the statistics
+ * and the MutationLog always agree with them; a {@link ChangeStream} delivers every change to
+ * subscribers on a separate thread.
  */
 public class MediaTracker {
-    private List<MediaItem> mediaItems;
+    public static final int MERGE_BATCH_SIZE = 1 << 12; // Items merged per lock when merging another tracker
+
+    // Heap cost of the indexes per item and per title character, measured at 1M items
+    private static final int INDEX_BYTES_PER_ITEM = 85;
+    private static final int INDEX_BYTES_PER_TITLE_CHAR = 4;
+    private static final int MATERIALIZE_COST = 8; // Work per materialized item, in character comparisons
+    private static final int INDEX_BATCH_ROWS = 1 << 12; // Rows buffered for the trigram and range indexes
+
+    private final ItemStore mediaItems;
+    private final Map<String, int[]> titleIndex; // Case-folded title -> TitleBucket of the items with that title
+    private final ConcurrentSkipListMap<String, int[]> titleOrder; // Same entries as titleIndex, sorted by title
+    private final AppendOnlyArray<String> foldedTitles; // Case-folded title per item position, used to verify search candidates
+    private final TrigramIndex titleGrams;
+    private final AttributeIndex attributes;
+    private final RangeIndex releaseYears;
+    private final RangeIndex ratings;
+    private final RangeIndex seasons; // TV shows only
+    private final MediaStatistics statistics;
+    private final QueryCache queryCache;
+    private final VersionHistory versions;
+    private final TrackerMetrics metrics;
+    private final ReentrantLock writeLock;
+    private final ItemOwner itemOwner;
+    private volatile int indexedCount; // Items below this position are fully indexed and visible to queries
+    private volatile MediaColumns unindexedBase; // Stored rows whose indexes are built on first use, null once indexed
+    private volatile MutationLog mutationLog; // Optional, null if mutations are not recorded
+    private ChangeStream changeStream; // Optional, null if changes are not published; guarded by writeLock
+    private volatile long indexedTitleChars; // Only written by the writer
+    private volatile QueryExecution queryExecution = QueryExecution.ADAPTIVE;
 
     /**
      * Constructor for MediaTracker. Initializes the list of media items.
      */
     public MediaTracker() {
-        this.mediaItems = new ArrayList<>();
+        this(StorageEngine.OBJECTS);
+    }
+
+    /**
+     * Constructor for MediaTracker with a choice of storage.
+     * With {@link StorageEngine#COLUMNS} items are kept in primitive columns and handed out as
+     * lightweight views, which cuts the memory per item; the views are created on every access,
+     * so the same item is not always the same object.
+     * @param engine How items are stored.
+     */
+    public MediaTracker(StorageEngine engine) {
+        this(engine == StorageEngine.COLUMNS ? new ColumnStore() : new ItemTable(), null);
+    }
+
+    /**
+     * Constructor for MediaTracker on top of a stored, column-oriented library.
+     * Opening is cheap: MediaItem objects are only created for rows that are accessed, and the
+     * indexes are built from the columns on the first lookup, search, filter or update.
+     * @param base The stored rows, e.g. a memory-mapped snapshot.
+     */
+    public MediaTracker(MediaColumns base) {
+        this(base, StorageEngine.OBJECTS);
+    }
+
+    /**
+     * Constructor for MediaTracker on top of a stored, column-oriented library with a choice
+     * of storage. With {@link StorageEngine#COLUMNS} the stored rows are read in place and only
+     * the fields of rows that change are kept on the heap; the indexes are still built on first use.
+     * @param base The stored rows, e.g. a memory-mapped snapshot.
+     * @param engine How items are stored.
+     */
+    public MediaTracker(MediaColumns base, StorageEngine engine) {
+        this(engine == StorageEngine.COLUMNS ? new ColumnStore(base) : new ItemTable(base), base);
+    }
+
+    private MediaTracker(ItemStore mediaItems, MediaColumns unindexedBase) {
+        this.mediaItems = mediaItems;
+        this.titleIndex = new ConcurrentHashMap<>();
+        this.titleOrder = new ConcurrentSkipListMap<>();
+        this.foldedTitles = new AppendOnlyArray<>();
+        this.titleGrams = new TrigramIndex();
+        this.attributes = new AttributeIndex();
+        this.releaseYears = new RangeIndex();
+        this.ratings = new RangeIndex();
+        this.seasons = new RangeIndex();
+        this.statistics = new MediaStatistics();
+        this.queryCache = new QueryCache(QueryCache.DEFAULT_MAX_WEIGHT);
+        this.versions = new VersionHistory();
+        this.metrics = new TrackerMetrics(mediaItems::size, this::estimatedHeapBytes);
+        this.writeLock = new ReentrantLock();
+        this.unindexedBase = unindexedBase;
+        this.itemOwner = new ItemOwner(writeLock);
+        mediaItems.setOwner(itemOwner); // Item setters only work while an update is applied
     }
 
     /**
      * Adds a MediaItem (Movie or TVShow) to the tracker.
+     * Duplicate titles are allowed; see {@link #findMediaItemByTitle(String)} for how they are resolved,
+     * and {@link #mergeMediaItems(List, MergePolicy)} for adding items without creating duplicates.
+     * The tracker takes the item over, so it must not be tracked already, by this or another tracker.
      * @param item The MediaItem to add.
+     * @throws IllegalArgumentException If the item is tracked already.
      */
     public void addMediaItem(MediaItem item) {
-        this.mediaItems.add(item);
+        checkUntracked(List.of(item));
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            ensureIndexed();
+            if (mutationLog != null) {
+                mutationLog.itemAdded(item); // Logged ahead: if this throws, the item is not added
+            }
+            int id = mediaItems.size(); // Items are identified by their position in the list
+            mediaItems.add(item);
+            IndexBatch batch = new IndexBatch(1);
+            String foldedTitle = batch.add(id, item);
+            batch.flush();
+            queryCache.changeStarted();
+            try {
+                indexedCount = id + 1; // Publish the item to queries
+                evictCachedResults(foldedTitle, item);
+            } finally {
+                queryCache.changeFinished();
+            }
+            announceAdded(id, id + 1);
+        } finally {
+            writeLock.unlock();
+        }
+        syncMutationLog();
+        metrics.record(TrackerOperation.ADD_ITEM, start, 1);
+    }
+
+    /**
+     * Adds several MediaItems in one step, e.g. a batch from a bulk import. The write lock is
+     * taken once, the whole batch becomes visible to queries at once, and the MutationLog
+     * receives it as a single batch.
+     * @param items The MediaItems to add, in order; none may be tracked already or appear twice.
+     * @throws IllegalArgumentException If an item is tracked already or appears twice, in which
+     * case none is added.
+     */
+    public void addMediaItems(List<? extends MediaItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        checkUntracked(items);
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            ensureIndexed();
+            appendItems(items);
+        } finally {
+            writeLock.unlock();
+        }
+        syncMutationLog();
+        metrics.record(TrackerOperation.ADD_ITEMS, start, items.size());
+    }
+
+    /**
+     * Checks that items can be taken over. An item tracked already, or given twice, would be
+     * shared by two positions, and the indexes of one would not follow changes made through the other.
+     * @param items The items to add.
+     * @throws IllegalArgumentException If an item is tracked already or appears twice.
+     */
+    private static void checkUntracked(List<? extends MediaItem> items) {
+        Set<MediaItem> seen = items.size() > 1 ? Collections.newSetFromMap(new IdentityHashMap<>(items.size())) : null;
+        for (MediaItem item : items) {
+            if (ItemOwner.isTracked(item)) {
+                throw new IllegalArgumentException("\"" + item.getTitle() + "\" is tracked already; add a copy of it instead");
+            }
+            if (seen != null && !seen.add(item)) {
+                throw new IllegalArgumentException("\"" + item.getTitle() + "\" is given twice");
+            }
+        }
+    }
+
+    /**
+     * Logs a batch of items, adds them to the list and every index, then publishes and announces
+     * them together. Called with the write lock held.
+     * @param items The MediaItems to add, in order.
+     */
+    private void appendItems(List<? extends MediaItem> items) {
+        if (mutationLog != null) {
+            mutationLog.itemsAdded(items); // Logged ahead: if this throws, nothing is added
+        }
+        int first = mediaItems.size();
+        String[] foldedTitles = new String[items.size()];
+        IndexBatch batch = new IndexBatch(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            MediaItem item = items.get(i);
+            mediaItems.add(item);
+            foldedTitles[i] = batch.add(first + i, item);
+        }
+        batch.flush();
+        queryCache.changeStarted();
+        try {
+            indexedCount = first + items.size(); // Publish the whole batch to queries
+            for (int i = 0; i < items.size(); i++) {
+                evictCachedResults(foldedTitles[i], items.get(i));
+            }
+        } finally {
+            queryCache.changeFinished();
+        }
+        announceAdded(first, first + items.size());
+    }
+
+    /**
+     * Adds rows to every index and to the statistics. The title index, bitmaps and statistics
+     * take each row as it is added; the trigram and range indexes take up to
+     * {@link #INDEX_BATCH_ROWS} rows at once, so each posting list and value is looked up and
+     * grown once per batch rather than once per row. Used with the write lock held; queries
+     * only see the rows once indexedCount covers them, after {@link #flush()}.
+     */
+    private final class IndexBatch {
+        private final int[] ids;
+        private final String[] titles; // Case-folded
+        private final int[] years;
+        private final int[] ratingValues;
+        private final int[] showIds;
+        private final int[] showSeasons;
+        private int size;
+        private int showCount;
+
+        IndexBatch(int rows) {
+            int capacity = Math.max(1, Math.min(rows, INDEX_BATCH_ROWS));
+            this.ids = new int[capacity];
+            this.titles = new String[capacity];
+            this.years = new int[capacity];
+            this.ratingValues = new int[capacity];
+            this.showIds = new int[capacity];
+            this.showSeasons = new int[capacity];
+        }
+
+        /**
+         * Indexes an added item.
+         * @param id The position of the item.
+         * @param item The item.
+         * @return The case-folded title.
+         */
+        String add(int id, MediaItem item) {
+            return add(id, item.getTitle(), item.getGenreIds(), item.getPlatformId(), releaseYearOf(item),
+                    item.getRating(), item instanceof Movie ? ((Movie) item).getStatus() : null,
+                    item instanceof TVShow ? ((TVShow) item).getOverallStatus() : null, seasonsOf(item),
+                    episodesWatchedOf(item));
+        }
+
+        /**
+         * Indexes one row.
+         * @param id The position of the item.
+         * @param genreIds The ids of the item's genres in SymbolTable.GENRES.
+         * @param platformId The id of the item's platform in SymbolTable.PLATFORMS.
+         * @param releaseYear The release year (first release year for TV shows).
+         * @param rating The rating, 0 if not rated.
+         * @param movieStatus The status if the item is a movie, otherwise null.
+         * @param tvShowStatus The overall status if the item is a TV show, otherwise null.
+         * @param numberOfSeasons The number of seasons, ignored for movies.
+         * @param episodesWatched The number of episodes watched, 0 for movies.
+         * @return The case-folded title.
+         */
+        String add(int id, String title, int[] genreIds, int platformId, int releaseYear, int rating,
+                   MovieStatus movieStatus, TVShowStatus tvShowStatus, int numberOfSeasons, int episodesWatched) {
+            if (size == ids.length) {
+                flush();
+            }
+            String foldedTitle = fold(title);
+            indexedTitleChars += foldedTitle.length();
+            int[] bucket = titleIndex.get(foldedTitle);
+            int[] appended = TitleBucket.append(bucket, id);
+            if (appended != bucket) { // New or grown
+                titleIndex.put(foldedTitle, appended);
+                titleOrder.put(foldedTitle, appended);
+            }
+            foldedTitles.add(foldedTitle);
+            attributes.addGenres(id, genreIds);
+            attributes.addPlatform(id, platformId);
+            if (movieStatus != null) {
+                attributes.setMovieStatus(id, null, movieStatus);
+            } else if (tvShowStatus != null) {
+                attributes.setTVShowStatus(id, null, tvShowStatus);
+                showIds[showCount] = id;
+                showSeasons[showCount++] = numberOfSeasons;
+            }
+            statistics.itemAdded(genreIds, platformId, releaseYear, rating, movieStatus, tvShowStatus, episodesWatched);
+            ids[size] = id;
+            titles[size] = foldedTitle;
+            years[size] = releaseYear;
+            ratingValues[size++] = rating;
+            return foldedTitle;
+        }
+
+        /**
+         * Adds the buffered rows to the trigram and range indexes.
+         */
+        void flush() {
+            if (size > 0) {
+                titleGrams.addAll(ids[0], titles, size); // Rows are added at consecutive positions
+                releaseYears.addAll(ids, years, size);
+                ratings.addAll(ids, ratingValues, size);
+            }
+            if (showCount > 0) {
+                seasons.addAll(showIds, showSeasons, showCount);
+            }
+            size = 0;
+            showCount = 0;
+        }
+    }
+
+    /**
+     * Builds the indexes for stored rows that have not been indexed yet, reading only
+     * their columns so that no MediaItem objects are created. Readers only wait here
+     * once, while the first query after opening builds the indexes.
+     */
+    private void ensureIndexed() {
+        if (unindexedBase == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            MediaColumns base = unindexedBase;
+            if (base == null) {
+                return; // Another thread built the indexes while we waited
+            }
+            IndexBatch batch = new IndexBatch(base.size());
+            for (int id = 0; id < base.size(); id++) {
+                batch.add(id, base.title(id), base.genreIds(id), base.platformId(id), base.releaseYear(id),
+                        base.rating(id), base.movieStatus(id), base.tvShowStatus(id), base.seasons(id),
+                        base.episodesWatched(id));
+            }
+            batch.flush();
+            indexedCount = base.size();
+            unindexedBase = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the log that receives every successful mutation, e.g. a persistent journal.
+     * @param mutationLog The MutationLog to notify, or null to stop recording mutations.
+     */
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * Sets the stream that publishes every change to its subscribers. Changes made before are
+     * not replayed. Listeners must not change the tracker; see {@link MediaChangeListener}.
+     * @param changeStream The ChangeStream to publish to, or null to stop publishing changes.
+     */
+    public void setChangeStream(ChangeStream changeStream) {
+        writeLock.lock(); // Never switch streams halfway through a mutation
+        try {
+            this.changeStream = changeStream;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Sets how the scans behind searches and filters are run. With the default,
+     * {@link QueryExecution#ADAPTIVE}, a scan is split across the common ForkJoin pool when its
+     * estimated cost (items scanned times the work per item) is large enough to pay for it, so
+     * small libraries are scanned on the calling thread as before.
+     * @param queryExecution The execution mode.
+     */
+    public void setQueryExecution(QueryExecution queryExecution) {
+        this.queryExecution = queryExecution;
+    }
+
+    public QueryExecution getQueryExecution() {
+        return queryExecution;
+    }
+
+    /**
+     * Gets the live statistics of the library: counts by status, genre, platform, rating and
+     * release year, the average rating and the episodes watched. They are kept up to date on
+     * every mutation, so reading them costs the same for any library size.
+     * @return The statistics; the same object is returned on every call.
+     */
+    public MediaStatistics getStatistics() {
+        ensureIndexed(); // Stored rows are counted when they are indexed
+        return statistics;
+    }
+
+    /**
+     * Gets the cache that answers repeated searches and filters, e.g. to read its hit and miss counts.
+     * @return The query cache; the same object is returned on every call.
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Gets the operation metrics: call counts, result sizes and latency histograms of every
+     * public query and mutation, the item count and the estimated heap footprint.
+     * @return The metrics; the same object is returned on every call.
+     */
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Estimates the heap used by the items and the indexes. The index share is a rough
+     * per-item and per-title-character cost, so the result is meant for trends and capacity
+     * planning rather than exact accounting.
+     * @return The estimate in bytes.
+     */
+    private long estimatedHeapBytes() {
+        return mediaItems.estimatedBytes() + (long) indexedCount * INDEX_BYTES_PER_ITEM
+                + indexedTitleChars * INDEX_BYTES_PER_TITLE_CHAR;
     }
 
     /**
      * Gets all MediaItems currently tracked.
+     * The result is a read-only view created in O(1) rather than a copy; items added
+     * afterwards are not part of it, but changes to the items show through. Use
+     * {@link #snapshot()} for a view that does not change.
      * @return A List of MediaItems.
      */
     public List<MediaItem> getAllMediaItems() {
-        return new ArrayList<>(this.mediaItems); // Return a copy to prevent external modification
+        return mediaItems.view(mediaItems.size());
+    }
+
+    /**
+     * Takes a point-in-time snapshot of all items, e.g. to export or iterate the library while
+     * it keeps changing. Taking it is O(1): nothing is copied, and the earlier state of items
+     * changed afterwards is kept until the snapshot is closed. Waits only for a mutation in
+     * progress; writers are not blocked while the snapshot is open.
+     * @return The snapshot; close it when done, e.g. with try-with-resources.
+     */
+    public MediaSnapshot snapshot() {
+        writeLock.lock(); // Pins a version between two mutations
+        try {
+            ensureIndexed();
+            MutationLog log = mutationLog;
+            return new MediaSnapshot(mediaItems, versions, indexedCount, log == null ? 0 : log.position(),
+                    this::reclaimVersions);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
-     * Finds a MediaItem by its title.
+     * Drops the old item states no open snapshot needs any more, unless a writer is busy; the
+     * writer then drops them with its next change.
+     */
+    private void reclaimVersions() {
+        if (writeLock.tryLock()) {
+            try {
+                versions.trim();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lists tracked media one page at a time. Only the requested page is read, so the cost of a
+     * call depends on the page size rather than on the size of the library.
+     * @param sortKey The order of the listing.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The maximum number of items on the page.
+     * @return The page; its cursor leads to the next page.
+     * @throws IllegalArgumentException If the page size is not positive or the cursor belongs to a different order.
+     */
+    public MediaPage listMediaItems(SortKey sortKey, MediaCursor after, int pageSize) {
+        long start = System.nanoTime();
+        MediaPage page = listPage(sortKey, after, pageSize);
+        metrics.record(TrackerOperation.LIST, start, page.getItems().size());
+        return page;
+    }
+
+    private MediaPage listPage(SortKey sortKey, MediaCursor after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        if (after != null && after.getSortKey() != sortKey) {
+            throw new IllegalArgumentException("Cursor was created for " + after.getSortKey() + " order");
+        }
+        ensureIndexed();
+        int visible = indexedCount;
+        // Every position past the visible items has been seen; this also keeps afterId + 1 from overflowing
+        int afterId = after == null ? -1 : Math.min(after.getId(), visible - 1);
+        int[] ids = new int[pageSize + 1]; // One extra item tells whether another page follows
+        int[] values = new int[pageSize + 1];
+        String[] titles = sortKey == SortKey.TITLE ? new String[pageSize + 1] : null;
+        int count = 0;
+        switch (sortKey) {
+            case ADDED:
+                for (int id = afterId + 1; id < visible && count < ids.length; id++) {
+                    ids[count++] = id;
+                }
+                break;
+            case TITLE:
+                Map<String, int[]> range = after == null ? titleOrder : titleOrder.tailMap(after.getTitle(), true);
+                for (Map.Entry<String, int[]> entry : range.entrySet()) {
+                    int[] bucket = entry.getValue();
+                    for (int i = 0, n = TitleBucket.size(bucket); i < n; i++) {
+                        int id = TitleBucket.get(bucket, i);
+                        if (count == ids.length) {
+                            break;
+                        }
+                        boolean seen = after != null && entry.getKey().equals(after.getTitle()) && id <= afterId;
+                        if (id < visible && !seen) {
+                            titles[count] = entry.getKey();
+                            ids[count++] = id;
+                        }
+                    }
+                    if (count == ids.length) {
+                        break;
+                    }
+                }
+                break;
+            case YEAR:
+                count = releaseYears.collect(after == null ? 0 : after.getValue(), afterId, false, visible, ids, values);
+                break;
+            case RATING:
+                count = ratings.collect(after == null ? 0 : after.getValue(), afterId, true, visible, ids, values);
+                break;
+        }
+
+        int pageCount = Math.min(count, pageSize);
+        List<MediaItem> items = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            items.add(mediaItems.get(ids[i]));
+        }
+        MediaCursor next = null;
+        if (count > pageSize) {
+            int last = pageCount - 1;
+            next = new MediaCursor(sortKey, titles == null ? null : titles[last], values[last], ids[last]);
+        }
+        return new MediaPage(items, next);
+    }
+
+    /**
+     * Finds a MediaItem by its title (case-insensitive).
+     * If several items share the title, the one that was added first is returned;
+     * use {@link #findMediaItemByTitle(String, int)} to pick a specific one.
      * @param title The title to search for.
      * @return The MediaItem if found, or null if not found.
      */
     public MediaItem findMediaItemByTitle(String title) {
-        for (MediaItem item : mediaItems) {
-            if (item.getTitle().equalsIgnoreCase(title)) {
-                return item;
+        long start = System.nanoTime();
+        int id = findIdByTitle(title);
+        MediaItem item = id < 0 ? null : mediaItems.get(id);
+        metrics.record(TrackerOperation.FIND, start, item == null ? 0 : 1);
+        return item;
+    }
+
+    /**
+     * Finds a MediaItem by its title (case-insensitive) and release year.
+     * For TV shows the first release year is used. If the title+year pair is still
+     * ambiguous, the item that was added first is returned.
+     * @param title The title to search for.
+     * @param releaseYear The release year of the item.
+     * @return The MediaItem if found, or null if not found.
+     */
+    public MediaItem findMediaItemByTitle(String title, int releaseYear) {
+        long start = System.nanoTime();
+        MediaItem item = findByTitleAndYear(title, releaseYear);
+        metrics.record(TrackerOperation.FIND, start, item == null ? 0 : 1);
+        return item;
+    }
+
+    private MediaItem findByTitleAndYear(String title, int releaseYear) {
+        int id = findIdByTitleAndYear(title, releaseYear);
+        return id < 0 ? null : mediaItems.get(id);
+    }
+
+    /**
+     * Finds the position of the first item with a title (case-insensitive) and release year.
+     * @return The position of the item, or -1 if not found.
+     */
+    private int findIdByTitleAndYear(String title, int releaseYear) {
+        ensureIndexed();
+        return title == null ? -1 : findIdByFoldedTitle(fold(title), releaseYear);
+    }
+
+    private int findIdByFoldedTitle(String foldedTitle, int releaseYear) {
+        int visible = indexedCount;
+        int[] matches = titleIndex.get(foldedTitle);
+        if (matches != null) {
+            for (int i = 0, n = TitleBucket.size(matches); i < n; i++) { // Only items sharing the title are scanned
+                int id = TitleBucket.get(matches, i);
+                if (id < visible && releaseYearOf(mediaItems.get(id)) == releaseYear) {
+                    return id;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Suggests titles close to one that was not found, e.g. "Interstellar" for "interstelar".
+     * The allowed edit distance grows with the length of the title: none below 3 characters,
+     * 1 up to 5 characters and 2 above.
+     * @param title The title as typed (case-insensitive).
+     * @param limit The maximum number of suggestions.
+     * @return The titles of tracked items, closest first; see {@link #suggestTitles(String, int, int)}.
+     */
+    public List<String> suggestTitles(String title, int limit) {
+        int length = title == null ? 0 : title.length();
+        return suggestTitles(title, length < 3 ? 0 : length <= 5 ? 1 : 2, limit);
+    }
+
+    /**
+     * Suggests titles within an edit distance of the given one. Insertions, deletions,
+     * substitutions and swaps of adjacent characters count as one edit each, ignoring case.
+     * The sorted title index is walked like a trie and branches that are already too far away
+     * are skipped, so only titles sharing a close prefix are compared.
+     * @param title The title as typed (case-insensitive).
+     * @param maxDistance The largest number of edits allowed.
+     * @param limit The maximum number of suggestions.
+     * @return The titles of tracked items, closest first and alphabetical among equally close
+     * ones; an exact match comes first. Each title appears once, as written by the item added first.
+     * @throws IllegalArgumentException If maxDistance is negative or limit is not positive.
+     */
+    public List<String> suggestTitles(String title, int maxDistance, int limit) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Edit distance must not be negative: " + maxDistance);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        long start = System.nanoTime();
+        List<String> titles = new ArrayList<>();
+        if (title != null) {
+            ensureIndexed();
+            int visible = indexedCount;
+            for (String key : FuzzyTitleMatcher.closest(titleOrder, fold(title), maxDistance, limit,
+                    key -> TitleBucket.first(titleOrder.get(key)) < visible)) {
+                titles.add(mediaItems.get(TitleBucket.first(titleOrder.get(key))).getTitle());
             }
         }
-        return null;
+        metrics.record(TrackerOperation.SUGGEST, start, titles.size());
+        return titles;
+    }
+
+    /**
+     * Finds the position of the first item added with the given title.
+     * @param title The title to search for (case-insensitive).
+     * @return The position of the item, or -1 if not found.
+     */
+    private int findIdByTitle(String title) {
+        ensureIndexed();
+        return title == null ? -1 : findIdByFoldedTitle(fold(title));
+    }
+
+    private int findIdByFoldedTitle(String foldedTitle) {
+        int visible = indexedCount;
+        int[] matches = titleIndex.get(foldedTitle);
+        return matches == null || TitleBucket.first(matches) >= visible ? -1 : TitleBucket.first(matches);
+    }
+
+    /**
+     * Finds the position of the item an update command applies to.
+     * @param update The update command, possibly narrowed to a release year.
+     * @return The position of the item, or -1 if not found.
+     */
+    private int findTarget(MediaUpdate update) {
+        return update.hasReleaseYear() ? findIdByTitleAndYear(update.getTitle(), update.getReleaseYear())
+                : findIdByTitle(update.getTitle());
     }
 
     /**
@@ -62,30 +711,31 @@ public class MediaTracker {
      * @return true if the movie was found and updated, false otherwise.
      */
     public boolean updateMovieStatus(String title, MovieStatus newStatus) {
-        MediaItem item = findMediaItemByTitle(title);
-        if (item instanceof Movie) {
-            ((Movie) item).setStatus(newStatus);
-            return true;
-        }
-        return false;
+        return applyUpdate(MediaUpdate.movieStatus(title, newStatus)) == UpdateResult.APPLIED;
     }
 
     /**
      * Updates the status and episodes watched for a TVShow.
      * @param title The title of the TV show to update.
      * @param newStatus The new TVShowStatus.
-     * @param episodesWatched The new number of episodes watched.
+     * @param episodesWatched The new number of episodes watched (must not be negative).
      * @return true if the TV show was found and updated, false otherwise.
      */
     public boolean updateTVShowStatus(String title, TVShowStatus newStatus, int episodesWatched) {
-        MediaItem item = findMediaItemByTitle(title);
-        if (item instanceof TVShow) {
-            TVShow tvShow = (TVShow) item;
-            tvShow.setStatus(newStatus);
-            tvShow.setEpisodesWatched(episodesWatched);
-            return true;
-        }
-        return false;
+        return applyUpdate(MediaUpdate.tvShowStatus(title, newStatus, episodesWatched)) == UpdateResult.APPLIED;
+    }
+
+    /**
+     * Marks episodes of a TVShow tracked episode by episode as watched. The episodes watched and
+     * the overall status follow: WATCHING once any episode is watched, COMPLETED once all are.
+     * @param title The title of the TV show to update.
+     * @param season The season, from 1.
+     * @param firstEpisode The first episode watched, from 1.
+     * @param lastEpisode The last episode watched, inclusive.
+     * @return true if the TV show was found and the episodes exist, false otherwise.
+     */
+    public boolean markEpisodesWatched(String title, int season, int firstEpisode, int lastEpisode) {
+        return applyUpdate(MediaUpdate.episodesWatched(title, season, firstEpisode, lastEpisode)) == UpdateResult.APPLIED;
     }
 
     /**
@@ -95,65 +745,893 @@ public class MediaTracker {
      * @return true if the media was rated, false otherwise (e.g., if not found or not watched).
      */
     public boolean rateMediaItem(String title, int rating) {
-        MediaItem item = findMediaItemByTitle(title);
-        if (item != null) {
-            if (item instanceof Movie) {
-                if (((Movie) item).getStatus() == MovieStatus.WATCHED) {
-                    item.setRating(rating);
-                    return true;
+        return applyUpdate(MediaUpdate.rating(title, rating)) == UpdateResult.APPLIED;
+    }
+
+    /**
+     * Applies a list of status, progress and rating updates as one unit. All titles are resolved
+     * in a single pass, the write lock is taken once, and the commands that will apply reach the
+     * MutationLog as one batch before any of them is applied, so a batch the log rejects leaves
+     * the library unchanged. Commands run in order, so a later command sees the effect of an
+     * earlier one (e.g., marking a movie WATCHED and then rating it). A rejected command does not
+     * stop the others. Other writers never see the batch half-applied; lock-free readers may.
+     * @param updates The update commands.
+     * @return One result per command, in the same order.
+     */
+    public List<UpdateResult> applyUpdates(List<MediaUpdate> updates) {
+        long start = System.nanoTime();
+        List<UpdateResult> results = new ArrayList<>(updates.size());
+        PendingUpdates pending = new PendingUpdates();
+        writeLock.lock();
+        try {
+            ensureIndexed();
+            // Each distinct title, and title and year, is looked up once; titles match case-insensitively
+            Map<String, Integer> resolved = new HashMap<>();
+            Map<String, Map<Integer, Integer>> resolvedByYear = new HashMap<>();
+            for (MediaUpdate update : updates) {
+                int id = -1;
+                if (update.getTitle() != null) {
+                    String title = fold(update.getTitle());
+                    id = update.hasReleaseYear()
+                            ? resolvedByYear.computeIfAbsent(title, t -> new HashMap<>())
+                                    .computeIfAbsent(update.getReleaseYear(), year -> findIdByFoldedTitle(title, year))
+                            : resolved.computeIfAbsent(title, this::findIdByFoldedTitle);
                 }
-            } else if (item instanceof TVShow) {
-                if (((TVShow) item).getOverallStatus() == TVShowStatus.COMPLETED) {
-                     item.setRating(rating);
-                    return true;
+                results.add(pending.stage(id, update));
+            }
+            pending.commit();
+            publishChanges();
+        } finally {
+            writeLock.unlock();
+        }
+        if (pending.size() > 0) {
+            syncMutationLog();
+        }
+        metrics.record(TrackerOperation.APPLY_UPDATES, start, pending.size());
+        return results;
+    }
+
+    /**
+     * Applies and logs a single update command.
+     * @param update The update command.
+     * @return The result of the command.
+     */
+    private UpdateResult applyUpdate(MediaUpdate update) {
+        long start = System.nanoTime();
+        UpdateResult result;
+        writeLock.lock();
+        try {
+            PendingUpdates pending = new PendingUpdates();
+            result = pending.stage(findTarget(update), update);
+            pending.commit();
+            publishChanges();
+        } finally {
+            writeLock.unlock();
+        }
+        if (result == UpdateResult.APPLIED) {
+            syncMutationLog();
+        }
+        metrics.record(TrackerOperation.UPDATE, start, result == UpdateResult.APPLIED ? 1 : 0);
+        return result;
+    }
+
+    // --- Merging ---
+
+    /**
+     * Merges the library of another tracker into this one, e.g. to consolidate the libraries of
+     * two machines. The other library is read from a snapshot in batches of {@link #MERGE_BATCH_SIZE}
+     * that are merged one at a time, so only one batch of copies is held at any time and other
+     * writers get the lock between batches. See {@link #mergeMediaItems(List, MergePolicy)}.
+     * @param other The tracker to merge in; it is not changed.
+     * @param policy How a conflict between a duplicate and the tracked item is resolved.
+     * @return Counts of added, merged, conflicting and dropped items.
+     * @throws IllegalArgumentException If the other tracker is this one or the policy is null.
+     */
+    public MergeReport mergeFrom(MediaTracker other, MergePolicy policy) {
+        if (other == this) {
+            throw new IllegalArgumentException("A tracker cannot be merged into itself");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("A merge policy is required");
+        }
+        long start = System.nanoTime();
+        long added = 0;
+        long merged = 0;
+        long conflicting = 0;
+        long dropped = 0;
+        List<MediaItem> batch = new ArrayList<>(MERGE_BATCH_SIZE);
+        try (MediaSnapshot library = other.snapshot()) {
+            for (int i = 0; i < library.size(); i += batch.size()) {
+                batch.clear();
+                int end = Math.min(library.size(), i + MERGE_BATCH_SIZE);
+                for (int j = i; j < end; j++) {
+                    batch.add(detachedCopy(library.get(j))); // Items added here must not stay owned by the other tracker
                 }
+                MergeReport report = mergeMediaItems(batch, policy);
+                added += report.getAdded();
+                merged += report.getMerged();
+                conflicting += report.getConflicting();
+                dropped += report.getDropped();
             }
         }
-        return false;
+        return new MergeReport(added, merged, conflicting, dropped, System.nanoTime() - start);
+    }
+
+    /**
+     * Merges a batch of items from another library into this one. Each item is joined with the
+     * tracked items on its title (case-insensitive) and release year. An item without a match is
+     * added. An item matching one of the other kind (a movie and a TV show), or two TV shows
+     * tracked episode by episode with different seasons, cannot be reconciled and the item is
+     * dropped. Any other match is a duplicate that is folded into the tracked item: if the two
+     * differ, the policy decides whether the state of the duplicate replaces the tracked state.
+     * Ties keep the tracked state, so merging the same library again changes nothing. Watched
+     * episodes are only ever added, a duplicate without episode detail (e.g. read from a CSV file)
+     * can only change the rating of a show tracked episode by episode, an unrated duplicate keeps
+     * the tracked rating, and a rating only sticks to a watched/completed item. Duplicates within
+     * the batch are folded into each other the same way.
+     * <p>
+     * The join probes the title index the tracker keeps anyway, so the only memory it needs is the
+     * batch itself; a library of any size can be merged in a single pass by feeding it in batches
+     * (see {@link #mergeFrom(MediaTracker, MergePolicy)} and
+     * {@link Movie_Tracker.io.MediaImporter#mergeFile(java.nio.file.Path, Movie_Tracker.enums.ImportFormat, MergePolicy)}).
+     * The write lock is taken once, and the MutationLog receives the added items and the applied
+     * updates as batches. Updates are narrowed to the release year of the tracked item, so they
+     * replay on the right one of several items sharing a title.
+     * @param items The items to merge, in order. Items that are added are taken over as they are,
+     *              like in {@link #addMediaItems(List)}, so none may be tracked already or appear
+     *              twice; {@link #mergeFrom(MediaTracker, MergePolicy)} merges a tracked library.
+     * @param policy How a conflict between a duplicate and the tracked item is resolved.
+     * @return Counts of added, merged, conflicting and dropped items.
+     * @throws IllegalArgumentException If the policy is null, or an item is tracked already or
+     * appears twice, in which case nothing is merged.
+     */
+    public MergeReport mergeMediaItems(List<? extends MediaItem> items, MergePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("A merge policy is required");
+        }
+        checkUntracked(items);
+        long start = System.nanoTime();
+        long added = 0;
+        long merged = 0;
+        long conflicting = 0;
+        long dropped = 0;
+        PendingUpdates updates = new PendingUpdates();
+        writeLock.lock();
+        try {
+            ensureIndexed();
+            List<MediaItem> pending = new ArrayList<>(); // Items without a match, added in one step
+            Set<String> pendingKeys = new HashSet<>();
+            for (MediaItem item : items) {
+                String foldedTitle = fold(item.getTitle());
+                int releaseYear = releaseYearOf(item);
+                int id = findIdByFoldedTitle(foldedTitle, releaseYear);
+                if (id < 0) {
+                    if (pendingKeys.add(foldedTitle + '\n' + releaseYear)) {
+                        pending.add(item);
+                        continue;
+                    }
+                    appendItems(pending); // A duplicate within the batch: add its match first, then merge into it
+                    added += pending.size();
+                    pending.clear();
+                    pendingKeys.clear();
+                    id = findIdByFoldedTitle(foldedTitle, releaseYear);
+                }
+                MediaItem existing = updates.current(id); // Includes the updates from earlier duplicates
+                if (!canMerge(existing, item)) {
+                    dropped++;
+                    continue;
+                }
+                merged++;
+                if (hasSameState(existing, item)) {
+                    continue;
+                }
+                conflicting++;
+                if (duplicateWins(policy, existing, item)) {
+                    for (MediaUpdate update : mergeUpdates(existing, item)) {
+                        updates.stage(id, update);
+                    }
+                }
+            }
+            if (!pending.isEmpty()) {
+                appendItems(pending);
+                added += pending.size();
+            }
+            updates.commit();
+            publishChanges();
+        } finally {
+            writeLock.unlock();
+        }
+        if (added > 0 || updates.size() > 0) {
+            syncMutationLog();
+        }
+        metrics.record(TrackerOperation.MERGE_ITEMS, start, items.size());
+        return new MergeReport(added, merged, conflicting, dropped, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks whether a duplicate can be folded into the tracked item it matches.
+     */
+    private static boolean canMerge(MediaItem existing, MediaItem duplicate) {
+        if (existing instanceof Movie) {
+            return duplicate instanceof Movie;
+        }
+        if (!(existing instanceof TVShow) || !(duplicate instanceof TVShow)) {
+            return false;
+        }
+        EpisodeProgress progress = ((TVShow) existing).getEpisodeProgress();
+        EpisodeProgress other = ((TVShow) duplicate).getEpisodeProgress();
+        return progress == null || other == null || progress.hasSameSeasons(other);
+    }
+
+    /**
+     * Checks whether a duplicate has the same status, progress and rating as the tracked item.
+     */
+    private static boolean hasSameState(MediaItem existing, MediaItem duplicate) {
+        if (existing.getRating() != duplicate.getRating()) {
+            return false;
+        }
+        if (existing instanceof Movie) {
+            return ((Movie) existing).getStatus() == ((Movie) duplicate).getStatus();
+        }
+        TVShow show = (TVShow) existing;
+        TVShow other = (TVShow) duplicate;
+        return show.getOverallStatus() == other.getOverallStatus() && show.getEpisodesWatched() == other.getEpisodesWatched()
+                && (show.getEpisodeProgress() == null || other.getEpisodeProgress() == null
+                    || show.getEpisodeProgress().equals(other.getEpisodeProgress()));
+    }
+
+    /**
+     * Decides a conflict between a duplicate and the tracked item.
+     * @return true if the state of the duplicate is to replace the tracked state.
+     */
+    private static boolean duplicateWins(MergePolicy policy, MediaItem existing, MediaItem duplicate) {
+        switch (policy) {
+            case HIGHEST_RATING:
+                return duplicate.getRating() > existing.getRating();
+            case MOST_PROGRESS:
+                return progressOf(duplicate) > progressOf(existing);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Ranks how far along an item is: by episodes watched, then by status.
+     */
+    private static long progressOf(MediaItem item) {
+        if (item instanceof Movie) {
+            return ((Movie) item).getStatus() == MovieStatus.WATCHED ? 1 : 0;
+        }
+        TVShow show = (TVShow) item;
+        int statusRank;
+        switch (show.getOverallStatus()) {
+            case COMPLETED:
+                statusRank = 2;
+                break;
+            case WATCHING:
+                statusRank = 1;
+                break;
+            default:
+                statusRank = 0;
+        }
+        return show.getEpisodesWatched() * 3L + statusRank;
+    }
+
+    /**
+     * Builds the commands that give the tracked item the state of a winning duplicate. They are
+     * narrowed to the release year of the tracked item.
+     */
+    private static List<MediaUpdate> mergeUpdates(MediaItem existing, MediaItem duplicate) {
+        List<MediaUpdate> updates = new ArrayList<>();
+        String title = existing.getTitle();
+        if (existing instanceof Movie) {
+            MovieStatus status = ((Movie) duplicate).getStatus();
+            if (((Movie) existing).getStatus() != status) {
+                updates.add(MediaUpdate.movieStatus(title, status));
+            }
+        } else {
+            TVShow show = (TVShow) existing;
+            TVShow other = (TVShow) duplicate;
+            EpisodeProgress progress = show.getEpisodeProgress();
+            EpisodeProgress otherProgress = other.getEpisodeProgress();
+            if (progress != null && otherProgress != null) { // The status follows the episodes
+                for (int season = 1; season <= progress.getSeasonCount(); season++) {
+                    int runStart = 0;
+                    for (int episode = 1; episode <= progress.getEpisodeCount(season) + 1; episode++) {
+                        boolean missing = episode <= progress.getEpisodeCount(season)
+                                && otherProgress.isWatched(season, episode) && !progress.isWatched(season, episode);
+                        if (missing && runStart == 0) {
+                            runStart = episode;
+                        } else if (!missing && runStart > 0) {
+                            updates.add(MediaUpdate.episodesWatched(title, season, runStart, episode - 1));
+                            runStart = 0;
+                        }
+                    }
+                }
+            } else if (progress == null && (show.getOverallStatus() != other.getOverallStatus()
+                    || show.getEpisodesWatched() != other.getEpisodesWatched())) {
+                updates.add(MediaUpdate.tvShowStatus(title, other.getOverallStatus(), other.getEpisodesWatched()));
+            }
+        }
+        if (duplicate.getRating() > 0 && duplicate.getRating() != existing.getRating()) {
+            updates.add(MediaUpdate.rating(title, duplicate.getRating())); // Refused unless watched/completed by now
+        }
+        int releaseYear = releaseYearOf(existing);
+        updates.replaceAll(update -> update.forReleaseYear(releaseYear));
+        return updates;
+    }
+
+    /**
+     * Copies an item, including its status, progress and rating, into a new untracked item.
+     */
+    private static MediaItem detachedCopy(MediaItem item) {
+        MediaItem copy;
+        if (item instanceof Movie) {
+            Movie movie = (Movie) item;
+            copy = new Movie(movie.getTitle(), movie.getGenre(), movie.getReleaseYear(), movie.getStatus(), movie.getPlatform());
+        } else {
+            TVShow show = (TVShow) item;
+            if (show.getEpisodeProgress() != null) {
+                copy = new TVShow(show.getTitle(), show.getGenre(), show.getFirstReleaseYear(), show.getPlatform(),
+                        show.getEpisodeProgress());
+                copy.setStatus(show.getOverallStatus()); // May have been set by hand after episodes were marked
+            } else {
+                copy = new TVShow(show.getTitle(), show.getGenre(), show.getFirstReleaseYear(), show.getOverallStatus(),
+                        show.getPlatform(), show.getNumberOfSeasons(), show.getEpisodesWatched());
+            }
+        }
+        copy.setRating(item.getRating());
+        return copy;
+    }
+
+    /**
+     * Checks an update command against an item and, if asked, changes the item. Indexes are left
+     * alone, so this also tells on a detached copy whether a command will apply.
+     * @param item The item.
+     * @param update The update command.
+     * @param apply true to change the item if the command applies.
+     * @return The result of the command.
+     */
+    private static UpdateResult changeItem(MediaItem item, MediaUpdate update, boolean apply) {
+        switch (update.getType()) {
+            case MOVIE_STATUS:
+                if (!(item instanceof Movie) || update.getMovieStatus() == null) {
+                    return item instanceof Movie ? UpdateResult.INVALID_VALUE : UpdateResult.WRONG_TYPE;
+                }
+                if (apply) {
+                    ((Movie) item).setStatus(update.getMovieStatus());
+                }
+                return UpdateResult.APPLIED;
+            case TV_SHOW_STATUS:
+                if (!(item instanceof TVShow)) {
+                    return UpdateResult.WRONG_TYPE;
+                }
+                if (update.getTVShowStatus() == null || update.getEpisodesWatched() < 0) {
+                    return UpdateResult.INVALID_VALUE;
+                }
+                TVShow tvShow = (TVShow) item;
+                EpisodeProgress progress = tvShow.getEpisodeProgress();
+                if (progress != null && update.getEpisodesWatched() != progress.getWatchedCount()) {
+                    return UpdateResult.INVALID_VALUE; // Episodes are marked one by one on such shows
+                }
+                if (apply) {
+                    tvShow.setStatus(update.getTVShowStatus());
+                    if (progress == null) {
+                        tvShow.setEpisodesWatched(update.getEpisodesWatched());
+                    }
+                }
+                return UpdateResult.APPLIED;
+            case EPISODES_WATCHED:
+                if (!(item instanceof TVShow)) {
+                    return UpdateResult.WRONG_TYPE;
+                }
+                TVShow show = (TVShow) item;
+                EpisodeProgress current = show.getEpisodeProgress();
+                EpisodeProgress next;
+                try {
+                    next = current == null ? null
+                            : current.withWatched(update.getSeason(), update.getFirstEpisode(), update.getLastEpisode());
+                } catch (IllegalArgumentException e) {
+                    return UpdateResult.INVALID_VALUE;
+                }
+                if (next == null) {
+                    return UpdateResult.INVALID_VALUE;
+                }
+                if (apply && next != current) { // The same progress back means already watched
+                    show.setEpisodeProgress(next);
+                }
+                return UpdateResult.APPLIED;
+            case RATING:
+                boolean watched = false;
+                if (item instanceof Movie) {
+                    watched = ((Movie) item).getStatus() == MovieStatus.WATCHED;
+                } else if (item instanceof TVShow) {
+                    watched = ((TVShow) item).getOverallStatus() == TVShowStatus.COMPLETED;
+                }
+                if (!watched) {
+                    return UpdateResult.NOT_WATCHED;
+                }
+                if (update.getRating() < 0 || update.getRating() > 5) {
+                    return UpdateResult.INVALID_VALUE;
+                }
+                if (apply) {
+                    item.setRating(update.getRating());
+                }
+                return UpdateResult.APPLIED;
+            default:
+                return UpdateResult.INVALID_VALUE;
+        }
+    }
+
+    /**
+     * Applies an update command that was checked by {@link PendingUpdates} and keeps the indexes
+     * in sync. Called with the write lock held; the item's setters only work while it runs.
+     * @param id The position of the item.
+     * @param update The update command.
+     */
+    private void applyResolved(int id, MediaUpdate update) {
+        MediaItem item = mediaItems.get(id);
+        if (update.getType() == UpdateType.EPISODES_WATCHED) {
+            EpisodeProgress progress = ((TVShow) item).getEpisodeProgress();
+            if (progress.withWatched(update.getSeason(), update.getFirstEpisode(), update.getLastEpisode()) == progress) {
+                return; // Already watched
+            }
+        }
+        MovieStatus oldStatus = item instanceof Movie ? ((Movie) item).getStatus() : null;
+        TVShowStatus oldOverallStatus = item instanceof TVShow ? ((TVShow) item).getOverallStatus() : null;
+        int oldEpisodes = episodesWatchedOf(item);
+        int oldRating = item.getRating();
+        versions.beforeChange(id, item);
+        itemOwner.setApplying(true);
+        try {
+            changeItem(item, update, true);
+        } finally {
+            itemOwner.setApplying(false);
+        }
+        switch (update.getType()) {
+            case MOVIE_STATUS:
+                Movie movie = (Movie) item;
+                attributes.setMovieStatus(id, oldStatus, movie.getStatus());
+                queryCache.statusChanged(item.getGenreIds(), item.getPlatformId(), oldStatus, movie.getStatus(), null, null);
+                statistics.movieStatusChanged(oldStatus, movie.getStatus());
+                if (oldStatus != movie.getStatus()) {
+                    MediaChange change = claimChange(ChangeType.STATUS_CHANGED, id, item);
+                    if (change != null) {
+                        change.setMovieStatuses(oldStatus, movie.getStatus());
+                    }
+                }
+                break;
+            case TV_SHOW_STATUS:
+            case EPISODES_WATCHED:
+                tvShowProgressChanged(id, (TVShow) item, oldOverallStatus, oldEpisodes);
+                break;
+            case RATING:
+                ratings.move(id, oldRating, update.getRating());
+                statistics.ratingChanged(oldRating, update.getRating());
+                if (oldRating != update.getRating()) {
+                    MediaChange change = claimChange(ChangeType.RATED, id, item);
+                    if (change != null) {
+                        change.setValues(oldRating, update.getRating());
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * The update commands of one mutation, checked before anything changes so that they reach the
+     * MutationLog ahead of being applied: if logging fails, no item has changed. A command sees
+     * the effect of earlier commands for the same item through a detached copy of the item.
+     * Used with the write lock held.
+     */
+    private final class PendingUpdates {
+        private final Map<Integer, Integer> single = new HashMap<>(); // Item position -> its only staged command
+        private final Map<Integer, MediaItem> drafts = new HashMap<>(); // Items with more commands, as they will be
+        private final List<MediaUpdate> updates = new ArrayList<>();
+        private int[] ids = new int[8];
+
+        /**
+         * Checks a command and stages it if it applies.
+         * @param id The position of the item, or -1 if the title was not found.
+         * @param update The update command.
+         * @return The result the command will have.
+         */
+        UpdateResult stage(int id, MediaUpdate update) {
+            if (id < 0) {
+                return UpdateResult.NOT_FOUND;
+            }
+            MediaItem draft = draft(id);
+            // The first command for an item is checked against the item itself, later ones change its draft
+            UpdateResult result = changeItem(draft == null ? mediaItems.get(id) : draft, update, draft != null);
+            if (result == UpdateResult.APPLIED) {
+                if (draft == null) {
+                    single.put(id, updates.size());
+                }
+                if (updates.size() == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[updates.size()] = id;
+                updates.add(update);
+            }
+            return result;
+        }
+
+        /**
+         * Gets an item as it will be once the staged commands are applied.
+         * @param id The position of the item.
+         * @return The item, or its detached copy if commands for it are staged.
+         */
+        MediaItem current(int id) {
+            MediaItem draft = draft(id);
+            return draft == null ? mediaItems.get(id) : draft;
+        }
+
+        /**
+         * Gets the draft of an item, created from its first staged command once it is needed.
+         * @return The draft, or null if no command for the item is staged.
+         */
+        private MediaItem draft(int id) {
+            MediaItem draft = drafts.get(id);
+            Integer first = draft == null ? single.remove(id) : null;
+            if (first != null) {
+                draft = detachedCopy(mediaItems.get(id));
+                changeItem(draft, updates.get(first), true);
+                drafts.put(id, draft);
+            }
+            return draft;
+        }
+
+        /**
+         * Gets the number of staged commands.
+         * @return The number of commands that will apply.
+         */
+        int size() {
+            return updates.size();
+        }
+
+        /**
+         * Logs the staged commands as one batch, then applies them.
+         */
+        void commit() {
+            if (updates.isEmpty()) {
+                return;
+            }
+            if (mutationLog != null) {
+                mutationLog.updatesApplied(updates); // Throws before anything changed
+            }
+            queryCache.changeStarted(); // New statuses show in the bitmaps before their filters are evicted
+            try {
+                for (int i = 0; i < updates.size(); i++) {
+                    applyResolved(ids[i], updates.get(i));
+                }
+            } finally {
+                queryCache.changeFinished();
+            }
+        }
+    }
+
+    /**
+     * Keeps the indexes, statistics and change events in sync after the status or progress of a
+     * TV show changed. Called with the write lock held.
+     */
+    private void tvShowProgressChanged(int id, TVShow tvShow, TVShowStatus oldOverallStatus, int oldEpisodes) {
+        attributes.setTVShowStatus(id, oldOverallStatus, tvShow.getOverallStatus());
+        queryCache.statusChanged(tvShow.getGenreIds(), tvShow.getPlatformId(), null, null, oldOverallStatus,
+                tvShow.getOverallStatus());
+        statistics.tvShowProgressChanged(oldOverallStatus, tvShow.getOverallStatus(), oldEpisodes,
+                tvShow.getEpisodesWatched());
+        if (oldOverallStatus != tvShow.getOverallStatus()) {
+            MediaChange change = claimChange(ChangeType.STATUS_CHANGED, id, tvShow);
+            if (change != null) {
+                change.setTVShowStatuses(oldOverallStatus, tvShow.getOverallStatus());
+            }
+        }
+        if (oldEpisodes != tvShow.getEpisodesWatched()) {
+            MediaChange change = claimChange(ChangeType.EPISODES_CHANGED, id, tvShow);
+            if (change != null) {
+                change.setValues(oldEpisodes, tvShow.getEpisodesWatched());
+            }
+        }
+    }
+
+    /**
+     * Starts a change event for the ChangeStream. Called with the write lock held; the event is
+     * delivered after the next {@link #publishChanges()}.
+     * @return The event to complete, or null if changes are not published or this one was dropped.
+     */
+    private MediaChange claimChange(ChangeType type, int id, MediaItem item) {
+        return changeStream == null ? null : changeStream.claim(type, id, item);
+    }
+
+    /**
+     * Publishes ADDED events for the items at positions [from, to). Called with the write lock held.
+     */
+    private void announceAdded(int from, int to) {
+        if (changeStream == null) {
+            return;
+        }
+        for (int id = from; id < to; id++) {
+            MediaItem item = mediaItems.get(id);
+            MediaChange change = changeStream.claim(ChangeType.ADDED, id, item);
+            if (change == null) {
+                continue;
+            }
+            if (item instanceof Movie) {
+                change.setMovieStatuses(null, ((Movie) item).getStatus());
+            } else if (item instanceof TVShow) {
+                change.setTVShowStatuses(null, ((TVShow) item).getOverallStatus());
+            }
+        }
+        changeStream.publish();
+    }
+
+    /**
+     * Hands the changes of the current mutation to the ChangeStream's dispatcher in one batch.
+     * Called with the write lock held.
+     */
+    private void publishChanges() {
+        if (changeStream != null) {
+            changeStream.publish();
+        }
+    }
+
+    /**
+     * Lets the MutationLog make the mutations logged so far durable. Called after releasing
+     * the write lock, so that concurrent writers can share one sync.
+     */
+    private void syncMutationLog() {
+        MutationLog log = mutationLog;
+        if (log != null) {
+            log.sync();
+        }
     }
 
     /**
      * Searches for MediaItems containing the given keyword in their title or genre.
+     * Keywords of three or more characters are answered from the title trigram index, so only
+     * candidate titles are checked; shorter keywords fall back to a scan of the folded titles.
+     * Genres are matched against the genre dictionary once and answered from the genre bitmaps.
+     * A keyword that spans the separator of a genre list, e.g. "fi, dr" in "Sci-Fi, Drama", is
+     * also checked against the joined list of every item, which costs a scan.
+     * Results are kept in the {@link QueryCache}, so repeating a search only materializes the items.
+     * Large scans and verifications are split across threads, see {@link #setQueryExecution}.
      * @param keyword The keyword to search for.
-     * @return A List of MediaItems that match the keyword.
+     * @return A List of MediaItems that match the keyword, in insertion order.
      */
     public List<MediaItem> searchMediaItems(String keyword) {
-        return mediaItems.stream()
-                .filter(item -> item.getTitle().toLowerCase().contains(keyword.toLowerCase()) ||
-                                 item.getGenre().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        List<MediaItem> results = search(keyword);
+        metrics.record(TrackerOperation.SEARCH, start, results.size());
+        return results;
     }
 
-   /**
+    private List<MediaItem> search(String keyword) {
+        ensureIndexed();
+        String needle = fold(keyword);
+        String key = QueryCache.searchKey(needle);
+        int[] cached = queryCache.get(key);
+        if (cached != null) {
+            return materialize(cached);
+        }
+        long version = queryCache.version();
+        int visible = indexedCount;
+        BitSet matches = attributes.selectGenres(SymbolTable.GENRES.idsContaining(needle));
+        long titleCost = indexedTitleChars / Math.max(1, visible) + 1; // A substring check reads about one title
+        if (SymbolTable.spansSeparator(needle)) {
+            // Such a keyword only matches a genre list as a whole, so every joined list is checked
+            for (int id : ParallelScan.select(null, visible,
+                    id -> fold(SymbolTable.GENRES.join(mediaItems.get(id).getGenreIds())).contains(needle),
+                    ParallelScan.isParallel(queryExecution, visible, 2 * titleCost))) {
+                matches.set(id);
+            }
+        }
+        int[] titleMatches;
+        if (needle.length() < TrigramIndex.GRAM_LENGTH) {
+            titleMatches = ParallelScan.select(null, visible, id -> foldedTitles.get(id).contains(needle),
+                    ParallelScan.isParallel(queryExecution, visible, titleCost));
+        } else {
+            int[] candidates = titleGrams.candidates(needle);
+            titleMatches = ParallelScan.select(candidates, candidates.length, // Verify candidates
+                    id -> id < visible && !matches.get(id) && foldedTitles.get(id).contains(needle),
+                    ParallelScan.isParallel(queryExecution, candidates.length, titleCost));
+        }
+        for (int id : titleMatches) {
+            matches.set(id);
+        }
+        int[] ids = positions(matches, visible);
+        queryCache.putSearch(key, needle, ids, version);
+        return materialize(ids);
+    }
+
+    /**
      * Filters MediaItems based on criteria provided in a Map.
-     * Currently supports filtering by "status", "genre", and "platform".
+     * Currently supports filtering by "status", "genre", and "platform"; all given criteria must match.
      * @param criteria A Map where keys are filter names (e.g., "status", "genre")
      * and values are the filter values (e.g., "WATCHED", "Action").
      * @return A List of MediaItems that match the filter criteria.
      */
     public List<MediaItem> filterMediaItems(Map<String, String> criteria) {
-        return mediaItems.stream()
-                .filter(item -> {
-                    for (Map.Entry<String, String> entry : criteria.entrySet()) {
-                        String filterName = entry.getKey().toLowerCase();
-                        String filterValue = entry.getValue().toLowerCase();
-
-                        switch (filterName) {
-                            case "status":
-                                if (item instanceof Movie) {
-                                    return ((Movie) item).getStatus().toString().toLowerCase().equals(filterValue);
-                                } else if (item instanceof TVShow) {
-                                    return ((TVShow) item).getOverallStatus().toString().toLowerCase().equals(filterValue);
-                                }
-                                break;
-                            case "genre":
-                                return item.getGenre().toLowerCase().contains(filterValue);
-                            case "platform":
-                                return item.getPlatform().toLowerCase().equals(filterValue);
-                        }
-                    }
-                    return true; // If no criteria, return all
-                })
-                .collect(Collectors.toList());
+        return filterMediaItems(FilterPlan.compile(criteria));
+    }
+
+    /**
+     * Filters MediaItems with a precompiled plan. Every clause is answered from per-value
+     * bitmaps: the genre clause is resolved to matching genre ids in the dictionary and the
+     * platform clause to a platform id. The bitmaps are intersected and only the surviving
+     * items are materialized. Results are kept in the {@link QueryCache} under the normalized
+     * clauses, so repeating a filter only materializes the items. Large results are
+     * materialized in parallel, see {@link #setQueryExecution}.
+     * @param plan The compiled filter, see {@link FilterPlan#compile(Map)}.
+     * @return A List of MediaItems that match the plan, in insertion order.
+     */
+    public List<MediaItem> filterMediaItems(FilterPlan plan) {
+        long start = System.nanoTime();
+        List<MediaItem> results = filter(plan);
+        metrics.record(TrackerOperation.FILTER, start, results.size());
+        return results;
+    }
+
+    private List<MediaItem> filter(FilterPlan plan) {
+        ensureIndexed();
+        String key = QueryCache.filterKey(plan);
+        int[] cached = queryCache.get(key);
+        if (cached != null) {
+            return materialize(cached);
+        }
+        long version = queryCache.version();
+        int visible = indexedCount;
+        int[] ids = positions(select(plan, visible), visible);
+        queryCache.putFilter(key, plan, ids, version);
+        return materialize(ids);
+    }
+
+    /**
+     * Runs a range or top-K query, e.g. "released 1990-1999" or "the 20 highest-rated dramas".
+     * The first matching value is found in the sorted range index in O(log v) for v distinct
+     * values, and each value keeps its items as a sorted position list, so the walk costs
+     * O(log v + k) for k results plus one step per empty value in the range and the items a
+     * combined filter rejects on the way. A filter is answered from bitmaps first, which adds
+     * O(n/64) for n items.
+     * @param query The query.
+     * @return The matching MediaItems in value order; ties keep the order in which they were added.
+     */
+    public List<MediaItem> queryRange(RangeQuery query) {
+        long start = System.nanoTime();
+        List<MediaItem> results = rangeQuery(query);
+        metrics.record(TrackerOperation.RANGE_QUERY, start, results.size());
+        return results;
+    }
+
+    private List<MediaItem> rangeQuery(RangeQuery query) {
+        ensureIndexed();
+        int visible = indexedCount;
+        RangeIndex index;
+        switch (query.getKey()) {
+            case RELEASE_YEAR:
+                index = releaseYears;
+                break;
+            case RATING:
+                index = ratings;
+                break;
+            case SEASONS:
+                index = seasons;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported range key: " + query.getKey());
+        }
+        BitSet filter = query.getFilter() == null ? null : select(query.getFilter(), visible);
+        return materialize(index.select(query.getMin(), query.getMax(), query.isDescending(), filter, visible,
+                query.getLimit()));
+    }
+
+    /**
+     * Intersects the bitmaps for every clause of a filter plan.
+     * @param plan The compiled filter.
+     * @param visible Only positions below this are selected.
+     * @return The positions of the matching items.
+     */
+    private BitSet select(FilterPlan plan, int visible) {
+        BitSet selected = new BitSet();
+        selected.set(0, visible); // No clauses means every visible item matches
+        if (plan.hasStatusClause()) {
+            selected.and(attributes.selectStatus(plan));
+        }
+        if (plan.getPlatform() != null) {
+            selected.and(attributes.selectPlatform(SymbolTable.PLATFORMS.find(plan.getPlatform())));
+        }
+        if (plan.getGenre() != null) {
+            selected.and(attributes.selectGenres(SymbolTable.GENRES.idsContaining(plan.getGenre())));
+        }
+        return selected;
+    }
+
+    /**
+     * Lists the selected items that are visible to queries.
+     * @param selected The positions of the selected items.
+     * @param visible The number of visible items observed by the caller.
+     * @return The positions, in ascending order.
+     */
+    private static int[] positions(BitSet selected, int visible) {
+        if (selected.length() > visible) {
+            selected.clear(visible, selected.length()); // Items added after the query started
+        }
+        int[] ids = new int[selected.cardinality()];
+        int count = 0;
+        for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+            ids[count++] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Materializes the items at the given positions.
+     * @param ids The positions.
+     * @return The MediaItems, in the order of the positions.
+     */
+    private List<MediaItem> materialize(int[] ids) {
+        if (!ParallelScan.isParallel(queryExecution, ids.length, MATERIALIZE_COST)) {
+            List<MediaItem> results = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                results.add(mediaItems.get(id));
+            }
+            return results;
+        }
+        MediaItem[] items = new MediaItem[ids.length];
+        ParallelScan.forEach(ids.length, i -> items[i] = mediaItems.get(ids[i]), true); // Chunks fill disjoint slots
+        return new ArrayList<>(Arrays.asList(items));
+    }
+
+    /**
+     * Evicts the cached query results that a newly added item belongs to. Called with the write
+     * lock held, after the item is published: a reader that sees the bumped cache version then
+     * also sees the item, and one that read the old version cannot store its result.
+     * @param foldedTitle The case-folded title of the item.
+     * @param item The added MediaItem.
+     */
+    private void evictCachedResults(String foldedTitle, MediaItem item) {
+        queryCache.itemAdded(foldedTitle, item.getGenreIds(), item.getPlatformId(),
+                item instanceof Movie ? ((Movie) item).getStatus() : null,
+                item instanceof TVShow ? ((TVShow) item).getOverallStatus() : null);
+    }
+
+    /**
+     * Normalizes a title, genre or keyword for case-insensitive matching.
+     * @param text The text to normalize.
+     * @return The case-folded text.
+     */
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the release year of a MediaItem (first release year for TV shows).
+     * @param item The MediaItem.
+     * @return The release year, or 0 if the item type has none.
+     */
+    private static int releaseYearOf(MediaItem item) {
+        if (item instanceof Movie) {
+            return ((Movie) item).getReleaseYear();
+        } else if (item instanceof TVShow) {
+            return ((TVShow) item).getFirstReleaseYear();
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of seasons of a MediaItem.
+     * @param item The MediaItem.
+     * @return The number of seasons for TV shows, 0 for other items.
+     */
+    private static int seasonsOf(MediaItem item) {
+        return item instanceof TVShow ? ((TVShow) item).getNumberOfSeasons() : 0;
+    }
+
+    /**
+     * Gets the number of episodes watched of a MediaItem.
+     * @param item The MediaItem.
+     * @return The episodes watched for TV shows, 0 for other items.
+     */
+    private static int episodesWatchedOf(MediaItem item) {
+        return item instanceof TVShow ? ((TVShow) item).getEpisodesWatched() : 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateType;
+
+/**
+ * One update command for {@link MediaTracker#applyUpdates(java.util.List)}: a movie status change,
+ * TV show progress (status and episodes watched, or a range of episodes watched), or a rating. Create instances with the
+ * static factory methods. A command applies to the first item added with its title, unless it is narrowed to one
+ * release year with {@link #forReleaseYear(int)}.
+ */
+public class MediaUpdate {
+    private final UpdateType type;
+    private final String title;
+    private final MovieStatus movieStatus;
+    private final TVShowStatus tvShowStatus;
+    private final int episodesWatched;
+    private final int rating;
+    private final int season;
+    private final int firstEpisode;
+    private final int lastEpisode;
+    private final boolean hasReleaseYear;
+    private final int releaseYear;
+
+    private MediaUpdate(UpdateType type, String title, MovieStatus movieStatus, TVShowStatus tvShowStatus,
+                        int episodesWatched, int rating, int season, int firstEpisode, int lastEpisode) {
+        this(type, title, movieStatus, tvShowStatus, episodesWatched, rating, season, firstEpisode, lastEpisode, false, 0);
+    }
+
+    private MediaUpdate(UpdateType type, String title, MovieStatus movieStatus, TVShowStatus tvShowStatus,
+                        int episodesWatched, int rating, int season, int firstEpisode, int lastEpisode,
+                        boolean hasReleaseYear, int releaseYear) {
+        this.type = type;
+        this.title = title;
+        this.movieStatus = movieStatus;
+        this.tvShowStatus = tvShowStatus;
+        this.episodesWatched = episodesWatched;
+        this.rating = rating;
+        this.season = season;
+        this.firstEpisode = firstEpisode;
+        this.lastEpisode = lastEpisode;
+        this.hasReleaseYear = hasReleaseYear;
+        this.releaseYear = releaseYear;
+    }
+
+    /**
+     * Creates a command that sets the status of a movie.
+     * @param title The title of the movie.
+     * @param status The new MovieStatus.
+     * @return The command.
+     */
+    public static MediaUpdate movieStatus(String title, MovieStatus status) {
+        return new MediaUpdate(UpdateType.MOVIE_STATUS, title, status, null, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a command that sets the status and progress of a TV show.
+     * @param title The title of the TV show.
+     * @param status The new TVShowStatus.
+     * @param episodesWatched The new number of episodes watched.
+     * @return The command.
+     */
+    public static MediaUpdate tvShowStatus(String title, TVShowStatus status, int episodesWatched) {
+        return new MediaUpdate(UpdateType.TV_SHOW_STATUS, title, null, status, episodesWatched, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a command that rates a media item.
+     * @param title The title of the media item.
+     * @param rating The rating value (1-5).
+     * @return The command.
+     */
+    public static MediaUpdate rating(String title, int rating) {
+        return new MediaUpdate(UpdateType.RATING, title, null, null, 0, rating, 0, 0, 0);
+    }
+
+    /**
+     * Creates a command that marks episodes of a TV show tracked episode by episode as watched.
+     * @param title The title of the TV show.
+     * @param season The season, from 1.
+     * @param firstEpisode The first episode watched, from 1.
+     * @param lastEpisode The last episode watched, inclusive.
+     * @return The command.
+     */
+    public static MediaUpdate episodesWatched(String title, int season, int firstEpisode, int lastEpisode) {
+        return new MediaUpdate(UpdateType.EPISODES_WATCHED, title, null, null, 0, 0, season, firstEpisode, lastEpisode);
+    }
+
+    /**
+     * Narrows the command to the item with the given title and release year, for libraries that
+     * hold several items with the same title (e.g. a film and its remake).
+     * @param releaseYear The release year (first release year for TV shows).
+     * @return A copy of the command that applies only to that item.
+     */
+    public MediaUpdate forReleaseYear(int releaseYear) {
+        return new MediaUpdate(type, title, movieStatus, tvShowStatus, episodesWatched, rating, season, firstEpisode,
+                lastEpisode, true, releaseYear);
+    }
+
+    // --- Getters ---
+    public UpdateType getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public MovieStatus getMovieStatus() {
+        return movieStatus;
+    }
+
+    public TVShowStatus getTVShowStatus() {
+        return tvShowStatus;
+    }
+
+    public int getEpisodesWatched() {
+        return episodesWatched;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public int getFirstEpisode() {
+        return firstEpisode;
+    }
+
+    public int getLastEpisode() {
+        return lastEpisode;
+    }
+
+    /**
+     * Checks whether the command was narrowed to one release year.
+     * @return true if {@link #getReleaseYear()} selects the item.
+     */
+    public boolean hasReleaseYear() {
+        return hasReleaseYear;
+    }
+
+    public int getReleaseYear() {
+        return releaseYear;
+    }
+}
@@ -0,0 +1,78 @@
+package Movie_Tracker.core;
+
+/**
+ * Summary of a merge of another library into a MediaTracker; see
+ * {@link MediaTracker#mergeMediaItems(java.util.List, Movie_Tracker.enums.MergePolicy)}.
+ */
+public class MergeReport {
+    private final long added;
+    private final long merged;
+    private final long conflicting;
+    private final long dropped;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for MergeReport.
+     * @param added Items without a match, added as new items.
+     * @param merged Duplicates folded into a tracked item with the same title and release year.
+     * @param conflicting Those duplicates whose state differed and was resolved by the policy.
+     * @param dropped Records left out: items that cannot be reconciled with their match, or records
+     *                that could not be read.
+     * @param elapsedNanos The duration of the merge.
+     */
+    public MergeReport(long added, long merged, long conflicting, long dropped, long elapsedNanos) {
+        this.added = added;
+        this.merged = merged;
+        this.conflicting = conflicting;
+        this.dropped = dropped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // --- Getters ---
+    public long getAdded() {
+        return added;
+    }
+
+    public long getMerged() {
+        return merged;
+    }
+
+    public long getConflicting() {
+        return conflicting;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of records the merge read.
+     * @return Added, merged and dropped records together.
+     */
+    public long getRecords() {
+        return added + merged + dropped;
+    }
+
+    /**
+     * Gets the merge throughput.
+     * @return Records read per second.
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getRecords() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Provides a one-line summary of the merge.
+     * @return A string with counts, elapsed time and throughput.
+     */
+    @Override
+    public String toString() {
+        return String.format("Merged %,d records: %,d added, %,d duplicates merged (%,d conflicting), %,d dropped"
+                        + " in %.2f s: %,.0f records/s",
+                getRecords(), added, merged, conflicting, dropped, elapsedNanos / 1e9, getRecordsPerSecond());
+    }
+}
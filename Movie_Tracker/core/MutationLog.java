@@ -0,0 +1,108 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+
+import java.util.List;
+
+/**
+ * Receives every successful mutation made through a MediaTracker, e.g. to write it to a journal.
+ * Titles are passed as given to the tracker; replaying the calls against a tracker with the same
+ * contents resolves them to the same items.
+ * <p>
+ * Additions and update batches are logged ahead: the tracker calls the log, with its write lock
+ * held, once it has checked that the mutation will succeed but before changing anything. If the
+ * call throws, e.g. because the journal cannot be written, the mutation is not applied.
+ */
+public interface MutationLog {
+    /**
+     * Called before a MediaItem is added.
+     * @param item The MediaItem to add.
+     */
+    void itemAdded(MediaItem item);
+
+    /**
+     * Called before a batch of MediaItems is added in one step.
+     * @param items The MediaItems to add, in order.
+     */
+    default void itemsAdded(List<? extends MediaItem> items) {
+        for (MediaItem item : items) {
+            itemAdded(item);
+        }
+    }
+
+    /**
+     * Called before the status of a Movie is updated.
+     * @param title The title used to look up the movie.
+     * @param status The new MovieStatus.
+     */
+    void movieStatusUpdated(String title, MovieStatus status);
+
+    /**
+     * Called before the status and progress of a TVShow are updated.
+     * @param title The title used to look up the TV show.
+     * @param status The new TVShowStatus.
+     * @param episodesWatched The new number of episodes watched.
+     */
+    void tvShowStatusUpdated(String title, TVShowStatus status, int episodesWatched);
+
+    /**
+     * Called before episodes of a TVShow tracked episode by episode are marked as watched.
+     * @param title The title used to look up the TV show.
+     * @param season The season, from 1.
+     * @param firstEpisode The first episode watched, from 1.
+     * @param lastEpisode The last episode watched, inclusive.
+     */
+    void episodesWatched(String title, int season, int firstEpisode, int lastEpisode);
+
+    /**
+     * Called before a MediaItem is rated.
+     * @param title The title used to look up the media item.
+     * @param rating The new rating.
+     */
+    void itemRated(String title, int rating);
+
+    /**
+     * Called before a batch of update commands is applied in one step. Only commands that will
+     * apply are passed on. By default each command is passed to the callback for its type, which
+     * receives the title only; logs that must tell apart items sharing a title (see
+     * {@link MediaUpdate#forReleaseYear(int)}) override this method.
+     * @param updates The commands to apply, in order.
+     */
+    default void updatesApplied(List<MediaUpdate> updates) {
+        for (MediaUpdate update : updates) {
+            switch (update.getType()) {
+                case MOVIE_STATUS:
+                    movieStatusUpdated(update.getTitle(), update.getMovieStatus());
+                    break;
+                case TV_SHOW_STATUS:
+                    tvShowStatusUpdated(update.getTitle(), update.getTVShowStatus(), update.getEpisodesWatched());
+                    break;
+                case EPISODES_WATCHED:
+                    episodesWatched(update.getTitle(), update.getSeason(), update.getFirstEpisode(), update.getLastEpisode());
+                    break;
+                case RATING:
+                    itemRated(update.getTitle(), update.getRating());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Called after the tracker released its write lock following one or more mutations.
+     * Implementations that defer durability can block here until the mutations logged so far
+     * are durable; doing it outside the lock lets concurrent writers share the cost.
+     */
+    default void sync() {
+    }
+
+    /**
+     * Gets the position of the last logged mutation, e.g. a journal LSN. The tracker reads it
+     * with its write lock held when it takes a snapshot, see {@link MediaSnapshot#getLogPosition()}.
+     * @return The position, 0 by default.
+     */
+    default long position() {
+        return 0;
+    }
+}
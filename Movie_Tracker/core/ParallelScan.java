@@ -0,0 +1,125 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.QueryExecution;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs the per-item work of a query over item positions, either on the calling thread or split
+ * into chunks across the common ForkJoin pool with a {@link PositionSpliterator}.
+ * <p>
+ * Whether to split is decided from the estimated cost of the scan: the number of positions
+ * times the cost of the work per position, in units of roughly one character comparison.
+ * Splitting pays off from about a millisecond of sequential work; below that, and whenever
+ * the pool has a single thread, scans stay on the calling thread and cost what a plain loop
+ * costs. Each chunk collects its matches into its own buffer and the buffers are concatenated
+ * in encounter order, so threads never share a buffer and results keep the order of the input.
+ */
+final class ParallelScan {
+    static final long MIN_PARALLEL_WORK = 1L << 20;
+    private static final int MIN_CHUNK = 1 << 12;
+    private static final int CHUNKS_PER_THREAD = 4; // Lets idle threads steal work from slow chunks
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Decides whether a scan is split.
+     * @param mode The execution mode of the tracker.
+     * @param count The number of positions scanned.
+     * @param costPerPosition The estimated work per position, e.g. the average title length for
+     * a substring check.
+     * @return true to split the scan across the pool.
+     */
+    static boolean isParallel(QueryExecution mode, int count, long costPerPosition) {
+        if (mode == QueryExecution.SEQUENTIAL || count < 2 * MIN_CHUNK) {
+            return false;
+        }
+        if (mode == QueryExecution.PARALLEL) {
+            return true;
+        }
+        return ForkJoinPool.getCommonPoolParallelism() > 1 && count * Math.max(1, costPerPosition) >= MIN_PARALLEL_WORK;
+    }
+
+    /**
+     * Finds the positions that satisfy a predicate.
+     * @param ids The positions to test, or null to test the positions 0..count-1.
+     * @param count The number of positions to test.
+     * @param predicate The test; must be safe to call from several threads.
+     * @param parallel Whether to split the scan, see {@link #isParallel}.
+     * @return The positions that passed, in the order of the input.
+     */
+    static int[] select(int[] ids, int count, IntPredicate predicate, boolean parallel) {
+        if (!parallel) {
+            PositionBuffer matches = new PositionBuffer();
+            new PositionSpliterator(ids, 0, count, count).forEachRemaining((int id) -> {
+                if (predicate.test(id)) {
+                    matches.add(id);
+                }
+            });
+            return matches.toArray();
+        }
+        return StreamSupport.intStream(new PositionSpliterator(ids, 0, count, chunkSize(count)), true)
+                .filter(predicate)
+                .collect(PositionBuffer::new, PositionBuffer::add, PositionBuffer::addAll)
+                .toArray();
+    }
+
+    /**
+     * Runs an action for the indexes 0..count-1, e.g. to fill the slots of a result array.
+     * @param count The number of indexes.
+     * @param action The action; must be safe to call from several threads for different indexes.
+     * @param parallel Whether to split the work, see {@link #isParallel}.
+     */
+    static void forEach(int count, IntConsumer action, boolean parallel) {
+        if (!parallel) {
+            for (int i = 0; i < count; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        StreamSupport.intStream(new PositionSpliterator(null, 0, count, chunkSize(count)), true).forEach(action);
+    }
+
+    /**
+     * Gets the smallest chunk to split, so that each pool thread gets a few chunks.
+     */
+    private static int chunkSize(int count) {
+        int threads = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        return Math.max(MIN_CHUNK, count / (threads * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Growable array of positions, one per chunk of a scan.
+     */
+    private static final class PositionBuffer {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Appends the positions of the chunk that follows this one.
+         */
+        void addAll(PositionBuffer next) {
+            if (size + next.size > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(size + next.size, size * 2));
+            }
+            System.arraycopy(next.ids, 0, ids, size, next.size);
+            size += next.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
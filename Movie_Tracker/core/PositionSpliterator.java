@@ -0,0 +1,79 @@
+package Movie_Tracker.core;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Spliterator over a slice of item positions: either the positions listed in an array, e.g.
+ * the candidates of a search, or a contiguous range of positions. Splitting halves the slice
+ * without copying, down to a minimum chunk size, so every chunk is a run of consecutive
+ * elements and the encounter order is the order of the slice.
+ */
+final class PositionSpliterator implements Spliterator.OfInt {
+    private final int[] ids; // null if the slice holds the positions from..to themselves
+    private int from;
+    private final int to;
+    private final int minChunk;
+
+    /**
+     * Constructor for PositionSpliterator.
+     * @param ids The positions to iterate, or null to iterate the range itself.
+     * @param from The first index of the slice, inclusive.
+     * @param to The last index of the slice, exclusive.
+     * @param minChunk The smallest slice that is still split in two halves.
+     */
+    PositionSpliterator(int[] ids, int from, int to, int minChunk) {
+        this.ids = ids;
+        this.from = from;
+        this.to = to;
+        this.minChunk = Math.max(1, minChunk);
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        int size = to - from;
+        if (size < 2 * minChunk) {
+            return null;
+        }
+        int middle = from + size / 2;
+        PositionSpliterator prefix = new PositionSpliterator(ids, from, middle, minChunk);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(ids == null ? from : ids[from]);
+        from++;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        int[] positions = ids;
+        int end = to;
+        if (positions == null) {
+            for (int id = from; id < end; id++) {
+                action.accept(id);
+            }
+        } else {
+            for (int i = from; i < end; i++) {
+                action.accept(positions[i]);
+            }
+        }
+        from = end;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+    }
+}
@@ -0,0 +1,552 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of search and filter results for a MediaTracker, keyed by the normalized query
+ * (the case-folded keyword, or the compiled clauses of a filter). A result is stored as the
+ * positions of the matching items, so a hit only materializes the items and always shows their
+ * current state. Obtained from {@link MediaTracker#getQueryCache()}.
+ * <p>
+ * The cache is weighed by the number of stored positions and evicts the least recently used
+ * results once its weight limit is reached. Invalidation is precise: an added item evicts only
+ * the results it would be part of, and a status change evicts only the filters with a status
+ * clause naming the old or new status that the item otherwise matches. Ratings, titles and
+ * genres are not part of any cached predicate, or never change, so they evict nothing.
+ * <p>
+ * Results are indexed by what can affect them, so a mutation only looks at the results it may
+ * change: searches by the first (up to three) characters of their keyword, and searches and
+ * genre filters by every genre id whose name contains their text, filters with a platform
+ * clause by the platform id. Only filters without a genre or platform clause, the empty
+ * search and searches spanning a genre list separator are checked on every mutation, and
+ * there are few distinct ones.
+ * <p>
+ * Lookups ({@link #get} and {@link #version}) never block: the results live in a concurrent
+ * map and recency is an approximate timestamp per result. Stores and invalidations synchronize
+ * on the cache. Results computed while a mutation took place are not stored, and lookups miss
+ * while the tracker publishes a mutation it has not yet invalidated, so a hit never misses an
+ * item that was visible when it was returned, nor goes back behind a result the reader has seen.
+ */
+public class QueryCache {
+    public static final int DEFAULT_MAX_WEIGHT = 1 << 22; // Stored positions, about 16 MB
+
+    private static final int ENTRY_OVERHEAD = 16; // Weight charged per entry on top of its positions
+    private static final int GRAM_LENGTH = 3; // Keyword prefix searches are indexed by
+    private static final long TOUCH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1); // Recency granularity
+
+    /**
+     * A cached result together with the predicate it was computed for.
+     */
+    private static final class Entry {
+        final String key;
+        final int[] ids;
+        final String keyword; // Case-folded, null for a filter
+        final FilterPlan plan; // null for a search
+        final int platformId; // Of the platform clause, -1 if there is none
+        int[] genreIds = new int[0]; // Genres the entry is indexed under
+        int genreCount;
+        volatile long lastUsed;
+
+        Entry(String key, int[] ids, String keyword, FilterPlan plan, int platformId) {
+            this.key = key;
+            this.ids = ids;
+            this.keyword = keyword;
+            this.plan = plan;
+            this.platformId = platformId;
+            this.lastUsed = System.nanoTime();
+        }
+
+        int weight() {
+            return ids.length + ENTRY_OVERHEAD;
+        }
+
+        /**
+         * Gets the text a genre name must contain for the entry to be indexed under it.
+         * @return The keyword of a search, the genre clause of a filter without a platform
+         * clause, otherwise null.
+         */
+        String genreText() {
+            return plan == null ? keyword : platformId < 0 ? plan.getGenre() : null;
+        }
+
+        void addGenre(int genreId) {
+            if (genreCount == genreIds.length) {
+                genreIds = Arrays.copyOf(genreIds, Math.max(4, genreCount * 2));
+            }
+            genreIds[genreCount++] = genreId;
+        }
+    }
+
+    private final int maxWeight;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long weight;
+    private volatile long version; // Incremented by every mutation that can change a cached result
+    private volatile boolean changing; // A mutation may be visible while the results it affects are still cached
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private volatile long evictionCount;
+    private volatile long invalidationCount;
+
+    // Invalidation indexes, guarded by the monitor
+    private final Map<Long, Set<Entry>> searchesByGram = new HashMap<>();
+    private final long[] gramFirstChars = new long[(Character.MAX_VALUE + 1) / Long.SIZE]; // May over-approximate
+    private final Map<Integer, Set<Entry>> byGenre = new HashMap<>();
+    private final Map<Integer, Set<Entry>> filtersByPlatform = new HashMap<>();
+    private final Set<Entry> withGenreText = new HashSet<>(); // Every entry that is indexed by genre
+    private final Set<Entry> unkeyed = new HashSet<>(); // Checked on every mutation
+    private int genresIndexed; // byGenre is complete for the genre ids below
+
+    /**
+     * Constructor for QueryCache.
+     * @param maxWeight The maximum number of item positions held across all cached results.
+     */
+    QueryCache(int maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    // --- Keys ---
+
+    /**
+     * Builds the cache key of a keyword search.
+     * @param foldedKeyword The case-folded keyword.
+     * @return The key.
+     */
+    static String searchKey(String foldedKeyword) {
+        return "search\u0000" + foldedKeyword;
+    }
+
+    /**
+     * Builds the cache key of a filter. Plans compiled from differently spelled but equivalent
+     * criteria (e.g. "watched" and "WATCHED") get the same key.
+     * @param plan The compiled filter.
+     * @return The key.
+     */
+    static String filterKey(FilterPlan plan) {
+        return "filter\u0000" + plan.getMovieStatuses() + '\u0000' + plan.getTVShowStatuses() + '\u0000'
+                + plan.getGenre() + '\u0000' + (plan.getPlatform() == null ? null : plan.getPlatform().trim());
+    }
+
+    // --- Lookups, called by readers ---
+
+    /**
+     * Gets the version to pass to {@link #putSearch} or {@link #putFilter}; read it before computing the result.
+     * @return The current version.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Looks up a cached result and counts the hit or miss.
+     * @param key The key built by {@link #searchKey} or {@link #filterKey}.
+     * @return The positions of the matching items in ascending order, or null on a miss.
+     */
+    int[] get(String key) {
+        Entry entry = changing ? null : entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        long now = System.nanoTime();
+        if (now - entry.lastUsed > TOUCH_INTERVAL) {
+            entry.lastUsed = now; // Rarely written, so hot entries are not contended
+        }
+        return entry.ids;
+    }
+
+    /**
+     * Stores a search result, unless a mutation happened since the given version.
+     * @param key The key built by {@link #searchKey}.
+     * @param foldedKeyword The case-folded keyword.
+     * @param ids The positions of the matching items in ascending order.
+     * @param since The version read before the result was computed.
+     */
+    synchronized void putSearch(String key, String foldedKeyword, int[] ids, long since) {
+        put(new Entry(key, ids, foldedKeyword, null, -1), since);
+    }
+
+    /**
+     * Stores a filter result, unless a mutation happened since the given version. Filters on a
+     * platform no item has are not stored; their empty result is cheap to compute.
+     * @param key The key built by {@link #filterKey}.
+     * @param plan The compiled filter.
+     * @param ids The positions of the matching items in ascending order.
+     * @param since The version read before the result was computed.
+     */
+    synchronized void putFilter(String key, FilterPlan plan, int[] ids, long since) {
+        int platformId = -1;
+        if (plan.getPlatform() != null) {
+            platformId = SymbolTable.PLATFORMS.find(plan.getPlatform());
+            if (platformId < 0) {
+                return;
+            }
+        }
+        put(new Entry(key, ids, null, plan, platformId), since);
+    }
+
+    private void put(Entry entry, long since) {
+        if (since != version || entry.weight() > maxWeight / 4) {
+            return; // Stale, or so large it would push out most other results
+        }
+        Entry replaced = entries.put(entry.key, entry);
+        if (replaced != null) {
+            unregister(replaced);
+            weight -= replaced.weight();
+        }
+        register(entry);
+        weight += entry.weight();
+        if (weight > maxWeight) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Evicts the least recently used results until an eighth of the weight limit is free again,
+     * so the scan over all results is amortized over many stores.
+     */
+    private void evictLeastRecentlyUsed() {
+        List<Entry> byAge = new ArrayList<>(entries.values());
+        byAge.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        long target = maxWeight - maxWeight / 8;
+        for (int i = 0; i < byAge.size() && weight > target; i++) {
+            remove(byAge.get(i));
+            evictionCount++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            unregister(entry);
+            weight -= entry.weight();
+        }
+    }
+
+    private void register(Entry entry) {
+        if (entry.keyword != null && !entry.keyword.isEmpty()) {
+            int length = Math.min(GRAM_LENGTH, entry.keyword.length());
+            searchesByGram.computeIfAbsent(gram(entry.keyword, 0, length), gram -> new HashSet<>()).add(entry);
+            char first = entry.keyword.charAt(0);
+            gramFirstChars[first >>> 6] |= 1L << first;
+            if (SymbolTable.spansSeparator(entry.keyword)) {
+                unkeyed.add(entry); // Matches genre lists, which no single genre name contains
+            }
+        } else if (entry.keyword != null || entry.platformId < 0 && entry.plan.getGenre() == null) {
+            unkeyed.add(entry);
+        }
+        if (entry.platformId >= 0) {
+            filtersByPlatform.computeIfAbsent(entry.platformId, id -> new HashSet<>()).add(entry);
+        }
+        String genreText = entry.genreText();
+        if (genreText != null) {
+            withGenreText.add(entry);
+            for (int genreId = 0; genreId < genresIndexed; genreId++) {
+                if (SymbolTable.GENRES.foldedName(genreId).contains(genreText)) {
+                    byGenre.computeIfAbsent(genreId, id -> new HashSet<>()).add(entry);
+                    entry.addGenre(genreId);
+                }
+            }
+        }
+    }
+
+    private void unregister(Entry entry) {
+        if (entry.keyword != null && !entry.keyword.isEmpty()) {
+            long gram = gram(entry.keyword, 0, Math.min(GRAM_LENGTH, entry.keyword.length()));
+            removeFrom(searchesByGram, gram, entry);
+            if (searchesByGram.isEmpty()) {
+                Arrays.fill(gramFirstChars, 0);
+            }
+        }
+        unkeyed.remove(entry);
+        if (entry.platformId >= 0) {
+            removeFrom(filtersByPlatform, entry.platformId, entry);
+        }
+        withGenreText.remove(entry);
+        for (int i = 0; i < entry.genreCount; i++) {
+            removeFrom(byGenre, entry.genreIds[i], entry);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Entry>> index, K key, Entry entry) {
+        Set<Entry> bucket = index.get(key);
+        if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Indexes the entries that match by genre under genres added to the dictionary since the
+     * last mutation, so each genre name is compared with the cached texts once.
+     * @param genreIds The ids of an item's genres.
+     */
+    private void indexGenres(int[] genreIds) {
+        int known = genresIndexed;
+        for (int genreId : genreIds) {
+            known = Math.max(known, genreId + 1);
+        }
+        for (int genreId = genresIndexed; genreId < known; genreId++) {
+            String foldedName = SymbolTable.GENRES.foldedName(genreId);
+            for (Entry entry : withGenreText) {
+                if (foldedName.contains(entry.genreText())) {
+                    byGenre.computeIfAbsent(genreId, id -> new HashSet<>()).add(entry);
+                    entry.addGenre(genreId);
+                }
+            }
+        }
+        genresIndexed = known;
+    }
+
+    /**
+     * Packs up to three characters of a text into a key of the gram index.
+     */
+    private static long gram(String text, int from, int length) {
+        long gram = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            gram |= (long) text.charAt(from + i) << (32 - 16 * i);
+        }
+        return gram;
+    }
+
+    // --- Invalidation, called by the tracker with its write lock held ---
+
+    /**
+     * Marks the start of a mutation, before any of it is published to readers. Until
+     * {@link #changeFinished()} every lookup misses: a reader may already see the mutation while
+     * the results it makes stale are still cached, and a hit would take back what it has seen.
+     */
+    void changeStarted() {
+        changing = true;
+    }
+
+    /**
+     * Marks the end of a mutation, once every result it affects has been invalidated.
+     */
+    void changeFinished() {
+        changing = false;
+    }
+
+    /**
+     * Evicts the results that a newly added item belongs to.
+     * @param foldedTitle The case-folded title.
+     * @param genreIds The ids of the item's genres in SymbolTable.GENRES.
+     * @param platformId The id of the item's platform in SymbolTable.PLATFORMS.
+     * @param movieStatus The status if the item is a movie, otherwise null.
+     * @param tvShowStatus The overall status if the item is a TV show, otherwise null.
+     */
+    synchronized void itemAdded(String foldedTitle, int[] genreIds, int platformId, MovieStatus movieStatus,
+                                TVShowStatus tvShowStatus) {
+        version++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry> affected = new ArrayList<>();
+        for (int i = 0; i < foldedTitle.length() && !searchesByGram.isEmpty(); i++) {
+            char first = foldedTitle.charAt(i);
+            if ((gramFirstChars[first >>> 6] & 1L << first) == 0) {
+                continue;
+            }
+            for (int length = 1; length <= GRAM_LENGTH && i + length <= foldedTitle.length(); length++) {
+                Set<Entry> bucket = searchesByGram.get(gram(foldedTitle, i, length));
+                if (bucket != null) {
+                    for (Entry entry : bucket) {
+                        if (foldedTitle.startsWith(entry.keyword, i)) {
+                            affected.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+        collectFilters(affected, genreIds, platformId, true);
+        for (Entry entry : affected) {
+            if (entry.plan == null || matchesStatus(entry.plan, movieStatus, tvShowStatus)) {
+                invalidate(entry);
+            }
+        }
+    }
+
+    /**
+     * Evicts the filters whose result may change with an item's status.
+     * @param genreIds The ids of the item's genres in SymbolTable.GENRES.
+     * @param platformId The id of the item's platform in SymbolTable.PLATFORMS.
+     * @param oldMovieStatus The previous status if the item is a movie, otherwise null.
+     * @param newMovieStatus The current status if the item is a movie, otherwise null.
+     * @param oldTVShowStatus The previous overall status if the item is a TV show, otherwise null.
+     * @param newTVShowStatus The current overall status if the item is a TV show, otherwise null.
+     */
+    synchronized void statusChanged(int[] genreIds, int platformId, MovieStatus oldMovieStatus,
+                                    MovieStatus newMovieStatus, TVShowStatus oldTVShowStatus,
+                                    TVShowStatus newTVShowStatus) {
+        if (oldMovieStatus == newMovieStatus && oldTVShowStatus == newTVShowStatus) {
+            return;
+        }
+        version++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry> affected = new ArrayList<>();
+        collectFilters(affected, genreIds, platformId, false);
+        for (Entry entry : affected) {
+            if (entry.plan.hasStatusClause()
+                    && (matchesStatus(entry.plan, oldMovieStatus, oldTVShowStatus)
+                        || matchesStatus(entry.plan, newMovieStatus, newTVShowStatus))) {
+                invalidate(entry);
+            }
+        }
+    }
+
+    /**
+     * Collects the results whose genre and platform clauses an item matches, leaving the status
+     * clause to the caller.
+     * @param affected Receives the results; a result may be collected more than once.
+     * @param genreIds The ids of the item's genres.
+     * @param platformId The id of the item's platform.
+     * @param searches Whether to collect the searches matching a genre, too.
+     */
+    private void collectFilters(List<Entry> affected, int[] genreIds, int platformId, boolean searches) {
+        indexGenres(genreIds);
+        for (int genreId : genreIds) {
+            Set<Entry> bucket = byGenre.get(genreId);
+            if (bucket != null) {
+                for (Entry entry : bucket) {
+                    if (searches || entry.plan != null) {
+                        affected.add(entry);
+                    }
+                }
+            }
+        }
+        Set<Entry> bucket = filtersByPlatform.get(platformId);
+        if (bucket != null) {
+            for (Entry entry : bucket) {
+                if (entry.plan.getGenre() == null || hasGenreContaining(genreIds, entry.plan.getGenre())) {
+                    affected.add(entry);
+                }
+            }
+        }
+        for (Entry entry : unkeyed) {
+            if (searches || entry.plan != null) {
+                affected.add(entry);
+            }
+        }
+    }
+
+    private void invalidate(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            unregister(entry);
+            weight -= entry.weight();
+            invalidationCount++;
+        }
+    }
+
+    private static boolean matchesStatus(FilterPlan plan, MovieStatus movieStatus, TVShowStatus tvShowStatus) {
+        if (!plan.hasStatusClause()) {
+            return true;
+        }
+        return movieStatus != null ? plan.getMovieStatuses().contains(movieStatus)
+                : tvShowStatus != null && plan.getTVShowStatuses().contains(tvShowStatus);
+    }
+
+    private static boolean hasGenreContaining(int[] genreIds, String foldedText) {
+        for (int genreId : genreIds) {
+            if (SymbolTable.GENRES.foldedName(genreId).contains(foldedText)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops every cached result, e.g. before measuring uncached queries. Not counted as evictions.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        searchesByGram.clear();
+        Arrays.fill(gramFirstChars, 0);
+        byGenre.clear();
+        filtersByPlatform.clear();
+        withGenreText.clear();
+        unkeyed.clear();
+        weight = 0;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to run the query.
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     * @return The hit rate between 0 and 1, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of results dropped to stay within the weight limit.
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the number of results dropped because a mutation changed them.
+     * @return The invalidation count.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Gets the number of cached results.
+     * @return The entry count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the current weight, i.e. the item positions held plus a fixed overhead per result.
+     * @return The weight.
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the weight limit.
+     * @return The maximum weight.
+     */
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+}
@@ -0,0 +1,345 @@
+package Movie_Tracker.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Ordered index from a small-domain int attribute (e.g. release year or rating) to the items
+ * holding each value. Each distinct value keeps the positions of its items as a sorted list of
+ * int blocks, so the index takes about four bytes per item however many values there are.
+ * A range or top-K walk finds its first value in O(log v) for v distinct values and its first
+ * position within that value by binary search, then reads only the positions it returns plus the
+ * ones a filter rejects, and one step per further value: O(log v + log n + k) for k results.
+ * Adding an item appends to its value in amortized O(1); moving one copies a block of each value.
+ * One writer may update the index while readers walk it without locking.
+ */
+public class RangeIndex {
+    private static final int BLOCK_SIZE = 256; // Most positions a block holds
+
+    private final ConcurrentSkipListMap<Integer, Bucket> buckets;
+
+    /**
+     * Constructor for RangeIndex. Initializes an empty index.
+     */
+    public RangeIndex() {
+        this.buckets = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Records the value of a newly added item.
+     * @param id The position of the item.
+     * @param value The attribute value.
+     */
+    public void add(int id, int value) {
+        buckets.computeIfAbsent(value, key -> new Bucket()).add(id);
+    }
+
+    /**
+     * Records the values of a batch of newly added items, one value at a time: the batch is
+     * sorted by value first, so each value is looked up once and its positions are appended together.
+     * @param ids The positions of the items, ascending.
+     * @param values The attribute value of each item.
+     * @param count The number of entries of ids and values in use.
+     */
+    public void addAll(int[] ids, int[] values, int count) {
+        if (count == 1) {
+            add(ids[0], values[0]);
+            return;
+        }
+        long[] pairs = new long[count];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = (long) values[i] << 32 | ids[i]; // Positions are never negative
+        }
+        Arrays.sort(pairs);
+        int[] run = new int[count];
+        for (int i = 0; i < count; ) {
+            int value = (int) (pairs[i] >> 32);
+            int size = 0;
+            for (; i < count && (int) (pairs[i] >> 32) == value; i++) {
+                run[size++] = (int) pairs[i];
+            }
+            buckets.computeIfAbsent(value, key -> new Bucket()).addAll(run, size);
+        }
+    }
+
+    /**
+     * Moves an item from one value to another.
+     * @param id The position of the item.
+     * @param oldValue The previous value.
+     * @param newValue The new value.
+     */
+    public void move(int id, int oldValue, int newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        add(id, newValue);
+        Bucket old = buckets.get(oldValue);
+        if (old != null) {
+            old.remove(id); // Removed after adding, so readers never miss the item
+        }
+    }
+
+    /**
+     * Collects items in (value, position) order, starting after a given item.
+     * Positions always ascend within a value; values ascend or descend as requested.
+     * @param afterValue The value of the last item already seen; ignored if afterId is negative.
+     * @param afterId The position of the last item already seen, or -1 to start at the beginning.
+     * @param descending true to walk values from highest to lowest.
+     * @param visible Only positions below this are collected.
+     * @param ids Receives the positions; its length is the maximum number collected.
+     * @param values Receives the value of each collected position.
+     * @return The number of items collected.
+     */
+    public int collect(int afterValue, int afterId, boolean descending, int visible, int[] ids, int[] values) {
+        NavigableMap<Integer, Bucket> range = buckets;
+        if (afterId >= 0) {
+            range = descending ? buckets.headMap(afterValue, true) : buckets.tailMap(afterValue, true);
+        }
+        if (descending) {
+            range = range.descendingMap();
+        }
+        int count = 0;
+        for (Map.Entry<Integer, Bucket> bucket : range.entrySet()) {
+            int value = bucket.getKey();
+            int from = afterId >= 0 && value == afterValue ? (int) Math.min(afterId + 1L, visible) : 0;
+            int before = count;
+            count = bucket.getValue().fill(from, visible, null, ids, count);
+            Arrays.fill(values, before, count, value);
+            if (count == ids.length) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Selects the items whose value lies in a range, in (value, position) order.
+     * @param min The lowest value, inclusive.
+     * @param max The highest value, inclusive.
+     * @param descending true to walk values from highest to lowest; positions still ascend within a value.
+     * @param filter Only positions set here are selected, or null to select every position.
+     * @param visible Only positions below this are selected.
+     * @param limit The maximum number of positions to select.
+     * @return The selected positions.
+     */
+    public int[] select(int min, int max, boolean descending, BitSet filter, int visible, int limit) {
+        NavigableMap<Integer, Bucket> range = buckets.subMap(min, true, max, true);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        int[] ids = new int[Math.min(limit, 64)];
+        int count = 0;
+        for (Bucket bucket : range.values()) {
+            int from = 0;
+            while (true) {
+                if (count == ids.length) {
+                    if (count == limit) {
+                        return ids; // Grown no further than the limit, so it is exactly full
+                    }
+                    ids = Arrays.copyOf(ids, (int) Math.min(limit, ids.length * 2L));
+                }
+                count = bucket.fill(from, visible, filter, ids, count);
+                if (count < ids.length) {
+                    break; // This value has no more positions
+                }
+                from = ids[count - 1] + 1; // Filled by this value, so continue after its last position
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * The sorted positions of the items holding one value, split into blocks. A block a reader
+     * may see is never changed, except that the last one grows in place: each position is
+     * written before the size that publishes it. Any other change replaces the block, and the
+     * block array when blocks are split or dropped.
+     */
+    private static final class Bucket {
+        private volatile Block[] blocks = new Block[0];
+
+        /**
+         * Adds a position, unless it is already present.
+         * @param id The position.
+         */
+        void add(int id) {
+            Block[] current = blocks;
+            if (current.length == 0) {
+                blocks = new Block[] {Block.copyOf(new int[] {id}, 0, 1, true)};
+                return;
+            }
+            int last = current.length - 1;
+            Block tail = current[last];
+            if (id > tail.ids[tail.size - 1]) {
+                if (tail.size < tail.ids.length) {
+                    tail.ids[tail.size] = id;
+                    tail.size++; // Publishes the position written above
+                } else {
+                    blocks = replace(current, last, tail, Block.copyOf(new int[] {id}, 0, 1, true));
+                }
+                return;
+            }
+            int index = find(current, id);
+            Block block = current[index];
+            int at = Arrays.binarySearch(block.ids, 0, block.size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            int[] merged = new int[block.size + 1];
+            System.arraycopy(block.ids, 0, merged, 0, at);
+            merged[at] = id;
+            System.arraycopy(block.ids, at, merged, at + 1, block.size - at);
+            boolean isTail = index == last;
+            if (merged.length <= BLOCK_SIZE) {
+                blocks = replace(current, index, Block.copyOf(merged, 0, merged.length, isTail));
+            } else {
+                int half = merged.length / 2;
+                blocks = replace(current, index, Block.copyOf(merged, 0, half, false),
+                        Block.copyOf(merged, half, merged.length, isTail));
+            }
+        }
+
+        /**
+         * Adds ascending positions. Positions past the last one present fill the last block in
+         * place and then whole new blocks; any other position is added on its own.
+         * @param ids The positions, ascending.
+         * @param count The number of entries of ids in use.
+         */
+        void addAll(int[] ids, int count) {
+            Block[] current = blocks;
+            int from = 0;
+            if (current.length > 0) {
+                Block tail = current[current.length - 1];
+                if (ids[0] <= tail.ids[tail.size - 1]) {
+                    for (int i = 0; i < count; i++) {
+                        add(ids[i]);
+                    }
+                    return;
+                }
+                from = Math.min(tail.ids.length - tail.size, count);
+                System.arraycopy(ids, 0, tail.ids, tail.size, from);
+                tail.size += from; // Publishes the positions copied above
+            }
+            if (from == count) {
+                return;
+            }
+            Block[] grown = Arrays.copyOf(current, current.length + (count - from + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            for (int index = current.length; from < count; index++, from += BLOCK_SIZE) {
+                int to = Math.min(from + BLOCK_SIZE, count);
+                grown[index] = Block.copyOf(ids, from, to, to == count);
+            }
+            blocks = grown;
+        }
+
+        /**
+         * Removes a position, if present.
+         * @param id The position.
+         */
+        void remove(int id) {
+            Block[] current = blocks;
+            if (current.length == 0) {
+                return;
+            }
+            int index = find(current, id);
+            Block block = current[index];
+            int at = Arrays.binarySearch(block.ids, 0, block.size, id);
+            if (at < 0) {
+                return;
+            }
+            if (block.size == 1) {
+                blocks = replace(current, index);
+                return;
+            }
+            int[] remaining = new int[block.size - 1];
+            System.arraycopy(block.ids, 0, remaining, 0, at);
+            System.arraycopy(block.ids, at + 1, remaining, at, block.size - at - 1);
+            blocks = replace(current, index, Block.copyOf(remaining, 0, remaining.length, index == current.length - 1));
+        }
+
+        /**
+         * Copies positions in ascending order into an array, until it is full.
+         * @param from The lowest position copied.
+         * @param visible Only positions below this are copied.
+         * @param filter Only positions set here are copied, or null to copy every position.
+         * @param ids Receives the positions.
+         * @param count The number of entries of ids already used.
+         * @return The number of entries of ids used afterwards.
+         */
+        int fill(int from, int visible, BitSet filter, int[] ids, int count) {
+            Block[] current = blocks;
+            if (current.length == 0) {
+                return count;
+            }
+            int index = find(current, from);
+            int at = Arrays.binarySearch(current[index].ids, 0, current[index].size, from);
+            at = at >= 0 ? at : -at - 1;
+            for (; index < current.length; index++, at = 0) {
+                Block block = current[index];
+                int size = block.size;
+                for (; at < size; at++) {
+                    int id = block.ids[at];
+                    if (id >= visible || count == ids.length) {
+                        return count;
+                    }
+                    if (filter == null || filter.get(id)) {
+                        ids[count++] = id;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Finds the block a position belongs in: the last one starting at or below it, or the first.
+         */
+        private static int find(Block[] blocks, int id) {
+            int low = 0;
+            int high = blocks.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (blocks[mid].ids[0] <= id) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Copies a block array with one block replaced by any number of blocks.
+         */
+        private static Block[] replace(Block[] blocks, int index, Block... replacements) {
+            Block[] replaced = new Block[blocks.length - 1 + replacements.length];
+            System.arraycopy(blocks, 0, replaced, 0, index);
+            System.arraycopy(replacements, 0, replaced, index, replacements.length);
+            System.arraycopy(blocks, index + 1, replaced, index + replacements.length, blocks.length - index - 1);
+            return replaced;
+        }
+    }
+
+    /**
+     * A sorted run of positions; only its first size entries are in use.
+     */
+    private static final class Block {
+        private final int[] ids;
+        private volatile int size;
+
+        private Block(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        /**
+         * Copies part of a sorted array into a new block.
+         * @param tail true if the block ends its bucket, so it gets room to grow in place.
+         */
+        static Block copyOf(int[] ids, int from, int to, boolean tail) {
+            int capacity = tail ? Math.max(to - from, BLOCK_SIZE) : to - from;
+            return new Block(Arrays.copyOfRange(ids, from, from + capacity), to - from);
+        }
+    }
+}
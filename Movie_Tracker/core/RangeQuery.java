@@ -0,0 +1,131 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.RangeKey;
+
+/**
+ * A range or top-K query for {@link MediaTracker#queryRange(RangeQuery)}, e.g. "released
+ * 1990-1999" or "the 20 highest-rated dramas". Results come in value order; items with equal
+ * values keep the order in which they were added. Create instances with the static factory
+ * methods; the other methods return a modified copy.
+ */
+public class RangeQuery {
+    private final RangeKey key;
+    private final int min; // Inclusive
+    private final int max; // Inclusive
+    private final boolean descending;
+    private final int limit;
+    private final FilterPlan filter; // null if not combined with a filter
+
+    private RangeQuery(RangeKey key, int min, int max, boolean descending, int limit, FilterPlan filter) {
+        this.key = key;
+        this.min = min;
+        this.max = max;
+        this.descending = descending;
+        this.limit = limit;
+        this.filter = filter;
+    }
+
+    /**
+     * Creates a query for every item whose value lies in a range, lowest value first.
+     * @param key The attribute to query.
+     * @param min The lowest value, inclusive.
+     * @param max The highest value, inclusive.
+     * @return The query.
+     * @throws IllegalArgumentException If min is greater than max.
+     */
+    public static RangeQuery between(RangeKey key, int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Empty range: " + min + " > " + max);
+        }
+        return new RangeQuery(key, min, max, false, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a query for the k items with the highest values.
+     * @param key The attribute to query.
+     * @param k The number of items.
+     * @return The query.
+     */
+    public static RangeQuery top(RangeKey key, int k) {
+        return between(key, Integer.MIN_VALUE, Integer.MAX_VALUE).descending().limitedTo(k);
+    }
+
+    /**
+     * Creates a query for the k items with the lowest values.
+     * @param key The attribute to query.
+     * @param k The number of items.
+     * @return The query.
+     */
+    public static RangeQuery bottom(RangeKey key, int k) {
+        return between(key, Integer.MIN_VALUE, Integer.MAX_VALUE).limitedTo(k);
+    }
+
+    /**
+     * Returns the query restricted to a range of values.
+     * @param min The lowest value, inclusive.
+     * @param max The highest value, inclusive.
+     * @return The modified query.
+     * @throws IllegalArgumentException If min is greater than max.
+     */
+    public RangeQuery within(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Empty range: " + min + " > " + max);
+        }
+        return new RangeQuery(key, min, max, descending, limit, filter);
+    }
+
+    /**
+     * Returns the query with the highest values first.
+     * @return The modified query.
+     */
+    public RangeQuery descending() {
+        return new RangeQuery(key, min, max, true, limit, filter);
+    }
+
+    /**
+     * Returns the query limited to its first k results.
+     * @param k The maximum number of results.
+     * @return The modified query.
+     * @throws IllegalArgumentException If k is negative.
+     */
+    public RangeQuery limitedTo(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + k);
+        }
+        return new RangeQuery(key, min, max, descending, k, filter);
+    }
+
+    /**
+     * Returns the query combined with a status/genre/platform filter.
+     * @param plan The compiled filter, see {@link FilterPlan#compile(java.util.Map)}.
+     * @return The modified query.
+     */
+    public RangeQuery filteredBy(FilterPlan plan) {
+        return new RangeQuery(key, min, max, descending, limit, plan);
+    }
+
+    // --- Getters ---
+    public RangeKey getKey() {
+        return key;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public FilterPlan getFilter() {
+        return filter;
+    }
+}
@@ -0,0 +1,66 @@
+package Movie_Tracker.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Positions of the items sharing a title, in insertion order, kept in a bare int array so that a
+ * unique title costs no more than a one-element array. Slot 0 holds the number of positions
+ * and the rest hold the positions, with spare room to append in amortized O(1). One writer
+ * appends while readers access a bucket without locks: a position is written before the count
+ * that publishes it, and a full bucket is copied into a larger one that replaces it in the index.
+ */
+final class TitleBucket {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private TitleBucket() {
+    }
+
+    /**
+     * Appends a position. Must only be called by the writer.
+     * @param bucket The bucket, or null for a title not seen before.
+     * @param id The position.
+     * @return The bucket, or a new one that must replace it if it was full.
+     */
+    static int[] append(int[] bucket, int id) {
+        if (bucket == null) {
+            return new int[] {1, id};
+        }
+        int size = bucket[0];
+        if (size + 1 == bucket.length) {
+            bucket = Arrays.copyOf(bucket, 1 + size * 2);
+        }
+        bucket[size + 1] = id;
+        SLOT.setRelease(bucket, 0, size + 1); // Publishes the position written above
+        return bucket;
+    }
+
+    /**
+     * Gets the number of positions in a bucket.
+     * @param bucket The bucket.
+     * @return The number of published positions.
+     */
+    static int size(int[] bucket) {
+        return (int) SLOT.getAcquire(bucket, 0);
+    }
+
+    /**
+     * Gets a position from a bucket.
+     * @param bucket The bucket.
+     * @param index The index, below the size observed by the caller.
+     * @return The position.
+     */
+    static int get(int[] bucket, int index) {
+        return bucket[index + 1];
+    }
+
+    /**
+     * Gets the position of the item added first with the title.
+     * @param bucket The bucket.
+     * @return The position.
+     */
+    static int first(int[] bucket) {
+        return bucket[1];
+    }
+}
@@ -0,0 +1,245 @@
+package Movie_Tracker.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from character trigrams to the ids of the texts that contain them.
+ * Ids are the positions of items in the tracker, so postings are kept sorted and
+ * candidate sets for a query can be found by intersecting a few short arrays
+ * instead of scanning every text.
+ * Texts are expected to be case-folded by the caller. One writer may modify the index
+ * while readers query it without locking.
+ */
+public class TrigramIndex {
+    public static final int GRAM_LENGTH = 3;
+    private static final int ROW_BITS = 16; // Batch rows are sorted along with their trigrams in one long
+
+    private Map<Long, Postings> postings;
+
+    /**
+     * Constructor for TrigramIndex. Initializes an empty index.
+     */
+    public TrigramIndex() {
+        this.postings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Indexes a text under the given id.
+     * @param id The id of the item the text belongs to.
+     * @param text The case-folded text to index.
+     */
+    public void add(int id, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            long gram = gramAt(text, i);
+            Postings list = postings.get(gram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(gram, list);
+            }
+            if (!list.tryAppend(id) && !list.contains(id)) {
+                postings.put(gram, list.withInserted(id)); // Out-of-order id, publish a new copy
+            }
+        }
+    }
+
+    /**
+     * Indexes the texts of a batch of newly added items, one posting list at a time: the
+     * trigrams of the whole batch are sorted first, so each list is looked up and grown once
+     * per batch instead of once per text.
+     * @param firstId The id of the first text; the others follow consecutively.
+     * @param texts The case-folded texts to index.
+     * @param count The number of entries of texts in use.
+     */
+    public void addAll(int firstId, String[] texts, int count) {
+        if (count == 1) {
+            add(firstId, texts[0]);
+            return;
+        }
+        for (int from = 0; from < count; from += 1 << ROW_BITS) {
+            addRows(firstId, texts, from, Math.min(count, from + (1 << ROW_BITS)));
+        }
+    }
+
+    private void addRows(int firstId, String[] texts, int from, int to) {
+        int gramCount = 0;
+        for (int row = from; row < to; row++) {
+            gramCount += Math.max(0, texts[row].length() - GRAM_LENGTH + 1);
+        }
+        long[] keys = new long[gramCount];
+        int n = 0;
+        for (int row = from; row < to; row++) {
+            for (int i = 0; i + GRAM_LENGTH <= texts[row].length(); i++) {
+                keys[n++] = gramAt(texts[row], i) << ROW_BITS | (row - from); // Grams take 48 bits
+            }
+        }
+        Arrays.sort(keys); // Groups equal trigrams, with their rows ascending
+        int[] ids = new int[to - from];
+        for (int i = 0; i < n; ) {
+            long gram = keys[i] >>> ROW_BITS;
+            int size = 0;
+            for (; i < n && keys[i] >>> ROW_BITS == gram; i++) {
+                int id = firstId + from + (int) (keys[i] & (1 << ROW_BITS) - 1);
+                if (size == 0 || ids[size - 1] != id) { // A trigram may occur twice in one text
+                    ids[size++] = id;
+                }
+            }
+            Postings list = postings.get(gram);
+            if (list == null) {
+                postings.put(gram, new Postings(Arrays.copyOf(ids, Math.max(4, size)), size));
+            } else if (!list.tryAppendAll(ids, size)) {
+                for (int j = 0; j < size; j++) { // Out-of-order ids, publish a new copy for each
+                    if (!list.contains(ids[j])) {
+                        list = list.withInserted(ids[j]);
+                    }
+                }
+                postings.put(gram, list);
+            }
+        }
+    }
+
+    /**
+     * Removes a previously indexed text, e.g. before re-indexing an edited value.
+     * @param id The id the text was indexed under.
+     * @param text The case-folded text that was indexed.
+     */
+    public void remove(int id, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            long gram = gramAt(text, i);
+            Postings list = postings.get(gram);
+            if (list != null && list.contains(id)) {
+                Postings remaining = list.without(id);
+                if (remaining.size == 0) {
+                    postings.remove(gram);
+                } else {
+                    postings.put(gram, remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the ids of all texts that contain every trigram of the query.
+     * The result is a superset of the real matches, so callers must verify each candidate.
+     * @param query The case-folded query, at least {@link #GRAM_LENGTH} characters long.
+     * @return The candidate ids in ascending order.
+     */
+    public int[] candidates(String query) {
+        int gramCount = query.length() - GRAM_LENGTH + 1;
+        int[][] lists = new int[gramCount][];
+        int[] sizes = new int[gramCount];
+        Integer[] order = new Integer[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            Postings list = postings.get(gramAt(query, i));
+            if (list == null) {
+                return new int[0]; // A missing trigram means nothing can match
+            }
+            sizes[i] = list.size; // Read size first: the ids array seen afterwards holds at least this many
+            lists[i] = list.ids;
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes[a], sizes[b])); // Start from the most selective list
+
+        int[] result = Arrays.copyOf(lists[order[0]], sizes[order[0]]);
+        int resultSize = result.length;
+        for (int i = 1; i < gramCount && resultSize > 0; i++) {
+            int[] ids = lists[order[i]];
+            int size = sizes[order[i]];
+            int kept = 0;
+            for (int j = 0; j < resultSize; j++) {
+                if (Arrays.binarySearch(ids, 0, size, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            resultSize = kept;
+        }
+        return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+    }
+
+    /**
+     * Packs the three characters starting at the given position into a single key.
+     */
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+                | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+
+    /**
+     * Sorted list of ids for one trigram. A list only ever grows at its end; any other change
+     * produces a new list, so readers can take a consistent prefix without locking.
+     */
+    private static class Postings {
+        private int[] ids;
+        private volatile int size; // Written after ids, so a reader that sees it also sees the elements
+
+        Postings() {
+            this(new int[4], 0);
+        }
+
+        private Postings(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        /**
+         * Appends the id if it is larger than every id in the list (the common case,
+         * since items are indexed in insertion order).
+         * @return true if the id was appended.
+         */
+        boolean tryAppend(int id) {
+            int count = size;
+            if (count > 0 && ids[count - 1] >= id) {
+                return false;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count] = id;
+            size = count + 1;
+            return true;
+        }
+
+        /**
+         * Appends ascending ids if the first is larger than every id in the list.
+         * @return true if the ids were appended.
+         */
+        boolean tryAppendAll(int[] added, int addedCount) {
+            int count = size;
+            if (count > 0 && ids[count - 1] >= added[0]) {
+                return false;
+            }
+            if (count + addedCount > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(count * 2, count + addedCount));
+            }
+            System.arraycopy(added, 0, ids, count, addedCount);
+            size = count + addedCount;
+            return true;
+        }
+
+        boolean contains(int id) {
+            int count = size;
+            return Arrays.binarySearch(ids, 0, count, id) >= 0;
+        }
+
+        Postings withInserted(int id) {
+            int count = size;
+            int pos = -Arrays.binarySearch(ids, 0, count, id) - 1;
+            int[] copy = new int[Math.max(4, (count + 1) * 2)];
+            System.arraycopy(ids, 0, copy, 0, pos);
+            copy[pos] = id;
+            System.arraycopy(ids, pos, copy, pos + 1, count - pos);
+            return new Postings(copy, count + 1);
+        }
+
+        Postings without(int id) {
+            int count = size;
+            int pos = Arrays.binarySearch(ids, 0, count, id);
+            int[] copy = new int[Math.max(4, ids.length)];
+            System.arraycopy(ids, 0, copy, 0, pos);
+            System.arraycopy(ids, pos + 1, copy, pos, count - pos - 1);
+            return new Postings(copy, count - 1);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps the earlier states of changed items for as long as a {@link MediaSnapshot} may need them.
+ * <p>
+ * Every change to an item gets the next version number. Before the writer changes an item while
+ * snapshots are open, it prepends the item's current status, progress and rating to that
+ * item's chain of old versions, newest first, unless no snapshot was taken since the item's
+ * previous recorded change; so an item keeps at most one old version per open snapshot.
+ * A snapshot taken at version v reads the oldest entry replaced after v, or the item itself if
+ * there is none. Entries replaced at or before the oldest open snapshot can no longer be read
+ * and are cut off; with no snapshot open nothing is recorded at all, so the writer pays one map
+ * check per change.
+ * <p>
+ * Changes, pinning and trimming happen under the tracker's write lock; snapshots read and unpin
+ * without locking.
+ */
+final class VersionHistory {
+    private final Map<Integer, ItemVersion> chains; // Item position -> newest old version
+    private final ConcurrentSkipListMap<Long, Integer> pins; // Snapshot version -> open snapshots at it
+    private volatile long version; // Number of changes so far; written by the writer only
+    private long trimmedAt = -1; // Oldest pinned version at the last trim; writer only
+
+    VersionHistory() {
+        this.chains = new ConcurrentHashMap<>();
+        this.pins = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Registers a snapshot at the current version. Called with the write lock held.
+     * @return The version the snapshot reads.
+     */
+    long pin() {
+        long pinned = version;
+        pins.merge(pinned, 1, Integer::sum);
+        return pinned;
+    }
+
+    /**
+     * Releases a snapshot; its old versions are dropped by the next {@link #trim()}.
+     * @param pinned The version returned by {@link #pin()}.
+     */
+    void unpin(long pinned) {
+        pins.computeIfPresent(pinned, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Records the state of an item that is about to change and advances the version.
+     * Called with the write lock held, before the item is changed.
+     * @param id The position of the item.
+     * @param item The item, still unchanged.
+     */
+    void beforeChange(int id, MediaItem item) {
+        long next = version + 1;
+        if (!pins.isEmpty()) {
+            trim();
+            ItemVersion newest = chains.get(id);
+            // Only a snapshot taken since the item's last recorded change can read this state
+            if (newest == null || pins.ceilingKey(newest.replacedAt) != null) {
+                chains.put(id, new ItemVersion(next, item, newest)); // Published before the item changes
+            }
+        } else if (!chains.isEmpty()) {
+            trim();
+        }
+        version = next;
+    }
+
+    /**
+     * Drops the old versions no open snapshot can read. Called with the write lock held.
+     */
+    void trim() {
+        Map.Entry<Long, Integer> oldestPin = pins.firstEntry();
+        if (oldestPin == null) {
+            chains.clear();
+            trimmedAt = -1;
+            return;
+        }
+        long oldest = oldestPin.getKey();
+        if (oldest == trimmedAt) {
+            return;
+        }
+        trimmedAt = oldest;
+        for (Iterator<ItemVersion> it = chains.values().iterator(); it.hasNext(); ) {
+            ItemVersion entry = it.next();
+            if (entry.replacedAt <= oldest) {
+                it.remove();
+                continue;
+            }
+            while (entry.older != null && entry.older.replacedAt > oldest) {
+                entry = entry.older;
+            }
+            entry.older = null;
+        }
+    }
+
+    /**
+     * Finds the state an item had at a version.
+     * @param id The position of the item.
+     * @param pinned The version of the snapshot.
+     * @return The oldest entry replaced after the version, or null if the item has not changed since.
+     */
+    ItemVersion stateAt(int id, long pinned) {
+        if (version == pinned) {
+            return null; // Nothing changed since the snapshot; skips the map lookup
+        }
+        ItemVersion found = null;
+        for (ItemVersion entry = chains.get(id); entry != null && entry.replacedAt > pinned; entry = entry.older) {
+            found = entry;
+        }
+        return found;
+    }
+
+    /**
+     * The changeable fields of an item before the change with the given version.
+     */
+    static final class ItemVersion {
+        final long replacedAt;
+        final MovieStatus movieStatus;
+        final TVShowStatus tvShowStatus;
+        final int episodesWatched;
+        final EpisodeProgress episodeProgress; // Immutable, so shared rather than copied
+        final int rating;
+        volatile ItemVersion older; // Cut off by trim once no snapshot can read it
+
+        ItemVersion(long replacedAt, MediaItem item, ItemVersion older) {
+            this.replacedAt = replacedAt;
+            this.movieStatus = item instanceof Movie ? ((Movie) item).getStatus() : null;
+            this.tvShowStatus = item instanceof TVShow ? ((TVShow) item).getOverallStatus() : null;
+            this.episodesWatched = item instanceof TVShow ? ((TVShow) item).getEpisodesWatched() : 0;
+            this.episodeProgress = item instanceof TVShow ? ((TVShow) item).getEpisodeProgress() : null;
+            this.rating = item.getRating();
+            this.older = older;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for what a change stream does when its subscribers fall a whole buffer behind.
+ * - BLOCK: The writer waits for free space, so no event is lost.
+ * - DROP: The writer never waits; events that do not fit are dropped and counted.
+ */
+public enum BackpressurePolicy {
+    BLOCK,
+    DROP
+}
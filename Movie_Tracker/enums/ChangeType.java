@@ -0,0 +1,15 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the kinds of change events published by a MediaTracker.
+ * - ADDED: An item was added.
+ * - STATUS_CHANGED: The status of a movie or the overall status of a TV show changed.
+ * - EPISODES_CHANGED: The number of episodes watched of a TV show changed.
+ * - RATED: The rating of an item changed.
+ */
+public enum ChangeType {
+    ADDED,
+    STATUS_CHANGED,
+    EPISODES_CHANGED,
+    RATED
+}
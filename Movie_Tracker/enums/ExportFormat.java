@@ -0,0 +1,13 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the file formats written by the exporter.
+ * - CSV: Comma-separated values with a header row, readable by the importer.
+ * - JSON_LINES: One flat JSON object per line, readable by the importer.
+ * - BINARY: A short header followed by items in the journal's binary item encoding.
+ */
+public enum ExportFormat {
+    CSV,
+    JSON_LINES,
+    BINARY
+}
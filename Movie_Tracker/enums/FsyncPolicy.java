@@ -0,0 +1,13 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for when the journal forces appended records to disk.
+ * - PER_OP: Every mutation waits until its record is on disk (concurrent writers share one fsync).
+ * - BATCHED: Records are forced by a background flusher at a fixed interval.
+ * - OS_MANAGED: Records are only forced on checkpoint and close; the OS decides otherwise.
+ */
+public enum FsyncPolicy {
+    PER_OP,
+    BATCHED,
+    OS_MANAGED
+}
@@ -0,0 +1,11 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the file formats accepted by the bulk importer.
+ * - CSV: Comma-separated values with a header row naming the columns.
+ * - JSON_LINES: One flat JSON object per line.
+ */
+public enum ImportFormat {
+    CSV,
+    JSON_LINES
+}
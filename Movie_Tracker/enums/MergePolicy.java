@@ -0,0 +1,14 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for how a merge resolves a duplicate whose state differs from the tracked item.
+ * - HIGHEST_RATING: The duplicate wins if it is rated higher.
+ * - MOST_PROGRESS: The duplicate wins if it is further along: more episodes watched for a TV show,
+ *   then the status (TO_WATCH, WATCHING, COMPLETED; TO_WATCH, WATCHED for a movie).
+ * - LATEST_STATUS: The duplicate always wins; the library merged in is taken to be the more recent one.
+ */
+public enum MergePolicy {
+    HIGHEST_RATING,
+    MOST_PROGRESS,
+    LATEST_STATUS
+}
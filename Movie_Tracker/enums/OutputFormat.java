@@ -0,0 +1,11 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the result formats of the batch command mode.
+ * - TEXT: One tab-separated status line per command, followed by any result items.
+ * - JSON_LINES: One JSON object per command.
+ */
+public enum OutputFormat {
+    TEXT,
+    JSON_LINES
+}
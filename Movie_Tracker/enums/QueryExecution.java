@@ -0,0 +1,13 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for how a MediaTracker runs the scans behind searches and filters.
+ * - ADAPTIVE: Split a scan across the common ForkJoin pool when its estimated cost pays for the split.
+ * - SEQUENTIAL: Always scan on the calling thread.
+ * - PARALLEL: Split every scan large enough to be split, regardless of its cost.
+ */
+public enum QueryExecution {
+    ADAPTIVE,
+    SEQUENTIAL,
+    PARALLEL
+}
@@ -0,0 +1,13 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the numeric attributes that support range and top-K queries.
+ * - RELEASE_YEAR: The release year (first release year for TV shows).
+ * - RATING: The rating, 0 for unrated items.
+ * - SEASONS: The number of seasons; only TV shows have one, so movies never match.
+ */
+public enum RangeKey {
+    RELEASE_YEAR,
+    RATING,
+    SEASONS
+}
@@ -0,0 +1,16 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the orders in which tracked media can be listed.
+ * - ADDED: In the order items were added.
+ * - TITLE: By title, A to Z (case-insensitive).
+ * - YEAR: By release year, oldest first (first release year for TV shows).
+ * - RATING: By rating, highest first; unrated items come last.
+ * Items that tie keep the order in which they were added.
+ */
+public enum SortKey {
+    ADDED,
+    TITLE,
+    YEAR,
+    RATING
+}
@@ -0,0 +1,11 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the ways a MediaTracker can store its items.
+ * - OBJECTS: One Movie or TVShow object per item, as added.
+ * - COLUMNS: One primitive column per field; items are handed out as lightweight views.
+ */
+public enum StorageEngine {
+    OBJECTS,
+    COLUMNS
+}
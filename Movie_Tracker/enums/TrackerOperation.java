@@ -0,0 +1,29 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the MediaTracker operations that are timed by its metrics.
+ * - ADD_ITEM: Adding one item.
+ * - ADD_ITEMS: Adding a batch of items.
+ * - FIND: Looking up an item by title (and release year).
+ * - SUGGEST: Suggesting titles close to a misspelled one.
+ * - LIST: Reading one page of a sorted listing.
+ * - SEARCH: Keyword search over titles and genres.
+ * - FILTER: Filtering by status, genre and platform.
+ * - RANGE_QUERY: Range and top-K queries.
+ * - UPDATE: A single status, progress or rating update.
+ * - APPLY_UPDATES: A batch of updates.
+ * - MERGE_ITEMS: Merging a batch of items from another library.
+ */
+public enum TrackerOperation {
+    ADD_ITEM,
+    ADD_ITEMS,
+    FIND,
+    SUGGEST,
+    LIST,
+    SEARCH,
+    FILTER,
+    RANGE_QUERY,
+    UPDATE,
+    APPLY_UPDATES,
+    MERGE_ITEMS
+}
@@ -0,0 +1,17 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the outcome of one command in a batch update.
+ * - APPLIED: The change was made.
+ * - NOT_FOUND: No media item has the given title.
+ * - WRONG_TYPE: The command does not fit the item (e.g., a movie status for a TV show).
+ * - NOT_WATCHED: Rating was refused because the item is not watched/completed yet.
+ * - INVALID_VALUE: The command carries an out-of-range value (e.g., a rating above 5).
+ */
+public enum UpdateResult {
+    APPLIED,
+    NOT_FOUND,
+    WRONG_TYPE,
+    NOT_WATCHED,
+    INVALID_VALUE
+}
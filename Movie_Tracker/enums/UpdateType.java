@@ -0,0 +1,15 @@
+package Movie_Tracker.enums;
+
+/**
+ * Enumeration for the kinds of change a batch update command can make.
+ * - MOVIE_STATUS: Sets the status of a movie.
+ * - TV_SHOW_STATUS: Sets the overall status and episodes watched of a TV show.
+ * - RATING: Rates a watched movie or completed TV show.
+ * - EPISODES_WATCHED: Marks a range of episodes of one season of a TV show as watched.
+ */
+public enum UpdateType {
+    MOVIE_STATUS,
+    TV_SHOW_STATUS,
+    RATING,
+    EPISODES_WATCHED
+}
@@ -0,0 +1,340 @@
+package Movie_Tracker.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output buffer of an export. Values are encoded straight into a direct ByteBuffer, which is
+ * written to the channel whenever it fills up and then reused, so an export of any size needs
+ * one buffer and never builds a String or byte[] per value. Strings are encoded character by
+ * character as UTF-8, escaped for CSV or JSON on the way; as a DataOutput the buffer also
+ * takes the binary item encoding of {@link Movie_Tracker.persistence.MediaCodec}, including its
+ * modified UTF-8 strings. Not thread-safe; an export uses one buffer at a time.
+ */
+final class ExportBuffer implements DataOutput {
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final int MAX_CHAR_BYTES = 6; // The longest encoding of one char: a JSON unicode escape
+
+    private final ByteBuffer buffer;
+    private WritableByteChannel channel; // Null for values encoded in memory
+    private long drained;
+
+    /**
+     * Constructor for ExportBuffer.
+     * @param capacity The size of the direct buffer in bytes.
+     */
+    ExportBuffer(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(Math.max(capacity, 64));
+    }
+
+    private ExportBuffer(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts writing to a channel with an empty buffer.
+     * @param channel The destination.
+     */
+    void attach(WritableByteChannel channel) {
+        this.channel = channel;
+        this.drained = 0;
+        buffer.clear();
+    }
+
+    /**
+     * Gets the number of bytes written so far, including those still buffered.
+     * @return The byte count.
+     */
+    long getBytesWritten() {
+        return drained + buffer.position();
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     * @throws IOException If the channel fails.
+     */
+    void flush() throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("In-memory value exceeds its buffer");
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            drained += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    // --- Text encoding ---
+
+    /**
+     * Encodes a string with CSV escaping, without the surrounding quotes: quotes are doubled and
+     * line breaks become spaces, as the importer reads one record per line.
+     * @param value The string.
+     * @throws IOException If the channel fails.
+     */
+    void writeCsvEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (buffer.remaining() < MAX_CHAR_BYTES) {
+                flush();
+            }
+            if (c == '"') {
+                buffer.put((byte) '"').put((byte) '"');
+            } else if (c == '\n' || c == '\r') {
+                buffer.put((byte) ' ');
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else {
+                i = putUtf8(value, i);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a CSV field must be quoted.
+     * @param value The field.
+     * @return true if it contains a comma, quote or line break.
+     */
+    static boolean needsCsvQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodes a string with JSON escaping, without the surrounding quotes; escapes the same
+     * characters as {@link MediaJsonWriter#writeString(StringBuilder, String)}.
+     * @param value The string.
+     * @throws IOException If the channel fails.
+     */
+    void writeJsonEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (buffer.remaining() < MAX_CHAR_BYTES) {
+                flush();
+            }
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer.put((byte) c);
+                continue;
+            }
+            switch (c) {
+                case '"':
+                case '\\':
+                    buffer.put((byte) '\\').put((byte) c);
+                    break;
+                case '\n':
+                    buffer.put((byte) '\\').put((byte) 'n');
+                    break;
+                case '\r':
+                    buffer.put((byte) '\\').put((byte) 'r');
+                    break;
+                case '\t':
+                    buffer.put((byte) '\\').put((byte) 't');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                              .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+                    } else {
+                        i = putUtf8(value, i);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Encodes the non-ASCII character at a position as UTF-8; a lone surrogate becomes '?'.
+     * @return The position of the last character used, which is the next one for a surrogate pair.
+     */
+    private int putUtf8(String value, int i) {
+        char c = value.charAt(i);
+        if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                  .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+        }
+        return i;
+    }
+
+    /**
+     * Writes a number in decimal without creating a String.
+     * @param value The number.
+     * @throws IOException If the channel fails.
+     */
+    void writeDecimal(int value) throws IOException {
+        if (value < 0) {
+            ensure(1);
+            buffer.put((byte) '-');
+            if (value == Integer.MIN_VALUE) {
+                writeBytes("2147483648");
+                return;
+            }
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    /**
+     * Encodes a value once so that it can be copied into every record that uses it.
+     * @param value The string.
+     * @param json true for JSON escaping, false for CSV escaping.
+     * @return The escaped UTF-8 bytes.
+     */
+    static byte[] escaped(String value, boolean json) {
+        ExportBuffer scratch = new ExportBuffer(ByteBuffer.allocate(value.length() * MAX_CHAR_BYTES + MAX_CHAR_BYTES));
+        try {
+            if (json) {
+                scratch.writeJsonEscaped(value);
+            } else {
+                scratch.writeCsvEscaped(value);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Sized for the worst case, so it never drains
+        }
+        byte[] bytes = new byte[scratch.buffer.position()];
+        scratch.buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    // --- DataOutput ---
+
+    @Override
+    public void write(int b) throws IOException {
+        writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean v) throws IOException {
+        writeByte(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) throws IOException {
+        ensure(1);
+        buffer.put((byte) v);
+    }
+
+    @Override
+    public void writeShort(int v) throws IOException {
+        ensure(Short.BYTES);
+        buffer.putShort((short) v);
+    }
+
+    @Override
+    public void writeChar(int v) throws IOException {
+        ensure(Character.BYTES);
+        buffer.putChar((char) v);
+    }
+
+    @Override
+    public void writeInt(int v) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(v);
+    }
+
+    @Override
+    public void writeLong(long v) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(v);
+    }
+
+    @Override
+    public void writeFloat(float v) throws IOException {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) throws IOException {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeBytes(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            writeByte(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            writeChar(s.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a string in the modified UTF-8 of {@link java.io.DataOutputStream#writeUTF(String)},
+     * without copying it into a temporary array.
+     * @throws UTFDataFormatException If the encoded string is longer than 65535 bytes.
+     */
+    @Override
+    public void writeUTF(String s) throws IOException {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c >= 0x01 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+        }
+        writeShort(length);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            ensure(3);
+            if (c >= 0x01 && c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6 & 0x1F)).put((byte) (0x80 | c & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12 & 0x0F)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package Movie_Tracker.io;
+
+/**
+ * Summary of a finished export.
+ */
+public class ExportReport {
+    private final long exported;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+
+    public ExportReport(long exported, long bytesWritten, long elapsedNanos) {
+        this.exported = exported;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // --- Getters ---
+    public long getExported() {
+        return exported;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the export throughput.
+     * @return Records exported per second.
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : exported * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Provides a one-line summary of the export.
+     * @return A string with counts, elapsed time and throughput.
+     */
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("Exported %,d records, %,.1f MB in %.2f s: %,.0f records/s, %.1f MB/s",
+                exported, bytesWritten / 1e6, seconds, getRecordsPerSecond(),
+                seconds == 0 ? 0 : bytesWritten / 1e6 / seconds);
+    }
+}
@@ -0,0 +1,55 @@
+package Movie_Tracker.io;
+
+/**
+ * Summary of a finished bulk import.
+ */
+public class ImportReport {
+    private final long imported;
+    private final long rejected;
+    private final long bytesRead;
+    private final long elapsedNanos;
+
+    public ImportReport(long imported, long rejected, long bytesRead, long elapsedNanos) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.bytesRead = bytesRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // --- Getters ---
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the import throughput.
+     * @return Records imported per second.
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : imported * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Provides a one-line summary of the import.
+     * @return A string with counts, elapsed time and throughput.
+     */
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("Imported %,d records (%,d rejected), %,.1f MB in %.2f s: %,.0f records/s, %.1f MB/s",
+                imported, rejected, bytesRead / 1e6, seconds, getRecordsPerSecond(),
+                seconds == 0 ? 0 : bytesRead / 1e6 / seconds);
+    }
+}
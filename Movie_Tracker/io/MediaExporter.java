@@ -0,0 +1,366 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.core.MediaSnapshot;
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.ExportFormat;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.SymbolTable;
+import Movie_Tracker.models.TVShow;
+import Movie_Tracker.persistence.MediaCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Streams MediaItems from a MediaTracker to a file, channel or stream as CSV, JSON Lines or
+ * binary records. Items are encoded one at a time into a reusable direct buffer that is
+ * written out whenever it fills, so memory use does not depend on the number of items.
+ * Genres, platforms and statuses are encoded once per export and then copied as bytes, and
+ * numbers and titles are encoded in place, so no String is built per item.
+ * <p>
+ * CSV and JSON Lines use the columns and field names of {@link MediaImporter}, so an export can
+ * be imported again. The binary format is the magic number "MTEX", a version and the item
+ * count as ints, followed by the items in the encoding of {@link MediaCodec#writeItem}, which
+ * {@link MediaCodec#readItem} reads back. An exporter can run several exports at once.
+ */
+public class MediaExporter {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    public static final int BINARY_MAGIC = 0x4D544558; // "MTEX"
+    public static final int BINARY_VERSION = 1;
+
+    private static final byte[] CSV_HEADER = ascii("type,title,genre,year,status,platform,seasons,episodes,rating\n");
+    private static final byte[] CSV_MOVIE = ascii("movie,");
+    private static final byte[] CSV_TV_SHOW = ascii("tv,");
+    private static final byte[] JSON_MOVIE = ascii("{\"type\":\"movie\",\"title\":\"");
+    private static final byte[] JSON_TV_SHOW = ascii("{\"type\":\"tv\",\"title\":\"");
+    private static final byte[] JSON_GENRE = ascii("\",\"genre\":\"");
+    private static final byte[] JSON_PLATFORM = ascii("\",\"platform\":\"");
+    private static final byte[] JSON_YEAR = ascii("\",\"year\":");
+    private static final byte[] JSON_STATUS = ascii(",\"status\":\"");
+    private static final byte[] JSON_SEASONS = ascii("\",\"seasons\":");
+    private static final byte[] JSON_EPISODES = ascii(",\"episodes\":");
+    private static final byte[] JSON_TOTAL_EPISODES = ascii(",\"totalEpisodes\":");
+    private static final byte[] JSON_NEXT_SEASON = ascii(",\"nextSeason\":");
+    private static final byte[] JSON_NEXT_EPISODE = ascii(",\"nextEpisode\":");
+    private static final byte[] JSON_MOVIE_RATING = ascii("\",\"rating\":");
+    private static final byte[] JSON_RATING = ascii(",\"rating\":");
+    private static final byte[] JSON_END = ascii("}\n");
+    private static final byte[] GENRE_SEPARATOR = ascii(", "); // As in SymbolTable.join
+    private static final byte[][] MOVIE_STATUSES = names(MovieStatus.values());
+    private static final byte[][] TV_SHOW_STATUSES = names(TVShowStatus.values());
+
+    private final MediaTracker tracker;
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ExportBuffer> idleBuffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor for MediaExporter with the default buffer size.
+     * @param tracker The tracker to export from.
+     */
+    public MediaExporter(MediaTracker tracker) {
+        this(tracker, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for MediaExporter.
+     * @param tracker The tracker to export from.
+     * @param bufferSize The size in bytes of the buffer written per channel write.
+     */
+    public MediaExporter(MediaTracker tracker, int bufferSize) {
+        this.tracker = tracker;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Guesses the format of a file from its extension (.csv, .bin, otherwise JSON Lines).
+     * @param file The file to export to.
+     * @return The guessed ExportFormat.
+     */
+    public static ExportFormat formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return ExportFormat.CSV;
+        }
+        return name.endsWith(".bin") ? ExportFormat.BINARY : ExportFormat.JSON_LINES;
+    }
+
+    /**
+     * Exports the whole library to a file, as it was when the export started.
+     * @param file The file to create or replace.
+     * @param format The format to write.
+     * @return A report with counts and throughput.
+     * @throws IOException If the file cannot be written.
+     */
+    public ExportReport exportFile(Path file, ExportFormat format) throws IOException {
+        return exportFile(file, format, null);
+    }
+
+    /**
+     * Exports items to a file.
+     * @param file The file to create or replace.
+     * @param format The format to write.
+     * @param items The items to export, e.g. a search or filter result, or null for the whole library.
+     * @return A report with counts and throughput.
+     * @throws IOException If the file cannot be written.
+     */
+    public ExportReport exportFile(Path file, ExportFormat format, List<? extends MediaItem> items) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(channel, format, items);
+        }
+    }
+
+    /**
+     * Exports items to a stream, e.g. an HTTP response body. The stream is not closed.
+     * @param out The destination.
+     * @param format The format to write.
+     * @param items The items to export, or null for the whole library.
+     * @return A report with counts and throughput.
+     * @throws IOException If writing fails.
+     */
+    public ExportReport export(OutputStream out, ExportFormat format, List<? extends MediaItem> items) throws IOException {
+        return export(Channels.newChannel(out), format, items);
+    }
+
+    /**
+     * Exports items to a channel. The channel is not closed.
+     * @param channel The destination.
+     * @param format The format to write.
+     * @param items The items to export, or null for the whole library read from a
+     * {@link MediaTracker#snapshot()}, so concurrent changes do not tear the export.
+     * @return A report with counts and throughput.
+     * @throws IOException If writing fails.
+     */
+    public ExportReport export(WritableByteChannel channel, ExportFormat format, List<? extends MediaItem> items)
+            throws IOException {
+        if (items != null) {
+            return write(channel, format, items);
+        }
+        try (MediaSnapshot snapshot = tracker.snapshot()) {
+            return write(channel, format, snapshot);
+        }
+    }
+
+    private ExportReport write(WritableByteChannel channel, ExportFormat format, List<? extends MediaItem> items)
+            throws IOException {
+        long start = System.nanoTime();
+        ExportBuffer out = idleBuffers.poll();
+        if (out == null) {
+            out = new ExportBuffer(bufferSize);
+        }
+        try {
+            out.attach(channel);
+            switch (format) {
+                case CSV:
+                    writeCsv(out, items);
+                    break;
+                case JSON_LINES:
+                    writeJsonLines(out, items);
+                    break;
+                case BINARY:
+                    writeBinary(out, items);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported export format: " + format);
+            }
+            out.flush();
+            return new ExportReport(items.size(), out.getBytesWritten(), System.nanoTime() - start);
+        } finally {
+            out.attach(null);
+            idleBuffers.add(out);
+        }
+    }
+
+    private static void writeCsv(ExportBuffer out, List<? extends MediaItem> items) throws IOException {
+        Dictionary genres = new Dictionary(SymbolTable.GENRES, false);
+        Dictionary platforms = new Dictionary(SymbolTable.PLATFORMS, false);
+        out.write(CSV_HEADER);
+        for (MediaItem item : items) {
+            Movie movie = item instanceof Movie ? (Movie) item : null;
+            TVShow tvShow = item instanceof TVShow ? (TVShow) item : null;
+            out.write(movie != null ? CSV_MOVIE : CSV_TV_SHOW);
+            String title = item.getTitle();
+            boolean quoted = ExportBuffer.needsCsvQuotes(title);
+            if (quoted) {
+                out.writeByte('"');
+            }
+            out.writeCsvEscaped(title);
+            if (quoted) {
+                out.writeByte('"');
+            }
+            out.writeByte(',');
+            int[] genreIds = item.getGenreIds();
+            quoted = genreIds.length > 1 || genreIds.length == 1 && genres.isQuoted(genreIds[0]);
+            if (quoted) {
+                out.writeByte('"');
+            }
+            writeGenres(out, genres, genreIds);
+            if (quoted) {
+                out.writeByte('"');
+            }
+            out.writeByte(',');
+            if (movie != null) {
+                out.writeDecimal(movie.getReleaseYear());
+                out.writeByte(',');
+                out.write(MOVIE_STATUSES[movie.getStatus().ordinal()]);
+            } else {
+                out.writeDecimal(tvShow.getFirstReleaseYear());
+                out.writeByte(',');
+                out.write(TV_SHOW_STATUSES[tvShow.getOverallStatus().ordinal()]);
+            }
+            out.writeByte(',');
+            int platformId = item.getPlatformId();
+            if (platforms.isQuoted(platformId)) {
+                out.writeByte('"');
+                out.write(platforms.escaped(platformId));
+                out.writeByte('"');
+            } else {
+                out.write(platforms.escaped(platformId));
+            }
+            out.writeByte(',');
+            if (tvShow != null) {
+                out.writeDecimal(tvShow.getNumberOfSeasons());
+                out.writeByte(',');
+                out.writeDecimal(tvShow.getEpisodesWatched());
+            } else {
+                out.writeByte(','); // Movies have no seasons or episodes
+            }
+            out.writeByte(',');
+            out.writeDecimal(item.getRating());
+            out.writeByte('\n');
+        }
+    }
+
+    /**
+     * Writes the same fields as {@link MediaJsonWriter#writeItem(StringBuilder, MediaItem)}.
+     */
+    private static void writeJsonLines(ExportBuffer out, List<? extends MediaItem> items) throws IOException {
+        Dictionary genres = new Dictionary(SymbolTable.GENRES, true);
+        Dictionary platforms = new Dictionary(SymbolTable.PLATFORMS, true);
+        for (MediaItem item : items) {
+            boolean movie = item instanceof Movie;
+            out.write(movie ? JSON_MOVIE : JSON_TV_SHOW);
+            out.writeJsonEscaped(item.getTitle());
+            out.write(JSON_GENRE);
+            writeGenres(out, genres, item.getGenreIds());
+            out.write(JSON_PLATFORM);
+            out.write(platforms.escaped(item.getPlatformId()));
+            out.write(JSON_YEAR);
+            if (movie) {
+                Movie m = (Movie) item;
+                out.writeDecimal(m.getReleaseYear());
+                out.write(JSON_STATUS);
+                out.write(MOVIE_STATUSES[m.getStatus().ordinal()]);
+                out.write(JSON_MOVIE_RATING);
+            } else {
+                TVShow tvShow = (TVShow) item;
+                out.writeDecimal(tvShow.getFirstReleaseYear());
+                out.write(JSON_STATUS);
+                out.write(TV_SHOW_STATUSES[tvShow.getOverallStatus().ordinal()]);
+                out.write(JSON_SEASONS);
+                out.writeDecimal(tvShow.getNumberOfSeasons());
+                out.write(JSON_EPISODES);
+                out.writeDecimal(tvShow.getEpisodesWatched());
+                EpisodeProgress progress = tvShow.getEpisodeProgress();
+                if (progress != null) {
+                    int next = progress.nextUnwatched();
+                    out.write(JSON_TOTAL_EPISODES);
+                    out.writeDecimal(progress.getTotalEpisodes());
+                    out.write(JSON_NEXT_SEASON);
+                    out.writeDecimal(next < 0 ? 0 : progress.seasonOf(next));
+                    out.write(JSON_NEXT_EPISODE);
+                    out.writeDecimal(next < 0 ? 0 : progress.episodeOf(next));
+                }
+                out.write(JSON_RATING);
+            }
+            out.writeDecimal(item.getRating());
+            out.write(JSON_END);
+        }
+    }
+
+    private static void writeBinary(ExportBuffer out, List<? extends MediaItem> items) throws IOException {
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(BINARY_VERSION);
+        out.writeInt(items.size());
+        for (MediaItem item : items) {
+            MediaCodec.writeItem(out, item);
+        }
+    }
+
+    /**
+     * Writes a genre list the way SymbolTable.join spells it, without the surrounding quotes.
+     */
+    private static void writeGenres(ExportBuffer out, Dictionary genres, int[] genreIds) throws IOException {
+        for (int i = 0; i < genreIds.length; i++) {
+            if (i > 0) {
+                out.write(GENRE_SEPARATOR);
+            }
+            out.write(genres.escaped(genreIds[i]));
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = ascii(value.name());
+        }
+        return names;
+    }
+
+    /**
+     * The escaped bytes of the genre or platform names used by one export, encoded on first use.
+     */
+    private static final class Dictionary {
+        private final SymbolTable table;
+        private final boolean json;
+        private byte[][] escaped = new byte[16][];
+        private boolean[] quoted = new boolean[16];
+
+        Dictionary(SymbolTable table, boolean json) {
+            this.table = table;
+            this.json = json;
+        }
+
+        byte[] escaped(int id) {
+            if (id >= escaped.length) {
+                int length = Math.max(id + 1, escaped.length * 2);
+                escaped = Arrays.copyOf(escaped, length);
+                quoted = Arrays.copyOf(quoted, length);
+            }
+            byte[] bytes = escaped[id];
+            if (bytes == null) {
+                String name = table.name(id);
+                bytes = ExportBuffer.escaped(name, json);
+                escaped[id] = bytes;
+                quoted[id] = ExportBuffer.needsCsvQuotes(name);
+            }
+            return bytes;
+        }
+
+        /**
+         * Checks whether a name must be quoted in CSV.
+         */
+        boolean isQuoted(int id) {
+            escaped(id);
+            return quoted[id];
+        }
+    }
+}
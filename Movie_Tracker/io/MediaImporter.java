@@ -0,0 +1,253 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MergeReport;
+import Movie_Tracker.enums.ImportFormat;
+import Movie_Tracker.enums.MergePolicy;
+import Movie_Tracker.models.MediaItem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Streams a CSV or JSON Lines export into a MediaTracker.
+ * The file is read through a FileChannel in fixed-size chunks cut at line boundaries;
+ * chunks are parsed in parallel and each parsed chunk is added to the tracker as one batch,
+ * in file order. At most a few chunks per parser thread are in flight at any time, so memory
+ * use is bounded by the chunk size regardless of the file size. A file can also be merged into
+ * the tracker instead, folding duplicates into the items already tracked.
+ */
+public class MediaImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final MediaTracker tracker;
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Constructor for MediaImporter using one parser thread per available processor.
+     * @param tracker The tracker to import into.
+     */
+    public MediaImporter(MediaTracker tracker) {
+        this(tracker, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor for MediaImporter.
+     * @param tracker The tracker to import into.
+     * @param parallelism The number of parser threads.
+     * @param chunkSize The number of bytes read per chunk; lines longer than this are still handled.
+     */
+    public MediaImporter(MediaTracker tracker, int parallelism, int chunkSize) {
+        this.tracker = tracker;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Guesses the format of a file from its extension (.csv, otherwise JSON Lines).
+     * @param file The file to import.
+     * @return The guessed ImportFormat.
+     */
+    public static ImportFormat formatOf(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? ImportFormat.CSV : ImportFormat.JSON_LINES;
+    }
+
+    /**
+     * Imports a file.
+     * @param file The CSV or JSON Lines file.
+     * @param format The format of the file.
+     * @return A report with counts and throughput.
+     * @throws IOException If the file cannot be read or a CSV file has no valid header.
+     */
+    public ImportReport importFile(Path file, ImportFormat format) throws IOException {
+        return stream(file, format, tracker::addMediaItems);
+    }
+
+    /**
+     * Merges a file into the tracker without creating duplicates; see
+     * {@link MediaTracker#mergeMediaItems(List, MergePolicy)}. The file is read in a single pass
+     * like an import, and each parsed chunk is merged as one batch, so memory use stays bounded
+     * however large the file and the library are.
+     * @param file The CSV or JSON Lines file.
+     * @param format The format of the file.
+     * @param policy How a conflict between a duplicate and the tracked item is resolved.
+     * @return A report with counts and throughput; records that could not be parsed count as dropped.
+     * @throws IOException If the file cannot be read or a CSV file has no valid header.
+     * @throws IllegalArgumentException If the policy is null.
+     */
+    public MergeReport mergeFile(Path file, ImportFormat format, MergePolicy policy) throws IOException {
+        if (policy == null) {
+            throw new IllegalArgumentException("A merge policy is required");
+        }
+        long[] counts = new long[4]; // Added, merged, conflicting, dropped
+        ImportReport read = stream(file, format, items -> {
+            MergeReport batch = tracker.mergeMediaItems(items, policy);
+            counts[0] += batch.getAdded();
+            counts[1] += batch.getMerged();
+            counts[2] += batch.getConflicting();
+            counts[3] += batch.getDropped();
+        });
+        return new MergeReport(counts[0], counts[1], counts[2], counts[3] + read.getRejected(), read.getElapsedNanos());
+    }
+
+    /**
+     * Reads and parses a file, handing each parsed chunk to a sink in file order.
+     * @param sink Receives the items of each chunk; called on the calling thread.
+     * @return A report of the records parsed and rejected.
+     */
+    private ImportReport stream(Path file, ImportFormat format, Consumer<List<MediaItem>> sink) throws IOException {
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        long bytesRead = 0;
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "media-import-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+            MediaRecordParser parser = format == ImportFormat.JSON_LINES ? MediaRecordParser.forJsonLines() : null;
+            int read;
+            while ((read = channel.read(buffer)) >= 0 || buffer.position() > 0) {
+                if (read > 0) {
+                    bytesRead += read;
+                }
+                boolean endOfFile = read < 0;
+                if (!endOfFile && buffer.hasRemaining()) {
+                    continue; // Fill the buffer before cutting a chunk
+                }
+                buffer.flip();
+                int end = endOfFile ? buffer.limit() : lastLineEnd(buffer);
+                if (end < 0) {
+                    buffer = grow(buffer); // A single line is longer than the buffer
+                    continue;
+                }
+                byte[] chunk = new byte[end];
+                buffer.get(chunk);
+                buffer.compact();
+
+                int offset = 0;
+                if (parser == null) { // CSV: the first line is the header
+                    int headerEnd = indexOf(chunk, 0, (byte) '\n');
+                    headerEnd = headerEnd < 0 ? chunk.length : headerEnd;
+                    try {
+                        parser = MediaRecordParser.forCsvHeader(new String(chunk, 0, headerEnd, StandardCharsets.UTF_8));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                    offset = Math.min(chunk.length, headerEnd + 1);
+                }
+                MediaRecordParser chunkParser = parser;
+                int chunkOffset = offset;
+                inFlight.add(parsers.submit(() -> parseChunk(chunk, chunkOffset, chunkParser)));
+                if (inFlight.size() >= parallelism * 2) { // Back-pressure keeps memory bounded
+                    ParsedChunk parsed = await(inFlight.poll());
+                    sink.accept(parsed.items);
+                    imported += parsed.items.size();
+                    rejected += parsed.rejected;
+                }
+                if (endOfFile) {
+                    break;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                ParsedChunk parsed = await(inFlight.poll());
+                sink.accept(parsed.items);
+                imported += parsed.items.size();
+                rejected += parsed.rejected;
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        return new ImportReport(imported, rejected, bytesRead, System.nanoTime() - start);
+    }
+
+    /**
+     * Parses every line of a chunk. Runs on a parser thread.
+     */
+    private static ParsedChunk parseChunk(byte[] chunk, int offset, MediaRecordParser parser) {
+        ParsedChunk parsed = new ParsedChunk();
+        int lineStart = offset;
+        while (lineStart < chunk.length) {
+            int lineEnd = indexOf(chunk, lineStart, (byte) '\n');
+            if (lineEnd < 0) {
+                lineEnd = chunk.length;
+            }
+            String line = new String(chunk, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                MediaItem item = parser.parse(line);
+                if (item != null) {
+                    parsed.items.add(item);
+                } else {
+                    parsed.rejected++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return parsed;
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse import chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Finds the end of the last complete line in a flipped buffer.
+     * @return The number of bytes up to and including the last newline, or -1 if there is none.
+     */
+    private static int lastLineEnd(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= buffer.position(); i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1 - buffer.position();
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer grow(ByteBuffer flipped) {
+        ByteBuffer grown = ByteBuffer.allocate(flipped.capacity() * 2);
+        grown.put(flipped);
+        return grown;
+    }
+
+    private static int indexOf(byte[] bytes, int from, byte value) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The items and rejected line count of one parsed chunk.
+     */
+    private static class ParsedChunk {
+        private final List<MediaItem> items = new ArrayList<>();
+        private int rejected;
+    }
+}
@@ -0,0 +1,92 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+/**
+ * Writes MediaItems as flat JSON objects using the field names understood by
+ * {@link MediaRecordParser}, so the output can be imported again as JSON Lines.
+ * Values are appended straight to a caller-owned buffer.
+ */
+public final class MediaJsonWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private MediaJsonWriter() {
+    }
+
+    /**
+     * Appends one item as a JSON object.
+     * @param out The buffer to append to.
+     * @param item The MediaItem to write.
+     */
+    public static void writeItem(StringBuilder out, MediaItem item) {
+        boolean movie = item instanceof Movie;
+        out.append("{\"type\":\"").append(movie ? "movie" : "tv").append("\",\"title\":");
+        writeString(out, item.getTitle());
+        out.append(",\"genre\":");
+        writeString(out, item.getGenre());
+        out.append(",\"platform\":");
+        writeString(out, item.getPlatform());
+        if (movie) {
+            Movie m = (Movie) item;
+            out.append(",\"year\":").append(m.getReleaseYear())
+               .append(",\"status\":\"").append(m.getStatus()).append('"');
+        } else if (item instanceof TVShow) {
+            TVShow tvShow = (TVShow) item;
+            out.append(",\"year\":").append(tvShow.getFirstReleaseYear())
+               .append(",\"status\":\"").append(tvShow.getOverallStatus()).append('"')
+               .append(",\"seasons\":").append(tvShow.getNumberOfSeasons())
+               .append(",\"episodes\":").append(tvShow.getEpisodesWatched());
+            EpisodeProgress progress = tvShow.getEpisodeProgress();
+            if (progress != null) { // Informational; imports only read the counts above
+                int next = progress.nextUnwatched();
+                out.append(",\"totalEpisodes\":").append(progress.getTotalEpisodes())
+                   .append(",\"nextSeason\":").append(next < 0 ? 0 : progress.seasonOf(next))
+                   .append(",\"nextEpisode\":").append(next < 0 ? 0 : progress.episodeOf(next));
+            }
+        }
+        out.append(",\"rating\":").append(item.getRating()).append('}');
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     * @param out The buffer to append to.
+     * @param value The string to write; null is written as JSON null.
+     */
+    public static void writeString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,342 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.enums.ImportFormat;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Turns one line of a CSV or JSON Lines export into a Movie or TVShow.
+ * Recognized fields (case-insensitive): type ("movie" or "tv"), title, genre,
+ * year (also releaseYear/firstReleaseYear), status (also overallStatus), platform,
+ * seasons (also numberOfSeasons), episodes (also episodesWatched) and rating.
+ * Seasons, episodes and rating are optional; negative seasons or episodes and ratings outside
+ * 0-5 make a line invalid, and so does anything after the object on a JSON line. As in the
+ * tracker, a rating only sticks to a watched movie or a completed TV show; on any other item
+ * it is dropped. Instances are immutable and can be shared between parser threads.
+ */
+public class MediaRecordParser {
+    private static final int TYPE = 0;
+    private static final int TITLE = 1;
+    private static final int GENRE = 2;
+    private static final int YEAR = 3;
+    private static final int STATUS = 4;
+    private static final int PLATFORM = 5;
+    private static final int SEASONS = 6;
+    private static final int EPISODES = 7;
+    private static final int RATING = 8;
+    private static final int FIELD_COUNT = 9;
+
+    private final ImportFormat format;
+    private final int[] csvFields; // CSV column position -> field, -1 for ignored columns
+
+    private MediaRecordParser(ImportFormat format, int[] csvFields) {
+        this.format = format;
+        this.csvFields = csvFields;
+    }
+
+    /**
+     * Creates a parser for CSV lines laid out as described by a header row.
+     * @param headerLine The first line of the file, naming the columns.
+     * @return The parser.
+     * @throws IllegalArgumentException If a required column is missing.
+     */
+    public static MediaRecordParser forCsvHeader(String headerLine) {
+        String[] columns = splitCsv(headerLine);
+        int[] fields = new int[columns.length];
+        boolean[] present = new boolean[FIELD_COUNT];
+        for (int i = 0; i < columns.length; i++) {
+            fields[i] = fieldOf(columns[i]);
+            if (fields[i] >= 0) {
+                present[fields[i]] = true;
+            }
+        }
+        for (int required : new int[] {TYPE, TITLE, GENRE, YEAR, STATUS, PLATFORM}) {
+            if (!present[required]) {
+                throw new IllegalArgumentException("CSV header is missing a required column: " + headerLine);
+            }
+        }
+        return new MediaRecordParser(ImportFormat.CSV, fields);
+    }
+
+    /**
+     * Creates a parser for JSON Lines input.
+     * @return The parser.
+     */
+    public static MediaRecordParser forJsonLines() {
+        return new MediaRecordParser(ImportFormat.JSON_LINES, null);
+    }
+
+    /**
+     * Parses one line.
+     * @param line The line, without its line terminator.
+     * @return The MediaItem, or null if the line is malformed or has invalid values.
+     */
+    public MediaItem parse(String line) {
+        try {
+            String[] values = format == ImportFormat.CSV ? csvValues(line) : JsonObjectReader.read(line);
+            return build(values);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private String[] csvValues(String line) {
+        String[] columns = splitCsv(line);
+        String[] values = new String[FIELD_COUNT];
+        for (int i = 0; i < columns.length && i < csvFields.length; i++) {
+            if (csvFields[i] >= 0) {
+                values[csvFields[i]] = columns[i];
+            }
+        }
+        return values;
+    }
+
+    private static MediaItem build(String[] values) {
+        String type = required(values, TYPE).toLowerCase(Locale.ROOT);
+        String title = required(values, TITLE);
+        String genre = required(values, GENRE);
+        String platform = required(values, PLATFORM);
+        int year = Integer.parseInt(required(values, YEAR).trim());
+        String status = required(values, STATUS).trim().toUpperCase(Locale.ROOT);
+
+        MediaItem item;
+        if (type.equals("movie")) {
+            item = new Movie(title, genre, year, MovieStatus.valueOf(status), platform);
+        } else if (type.equals("tv") || type.equals("tvshow") || type.equals("tv_show") || type.equals("show")) {
+            int seasons = optionalInt(values, SEASONS);
+            int episodes = optionalInt(values, EPISODES);
+            if (seasons < 0 || episodes < 0) {
+                throw new IllegalArgumentException("Seasons and episodes cannot be negative: " + seasons + ", " + episodes);
+            }
+            item = new TVShow(title, genre, year, TVShowStatus.valueOf(status), platform, seasons, episodes);
+        } else {
+            throw new IllegalArgumentException("Unknown media type: " + type);
+        }
+        int rating = optionalInt(values, RATING);
+        if (rating < 0 || rating > 5) {
+            throw new IllegalArgumentException("Rating out of range: " + rating);
+        }
+        if (isWatched(item)) {
+            item.setRating(rating);
+        }
+        return item;
+    }
+
+    /**
+     * Checks whether an item may carry a rating: a watched movie or a completed TV show.
+     */
+    private static boolean isWatched(MediaItem item) {
+        return item instanceof Movie ? ((Movie) item).getStatus() == MovieStatus.WATCHED
+                : ((TVShow) item).getOverallStatus() == TVShowStatus.COMPLETED;
+    }
+
+    private static String required(String[] values, int field) {
+        String value = values[field];
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing field " + field);
+        }
+        return value;
+    }
+
+    private static int optionalInt(String[] values, int field) {
+        String value = values[field];
+        return value == null || value.isBlank() ? 0 : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Maps a column or JSON key name to a field.
+     * @return The field, or -1 if the name is not recognized.
+     */
+    static int fieldOf(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "type":
+                return TYPE;
+            case "title":
+                return TITLE;
+            case "genre":
+                return GENRE;
+            case "year":
+            case "releaseyear":
+            case "firstreleaseyear":
+                return YEAR;
+            case "status":
+            case "overallstatus":
+                return STATUS;
+            case "platform":
+                return PLATFORM;
+            case "seasons":
+            case "numberofseasons":
+                return SEASONS;
+            case "episodes":
+            case "episodeswatched":
+                return EPISODES;
+            case "rating":
+                return RATING;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Splits a CSV line into fields. Fields may be quoted; a doubled quote inside a quoted
+     * field stands for one quote. Quoted fields cannot span lines.
+     */
+    static String[] splitCsv(String line) {
+        String[] fields = new String[8];
+        int count = 0;
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (count == fields.length) {
+                    fields = Arrays.copyOf(fields, count * 2);
+                }
+                fields[count++] = field.toString();
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (count == fields.length) {
+            fields = Arrays.copyOf(fields, count + 1);
+        }
+        fields[count++] = field.toString();
+        return Arrays.copyOf(fields, count);
+    }
+
+    /**
+     * Minimal reader for one flat JSON object whose values are strings, numbers, booleans or null.
+     */
+    private static class JsonObjectReader {
+        private final String text;
+        private int pos;
+
+        private JsonObjectReader(String text) {
+            this.text = text;
+        }
+
+        static String[] read(String line) {
+            JsonObjectReader reader = new JsonObjectReader(line);
+            String[] values = new String[FIELD_COUNT];
+            reader.expect('{');
+            if (reader.peek() == '}') {
+                return values;
+            }
+            do {
+                String key = reader.readString();
+                reader.expect(':');
+                String value = reader.readValue();
+                int field = fieldOf(key);
+                if (field >= 0) {
+                    values[field] = value;
+                }
+            } while (reader.tryConsume(','));
+            reader.expect('}');
+            reader.expectEnd();
+            return values;
+        }
+
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped); // \" \\ \/
+                }
+            }
+        }
+
+        private char peek() {
+            skipWhitespace();
+            return text.charAt(pos);
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at " + pos);
+            }
+            pos++;
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw new IllegalArgumentException("Unexpected text after the object at " + pos);
+            }
+        }
+
+        private boolean tryConsume(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package Movie_Tracker.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: every power of two is split into
+ * 64 linear sub-buckets, so a recorded value is kept with a relative error below 1/64 (about
+ * 1.6%) from 1 ns up to about an hour. Buckets, sum and maximum are striped counters
+ * ({@link LongAdder}), so threads recording at the same time add to separate cells instead of
+ * contending for one word; cells are only allocated for a counter that has been contended.
+ * That keeps recording cheap enough for every call on the hot path. Safe for concurrent
+ * recording and reading; a percentile read while values are being recorded may include some
+ * of them and not others.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = (1L << 42) - 1; // About 73 minutes in nanoseconds
+    private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+    private final LongAdder[] counts;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Constructor for LatencyHistogram. All counts start at zero.
+     */
+    public LatencyHistogram() {
+        this.counts = new LongAdder[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = new LongAdder();
+        }
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records one value.
+     * @param nanos The latency in nanoseconds; negative values count as 0, values above about
+     * an hour as the largest trackable value.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts[bucketOf(value)].increment();
+        sum.add(value);
+        max.accumulate(value); // A new maximum is rare, so this is usually just a read
+    }
+
+    /**
+     * Maps a value to its bucket. Values below 128 get a bucket each; above that, each power of
+     * two [2^k, 2^(k+1)) is split into 64 buckets of width 2^(k-6).
+     */
+    private static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the highest value that maps to a bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = bucket - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Gets the number of recorded values. Summed from the buckets, so that recording does not
+     * pay for a separate counter.
+     * @return The count.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            total += counts[bucket].sum();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     * @return The maximum in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     * @return The mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the value below or at which a given share of the recorded values lie.
+     * @param percentile The percentile, e.g. 99.9.
+     * @return The value in nanoseconds, accurate to within 1/64, or 0 if nothing was recorded.
+     * @throws IllegalArgumentException If the percentile is outside 0-100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long total = getCount();
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket].sum();
+            if (seen >= rank) {
+                return Math.min(highestValueOf(bucket), max.get());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package Movie_Tracker.metrics;
+
+import Movie_Tracker.enums.TrackerOperation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, result sizes and latency distribution of one tracker operation.
+ * Recording takes no lock, and only allocates the first time a counter is contended.
+ */
+public class OperationStats implements OperationStatsMXBean {
+    private final TrackerOperation operation;
+    private final LatencyHistogram latencies;
+    private final LongAdder resultSizeSum;
+
+    /**
+     * Constructor for OperationStats.
+     * @param operation The operation measured.
+     */
+    OperationStats(TrackerOperation operation) {
+        this.operation = operation;
+        this.latencies = new LatencyHistogram();
+        this.resultSizeSum = new LongAdder();
+    }
+
+    /**
+     * Records one completed call.
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param resultSize The number of items returned, added or updated.
+     */
+    void record(long startNanos, int resultSize) {
+        latencies.record(System.nanoTime() - startNanos);
+        resultSizeSum.add(resultSize);
+    }
+
+    // --- Getters ---
+    public TrackerOperation getOperation() {
+        return operation;
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public double getMeanResultSize() {
+        long count = latencies.getCount();
+        return count == 0 ? 0 : (double) resultSizeSum.sum() / count;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMean() / 1_000;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getValueAtPercentile(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getValueAtPercentile(99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencies.getValueAtPercentile(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / 1_000.0;
+    }
+}
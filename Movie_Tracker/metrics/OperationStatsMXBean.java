@@ -0,0 +1,21 @@
+package Movie_Tracker.metrics;
+
+/**
+ * JMX view of the metrics of one tracker operation, registered by
+ * {@link TrackerMetrics#registerMBeans(String)}. Latencies are in microseconds.
+ */
+public interface OperationStatsMXBean {
+    long getCount();
+
+    double getMeanResultSize();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,156 @@
+package Movie_Tracker.metrics;
+
+import Movie_Tracker.enums.TrackerOperation;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Operation metrics of a MediaTracker: per-operation call counts, result sizes and latency
+ * histograms, plus the item count and estimated heap footprint as gauges. The tracker records
+ * every public query and mutation; the cost is two {@link System#nanoTime()} calls and a few
+ * striped counter increments, with no lock, so the metrics are always on.
+ * <p>
+ * The metrics can be published as MXBeans ({@link #registerMBeans(String)}) under
+ * {@code Movie_Tracker:type=Tracker} and {@code Movie_Tracker:type=Operation}, and printed
+ * periodically as text ({@link #startReporter(PrintStream, long, TimeUnit)}).
+ */
+public class TrackerMetrics implements TrackerMetricsMXBean {
+    private static final String DOMAIN = "Movie_Tracker";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final OperationStats[] operations; // Indexed by TrackerOperation ordinal
+    private final LongSupplier itemCount;
+    private final LongSupplier estimatedHeapBytes;
+
+    /**
+     * Constructor for TrackerMetrics.
+     * @param itemCount Reads the number of tracked items.
+     * @param estimatedHeapBytes Reads the estimated heap footprint of the tracker.
+     */
+    public TrackerMetrics(LongSupplier itemCount, LongSupplier estimatedHeapBytes) {
+        TrackerOperation[] values = TrackerOperation.values();
+        this.operations = new OperationStats[values.length];
+        for (TrackerOperation operation : values) {
+            operations[operation.ordinal()] = new OperationStats(operation);
+        }
+        this.itemCount = itemCount;
+        this.estimatedHeapBytes = estimatedHeapBytes;
+    }
+
+    /**
+     * Records one completed call.
+     * @param operation The operation.
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param resultSize The number of items returned, added or updated.
+     */
+    public void record(TrackerOperation operation, long startNanos, int resultSize) {
+        operations[operation.ordinal()].record(startNanos, resultSize);
+    }
+
+    /**
+     * Gets the metrics of one operation.
+     * @param operation The operation.
+     * @return Its metrics.
+     */
+    public OperationStats get(TrackerOperation operation) {
+        return operations[operation.ordinal()];
+    }
+
+    @Override
+    public long getItemCount() {
+        return itemCount.getAsLong();
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+        return estimatedHeapBytes.getAsLong();
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "items=%d estimatedHeap=%.1fMB%n", getItemCount(),
+                getEstimatedHeapBytes() / (1024.0 * 1024.0)));
+        report.append(String.format(Locale.ROOT, "%-14s %10s %9s %10s %10s %10s %10s %10s%n", "operation", "count",
+                "avg size", "mean us", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (OperationStats stats : operations) {
+            if (stats.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format(Locale.ROOT, "%-14s %10d %9.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    stats.getOperation(), stats.getCount(), stats.getMeanResultSize(), stats.getMeanMicros(),
+                    stats.getP50Micros(), stats.getP99Micros(), stats.getP999Micros(), stats.getMaxMicros()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Registers the gauges and one MXBean per operation with the platform MBean server, e.g. for
+     * JConsole or a JMX exporter.
+     * @param name Distinguishes trackers in the same JVM, e.g. "default".
+     * @return Unregisters the beans when closed.
+     * @throws IllegalStateException If beans with this name are already registered.
+     */
+    public Closeable registerMBeans(String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<ObjectName> registered = new ArrayList<>();
+        String tracker = ObjectName.quote(name);
+        try {
+            ObjectName gauges = new ObjectName(DOMAIN + ":type=Tracker,name=" + tracker);
+            server.registerMBean(this, gauges);
+            registered.add(gauges);
+            for (OperationStats stats : operations) {
+                ObjectName operation = new ObjectName(DOMAIN + ":type=Operation,tracker=" + tracker
+                        + ",name=" + stats.getOperation());
+                server.registerMBean(stats, operation);
+                registered.add(operation);
+            }
+        } catch (JMException e) {
+            unregisterAll(server, registered);
+            throw new IllegalStateException("Could not register tracker metrics: " + e.getMessage(), e);
+        }
+        return () -> unregisterAll(server, registered);
+    }
+
+    private static void unregisterAll(MBeanServer server, List<ObjectName> names) {
+        for (ObjectName objectName : names) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                System.err.println("Failed to unregister " + objectName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prints the report at a fixed rate on a background thread.
+     * @param out Where to print, e.g. System.err.
+     * @param period The time between two reports.
+     * @param unit The unit of the period.
+     * @return Stops the reporter when closed.
+     */
+    public Closeable startReporter(PrintStream out, long period, TimeUnit unit) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "media-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> out.print("--- Metrics " + LocalDateTime.now().format(TIMESTAMP)
+                + " ---" + System.lineSeparator() + getReport()), period, period, unit);
+        return reporter::shutdown;
+    }
+}
@@ -0,0 +1,16 @@
+package Movie_Tracker.metrics;
+
+/**
+ * JMX view of the gauges of a tracker, registered by {@link TrackerMetrics#registerMBeans(String)}.
+ */
+public interface TrackerMetricsMXBean {
+    long getItemCount();
+
+    long getEstimatedHeapBytes();
+
+    /**
+     * Gets the text report that the periodic dump prints.
+     * @return One line per operation.
+     */
+    String getReport();
+}
@@ -0,0 +1,461 @@
+package Movie_Tracker.models;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Which episodes of a TV show were watched, season by season. All episodes are numbered in one
+ * sequence (season 1 first) and kept as one bit each in a long[], so a show with 1,000 episodes
+ * costs 16 longs rather than 1,000 objects. Progress objects are immutable: marking episodes
+ * returns a new object, which makes them safe to share between threads and snapshots.
+ * <p>
+ * Seasons and episodes are numbered from 1 in the public methods. The serialized form stores
+ * the season lengths and then the watched episodes as alternating runs of unwatched and watched
+ * episodes, or as the raw bitmap if that is smaller, so typical progress ("everything up to
+ * S03E04") takes a few bytes.
+ */
+public final class EpisodeProgress {
+    public static final int MAX_EPISODES = 1 << 20;
+
+    private static final byte ENCODING_RUNS = 0;
+    private static final byte ENCODING_BITMAP = 1;
+
+    private final int[] seasonStarts; // Index of the first episode of each season, plus the total at the end
+    private final long[] watched;
+    private final int watchedCount;
+
+    private EpisodeProgress(int[] seasonStarts, long[] watched) {
+        this.seasonStarts = seasonStarts;
+        this.watched = watched;
+        int count = 0;
+        for (long word : watched) {
+            count += Long.bitCount(word);
+        }
+        this.watchedCount = count;
+    }
+
+    /**
+     * Creates the progress of a show with nothing watched yet.
+     * @param episodesPerSeason The number of episodes of each season, in order.
+     * @return The progress.
+     * @throws IllegalArgumentException If there is no season, a season has no episodes, or the
+     * show has more than {@link #MAX_EPISODES} episodes.
+     */
+    public static EpisodeProgress of(int... episodesPerSeason) {
+        if (episodesPerSeason.length == 0) {
+            throw new IllegalArgumentException("A TV show needs at least one season");
+        }
+        int[] starts = new int[episodesPerSeason.length + 1];
+        for (int season = 0; season < episodesPerSeason.length; season++) {
+            int episodes = episodesPerSeason[season];
+            if (episodes <= 0) {
+                throw new IllegalArgumentException("Season " + (season + 1) + " must have at least one episode: " + episodes);
+            }
+            if (episodes > MAX_EPISODES - starts[season]) {
+                throw new IllegalArgumentException("A TV show can have at most " + MAX_EPISODES + " episodes");
+            }
+            starts[season + 1] = starts[season] + episodes;
+        }
+        return new EpisodeProgress(starts, new long[wordsFor(starts[episodesPerSeason.length])]);
+    }
+
+    /**
+     * Parses season lengths written as a comma-separated list, e.g. "10, 10, 8".
+     * @param episodesPerSeason The list.
+     * @return The progress with nothing watched.
+     * @throws IllegalArgumentException If the list is malformed, see {@link #of(int...)}.
+     */
+    public static EpisodeProgress parse(String episodesPerSeason) {
+        String[] parts = episodesPerSeason.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                counts[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number of episodes: '" + parts[i].trim() + "'");
+            }
+        }
+        return of(counts);
+    }
+
+    private static int wordsFor(int episodes) {
+        return (episodes + 63) >>> 6;
+    }
+
+    // --- Marking ---
+
+    /**
+     * Marks a range of episodes of one season as watched.
+     * @param season The season, from 1.
+     * @param firstEpisode The first episode of the range, from 1.
+     * @param lastEpisode The last episode of the range, inclusive.
+     * @return The new progress, or this object if all of them were already watched.
+     * @throws IllegalArgumentException If the season or range does not exist.
+     */
+    public EpisodeProgress withWatched(int season, int firstEpisode, int lastEpisode) {
+        checkRange(season, firstEpisode, lastEpisode);
+        int from = seasonStarts[season - 1] + firstEpisode - 1;
+        int to = seasonStarts[season - 1] + lastEpisode; // Exclusive
+        if (isAllWatched(from, to)) {
+            return this;
+        }
+        long[] words = watched.clone();
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from; // Shifts use the low six bits only
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+        } else {
+            words[firstWord] |= firstMask;
+            Arrays.fill(words, firstWord + 1, lastWord, -1L);
+            words[lastWord] |= lastMask;
+        }
+        return new EpisodeProgress(seasonStarts, words);
+    }
+
+    private boolean isAllWatched(int from, int to) {
+        int next = nextUnwatchedFrom(from);
+        return next < 0 || next >= to;
+    }
+
+    private void checkRange(int season, int firstEpisode, int lastEpisode) {
+        if (season < 1 || season > getSeasonCount()) {
+            throw new IllegalArgumentException("No season " + season + "; the show has " + getSeasonCount());
+        }
+        int episodes = getEpisodeCount(season);
+        if (firstEpisode < 1 || lastEpisode < firstEpisode || lastEpisode > episodes) {
+            throw new IllegalArgumentException("Invalid episode range " + firstEpisode + "-" + lastEpisode
+                    + " for season " + season + " with " + episodes + " episodes");
+        }
+    }
+
+    // --- Queries ---
+
+    /**
+     * Checks whether an episode was watched.
+     * @param season The season, from 1.
+     * @param episode The episode, from 1.
+     * @return true if watched.
+     * @throws IllegalArgumentException If the episode does not exist.
+     */
+    public boolean isWatched(int season, int episode) {
+        checkRange(season, episode, episode);
+        int index = seasonStarts[season - 1] + episode - 1;
+        return (watched[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Finds the first episode not watched yet, in season and episode order.
+     * @return Its index in the sequence of all episodes (see {@link #seasonOf(int)} and
+     * {@link #episodeOf(int)}), or -1 if every episode was watched.
+     */
+    public int nextUnwatched() {
+        return nextUnwatchedFrom(0);
+    }
+
+    private int nextUnwatchedFrom(int from) {
+        int total = getTotalEpisodes();
+        if (from >= total) {
+            return -1;
+        }
+        int wordIndex = from >>> 6;
+        long unwatched = ~watched[wordIndex] & -1L << from;
+        while (true) {
+            if (unwatched != 0) {
+                int index = (wordIndex << 6) + Long.numberOfTrailingZeros(unwatched);
+                return index < total ? index : -1;
+            }
+            if (++wordIndex == watched.length) {
+                return -1;
+            }
+            unwatched = ~watched[wordIndex];
+        }
+    }
+
+    /**
+     * Gets the season of an episode index.
+     * @param index The index of the episode among all episodes, from 0.
+     * @return The season, from 1.
+     */
+    public int seasonOf(int index) {
+        if (index < 0 || index >= getTotalEpisodes()) {
+            throw new IllegalArgumentException("No episode at index " + index);
+        }
+        int found = Arrays.binarySearch(seasonStarts, index);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    /**
+     * Gets the number of an episode within its season.
+     * @param index The index of the episode among all episodes, from 0.
+     * @return The episode, from 1.
+     */
+    public int episodeOf(int index) {
+        return index - seasonStarts[seasonOf(index) - 1] + 1;
+    }
+
+    public int getSeasonCount() {
+        return seasonStarts.length - 1;
+    }
+
+    /**
+     * Gets the number of episodes of a season.
+     * @param season The season, from 1.
+     * @return The number of episodes.
+     */
+    public int getEpisodeCount(int season) {
+        return seasonStarts[season] - seasonStarts[season - 1];
+    }
+
+    public int getTotalEpisodes() {
+        return seasonStarts[seasonStarts.length - 1];
+    }
+
+    public int getWatchedCount() {
+        return watchedCount;
+    }
+
+    /**
+     * Checks whether another progress describes a show with the same seasons and episodes.
+     * @param other The other progress.
+     * @return true if both have the same number of episodes in every season.
+     */
+    public boolean hasSameSeasons(EpisodeProgress other) {
+        return Arrays.equals(seasonStarts, other.seasonStarts);
+    }
+
+    /**
+     * Gets the share of episodes watched.
+     * @return The percentage, 0-100.
+     */
+    public double getPercentComplete() {
+        return watchedCount * 100.0 / getTotalEpisodes();
+    }
+
+    public boolean isStarted() {
+        return watchedCount > 0;
+    }
+
+    public boolean isComplete() {
+        return watchedCount == getTotalEpisodes();
+    }
+
+    // --- Serialization ---
+
+    /**
+     * Writes the progress in its compact form.
+     * @param out The destination.
+     * @throws IOException If writing fails.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        writeVarInt(out, getSeasonCount());
+        for (int season = 1; season <= getSeasonCount(); season++) {
+            writeVarInt(out, getEpisodeCount(season));
+        }
+        int[] runs = runs();
+        int usedWords = watched.length;
+        while (usedWords > 0 && watched[usedWords - 1] == 0) {
+            usedWords--;
+        }
+        if (runs.length * 3 <= usedWords * Long.BYTES) { // A varint run takes 1-3 bytes
+            out.writeByte(ENCODING_RUNS);
+            writeVarInt(out, runs.length);
+            for (int run : runs) {
+                writeVarInt(out, run);
+            }
+        } else {
+            out.writeByte(ENCODING_BITMAP);
+            writeVarInt(out, usedWords);
+            for (int i = 0; i < usedWords; i++) {
+                out.writeLong(watched[i]);
+            }
+        }
+    }
+
+    /**
+     * Splits the episodes into alternating runs, unwatched first; the last watched run ends the
+     * list, as everything after it is unwatched.
+     */
+    private int[] runs() {
+        int[] runs = new int[8];
+        int count = 0;
+        int position = 0;
+        int total = getTotalEpisodes();
+        while (position < total) {
+            int watchedFrom = nextWatchedFrom(position);
+            if (watchedFrom < 0) {
+                break;
+            }
+            int unwatchedFrom = nextUnwatchedFrom(watchedFrom);
+            int end = unwatchedFrom < 0 ? total : unwatchedFrom;
+            if (count + 2 > runs.length) {
+                runs = Arrays.copyOf(runs, runs.length * 2);
+            }
+            runs[count++] = watchedFrom - position;
+            runs[count++] = end - watchedFrom;
+            position = end;
+        }
+        return Arrays.copyOf(runs, count);
+    }
+
+    private int nextWatchedFrom(int from) {
+        int wordIndex = from >>> 6;
+        long set = watched[wordIndex] & -1L << from;
+        while (true) {
+            if (set != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(set);
+            }
+            if (++wordIndex == watched.length) {
+                return -1;
+            }
+            set = watched[wordIndex];
+        }
+    }
+
+    /**
+     * Reads progress written by {@link #writeTo(DataOutput)}.
+     * @param in The source.
+     * @return The progress.
+     * @throws IOException If reading fails or the data is malformed.
+     */
+    public static EpisodeProgress readFrom(DataInput in) throws IOException {
+        int seasons = readVarInt(in);
+        if (seasons <= 0 || seasons > MAX_EPISODES) {
+            throw new IOException("Invalid season count: " + seasons);
+        }
+        int[] counts = new int[seasons];
+        for (int season = 0; season < seasons; season++) {
+            counts[season] = readVarInt(in);
+        }
+        EpisodeProgress empty;
+        try {
+            empty = of(counts);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid episode progress: " + e.getMessage(), e);
+        }
+        int total = empty.getTotalEpisodes();
+        long[] words = new long[empty.watched.length];
+        byte encoding = in.readByte();
+        if (encoding == ENCODING_RUNS) {
+            int runCount = readVarInt(in);
+            int position = 0;
+            for (int i = 0; i < runCount; i++) {
+                int run = readVarInt(in);
+                if (run < 0 || run > total - position) {
+                    throw new IOException("Episode runs exceed the " + total + " episodes of the show");
+                }
+                if (i % 2 == 1) {
+                    for (int index = position; index < position + run; index++) {
+                        words[index >>> 6] |= 1L << index;
+                    }
+                }
+                position += run;
+            }
+        } else if (encoding == ENCODING_BITMAP) {
+            int usedWords = readVarInt(in);
+            if (usedWords < 0 || usedWords > words.length) {
+                throw new IOException("Episode bitmap exceeds the " + total + " episodes of the show");
+            }
+            for (int i = 0; i < usedWords; i++) {
+                words[i] = in.readLong();
+            }
+            if (total % 64 != 0 && (words[words.length - 1] & -1L << total) != 0) {
+                throw new IOException("Episode bitmap exceeds the " + total + " episodes of the show");
+            }
+        } else {
+            throw new IOException("Unknown episode progress encoding: " + encoding);
+        }
+        return new EpisodeProgress(empty.seasonStarts, words);
+    }
+
+    /**
+     * Gets the compact form as bytes, see {@link #writeTo(DataOutput)}.
+     * @return The serialized progress.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory streams do not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads progress from bytes returned by {@link #toBytes()}.
+     * @param bytes The serialized progress.
+     * @return The progress.
+     * @throws IOException If the bytes are malformed.
+     */
+    public static EpisodeProgress fromBytes(byte[] bytes) throws IOException {
+        return readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Compares two progresses by their seasons and the episodes watched.
+     * @param o The object to compare with.
+     * @return true if both have the same seasons and the same episodes watched.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EpisodeProgress)) {
+            return false;
+        }
+        EpisodeProgress other = (EpisodeProgress) o;
+        return watchedCount == other.watchedCount && hasSameSeasons(other) && Arrays.equals(watched, other.watched);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(seasonStarts) + Arrays.hashCode(watched);
+    }
+
+    /**
+     * Describes the progress, e.g. "12/30 episodes (40.0%), next S02E03".
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(watchedCount).append('/').append(getTotalEpisodes()).append(" episodes (")
+           .append(String.format(Locale.ROOT, "%.1f", getPercentComplete())).append("%)");
+        int next = nextUnwatched();
+        if (next >= 0) {
+            out.append(", next ").append(String.format(Locale.ROOT, "S%02dE%02d", seasonOf(next), episodeOf(next)));
+        }
+        return out.toString();
+    }
+}
@@ -3,49 +3,132 @@ package Movie_Tracker.models;
 /**
  * Abstract base class representing a generic media item (Movie or TV Show).
  * Contains common attributes and abstract methods for status management.
+ * <p>
+ * Once an item is added to a MediaTracker, the tracker owns it: the setters then only work
+ * while the tracker applies an update, so every change is indexed and announced by the tracker.
  */
 public abstract class MediaItem {
+    /**
+     * The tracker holding an item, which decides when the item may be changed. Only a subclass
+     * can hand items to an owner, so an item cannot be released from its tracker by hand.
+     */
+    public abstract static class Owner {
+        /**
+         * Checks whether the calling thread may change the owned item right now.
+         * @return true while the owner itself applies a change.
+         */
+        protected abstract boolean allowsChange();
+
+        /**
+         * Hands an item to this owner; from then on only this owner can change it.
+         * Owners check {@link #isOwned(MediaItem)} first, so an item never moves between them.
+         * @param item The item.
+         */
+        protected final void takeOwnership(MediaItem item) {
+            item.owner = this;
+        }
+
+        /**
+         * Checks whether an item is held by an owner already.
+         * @param item The item.
+         * @return true if the item is tracked.
+         */
+        protected static boolean isOwned(MediaItem item) {
+            return item.getOwner() != null;
+        }
+    }
+
     protected String title;
-    protected String genre;
-    protected String platform;
-    protected int rating; // Default 0 if not rated, range 1-5
+    protected int[] genreIds; // Ids in SymbolTable.GENRES; several for a list such as "Sci-Fi, Drama"
+    protected int platformId; // Id in SymbolTable.PLATFORMS
+    protected volatile int rating; // Default 0 if not rated, range 1-5; volatile so updates are visible to all threads
+    private volatile Owner owner; // null while the item is not tracked
 
     /**
      * Constructor for MediaItem.
+     * The genre and platform are stored as shared dictionary ids rather than as Strings.
      * @param title The title of the media item.
-     * @param genre The genre of the media item.
+     * @param genre The genre of the media item, or a comma-separated list of genres.
      * @param platform The platform where the media item is available.
      */
     public MediaItem(String title, String genre, String platform) {
         this.title = title;
-        this.genre = genre;
-        this.platform = platform;
+        this.genreIds = SymbolTable.GENRES.internList(genre);
+        this.platformId = SymbolTable.PLATFORMS.intern(platform);
         this.rating = 0; // Initialize rating to 0 (not rated)
     }
 
+    /**
+     * Constructor for subclasses that keep their values elsewhere, e.g. lightweight views over
+     * column storage. Such subclasses must override every getter and setter.
+     */
+    protected MediaItem() {
+    }
+
     // --- Getters ---
     public String getTitle() {
         return title;
     }
 
     public String getGenre() {
-        return genre;
+        return SymbolTable.GENRES.join(genreIds);
     }
 
     public String getPlatform() {
-        return platform;
+        return SymbolTable.PLATFORMS.name(platformId);
+    }
+
+    /**
+     * Gets the genre ids of the media item.
+     * @return The ids in {@link SymbolTable#GENRES}; the array must not be modified.
+     */
+    public int[] getGenreIds() {
+        return genreIds;
+    }
+
+    /**
+     * Gets the platform id of the media item.
+     * @return The id in {@link SymbolTable#PLATFORMS}.
+     */
+    public int getPlatformId() {
+        return platformId;
     }
 
     public int getRating() {
         return rating;
     }
 
+    /**
+     * Gets the tracker holding the item.
+     * @return The owner, or null if the item is not tracked.
+     */
+    protected Owner getOwner() {
+        return owner;
+    }
+
+    /**
+     * Checks whether the item may be changed by the calling thread, reporting it if not.
+     * Setters call this before changing anything.
+     * @return true if the item is not tracked or its tracker is applying the change.
+     */
+    protected boolean isChangeAllowed() {
+        Owner current = getOwner();
+        if (current == null || current.allowsChange()) {
+            return true;
+        }
+        System.err.println("This item is tracked. Change it through its MediaTracker instead.");
+        return false;
+    }
+
     // --- Setters ---
     /**
      * Sets the rating for the media item.
      * @param rating The rating value (e.g., 1-5).
      */
     public void setRating(int rating) {
+        if (!isChangeAllowed()) {
+            return;
+        }
         if (rating >= 0 && rating <= 5) { // Allow 0 for unrated, 1-5 for actual ratings
             this.rating = rating;
         } else {
@@ -68,15 +151,31 @@ public abstract class MediaItem {
     public abstract Object getStatus(); // Using Object for polymorphism, cast in subclasses
 
     /**
-     * Provides a basic string representation of the media item.
-     * Subclasses should override this for more specific details.
-     * @return A string containing common media item details.
+     * Appends a description of the media item to a buffer, without building intermediate Strings.
+     * Subclasses should override this to add their specific details.
+     * @param out The buffer to append to.
+     */
+    public void describeTo(StringBuilder out) {
+        int rating = getRating();
+        out.append("Title: ").append(getTitle())
+           .append(", Genre: ").append(getGenre())
+           .append(", Platform: ").append(getPlatform())
+           .append(", Rating: ");
+        if (rating == 0) {
+            out.append("Not Rated");
+        } else {
+            out.append(rating);
+        }
+    }
+
+    /**
+     * Provides a string representation of the media item.
+     * @return A string containing the media item details, see {@link #describeTo(StringBuilder)}.
      */
     @Override
     public String toString() {
-        return "Title: " + title +
-               ", Genre: " + genre +
-               ", Platform: " + platform +
-               ", Rating: " + (rating == 0 ? "Not Rated" : rating);
+        StringBuilder out = new StringBuilder(160);
+        describeTo(out);
+        return out.toString();
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,7 @@ import Movie_Tracker.enums.MovieStatus;
  */
 public class Movie extends MediaItem {
     private int releaseYear;
-    private MovieStatus status;
+    private volatile MovieStatus status;
 
     /**
      * Constructor for Movie.
@@ -23,6 +23,13 @@ public class Movie extends MediaItem {
         this.status = status;
     }
 
+    /**
+     * Constructor for subclasses that keep their values elsewhere, e.g. lightweight views over
+     * column storage.
+     */
+    protected Movie() {
+    }
+
     // --- Getters ---
     public int getReleaseYear() {
         return releaseYear;
@@ -40,6 +47,9 @@ public class Movie extends MediaItem {
      */
     @Override
     public void setStatus(Object status) {
+        if (!isChangeAllowed()) {
+            return;
+        }
         if (status instanceof MovieStatus) {
             this.status = (MovieStatus) status;
         } else {
@@ -48,13 +58,14 @@ public class Movie extends MediaItem {
     }
 
     /**
-     * Provides a detailed string representation of the Movie.
-     * @return A string containing movie details.
+     * Appends a detailed description of the Movie.
+     * @param out The buffer to append to.
      */
     @Override
-    public String toString() {
-        return "Movie - " + super.toString() +
-               ", Release Year: " + releaseYear +
-               ", Status: " + status;
+    public void describeTo(StringBuilder out) {
+        out.append("Movie - ");
+        super.describeTo(out);
+        out.append(", Release Year: ").append(getReleaseYear())
+           .append(", Status: ").append(getStatus());
     }
 }
\ No newline at end of file
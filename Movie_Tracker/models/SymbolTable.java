@@ -0,0 +1,178 @@
+package Movie_Tracker.models;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that maps genre or platform names to compact int ids, so that every MediaItem
+ * shares one String per distinct value and comparisons can be done on ids.
+ * Names are matched case-insensitively and with surrounding whitespace ignored; the first
+ * spelling seen for a name is the one returned by {@link #name(int)}.
+ * Ids are never reused or removed. Safe for concurrent use.
+ */
+public final class SymbolTable {
+    public static final SymbolTable GENRES = new SymbolTable();
+    public static final SymbolTable PLATFORMS = new SymbolTable();
+
+    private static final String LIST_SEPARATOR = ",";
+
+    private final Map<String, Integer> ids; // Case-folded name -> id
+    private volatile String[] names; // Display name per id
+    private volatile String[] foldedNames; // Case-folded name per id
+    private volatile int size;
+
+    private SymbolTable() {
+        this.ids = new ConcurrentHashMap<>();
+        this.names = new String[16];
+        this.foldedNames = new String[16];
+    }
+
+    /**
+     * Gets the id of a name, assigning a new one if the name has not been seen yet.
+     * @param name The name (e.g., "Netflix"); null is treated as an empty name.
+     * @return The id.
+     */
+    public int intern(String name) {
+        String trimmed = name == null ? "" : name.trim();
+        String folded = fold(trimmed);
+        Integer id = ids.get(folded);
+        return id != null ? id : add(trimmed, folded);
+    }
+
+    /**
+     * Interns a comma-separated list such as "Sci-Fi, Drama" as a set of ids.
+     * Blank entries and repeated names are dropped; the order of first appearance is kept.
+     * @param list The list of names.
+     * @return The ids, never empty (a blank list is interned as one empty name).
+     */
+    public int[] internList(String list) {
+        if (list == null || !list.contains(LIST_SEPARATOR)) {
+            return new int[] {intern(list)};
+        }
+        String[] parts = list.split(LIST_SEPARATOR);
+        int[] result = new int[parts.length];
+        int count = 0;
+        for (String part : parts) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int id = intern(part);
+            boolean repeated = false;
+            for (int i = 0; i < count && !repeated; i++) {
+                repeated = result[i] == id;
+            }
+            if (!repeated) {
+                result[count++] = id;
+            }
+        }
+        return count == 0 ? new int[] {intern("")} : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Gets the id of a name without assigning one.
+     * @param name The name (case-insensitive).
+     * @return The id, or -1 if the name is unknown.
+     */
+    public int find(String name) {
+        Integer id = name == null ? null : ids.get(fold(name.trim()));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Finds every name that contains the given text, e.g. to answer a substring filter
+     * with a few id lookups instead of a string comparison per item.
+     * @param foldedText The case-folded text to look for.
+     * @return The ids of the matching names, in ascending order.
+     */
+    public int[] idsContaining(String foldedText) {
+        int count = size;
+        String[] folded = foldedNames;
+        int[] result = new int[count];
+        int matches = 0;
+        for (int id = 0; id < count; id++) {
+            if (folded[id].contains(foldedText)) {
+                result[matches++] = id;
+            }
+        }
+        return Arrays.copyOf(result, matches);
+    }
+
+    /**
+     * Gets the display name of an id.
+     * @param id An id returned by this table.
+     * @return The name.
+     */
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the case-folded name of an id, folded once when the name was added.
+     * @param id An id returned by this table.
+     * @return The case-folded name.
+     */
+    public String foldedName(int id) {
+        return foldedNames[id];
+    }
+
+    /**
+     * Joins the names of several ids into a comma-separated list.
+     * @param ids Ids returned by this table.
+     * @return The names separated by ", ".
+     */
+    public String join(int[] ids) {
+        if (ids.length == 1) {
+            return name(ids[0]); // The common case shares the interned String
+        }
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                joined.append(LIST_SEPARATOR).append(' ');
+            }
+            joined.append(name(ids[i]));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Tells whether a case-folded text can match a joined list only across a separator, e.g.
+     * "fi, dr" in "Sci-Fi, Drama". Names are trimmed and never contain the separator, so such
+     * a text contains it or starts with the space that follows it.
+     * @param foldedText The text.
+     * @return Whether the text has to be matched against joined lists, not single names.
+     */
+    public static boolean spansSeparator(String foldedText) {
+        return foldedText.contains(LIST_SEPARATOR) || foldedText.startsWith(" ");
+    }
+
+    /**
+     * Gets the number of ids assigned so far.
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int add(String name, String folded) {
+        Integer existing = ids.get(folded);
+        if (existing != null) {
+            return existing; // Added by another thread while we waited
+        }
+        int id = size;
+        if (id == names.length) {
+            foldedNames = Arrays.copyOf(foldedNames, id * 2);
+            names = Arrays.copyOf(names, id * 2);
+        }
+        foldedNames[id] = folded;
+        names[id] = name;
+        size = id + 1;
+        ids.put(folded, id); // Published last, so whoever finds the id also sees its name
+        return id;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
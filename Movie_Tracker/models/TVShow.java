@@ -7,9 +7,10 @@ import Movie_Tracker.enums.TVShowStatus;
  */
 public class TVShow extends MediaItem {
     private int firstReleaseYear;
-    private TVShowStatus overallStatus;
+    private volatile TVShowStatus overallStatus;
     private int numberOfSeasons;
-    private int episodesWatched;
+    private volatile int episodesWatched;
+    private volatile EpisodeProgress episodeProgress; // Null when only the count of episodes is known
 
     /**
      * Constructor for TVShow.
@@ -30,6 +31,28 @@ public class TVShow extends MediaItem {
         this.episodesWatched = episodesWatched;
     }
 
+    /**
+     * Constructor for a TV show tracked episode by episode. The number of seasons, the episodes
+     * watched and the overall status are derived from the progress.
+     * @param title The title of the TV show.
+     * @param genre The genre of the TV show.
+     * @param firstReleaseYear The year the TV show first premiered.
+     * @param platform The platform where the TV show is available.
+     * @param episodeProgress The seasons of the TV show and the episodes watched.
+     */
+    public TVShow(String title, String genre, int firstReleaseYear, String platform, EpisodeProgress episodeProgress) {
+        this(title, genre, firstReleaseYear, statusOf(episodeProgress, TVShowStatus.TO_WATCH), platform,
+                episodeProgress.getSeasonCount(), episodeProgress.getWatchedCount());
+        this.episodeProgress = episodeProgress;
+    }
+
+    /**
+     * Constructor for subclasses that keep their values elsewhere, e.g. lightweight views over
+     * column storage.
+     */
+    protected TVShow() {
+    }
+
     // --- Getters ---
     public int getFirstReleaseYear() {
         return firstReleaseYear;
@@ -47,6 +70,14 @@ public class TVShow extends MediaItem {
         return episodesWatched;
     }
 
+    /**
+     * Gets the episodes watched, season by season.
+     * @return The progress, or null if the TV show only tracks the number of episodes watched.
+     */
+    public EpisodeProgress getEpisodeProgress() {
+        return episodeProgress;
+    }
+
     // --- Setters ---
     /**
      * Sets the overall status of the TV show.
@@ -55,6 +86,9 @@ public class TVShow extends MediaItem {
      */
     @Override
     public void setStatus(Object status) {
+        if (!isChangeAllowed()) {
+            return;
+        }
         if (status instanceof TVShowStatus) {
             this.overallStatus = (TVShowStatus) status;
         } else {
@@ -67,7 +101,12 @@ public class TVShow extends MediaItem {
      * @param episodesWatched The updated count of episodes watched.
      */
     public void setEpisodesWatched(int episodesWatched) {
-        if (episodesWatched >= 0) {
+        if (!isChangeAllowed()) {
+            return;
+        }
+        if (getEpisodeProgress() != null) {
+            System.err.println("This TV show is tracked episode by episode; mark the episodes watched instead.");
+        } else if (episodesWatched >= 0) {
             this.episodesWatched = episodesWatched;
         } else {
             System.err.println("Episodes watched cannot be negative.");
@@ -75,16 +114,53 @@ public class TVShow extends MediaItem {
     }
 
     /**
-     * Provides a detailed string representation of the TV Show.
-     * @return A string containing TV show details.
+     * Replaces the episodes watched of a TV show tracked episode by episode. The number of
+     * episodes watched follows the progress, and the overall status becomes COMPLETED once every
+     * episode is watched and WATCHING once any is.
+     * @param episodeProgress The new progress, with the same seasons as the current one.
+     */
+    public void setEpisodeProgress(EpisodeProgress episodeProgress) {
+        if (!isChangeAllowed()) {
+            return;
+        }
+        if (this.episodeProgress == null || episodeProgress.getSeasonCount() != this.episodeProgress.getSeasonCount()) {
+            System.err.println("Episode progress must keep the seasons of the TV show.");
+            return;
+        }
+        this.episodeProgress = episodeProgress;
+        this.episodesWatched = episodeProgress.getWatchedCount();
+        this.overallStatus = statusOf(episodeProgress, overallStatus);
+    }
+
+    /**
+     * Derives the overall status from episode progress.
+     * @param episodeProgress The progress.
+     * @param unstarted The status to keep while no episode is watched.
+     * @return COMPLETED, WATCHING or the given status.
+     */
+    protected static TVShowStatus statusOf(EpisodeProgress episodeProgress, TVShowStatus unstarted) {
+        if (episodeProgress.isComplete()) {
+            return TVShowStatus.COMPLETED;
+        }
+        return episodeProgress.isStarted() ? TVShowStatus.WATCHING : unstarted;
+    }
+
+    /**
+     * Appends a detailed description of the TV Show.
+     * @param out The buffer to append to.
      */
     @Override
-    public String toString() {
-        return "TV Show - " + super.toString() +
-               ", First Release Year: " + firstReleaseYear +
-               ", Overall Status: " + overallStatus +
-               ", Seasons: " + numberOfSeasons +
-               ", Episodes Watched: " + episodesWatched;
+    public void describeTo(StringBuilder out) {
+        out.append("TV Show - ");
+        super.describeTo(out);
+        out.append(", First Release Year: ").append(getFirstReleaseYear())
+           .append(", Overall Status: ").append(getOverallStatus())
+           .append(", Seasons: ").append(getNumberOfSeasons())
+           .append(", Episodes Watched: ").append(getEpisodesWatched());
+        EpisodeProgress progress = getEpisodeProgress();
+        if (progress != null) {
+            out.append(", Progress: ").append(progress);
+        }
     }
 
     @Override
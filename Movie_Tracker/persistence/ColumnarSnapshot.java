@@ -0,0 +1,353 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaColumns;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.SymbolTable;
+import Movie_Tracker.models.TVShow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented snapshot of the tracker contents, read through a memory mapping.
+ * Layout (big-endian):
+ * <pre>
+ * header   magic, version, lsn:long, count, genre count, platform count, title heap size
+ * columns  count ints each: kind, release year, rating, status ordinal, seasons,
+ *          episodes watched, genre id, platform id
+ * titles   count+1 int offsets into the heap, then the UTF-8 title heap
+ * dicts    genre strings, then platform strings, each as length + UTF-8 bytes
+ * progress count of TV shows tracked episode by episode, then per show: row, length and the
+ *          compact EpisodeProgress bytes (version 3; version 2 files end after the dictionaries)
+ * </pre>
+ * Opening only maps the file, decodes the two small dictionaries and notes where each episode
+ * progress starts; rows are read on demand.
+ * Snapshots are written to a temporary file and atomically renamed into place.
+ */
+public class ColumnarSnapshot implements MediaColumns {
+    private static final int MAGIC = 0x4D544353; // "MTCS"
+    private static final int VERSION = 3;
+    private static final int MIN_VERSION = 2; // Readable older format without episode progress
+    private static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+    private static final int COLUMN_COUNT = 8;
+
+    private static final int KIND_MOVIE = 0;
+    private static final int KIND_TV_SHOW = 1;
+
+    // Column order inside the file
+    private static final int COL_KIND = 0;
+    private static final int COL_YEAR = 1;
+    private static final int COL_RATING = 2;
+    private static final int COL_STATUS = 3;
+    private static final int COL_SEASONS = 4;
+    private static final int COL_EPISODES = 5;
+    private static final int COL_GENRE = 6;
+    private static final int COL_PLATFORM = 7;
+
+    private final MappedByteBuffer buffer;
+    private final long lsn;
+    private final int count;
+    private final int titleOffsetsStart;
+    private final int titleHeapStart;
+    private final String[] genres;
+    private final String[] platforms;
+    private final int[][] genreSymbols; // Snapshot genre id -> ids in SymbolTable.GENRES
+    private final int[] platformSymbols; // Snapshot platform id -> id in SymbolTable.PLATFORMS
+    private final Map<Integer, Integer> progressOffsets; // Row -> position of its episode progress; sparse
+
+    private ColumnarSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Not a columnar media tracker snapshot");
+        }
+        this.lsn = buffer.getLong(8);
+        this.count = buffer.getInt(16);
+        int genreCount = buffer.getInt(20);
+        int platformCount = buffer.getInt(24);
+        int heapSize = buffer.getInt(28);
+        this.titleOffsetsStart = HEADER_SIZE + COLUMN_COUNT * count * Integer.BYTES;
+        this.titleHeapStart = titleOffsetsStart + (count + 1) * Integer.BYTES;
+        int position = titleHeapStart + heapSize;
+        this.genres = new String[genreCount];
+        position = readDictionary(position, genres);
+        this.platforms = new String[platformCount];
+        position = readDictionary(position, platforms);
+        this.progressOffsets = new HashMap<>();
+        if (version >= 3) {
+            int progressCount = buffer.getInt(position);
+            position += Integer.BYTES;
+            for (int i = 0; i < progressCount; i++) {
+                int length = buffer.getInt(position + Integer.BYTES);
+                progressOffsets.put(buffer.getInt(position), position + 2 * Integer.BYTES);
+                position += 2 * Integer.BYTES + length;
+            }
+        }
+        this.genreSymbols = new int[genreCount][];
+        for (int i = 0; i < genreCount; i++) { // Interned once per distinct value, not once per row
+            genreSymbols[i] = SymbolTable.GENRES.internList(genres[i]);
+        }
+        this.platformSymbols = new int[platformCount];
+        for (int i = 0; i < platformCount; i++) {
+            platformSymbols[i] = SymbolTable.PLATFORMS.intern(platforms[i]);
+        }
+    }
+
+    /**
+     * Maps an existing snapshot.
+     * @param file The snapshot file.
+     * @return The mapped snapshot, or null if the file does not exist.
+     * @throws IOException If the file cannot be mapped or is not a snapshot.
+     */
+    public static ColumnarSnapshot open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ColumnarSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given rows, e.g. a {@link Movie_Tracker.core.MediaSnapshot} of a
+     * tracker. Rows are read field by field, so rows the tracker still holds in a mapped snapshot
+     * are copied without creating an item for each of them.
+     * @param file The snapshot file to replace.
+     * @param lsn The last journal LSN reflected in the rows.
+     * @param rows The rows to store, in insertion order.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path file, long lsn, MediaColumns rows) throws IOException {
+        int count = rows.size();
+        Map<String, Integer> genreIds = new HashMap<>();
+        Map<String, Integer> platformIds = new HashMap<>();
+        int[] genreColumn = new int[count];
+        int[] platformColumn = new int[count];
+        int[] titleOffsets = new int[count + 1];
+        for (int i = 0; i < count; i++) { // First pass: dictionaries and title offsets
+            genreColumn[i] = dictionaryId(genreIds, SymbolTable.GENRES.join(rows.genreIds(i)));
+            platformColumn[i] = dictionaryId(platformIds, SymbolTable.PLATFORMS.name(rows.platformId(i)));
+            titleOffsets[i + 1] = titleOffsets[i] + rows.title(i).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lsn);
+            out.writeInt(count);
+            out.writeInt(genreIds.size());
+            out.writeInt(platformIds.size());
+            out.writeInt(titleOffsets[count]);
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                for (int i = 0; i < count; i++) {
+                    out.writeInt(column == COL_GENRE ? genreColumn[i]
+                            : column == COL_PLATFORM ? platformColumn[i] : columnValue(rows, i, column));
+                }
+            }
+            for (int offset : titleOffsets) {
+                out.writeInt(offset);
+            }
+            for (int i = 0; i < count; i++) {
+                out.write(rows.title(i).getBytes(StandardCharsets.UTF_8));
+            }
+            writeDictionary(out, genreIds);
+            writeDictionary(out, platformIds);
+            writeProgress(out, rows);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        MediaJournal.syncDirectory(file);
+    }
+
+    /**
+     * Gets the LSN of the last journal record reflected in this snapshot.
+     * @return The snapshot LSN.
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public String title(int id) {
+        int start = buffer.getInt(titleOffsetsStart + id * Integer.BYTES);
+        int end = buffer.getInt(titleOffsetsStart + (id + 1) * Integer.BYTES);
+        return decode(titleHeapStart + start, end - start);
+    }
+
+    @Override
+    public int[] genreIds(int id) {
+        return genreSymbols[column(COL_GENRE, id)];
+    }
+
+    @Override
+    public int platformId(int id) {
+        return platformSymbols[column(COL_PLATFORM, id)];
+    }
+
+    @Override
+    public int releaseYear(int id) {
+        return column(COL_YEAR, id);
+    }
+
+    @Override
+    public int rating(int id) {
+        return column(COL_RATING, id);
+    }
+
+    @Override
+    public MovieStatus movieStatus(int id) {
+        return column(COL_KIND, id) == KIND_MOVIE ? MovieStatus.values()[column(COL_STATUS, id)] : null;
+    }
+
+    @Override
+    public TVShowStatus tvShowStatus(int id) {
+        return column(COL_KIND, id) == KIND_TV_SHOW ? TVShowStatus.values()[column(COL_STATUS, id)] : null;
+    }
+
+    @Override
+    public int seasons(int id) {
+        return column(COL_KIND, id) == KIND_TV_SHOW ? column(COL_SEASONS, id) : 0;
+    }
+
+    @Override
+    public int episodesWatched(int id) {
+        return column(COL_KIND, id) == KIND_TV_SHOW ? column(COL_EPISODES, id) : 0;
+    }
+
+    @Override
+    public MediaItem materialize(int id) {
+        MediaItem item;
+        if (column(COL_KIND, id) == KIND_MOVIE) {
+            item = new Movie(title(id), genres[column(COL_GENRE, id)], column(COL_YEAR, id), movieStatus(id),
+                    platforms[column(COL_PLATFORM, id)]);
+        } else if (progressOffsets.containsKey(id)) {
+            item = new TVShow(title(id), genres[column(COL_GENRE, id)], column(COL_YEAR, id),
+                    platforms[column(COL_PLATFORM, id)], episodeProgress(id));
+            item.setStatus(tvShowStatus(id)); // May have been set by hand after episodes were marked
+        } else {
+            item = new TVShow(title(id), genres[column(COL_GENRE, id)], column(COL_YEAR, id), tvShowStatus(id),
+                    platforms[column(COL_PLATFORM, id)], column(COL_SEASONS, id), column(COL_EPISODES, id));
+        }
+        item.setRating(column(COL_RATING, id));
+        return item;
+    }
+
+    /**
+     * Reads one fixed-width value.
+     */
+    private int column(int column, int id) {
+        return buffer.getInt(HEADER_SIZE + (column * count + id) * Integer.BYTES);
+    }
+
+    @Override
+    public EpisodeProgress episodeProgress(int id) {
+        Integer position = progressOffsets.get(id);
+        if (position == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt(position - Integer.BYTES)];
+        buffer.get(position, bytes);
+        try {
+            return EpisodeProgress.fromBytes(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readDictionary(int position, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            int length = buffer.getInt(position);
+            values[i] = decode(position + Integer.BYTES, length);
+            position += Integer.BYTES + length;
+        }
+        return position;
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> ids) throws IOException {
+        String[] values = new String[ids.size()];
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            values[entry.getValue()] = entry.getKey();
+        }
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeProgress(DataOutputStream out, MediaColumns rows) throws IOException {
+        Map<Integer, byte[]> encoded = new HashMap<>();
+        for (int id = 0; id < rows.size(); id++) {
+            EpisodeProgress progress = rows.tvShowStatus(id) != null ? rows.episodeProgress(id) : null;
+            if (progress != null) {
+                encoded.put(id, progress.toBytes());
+            }
+        }
+        out.writeInt(encoded.size());
+        for (Map.Entry<Integer, byte[]> entry : encoded.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+    }
+
+    private static int dictionaryId(Map<String, Integer> ids, String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = ids.size();
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private static int columnValue(MediaColumns rows, int id, int column) {
+        MovieStatus movieStatus = column == COL_KIND || column == COL_STATUS ? rows.movieStatus(id) : null;
+        switch (column) {
+            case COL_KIND:
+                return movieStatus != null ? KIND_MOVIE : KIND_TV_SHOW;
+            case COL_YEAR:
+                return rows.releaseYear(id);
+            case COL_RATING:
+                return rows.rating(id);
+            case COL_STATUS:
+                return movieStatus != null ? movieStatus.ordinal() : rows.tvShowStatus(id).ordinal();
+            case COL_SEASONS:
+                return rows.seasons(id);
+            case COL_EPISODES:
+                return rows.episodesWatched(id);
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Binary encoding of MediaItems and journal operations shared by the journal and snapshot files.
+ */
+public final class MediaCodec {
+    // Journal operation codes
+    public static final byte OP_ADD = 1;
+    public static final byte OP_MOVIE_STATUS = 2;
+    public static final byte OP_TV_SHOW_STATUS = 3;
+    public static final byte OP_RATE = 4;
+    public static final byte OP_EPISODES_WATCHED = 5;
+    public static final byte OP_RELEASE_YEAR = 6; // Prefix narrowing the next update operation to one release year
+
+    // Item type tags
+    private static final byte TYPE_MOVIE = 1;
+    private static final byte TYPE_TV_SHOW = 2;
+    private static final byte TYPE_TV_SHOW_EPISODES = 3; // TV show tracked episode by episode
+
+    private MediaCodec() {
+    }
+
+    /**
+     * Writes a MediaItem, including its current rating and progress.
+     * @param out The destination.
+     * @param item The MediaItem to write.
+     * @throws IOException If writing fails.
+     */
+    public static void writeItem(DataOutput out, MediaItem item) throws IOException {
+        if (item instanceof Movie) {
+            Movie movie = (Movie) item;
+            out.writeByte(TYPE_MOVIE);
+            writeCommon(out, item);
+            out.writeInt(movie.getReleaseYear());
+            out.writeByte(movie.getStatus().ordinal());
+        } else if (item instanceof TVShow && ((TVShow) item).getEpisodeProgress() != null) {
+            TVShow tvShow = (TVShow) item;
+            out.writeByte(TYPE_TV_SHOW_EPISODES);
+            writeCommon(out, item);
+            out.writeInt(tvShow.getFirstReleaseYear());
+            out.writeByte(tvShow.getOverallStatus().ordinal());
+            tvShow.getEpisodeProgress().writeTo(out); // Seasons and episodes watched follow from it
+        } else if (item instanceof TVShow) {
+            TVShow tvShow = (TVShow) item;
+            out.writeByte(TYPE_TV_SHOW);
+            writeCommon(out, item);
+            out.writeInt(tvShow.getFirstReleaseYear());
+            out.writeByte(tvShow.getOverallStatus().ordinal());
+            out.writeInt(tvShow.getNumberOfSeasons());
+            out.writeInt(tvShow.getEpisodesWatched());
+        } else {
+            throw new IOException("Unsupported media item type: " + item.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a MediaItem written by {@link #writeItem(DataOutput, MediaItem)}.
+     * @param in The source.
+     * @return The decoded MediaItem.
+     * @throws IOException If reading fails or the data is malformed.
+     */
+    public static MediaItem readItem(DataInput in) throws IOException {
+        byte type = in.readByte();
+        String title = in.readUTF();
+        String genre = in.readUTF();
+        String platform = in.readUTF();
+        int rating = in.readByte();
+        MediaItem item;
+        if (type == TYPE_MOVIE) {
+            int releaseYear = in.readInt();
+            MovieStatus status = MovieStatus.values()[in.readByte()];
+            item = new Movie(title, genre, releaseYear, status, platform);
+        } else if (type == TYPE_TV_SHOW) {
+            int firstReleaseYear = in.readInt();
+            TVShowStatus status = TVShowStatus.values()[in.readByte()];
+            int numberOfSeasons = in.readInt();
+            int episodesWatched = in.readInt();
+            item = new TVShow(title, genre, firstReleaseYear, status, platform, numberOfSeasons, episodesWatched);
+        } else if (type == TYPE_TV_SHOW_EPISODES) {
+            int firstReleaseYear = in.readInt();
+            TVShowStatus status = TVShowStatus.values()[in.readByte()];
+            item = new TVShow(title, genre, firstReleaseYear, platform, EpisodeProgress.readFrom(in));
+            item.setStatus(status); // May have been set by hand after episodes were marked
+        } else {
+            throw new IOException("Unknown media item type: " + type);
+        }
+        item.setRating(rating);
+        return item;
+    }
+
+    /**
+     * Writes an update command as a journal operation. A command narrowed to one release year is
+     * preceded by an {@link #OP_RELEASE_YEAR} prefix.
+     * @param out The destination.
+     * @param update The update command.
+     * @throws IOException If writing fails.
+     */
+    public static void writeUpdate(DataOutput out, MediaUpdate update) throws IOException {
+        if (update.hasReleaseYear()) {
+            out.writeByte(OP_RELEASE_YEAR);
+            out.writeInt(update.getReleaseYear());
+        }
+        switch (update.getType()) {
+            case MOVIE_STATUS:
+                out.writeByte(OP_MOVIE_STATUS);
+                out.writeUTF(update.getTitle());
+                out.writeByte(update.getMovieStatus().ordinal());
+                break;
+            case TV_SHOW_STATUS:
+                out.writeByte(OP_TV_SHOW_STATUS);
+                out.writeUTF(update.getTitle());
+                out.writeByte(update.getTVShowStatus().ordinal());
+                out.writeInt(update.getEpisodesWatched());
+                break;
+            case EPISODES_WATCHED:
+                out.writeByte(OP_EPISODES_WATCHED);
+                out.writeUTF(update.getTitle());
+                out.writeInt(update.getSeason());
+                out.writeInt(update.getFirstEpisode());
+                out.writeInt(update.getLastEpisode());
+                break;
+            case RATING:
+                out.writeByte(OP_RATE);
+                out.writeUTF(update.getTitle());
+                out.writeByte(update.getRating());
+                break;
+            default:
+                throw new IOException("Unsupported update type: " + update.getType());
+        }
+    }
+
+    /**
+     * Reads one journal operation and applies it to a tracker.
+     * @param in The operation payload.
+     * @param tracker The tracker to apply it to.
+     * @throws IOException If the payload is malformed.
+     */
+    public static void applyOperation(DataInput in, MediaTracker tracker) throws IOException {
+        byte op = in.readByte();
+        switch (op) {
+            case OP_ADD:
+                tracker.addMediaItem(readItem(in));
+                break;
+            case OP_MOVIE_STATUS:
+                tracker.updateMovieStatus(in.readUTF(), MovieStatus.values()[in.readByte()]);
+                break;
+            case OP_TV_SHOW_STATUS:
+                tracker.updateTVShowStatus(in.readUTF(), TVShowStatus.values()[in.readByte()], in.readInt());
+                break;
+            case OP_EPISODES_WATCHED:
+                tracker.markEpisodesWatched(in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+                break;
+            case OP_RATE:
+                tracker.rateMediaItem(in.readUTF(), in.readByte());
+                break;
+            case OP_RELEASE_YEAR:
+                int releaseYear = in.readInt();
+                tracker.applyUpdates(List.of(readUpdate(in).forReleaseYear(releaseYear)));
+                break;
+            default:
+                throw new IOException("Unknown journal operation: " + op);
+        }
+    }
+
+    /**
+     * Reads one update operation as a command.
+     */
+    private static MediaUpdate readUpdate(DataInput in) throws IOException {
+        byte op = in.readByte();
+        switch (op) {
+            case OP_MOVIE_STATUS:
+                return MediaUpdate.movieStatus(in.readUTF(), MovieStatus.values()[in.readByte()]);
+            case OP_TV_SHOW_STATUS:
+                return MediaUpdate.tvShowStatus(in.readUTF(), TVShowStatus.values()[in.readByte()], in.readInt());
+            case OP_EPISODES_WATCHED:
+                return MediaUpdate.episodesWatched(in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+            case OP_RATE:
+                return MediaUpdate.rating(in.readUTF(), in.readByte());
+            default:
+                throw new IOException("Not an update operation: " + op);
+        }
+    }
+
+    private static void writeCommon(DataOutput out, MediaItem item) throws IOException {
+        out.writeUTF(item.getTitle());
+        out.writeUTF(item.getGenre());
+        out.writeUTF(item.getPlatform());
+        out.writeByte(item.getRating());
+    }
+}
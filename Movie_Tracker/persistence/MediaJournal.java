@@ -0,0 +1,350 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.enums.FsyncPolicy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary write-ahead log. Each record is laid out as
+ * [payload length:int][lsn:long][crc32 of lsn+payload:int][payload], and records are only
+ * ever appended, so a mutation costs one sequential write.
+ * Durability follows the configured {@link FsyncPolicy}; with PER_OP, writers that commit
+ * while another writer is forcing the file are covered by a single following fsync (group commit).
+ * A write that fails part way is cut off again, so later records never follow a torn one; if
+ * even that fails, the journal refuses further records.
+ */
+public class MediaJournal implements Closeable {
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final long BATCH_INTERVAL_MILLIS = 50;
+
+    /**
+     * Callback for records found while opening the journal.
+     */
+    public interface RecordHandler {
+        void handle(long lsn, ByteBuffer payload) throws IOException;
+    }
+
+    private final Path file;
+    private volatile FileChannel channel; // Replaced when a checkpoint keeps the newest records
+    private final FsyncPolicy policy;
+    private final Object syncLock = new Object();
+    private final ScheduledExecutorService flusher; // Only used with FsyncPolicy.BATCHED
+    private long lastLsn; // Guarded by this
+    private IOException failure; // Guarded by this; set if a torn record could not be removed
+    private volatile long durableLsn;
+
+    private MediaJournal(Path file, FileChannel channel, FsyncPolicy policy, long lastLsn) {
+        this.file = file;
+        this.channel = channel;
+        this.policy = policy;
+        this.lastLsn = lastLsn;
+        this.durableLsn = lastLsn;
+        if (policy == FsyncPolicy.BATCHED) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "media-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, BATCH_INTERVAL_MILLIS, BATCH_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Opens (or creates) a journal and passes every intact record newer than {@code afterLsn}
+     * to the handler. A torn or corrupt tail left by a crash is truncated away.
+     * @param file The journal file.
+     * @param policy When appended records are forced to disk.
+     * @param afterLsn Records up to and including this LSN are already covered by a snapshot.
+     * @param handler Receives the records to replay, in order.
+     * @return The opened journal, positioned for appending.
+     * @throws IOException If the file cannot be read or a record cannot be applied.
+     */
+    public static MediaJournal open(Path file, FsyncPolicy policy, long afterLsn, RecordHandler handler)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long lastLsn = afterLsn;
+        try {
+            long validEnd = 0;
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            while (validEnd + HEADER_SIZE <= size) {
+                header.clear();
+                channel.read(header, validEnd);
+                header.flip();
+                int length = header.getInt();
+                long lsn = header.getLong();
+                int checksum = header.getInt();
+                if (length < 0 || validEnd + HEADER_SIZE + length > size) {
+                    break; // Torn write at the end of the file
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, validEnd + HEADER_SIZE);
+                payload.flip();
+                crc.reset();
+                crc.update(header.array(), Integer.BYTES, Long.BYTES);
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break; // Corrupt record, nothing after it can be trusted
+                }
+                if (lsn > afterLsn) {
+                    handler.handle(lsn, payload);
+                }
+                lastLsn = Math.max(lastLsn, lsn);
+                validEnd += HEADER_SIZE + length;
+            }
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new MediaJournal(file, channel, policy, lastLsn);
+    }
+
+    /**
+     * Appends a record. Call {@link #commit(long)} afterwards to apply the fsync policy;
+     * doing so outside any caller-side lock lets concurrent writers share one fsync.
+     * @param payload The encoded operation.
+     * @return The LSN assigned to the record.
+     * @throws IOException If the record cannot be written.
+     */
+    public long append(byte[] payload) throws IOException {
+        long lsn;
+        synchronized (this) {
+            lsn = lastLsn + 1;
+            ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+            record.putInt(payload.length).putLong(lsn);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), Integer.BYTES, Long.BYTES);
+            crc.update(payload);
+            record.putInt((int) crc.getValue()).put(payload).flip();
+            write(record);
+            lastLsn = lsn;
+        }
+        return lsn;
+    }
+
+    /**
+     * Appends several records with a single write.
+     * @param payloads The encoded operations, back to back.
+     * @param ends The end offset of each operation within {@code payloads}.
+     * @return The LSN assigned to the last record.
+     * @throws IOException If the records cannot be written.
+     */
+    public synchronized long appendAll(byte[] payloads, int[] ends) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(ends.length * HEADER_SIZE + payloads.length);
+        CRC32 crc = new CRC32();
+        long lsn = lastLsn;
+        int start = 0;
+        for (int end : ends) {
+            int headerStart = records.position();
+            records.putInt(end - start).putLong(++lsn);
+            crc.reset();
+            crc.update(records.array(), headerStart + Integer.BYTES, Long.BYTES);
+            crc.update(payloads, start, end - start);
+            records.putInt((int) crc.getValue()).put(payloads, start, end - start);
+            start = end;
+        }
+        records.flip();
+        write(records);
+        lastLsn = lsn;
+        return lsn;
+    }
+
+    /**
+     * Writes records at the end of the journal. If the write fails, whatever part of it reached
+     * the file is cut off, so the next record starts where this one would have. Called with the
+     * monitor held.
+     * @throws IOException If the records cannot be written, or an earlier torn write could not be removed.
+     */
+    private void write(ByteBuffer records) throws IOException {
+        if (failure != null) {
+            throw new IOException("The journal refuses records after a failed write", failure);
+        }
+        long start = channel.position();
+        try {
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+                failure = e; // A torn record stays behind; anything appended after it would be lost on replay
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until the record with the given LSN is durable, if the policy requires it.
+     * With BATCHED and OS_MANAGED this returns immediately.
+     * @param lsn The LSN returned by {@link #append(byte[])}.
+     * @throws IOException If the file cannot be forced.
+     */
+    public void commit(long lsn) throws IOException {
+        if (policy == FsyncPolicy.PER_OP) {
+            awaitDurable(lsn);
+        }
+    }
+
+    /**
+     * Forces all appended records to disk.
+     * @throws IOException If the file cannot be forced.
+     */
+    public void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            target = lastLsn;
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Discards the records up to and including an LSN, e.g. after they were compacted into a
+     * snapshot, and keeps the records appended since. Those are copied into a new file that
+     * atomically replaces the journal, so a crash leaves either the old or the new journal;
+     * replay skips the records the snapshot covers. LSNs keep increasing.
+     * @param throughLsn The LSN of the last record to discard.
+     * @throws IOException If the journal cannot be rewritten.
+     */
+    public void truncate(long throughLsn) throws IOException {
+        synchronized (syncLock) { // Keeps awaitDurable from forcing a channel being replaced
+            synchronized (this) {
+                long keepFrom = offsetAfter(throughLsn);
+                long size = channel.size();
+                if (keepFrom == size) {
+                    channel.truncate(0);
+                    channel.position(0);
+                    channel.force(true);
+                } else {
+                    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                    FileChannel kept = FileChannel.open(temp, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    try {
+                        for (long copied = 0; copied < size - keepFrom; ) {
+                            copied += channel.transferTo(keepFrom + copied, size - keepFrom - copied, kept);
+                        }
+                        kept.force(true);
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        syncDirectory(file);
+                    } catch (IOException e) {
+                        kept.close();
+                        throw e;
+                    }
+                    kept.position(size - keepFrom);
+                    channel.close();
+                    channel = kept;
+                }
+                durableLsn = lastLsn;
+            }
+        }
+    }
+
+    /**
+     * Forces the directory entry of a file to disk, so that a rename onto it survives a crash.
+     * Skipped where directories cannot be opened, e.g. on Windows, which does not need it.
+     * @param file The file whose parent directory is synced.
+     * @throws IOException If the directory cannot be forced.
+     */
+    static void syncDirectory(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Finds the file offset of the first record newer than an LSN by walking the record headers.
+     * Records are written in LSN order.
+     */
+    private long offsetAfter(long lsn) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long size = channel.size();
+        long offset = 0;
+        while (offset + HEADER_SIZE <= size) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            int length = header.getInt();
+            if (header.getLong() > lsn) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        return Math.min(offset, size);
+    }
+
+    /**
+     * Gets the LSN of the most recently appended record.
+     * @return The last LSN, or the snapshot LSN if nothing was appended since.
+     */
+    public synchronized long getLastLsn() {
+        return lastLsn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            // Let a running flush finish: interrupting it inside force() would close the channel
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(BATCH_INTERVAL_MILLIS * 20, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Makes sure every record up to the given LSN is on disk. Whoever holds the sync lock
+     * forces everything appended so far, so waiting writers usually find their record covered.
+     */
+    private void awaitDurable(long lsn) throws IOException {
+        synchronized (syncLock) {
+            if (durableLsn >= lsn) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = lastLsn;
+            }
+            channel.force(false);
+            durableLsn = target;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Failed to flush media journal: " + e.getMessage());
+        }
+    }
+}
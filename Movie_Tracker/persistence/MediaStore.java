@@ -0,0 +1,272 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaSnapshot;
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.core.MutationLog;
+import Movie_Tracker.enums.FsyncPolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.StorageEngine;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a MediaTracker durable in a data directory. Every mutation is appended to the
+ * journal before the tracker applies it, so a record that cannot be encoded or written fails
+ * the mutation; after a configurable number of records the journal is compacted into a snapshot.
+ * Opening the store maps the latest snapshot, so its rows are only materialized on access, and
+ * replays the journal records written after it.
+ */
+public class MediaStore implements MutationLog, Closeable {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+
+    private static final String SNAPSHOT_FILE = "media.snapshot";
+    private static final String JOURNAL_FILE = "media.journal";
+
+    private final Path directory;
+    private final MediaTracker tracker;
+    private final MediaJournal journal;
+    private final int checkpointInterval;
+    private final ReentrantLock checkpointLock = new ReentrantLock(); // One checkpoint at a time
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private int recordsSinceCheckpoint;
+
+    private MediaStore(Path directory, MediaTracker tracker, MediaJournal journal, int checkpointInterval) {
+        this.directory = directory;
+        this.tracker = tracker;
+        this.journal = journal;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Opens the store in the given directory with the default checkpoint interval.
+     * @param directory The data directory; created if missing.
+     * @param policy When journal records are forced to disk.
+     * @return The opened store.
+     * @throws IOException If the snapshot or journal cannot be read.
+     */
+    public static MediaStore open(Path directory, FsyncPolicy policy) throws IOException {
+        return open(directory, policy, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens the store in the given directory.
+     * @param directory The data directory; created if missing.
+     * @param policy When journal records are forced to disk.
+     * @param checkpointInterval Number of journal records after which a snapshot is taken.
+     * @return The opened store.
+     * @throws IOException If the snapshot or journal cannot be read.
+     */
+    public static MediaStore open(Path directory, FsyncPolicy policy, int checkpointInterval) throws IOException {
+        return open(directory, policy, checkpointInterval, StorageEngine.OBJECTS);
+    }
+
+    /**
+     * Opens the store in the given directory with a choice of in-memory storage.
+     * @param directory The data directory; created if missing.
+     * @param policy When journal records are forced to disk.
+     * @param checkpointInterval Number of journal records after which a snapshot is taken.
+     * @param engine How the tracker stores its items.
+     * @return The opened store.
+     * @throws IOException If the snapshot or journal cannot be read.
+     */
+    public static MediaStore open(Path directory, FsyncPolicy policy, int checkpointInterval,
+                                  StorageEngine engine) throws IOException {
+        Files.createDirectories(directory);
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(directory.resolve(SNAPSHOT_FILE));
+        MediaTracker tracker = snapshot == null ? new MediaTracker(engine) : new MediaTracker(snapshot, engine);
+        long snapshotLsn = snapshot == null ? 0 : snapshot.getLsn();
+        int[] replayed = new int[1];
+        MediaJournal journal = MediaJournal.open(directory.resolve(JOURNAL_FILE), policy, snapshotLsn,
+                (lsn, payload) -> {
+                    MediaCodec.applyOperation(new DataInputStream(
+                            new ByteArrayInputStream(payload.array(), 0, payload.limit())), tracker);
+                    replayed[0]++;
+                });
+        MediaStore store = new MediaStore(directory, tracker, journal, checkpointInterval);
+        store.recordsSinceCheckpoint = replayed[0];
+        tracker.setMutationLog(store); // Attach only after replay so replayed operations are not logged again
+        return store;
+    }
+
+    /**
+     * Gets the tracker backed by this store.
+     * @return The MediaTracker.
+     */
+    public MediaTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Compacts the journal: writes a snapshot of the current contents, then drops the journal
+     * records it covers. The contents are pinned as a {@link MediaSnapshot} together with the
+     * journal position, and written while writers carry on; the records they append meanwhile
+     * stay in the journal. Rows still held in the mapped snapshot the store was opened from are
+     * copied column by column without creating items for them.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            writeCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the snapshot and truncates the journal. Callers hold the checkpoint lock, but not
+     * the tracker's write lock.
+     */
+    private void writeCheckpoint() throws IOException {
+        try (MediaSnapshot snapshot = tracker.snapshot()) {
+            long lsn = snapshot.getLogPosition();
+            ColumnarSnapshot.write(directory.resolve(SNAPSHOT_FILE), lsn, snapshot);
+            journal.truncate(lsn); // A crash before this point is harmless: replay skips records <= lsn
+            synchronized (this) {
+                recordsSinceCheckpoint = (int) (journal.getLastLsn() - lsn);
+            }
+        }
+    }
+
+    /**
+     * Checkpoints if the interval is reached and no checkpoint is running. Called by writers
+     * after the tracker released its write lock.
+     */
+    private void checkpointIfDue() throws IOException {
+        if (isCheckpointDue() && checkpointLock.tryLock()) {
+            try {
+                if (isCheckpointDue()) { // Another writer may have checkpointed meanwhile
+                    writeCheckpoint();
+                }
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+    }
+
+    private synchronized boolean isCheckpointDue() {
+        return recordsSinceCheckpoint >= checkpointInterval;
+    }
+
+    @Override
+    public long position() {
+        return journal.getLastLsn();
+    }
+
+    @Override
+    public void close() throws IOException {
+        tracker.setMutationLog(null);
+        journal.close();
+    }
+
+    @Override
+    public void itemAdded(MediaItem item) {
+        log(out -> {
+            out.writeByte(MediaCodec.OP_ADD);
+            MediaCodec.writeItem(out, item);
+        });
+    }
+
+    @Override
+    public synchronized void itemsAdded(List<? extends MediaItem> items) {
+        try {
+            buffer.reset();
+            int[] ends = new int[items.size()];
+            for (int i = 0; i < ends.length; i++) { // Encode the batch back to back, then write it at once
+                out.writeByte(MediaCodec.OP_ADD);
+                MediaCodec.writeItem(out, items.get(i));
+                ends[i] = buffer.size();
+            }
+            journal.appendAll(buffer.toByteArray(), ends);
+            recordsSinceCheckpoint += ends.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void movieStatusUpdated(String title, MovieStatus status) {
+        log(out -> MediaCodec.writeUpdate(out, MediaUpdate.movieStatus(title, status)));
+    }
+
+    @Override
+    public void tvShowStatusUpdated(String title, TVShowStatus status, int episodesWatched) {
+        log(out -> MediaCodec.writeUpdate(out, MediaUpdate.tvShowStatus(title, status, episodesWatched)));
+    }
+
+    @Override
+    public void episodesWatched(String title, int season, int firstEpisode, int lastEpisode) {
+        log(out -> MediaCodec.writeUpdate(out, MediaUpdate.episodesWatched(title, season, firstEpisode, lastEpisode)));
+    }
+
+    @Override
+    public void itemRated(String title, int rating) {
+        log(out -> MediaCodec.writeUpdate(out, MediaUpdate.rating(title, rating)));
+    }
+
+    @Override
+    public synchronized void updatesApplied(List<MediaUpdate> updates) {
+        try {
+            buffer.reset();
+            int[] ends = new int[updates.size()];
+            for (int i = 0; i < ends.length; i++) { // One journal write for the whole batch
+                MediaCodec.writeUpdate(out, updates.get(i));
+                ends[i] = buffer.size();
+            }
+            journal.appendAll(buffer.toByteArray(), ends);
+            recordsSinceCheckpoint += ends.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes one operation into a journal record.
+     */
+    private interface OperationEncoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Waits until the records logged so far are durable, then checkpoints if the interval is reached.
+     */
+    @Override
+    public void sync() {
+        try {
+            journal.commit(journal.getLastLsn());
+            checkpointIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends an operation to the journal. Called by the tracker with its write lock held;
+     * waiting for durability and checkpointing are left to {@link #sync()}, which runs after
+     * the lock is released so concurrent writers share fsyncs and are not held up by a checkpoint.
+     */
+    private synchronized void log(OperationEncoder encoder) {
+        try {
+            buffer.reset();
+            encoder.encode(out);
+            journal.append(buffer.toByteArray());
+            recordsSinceCheckpoint++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
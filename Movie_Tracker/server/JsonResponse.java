@@ -0,0 +1,123 @@
+package Movie_Tracker.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a JSON response body. Callers append to {@link #buffer()} and call {@link #flushIfFull()}
+ * between values; once the buffer passes a threshold it is encoded straight into a reusable byte
+ * buffer and written to the connection, so a large result never exists as one String or byte[].
+ * A response that fits in the buffer is sent with a Content-Length, larger ones are chunked.
+ * The response is only completed by {@link #send()}; one abandoned halfway, e.g. because building
+ * it failed, is never ended as if it were whole.
+ * Both buffers start at the size of what has actually been written, so a short response such as
+ * an error or an update result costs a few hundred bytes rather than a full chunk.
+ */
+final class JsonResponse {
+    private static final int CHUNK_CHARS = 16 * 1024;
+    private static final int INITIAL_CHARS = 256; // Fits most single-value responses
+
+    private final HttpExchange exchange;
+    private final int status;
+    private final StringBuilder buffer;
+    private final CharsetEncoder encoder;
+    private ByteBuffer bytes; // Allocated on the first encode and reused for the following chunks
+    private OutputStream body; // Null until the headers are sent
+
+    /**
+     * Constructor for JsonResponse.
+     * @param exchange The exchange to answer.
+     * @param status The HTTP status code.
+     */
+    JsonResponse(HttpExchange exchange, int status) {
+        this.exchange = exchange;
+        this.status = status;
+        this.buffer = new StringBuilder(INITIAL_CHARS); // Grows to a chunk only for large responses
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE) // e.g. a lone surrogate in a title
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Gets the buffer that the next JSON values are appended to.
+     * @return The buffer.
+     */
+    StringBuilder buffer() {
+        return buffer;
+    }
+
+    /**
+     * Writes the buffered text to the connection if enough has accumulated.
+     * Only call this between complete values, so no surrogate pair is split.
+     * @throws IOException If the client has gone away.
+     */
+    void flushIfFull() throws IOException {
+        if (buffer.length() >= CHUNK_CHARS) {
+            if (body == null) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(status, 0); // Length 0 selects chunked encoding
+                body = exchange.getResponseBody();
+            }
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Sends whatever is still buffered and completes the response.
+     * @throws IOException If the client has gone away.
+     */
+    void send() throws IOException {
+        if (body == null) {
+            ByteBuffer encoded = encode();
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, encoded.remaining());
+            body = exchange.getResponseBody();
+            body.write(encoded.array(), 0, encoded.remaining());
+        } else {
+            writeBuffer();
+        }
+        body.close();
+    }
+
+    private void writeBuffer() throws IOException {
+        ByteBuffer encoded = encode();
+        body.write(encoded.array(), 0, encoded.remaining());
+    }
+
+    /**
+     * Encodes and clears the buffer.
+     * @return The encoded bytes, between 0 and the limit. Usually the shared byte buffer; a
+     * single oversized value (e.g. a very long title) gets a one-off larger one.
+     */
+    private ByteBuffer encode() {
+        int needed = buffer.length() * 3; // Room for the text even if it is all 3-byte characters
+        ByteBuffer target = bytes;
+        if (target == null || needed > target.capacity()) {
+            // A streamed body takes a whole chunk plus the value that crossed the threshold
+            target = ByteBuffer.allocate(body == null ? needed : Math.max(needed, (CHUNK_CHARS + 1024) * 3));
+            if (bytes == null) {
+                bytes = target;
+            }
+        }
+        target.clear();
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(buffer), target, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(target);
+        }
+        if (!result.isUnderflow()) {
+            throw new IllegalStateException("Response could not be encoded: " + result);
+        }
+        target.flip();
+        buffer.setLength(0);
+        return target;
+    }
+}
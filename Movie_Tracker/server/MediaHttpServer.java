@@ -0,0 +1,532 @@
+package Movie_Tracker.server;
+
+import Movie_Tracker.core.FilterPlan;
+import Movie_Tracker.core.MediaCursor;
+import Movie_Tracker.core.MediaPage;
+import Movie_Tracker.core.MediaStatistics;
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.core.QueryCache;
+import Movie_Tracker.core.RangeQuery;
+import Movie_Tracker.enums.ExportFormat;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.RangeKey;
+import Movie_Tracker.enums.SortKey;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.io.MediaExporter;
+import Movie_Tracker.io.MediaJsonWriter;
+import Movie_Tracker.io.MediaRecordParser;
+import Movie_Tracker.models.MediaItem;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server exposing a MediaTracker as JSON endpoints:
+ * <pre>
+ *   GET  /items?sort=ADDED|TITLE|YEAR|RATING&amp;limit=50&amp;cursor=...   one page of a sorted listing
+ *   POST /items                                              add items, one JSON object per line (at most 16 MB)
+ *   GET  /items/find?title=...[&amp;year=...]                      one item, or 404
+ *   GET  /items/search?q=...                                 title/genre search
+ *   GET  /items/filter?status=...&amp;genre=...&amp;platform=...       filter
+ *   GET  /items/range?key=YEAR|RATING|SEASONS[&amp;min=...][&amp;max=...][&amp;order=asc|desc][&amp;limit=...]
+ *        range or top-K query; also takes the status, genre and platform filters
+ *   POST /movies/status?title=...&amp;status=...
+ *   POST /tv/status?title=...&amp;status=...&amp;episodes=...
+ *   POST /tv/episodes?title=...&amp;season=...&amp;from=...[&amp;to=...]   marks episodes watched
+ *   POST /items/rating?title=...&amp;rating=...
+ *   GET  /stats                                              library and query cache statistics
+ *   GET  /export?format=CSV|JSON_LINES|BINARY[&amp;q=...]         streams the library, a search result,
+ *        or the items matching the status, genre and platform filters
+ * </pre>
+ * Items use the field names of {@link MediaJsonWriter}, so a listing can be posted back as is.
+ * Connections are accepted by the JDK server's selector thread; each request then runs on its
+ * own virtual thread when the runtime offers them (Java 21+), and on a bounded pool of platform
+ * threads otherwise. Request handling never blocks except on the tracker's write lock and the
+ * journal, so thousands of idle or slow connections do not tie up handler threads.
+ */
+public class MediaHttpServer implements Closeable {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final String MAX_IDLE_CONNECTIONS_PROPERTY = "sun.net.httpserver.maxIdleConnections";
+    private static final int MAX_IDLE_CONNECTIONS = 16_384;
+    private static final int BACKLOG = 4096;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 16 << 20; // Of a POST /items body, about 100,000 items
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final MediaTracker tracker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final MediaExporter exporter;
+
+    private MediaHttpServer(MediaTracker tracker, HttpServer server, ExecutorService executor) {
+        this.tracker = tracker;
+        this.exporter = new MediaExporter(tracker);
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving a tracker.
+     * @param tracker The tracker to expose.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @return The running server.
+     * @throws IOException If the address cannot be bound.
+     */
+    public static MediaHttpServer start(MediaTracker tracker, InetSocketAddress address) throws IOException {
+        // The JDK server writes headers and body separately; with Nagle's algorithm the body then
+        // waits for the client's delayed ACK, adding ~40 ms to every keep-alive response. It also
+        // closes keep-alive connections beyond 200 idle ones, which makes busy clients reconnect.
+        // Both settings are read once, when the first server is created; explicit values win.
+        setDefaultProperty(NO_DELAY_PROPERTY, "true");
+        setDefaultProperty(MAX_IDLE_CONNECTIONS_PROPERTY, String.valueOf(MAX_IDLE_CONNECTIONS));
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = newRequestExecutor();
+        MediaHttpServer mediaServer = new MediaHttpServer(tracker, server, executor);
+        server.createContext("/", mediaServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return mediaServer;
+    }
+
+    /**
+     * Gets the port the server listens on.
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, lets running ones finish briefly, and releases the threads.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void setDefaultProperty(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-request executor if the runtime has one. It is looked up
+     * reflectively so the code still compiles and runs on Java 17.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "media-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (RuntimeException e) {
+            if (exchange.getResponseCode() != -1) {
+                // The status and part of the body are already out, so an error body would only be
+                // appended to them. Rethrowing without closing the exchange makes the server drop
+                // the connection, and the client sees the response cut short.
+                throw e;
+            }
+            if (e instanceof IllegalArgumentException) { // Missing or malformed parameters
+                sendError(exchange, 400, e.getMessage());
+            } else { // E.g. the journal could not be written
+                sendError(exchange, 500, String.valueOf(e.getMessage()));
+            }
+        } catch (IOException e) {
+            // The client went away or the body could not be read; release the connection either way
+            exchange.close();
+            throw e;
+        }
+        exchange.close();
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        boolean get = method.equals("GET");
+        boolean post = method.equals("POST");
+        switch (path) {
+            case "/items":
+                if (get) {
+                    listItems(exchange, query);
+                } else if (post) {
+                    addItems(exchange);
+                } else {
+                    sendError(exchange, 405, "Use GET or POST");
+                }
+                break;
+            case "/items/find":
+                if (get) {
+                    findItem(exchange, query);
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            case "/items/search":
+                if (get) {
+                    sendItems(exchange, tracker.searchMediaItems(required(query, "q")));
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            case "/items/filter":
+                if (get) {
+                    sendItems(exchange, tracker.filterMediaItems(query));
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            case "/items/range":
+                if (get) {
+                    queryRange(exchange, query);
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            case "/movies/status":
+                if (post) {
+                    sendUpdate(exchange, MediaUpdate.movieStatus(required(query, "title"),
+                            parseEnum(required(query, "status"), MovieStatus.class)));
+                } else {
+                    sendError(exchange, 405, "Use POST");
+                }
+                break;
+            case "/tv/status":
+                if (post) {
+                    sendUpdate(exchange, MediaUpdate.tvShowStatus(required(query, "title"),
+                            parseEnum(required(query, "status"), TVShowStatus.class),
+                            parseInt(required(query, "episodes"))));
+                } else {
+                    sendError(exchange, 405, "Use POST");
+                }
+                break;
+            case "/tv/episodes":
+                if (post) {
+                    int from = parseInt(required(query, "from"));
+                    sendUpdate(exchange, MediaUpdate.episodesWatched(required(query, "title"),
+                            parseInt(required(query, "season")), from,
+                            query.containsKey("to") ? parseInt(query.get("to")) : from));
+                } else {
+                    sendError(exchange, 405, "Use POST");
+                }
+                break;
+            case "/items/rating":
+                if (post) {
+                    sendUpdate(exchange, MediaUpdate.rating(required(query, "title"),
+                            parseInt(required(query, "rating"))));
+                } else {
+                    sendError(exchange, 405, "Use POST");
+                }
+                break;
+            case "/stats":
+                if (get) {
+                    sendStatistics(exchange);
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            case "/export":
+                if (get) {
+                    export(exchange, query);
+                } else {
+                    sendError(exchange, 405, "Use GET");
+                }
+                break;
+            default:
+                sendError(exchange, 404, "No such endpoint: " + path);
+        }
+    }
+
+    private void listItems(HttpExchange exchange, Map<String, String> query) throws IOException {
+        SortKey sortKey = query.containsKey("sort") ? parseEnum(query.get("sort"), SortKey.class) : SortKey.ADDED;
+        MediaCursor cursor = query.containsKey("cursor") ? MediaCursor.fromToken(query.get("cursor")) : null;
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit")) : DEFAULT_PAGE_SIZE;
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        MediaPage page = tracker.listMediaItems(sortKey, cursor, limit);
+        JsonResponse response = new JsonResponse(exchange, 200);
+        writeItems(response, page.getItems());
+        StringBuilder out = response.buffer();
+        out.append(",\"next\":");
+        MediaJsonWriter.writeString(out, page.hasMore() ? page.getNextCursor().toToken() : null);
+        out.append('}');
+        response.send();
+    }
+
+    private void queryRange(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String key = required(query, "key").trim().toUpperCase(Locale.ROOT);
+        RangeQuery range = RangeQuery.between(key.equals("YEAR") ? RangeKey.RELEASE_YEAR : parseEnum(key, RangeKey.class),
+                query.containsKey("min") ? parseInt(query.get("min")) : Integer.MIN_VALUE,
+                query.containsKey("max") ? parseInt(query.get("max")) : Integer.MAX_VALUE);
+        String order = query.getOrDefault("order", "asc");
+        if (order.equalsIgnoreCase("desc")) {
+            range = range.descending();
+        } else if (!order.equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("order must be asc or desc");
+        }
+        if (query.containsKey("limit")) {
+            range = range.limitedTo(parseInt(query.get("limit")));
+        }
+        if (query.containsKey("status") || query.containsKey("genre") || query.containsKey("platform")) {
+            range = range.filteredBy(FilterPlan.compile(query));
+        }
+        sendItems(exchange, tracker.queryRange(range));
+    }
+
+    /**
+     * Streams an export as the chunked response body; its size is not known in advance.
+     */
+    private void export(HttpExchange exchange, Map<String, String> query) throws IOException {
+        ExportFormat format = query.containsKey("format") ? parseEnum(query.get("format"), ExportFormat.class)
+                : ExportFormat.JSON_LINES;
+        List<MediaItem> items = null; // The whole library
+        if (query.containsKey("q")) {
+            items = tracker.searchMediaItems(query.get("q"));
+        } else if (query.containsKey("status") || query.containsKey("genre") || query.containsKey("platform")) {
+            items = tracker.filterMediaItems(FilterPlan.compile(query));
+        }
+        String contentType;
+        switch (format) {
+            case CSV:
+                contentType = "text/csv; charset=utf-8";
+                break;
+            case JSON_LINES:
+                contentType = "application/x-ndjson; charset=utf-8";
+                break;
+            default:
+                contentType = "application/octet-stream";
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, 0); // Length 0 selects chunked encoding
+        OutputStream body = exchange.getResponseBody();
+        exporter.export(body, format, items);
+        body.close(); // Only after a complete export, so a failed one is not ended as if it were whole
+    }
+
+    /**
+     * Adds every item in the request body, one JSON object per line, as one batch.
+     * Nothing is added if any line is malformed, or if the body is larger than
+     * {@value #MAX_BODY_BYTES} bytes; such a body is answered with 413 without reading the rest.
+     */
+    private void addItems(HttpExchange exchange) throws IOException {
+        String declaredLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        byte[] body = null;
+        if (declaredLength == null || parseLong(declaredLength) <= MAX_BODY_BYTES) {
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(MAX_BODY_BYTES + 1); // Chunked bodies declare no length
+            }
+        }
+        if (body == null || body.length > MAX_BODY_BYTES) {
+            sendError(exchange, 413, "The body is larger than " + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+        MediaRecordParser parser = MediaRecordParser.forJsonLines();
+        List<MediaItem> items = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                MediaItem item = parser.parse(line);
+                if (item == null) {
+                    throw new IllegalArgumentException("Malformed item on line " + lineNumber);
+                }
+                items.add(item);
+            }
+        }
+        tracker.addMediaItems(items);
+        JsonResponse response = new JsonResponse(exchange, 201);
+        response.buffer().append("{\"added\":").append(items.size()).append('}');
+        response.send();
+    }
+
+    private void findItem(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String title = required(query, "title");
+        MediaItem item = query.containsKey("year")
+                ? tracker.findMediaItemByTitle(title, parseInt(query.get("year")))
+                : tracker.findMediaItemByTitle(title);
+        if (item == null) {
+            sendError(exchange, 404, "NOT_FOUND");
+            return;
+        }
+        JsonResponse response = new JsonResponse(exchange, 200);
+        MediaJsonWriter.writeItem(response.buffer(), item);
+        response.send();
+    }
+
+    private void sendUpdate(HttpExchange exchange, MediaUpdate update) throws IOException {
+        UpdateResult result = tracker.applyUpdates(List.of(update)).get(0);
+        int status;
+        switch (result) {
+            case APPLIED:
+                status = 200;
+                break;
+            case NOT_FOUND:
+                status = 404;
+                break;
+            default:
+                status = 409; // The item exists but does not accept this change
+        }
+        JsonResponse response = new JsonResponse(exchange, status);
+        response.buffer().append("{\"result\":\"").append(result).append("\"}");
+        response.send();
+    }
+
+    private void sendStatistics(HttpExchange exchange) throws IOException {
+        MediaStatistics stats = tracker.getStatistics();
+        JsonResponse response = new JsonResponse(exchange, 200);
+        StringBuilder out = response.buffer();
+        out.append("{\"total\":").append(stats.getTotalCount()).append(",\"movies\":{");
+        for (MovieStatus status : MovieStatus.values()) {
+            out.append(status.ordinal() > 0 ? "," : "").append('"').append(status).append("\":")
+               .append(stats.getMovieCount(status));
+        }
+        out.append("},\"tvShows\":{");
+        for (TVShowStatus status : TVShowStatus.values()) {
+            out.append(status.ordinal() > 0 ? "," : "").append('"').append(status).append("\":")
+               .append(stats.getTVShowCount(status));
+        }
+        out.append("},\"averageRating\":").append(stats.getAverageRating())
+           .append(",\"episodesWatched\":").append(stats.getTotalEpisodesWatched())
+           .append(",\"genres\":");
+        writeCounts(out, stats.getGenreCounts());
+        out.append(",\"platforms\":");
+        writeCounts(out, stats.getPlatformCounts());
+        out.append(",\"releaseYears\":");
+        writeCounts(out, stats.getReleaseYearCounts());
+        QueryCache cache = tracker.getQueryCache();
+        out.append(",\"queryCache\":{\"hits\":").append(cache.getHitCount())
+           .append(",\"misses\":").append(cache.getMissCount())
+           .append(",\"evictions\":").append(cache.getEvictionCount())
+           .append(",\"invalidations\":").append(cache.getInvalidationCount())
+           .append(",\"entries\":").append(cache.size()).append("}}");
+        response.send();
+    }
+
+    private static void writeCounts(StringBuilder out, Map<?, Long> counts) {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, Long> entry : counts.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            MediaJsonWriter.writeString(out, String.valueOf(entry.getKey()));
+            out.append(':').append(entry.getValue());
+        }
+        out.append('}');
+    }
+
+    private static void sendItems(HttpExchange exchange, List<MediaItem> items) throws IOException {
+        JsonResponse response = new JsonResponse(exchange, 200);
+        writeItems(response, items);
+        response.buffer().append('}');
+        response.send();
+    }
+
+    /**
+     * Writes {"count":n,"items":[...] and leaves the object open for further fields.
+     */
+    private static void writeItems(JsonResponse response, List<MediaItem> items) throws IOException {
+        StringBuilder out = response.buffer();
+        out.append("{\"count\":").append(items.size()).append(",\"items\":[");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            MediaJsonWriter.writeItem(out, items.get(i));
+            response.flushIfFull();
+        }
+        out.append(']');
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonResponse response = new JsonResponse(exchange, status);
+        response.buffer().append("{\"error\":");
+        MediaJsonWriter.writeString(response.buffer(), message);
+        response.buffer().append('}');
+        response.send();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int parseInt(String value) {
+        return Integer.parseInt(value.trim());
+    }
+
+    private static long parseLong(String value) {
+        return Long.parseLong(value.trim());
+    }
+
+    private static <T extends Enum<T>> T parseEnum(String value, Class<T> enumClass) {
+        return Enum.valueOf(enumClass, value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,286 @@
+package Movie_Tracker.ui;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.OutputFormat;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.io.MediaJsonWriter;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Non-interactive command mode: reads one command per line and writes one result per command.
+ * Fields are separated by '|'; blank lines and lines starting with '#' are skipped.
+ * <pre>
+ *   add-movie|title|genre|year|status|platform
+ *   add-tv|title|genre|year|status|platform|seasons|episodes
+ *   add-tv-episodes|title|genre|year|platform|episodes per season, e.g. 10,10,8
+ *   update-movie|title|status
+ *   update-tv|title|status|episodes
+ *   watch|title|season|first episode|last episode
+ *   rate|title|rating
+ *   find|title
+ *   search|keyword
+ *   filter|name=value[|name=value...]      (status, genre, platform)
+ * </pre>
+ * Runs of consecutive adds, and of consecutive updates and ratings, are handed to the tracker
+ * as one batch each, so a script pays for one lock and one journal write per run rather than
+ * per command. Results are still written in command order.
+ */
+public class BatchRunner {
+    private static final int MAX_BATCH = 4096;
+    private static final int OUTPUT_CHUNK = 1 << 16;
+
+    private final MediaTracker tracker;
+    private final OutputFormat format;
+    private final StringBuilder output; // Results not yet handed to the writer
+    private final List<MediaItem> pendingAdds;
+    private final List<MediaUpdate> pendingUpdates;
+    private final int[] pendingLines; // Line number of each pending command
+    private final String[] pendingCommands; // Name of each pending command
+    private int pendingCount;
+    private long commands;
+    private long failures;
+
+    /**
+     * Constructor for BatchRunner.
+     * @param tracker The tracker the commands run against.
+     * @param format The format of the results.
+     */
+    public BatchRunner(MediaTracker tracker, OutputFormat format) {
+        this.tracker = tracker;
+        this.format = format;
+        this.output = new StringBuilder(OUTPUT_CHUNK + 1024);
+        this.pendingAdds = new ArrayList<>();
+        this.pendingUpdates = new ArrayList<>();
+        this.pendingLines = new int[MAX_BATCH];
+        this.pendingCommands = new String[MAX_BATCH];
+    }
+
+    /**
+     * Runs every command from a reader until it is exhausted.
+     * @param in The commands, one per line.
+     * @param out Receives the results; flushed at the end but not closed.
+     * @throws IOException If reading the commands or writing the results fails.
+     */
+    public void run(BufferedReader in, Writer out) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            commands++;
+            String[] fields = line.split("\\|", -1);
+            String command = fields[0].trim().toLowerCase(Locale.ROOT);
+            try {
+                execute(lineNumber, command, fields);
+            } catch (IllegalArgumentException e) { // Includes malformed numbers and unknown statuses
+                flushPending();
+                writeFailure(lineNumber, command, e.getMessage());
+            }
+            if (output.length() >= OUTPUT_CHUNK) {
+                out.append(output);
+                output.setLength(0);
+            }
+        }
+        flushPending();
+        out.append(output);
+        output.setLength(0);
+        out.flush();
+    }
+
+    // --- Getters ---
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    private void execute(int lineNumber, String command, String[] fields) {
+        switch (command) {
+            case "add-movie":
+                expectFields(fields, 6);
+                queueAdd(lineNumber, command, new Movie(fields[1], fields[2], parseInt(fields[3]),
+                        parseEnum(fields[4], MovieStatus.class), fields[5]));
+                break;
+            case "add-tv":
+                expectFields(fields, 8);
+                queueAdd(lineNumber, command, new TVShow(fields[1], fields[2], parseInt(fields[3]),
+                        parseEnum(fields[4], TVShowStatus.class), fields[5], parseInt(fields[6]), parseInt(fields[7])));
+                break;
+            case "add-tv-episodes":
+                expectFields(fields, 6);
+                queueAdd(lineNumber, command, new TVShow(fields[1], fields[2], parseInt(fields[3]), fields[4],
+                        EpisodeProgress.parse(fields[5])));
+                break;
+            case "update-movie":
+                expectFields(fields, 3);
+                queueUpdate(lineNumber, command, MediaUpdate.movieStatus(fields[1], parseEnum(fields[2], MovieStatus.class)));
+                break;
+            case "update-tv":
+                expectFields(fields, 4);
+                queueUpdate(lineNumber, command, MediaUpdate.tvShowStatus(fields[1],
+                        parseEnum(fields[2], TVShowStatus.class), parseInt(fields[3])));
+                break;
+            case "watch":
+                expectFields(fields, 5);
+                queueUpdate(lineNumber, command, MediaUpdate.episodesWatched(fields[1], parseInt(fields[2]),
+                        parseInt(fields[3]), parseInt(fields[4])));
+                break;
+            case "rate":
+                expectFields(fields, 3);
+                queueUpdate(lineNumber, command, MediaUpdate.rating(fields[1], parseInt(fields[2])));
+                break;
+            case "find":
+                expectFields(fields, 2);
+                flushPending();
+                MediaItem item = tracker.findMediaItemByTitle(fields[1]);
+                if (item == null) {
+                    writeFailure(lineNumber, command, "NOT_FOUND");
+                } else {
+                    writeItems(lineNumber, command, List.of(item));
+                }
+                break;
+            case "search":
+                expectFields(fields, 2);
+                flushPending();
+                writeItems(lineNumber, command, tracker.searchMediaItems(fields[1]));
+                break;
+            case "filter":
+                Map<String, String> criteria = new HashMap<>();
+                for (int i = 1; i < fields.length; i++) {
+                    int separator = fields[i].indexOf('=');
+                    if (separator < 0) {
+                        throw new IllegalArgumentException("Expected name=value but got: " + fields[i]);
+                    }
+                    criteria.put(fields[i].substring(0, separator).trim(), fields[i].substring(separator + 1));
+                }
+                flushPending();
+                writeItems(lineNumber, command, tracker.filterMediaItems(criteria));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    private void queueAdd(int lineNumber, String command, MediaItem item) {
+        if (!pendingUpdates.isEmpty() || pendingCount == MAX_BATCH) {
+            flushPending(); // Keep adds and updates in script order
+        }
+        pendingAdds.add(item);
+        remember(lineNumber, command);
+    }
+
+    private void queueUpdate(int lineNumber, String command, MediaUpdate update) {
+        if (!pendingAdds.isEmpty() || pendingCount == MAX_BATCH) {
+            flushPending();
+        }
+        pendingUpdates.add(update);
+        remember(lineNumber, command);
+    }
+
+    private void remember(int lineNumber, String command) {
+        pendingLines[pendingCount] = lineNumber;
+        pendingCommands[pendingCount++] = command;
+    }
+
+    /**
+     * Applies the queued adds or updates as one batch and writes their results.
+     */
+    private void flushPending() {
+        if (!pendingAdds.isEmpty()) {
+            tracker.addMediaItems(pendingAdds);
+            for (int i = 0; i < pendingCount; i++) {
+                writeSuccess(pendingLines[i], pendingCommands[i]);
+            }
+            pendingAdds.clear();
+        } else if (!pendingUpdates.isEmpty()) {
+            List<UpdateResult> results = tracker.applyUpdates(pendingUpdates);
+            for (int i = 0; i < pendingCount; i++) {
+                if (results.get(i) == UpdateResult.APPLIED) {
+                    writeSuccess(pendingLines[i], pendingCommands[i]);
+                } else {
+                    writeFailure(pendingLines[i], pendingCommands[i], results.get(i).name());
+                }
+            }
+            pendingUpdates.clear();
+        }
+        pendingCount = 0;
+    }
+
+    private void writeSuccess(int lineNumber, String command) {
+        if (format == OutputFormat.JSON_LINES) {
+            output.append("{\"line\":").append(lineNumber).append(",\"command\":");
+            MediaJsonWriter.writeString(output, command);
+            output.append(",\"ok\":true}\n");
+        } else {
+            output.append(lineNumber).append("\tOK\t").append(command).append('\n');
+        }
+    }
+
+    private void writeFailure(int lineNumber, String command, String message) {
+        failures++;
+        if (format == OutputFormat.JSON_LINES) {
+            output.append("{\"line\":").append(lineNumber).append(",\"command\":");
+            MediaJsonWriter.writeString(output, command);
+            output.append(",\"ok\":false,\"error\":");
+            MediaJsonWriter.writeString(output, message);
+            output.append("}\n");
+        } else {
+            output.append(lineNumber).append("\tERROR\t").append(command).append('\t').append(message).append('\n');
+        }
+    }
+
+    private void writeItems(int lineNumber, String command, List<MediaItem> items) {
+        if (format == OutputFormat.JSON_LINES) {
+            output.append("{\"line\":").append(lineNumber).append(",\"command\":");
+            MediaJsonWriter.writeString(output, command);
+            output.append(",\"ok\":true,\"count\":").append(items.size()).append(",\"items\":[");
+            for (int i = 0; i < items.size(); i++) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                MediaJsonWriter.writeItem(output, items.get(i));
+            }
+            output.append("]}\n");
+        } else {
+            output.append(lineNumber).append("\tOK\t").append(command).append('\t').append(items.size()).append('\n');
+            for (MediaItem item : items) {
+                output.append('\t');
+                item.describeTo(output);
+                output.append('\n');
+            }
+        }
+    }
+
+    private static void expectFields(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("Expected " + (count - 1) + " argument(s) but got " + (fields.length - 1));
+        }
+    }
+
+    private static int parseInt(String value) {
+        return Integer.parseInt(value.trim());
+    }
+
+    private static <T extends Enum<T>> T parseEnum(String value, Class<T> enumClass) {
+        return Enum.valueOf(enumClass, value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,14 +1,36 @@
 package Movie_Tracker.ui;
 
 
+import Movie_Tracker.core.MediaCursor;
+import Movie_Tracker.core.MediaPage;
+import Movie_Tracker.core.FilterPlan;
+import Movie_Tracker.core.MediaStatistics;
 import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MergeReport;
+import Movie_Tracker.core.RangeQuery;
+import Movie_Tracker.enums.ImportFormat;
+import Movie_Tracker.enums.MergePolicy;
 import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.RangeKey;
+import Movie_Tracker.enums.SortKey;
 import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
 import Movie_Tracker.models.MediaItem;
 import Movie_Tracker.models.Movie;
 import Movie_Tracker.models.TVShow;
+import Movie_Tracker.io.ExportReport;
+import Movie_Tracker.io.ImportReport;
+import Movie_Tracker.io.MediaExporter;
+import Movie_Tracker.io.MediaImporter;
 import Movie_Tracker.utils.InputHandler;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,14 +41,20 @@ import java.util.Scanner;
  * Manages menus, user input, and displaying output.
  */
 public class ConsoleUI {
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_SUGGESTIONS = 5;
+
     private MediaTracker tracker;
     private InputHandler inputHandler;
     private Scanner scanner;
+    private PrintWriter out; // Buffered output for listings, flushed once per page
+    private List<MediaItem> lastResults; // Of the last search or filter, offered for export
 
     public ConsoleUI(MediaTracker tracker) {
         this.tracker = tracker;
         this.scanner = new Scanner(System.in);
         this.inputHandler = new InputHandler(scanner);
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)), false);
     }
 
     /**
@@ -57,6 +85,18 @@ public class ConsoleUI {
                 case 6:
                     searchAndFilterMedia();
                     break;
+                case 7:
+                    importMedia();
+                    break;
+                case 8:
+                    viewStatistics();
+                    break;
+                case 9:
+                    exportMedia();
+                    break;
+                case 10:
+                    mergeMedia();
+                    break;
                 case 0:
                     System.out.println("Exiting application. Goodbye!");
                     break;
@@ -79,6 +119,10 @@ public class ConsoleUI {
         System.out.println("4. Update Media Status");
         System.out.println("5. Rate Media");
         System.out.println("6. Search/Filter Media");
+        System.out.println("7. Import Media from File (CSV/JSON Lines)");
+        System.out.println("8. View Statistics");
+        System.out.println("9. Export Media to File (CSV/JSON Lines/binary)");
+        System.out.println("10. Merge Media from File (without duplicates)");
         System.out.println("0. Exit");
         System.out.println("---------------------------------");
     }
@@ -107,29 +151,106 @@ public class ConsoleUI {
         String title = inputHandler.getStringInput("Title: ");
         String genre = inputHandler.getStringInput("Genre (e.g., Drama, Comedy): ");
         int firstReleaseYear = inputHandler.getIntInput("First Release Year: ");
-        TVShowStatus status = inputHandler.getEnumInput("Status", TVShowStatus.class);
         String platform = inputHandler.getStringInput("Platform (e.g., Hulu, HBO Max): ");
-        int numberOfSeasons = inputHandler.getIntInput("Number of Seasons: ");
-        int episodesWatched = inputHandler.getIntInput("Episodes Watched: ");
+        EpisodeProgress progress = readEpisodesPerSeason();
 
-        TVShow tvShow = new TVShow(title, genre, firstReleaseYear, status, platform, numberOfSeasons, episodesWatched);
+        TVShow tvShow;
+        if (progress != null) {
+            tvShow = new TVShow(title, genre, firstReleaseYear, platform, progress);
+        } else {
+            TVShowStatus status = inputHandler.getEnumInput("Status", TVShowStatus.class);
+            int numberOfSeasons = inputHandler.getIntInput("Number of Seasons: ");
+            int episodesWatched = inputHandler.getIntInput("Episodes Watched: ");
+            tvShow = new TVShow(title, genre, firstReleaseYear, status, platform, numberOfSeasons, episodesWatched);
+        }
         tracker.addMediaItem(tvShow);
         System.out.println("TV Show added successfully!");
     }
 
     /**
-     * Displays all media items currently tracked.
+     * Asks for the episodes of each season, to track a new TV show episode by episode.
+     * @return The progress with nothing watched, or null to only count the episodes watched.
+     */
+    private EpisodeProgress readEpisodesPerSeason() {
+        while (true) {
+            String counts = inputHandler.getStringInput(
+                    "Episodes per season to track each episode (e.g., 10,10,8), or Enter to skip: ").trim();
+            if (counts.isEmpty()) {
+                return null;
+            }
+            try {
+                return EpisodeProgress.parse(counts);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Displays all media items currently tracked, one page at a time in the chosen order.
      */
     private void viewAllMedia() {
         System.out.println("\n--- All Tracked Media ---");
-        List<MediaItem> allItems = tracker.getAllMediaItems();
-        if (allItems.isEmpty()) {
-            System.out.println("No media items tracked yet.");
-            return;
+        SortKey sortKey = inputHandler.getEnumInput("Sort by", SortKey.class);
+        MediaCursor cursor = null;
+        int shown = 0;
+        while (true) {
+            MediaPage page = tracker.listMediaItems(sortKey, cursor, PAGE_SIZE);
+            if (shown == 0 && page.getItems().isEmpty()) {
+                System.out.println("No media items tracked yet.");
+                return;
+            }
+            printItems(page.getItems(), shown + 1);
+            shown += page.getItems().size();
+            if (!page.hasMore()) {
+                return;
+            }
+            String answer = inputHandler.getStringInput("-- Press Enter for the next page, or Q to stop: ");
+            if (answer.trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            cursor = page.getNextCursor();
         }
-        for (int i = 0; i < allItems.size(); i++) {
-            System.out.println((i + 1) + ". " + allItems.get(i));
+    }
+
+    /**
+     * Prints a list of media items through the buffered writer with a single flush.
+     * @param items The items to print.
+     * @param firstNumber The number shown before the first item, or 0 to print without numbers.
+     */
+    private void printItems(List<MediaItem> items, int firstNumber) {
+        StringBuilder text = new StringBuilder(items.size() * 160);
+        for (int i = 0; i < items.size(); i++) {
+            if (firstNumber > 0) {
+                text.append(firstNumber + i).append(". ");
+            }
+            items.get(i).describeTo(text);
+            text.append(System.lineSeparator());
         }
+        out.append(text);
+        out.flush();
+    }
+
+    /**
+     * Checks that a title is tracked and, if it is not, offers the closest tracked titles.
+     * @param title The title as entered.
+     * @return The title to use, or null if it was not found and no suggestion was chosen.
+     */
+    private String resolveTitle(String title) {
+        if (tracker.findMediaItemByTitle(title) != null) {
+            return title;
+        }
+        System.out.println("Media item with title '" + title + "' not found.");
+        List<String> suggestions = tracker.suggestTitles(title, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            return null;
+        }
+        System.out.println("Did you mean:");
+        for (int i = 0; i < suggestions.size(); i++) {
+            System.out.println((i + 1) + ". " + suggestions.get(i));
+        }
+        int choice = inputHandler.getIntInput("Enter a number (0 for none of these): ");
+        return choice >= 1 && choice <= suggestions.size() ? suggestions.get(choice - 1) : null;
     }
 
     /**
@@ -137,13 +258,11 @@ public class ConsoleUI {
      */
     private void updateMediaStatus() {
         System.out.println("\n--- Update Media Status ---");
-        String title = inputHandler.getStringInput("Enter the title of the media to update: ");
-
-        MediaItem item = tracker.findMediaItemByTitle(title);
-        if (item == null) {
-            System.out.println("Media item with title '" + title + "' not found.");
+        String title = resolveTitle(inputHandler.getStringInput("Enter the title of the media to update: "));
+        if (title == null) {
             return;
         }
+        MediaItem item = tracker.findMediaItemByTitle(title);
 
         if (item instanceof Movie) {
             MovieStatus newStatus = inputHandler.getEnumInput("Enter new status", MovieStatus.class);
@@ -152,6 +271,16 @@ public class ConsoleUI {
             } else {
                 System.out.println("Failed to update movie status.");
             }
+        } else if (item instanceof TVShow && ((TVShow) item).getEpisodeProgress() != null) {
+            int season = inputHandler.getIntInput("Season: ");
+            int firstEpisode = inputHandler.getIntInput("First episode watched: ");
+            int lastEpisode = inputHandler.getIntInput("Last episode watched: ");
+            if (tracker.markEpisodesWatched(title, season, firstEpisode, lastEpisode)) {
+                TVShow updated = (TVShow) tracker.findMediaItemByTitle(title);
+                System.out.println("Episodes marked as watched: " + updated.getEpisodeProgress());
+            } else {
+                System.out.println("Failed to mark episodes. Check the season and episode numbers.");
+            }
         } else if (item instanceof TVShow) {
             TVShowStatus newStatus = inputHandler.getEnumInput("Enter new overall status", TVShowStatus.class);
             int episodesWatched = inputHandler.getIntInput("Enter new episodes watched: ");
@@ -168,11 +297,8 @@ public class ConsoleUI {
      */
     private void rateMedia() {
         System.out.println("\n--- Rate Media ---");
-        String title = inputHandler.getStringInput("Enter the title of the media to rate: ");
-
-        MediaItem item = tracker.findMediaItemByTitle(title);
-        if (item == null) {
-            System.out.println("Media item with title '" + title + "' not found.");
+        String title = resolveTitle(inputHandler.getStringInput("Enter the title of the media to rate: "));
+        if (title == null) {
             return;
         }
 
@@ -189,6 +315,93 @@ public class ConsoleUI {
         }
     }
 
+    /**
+     * Handles bulk importing media items from a CSV or JSON Lines file.
+     */
+    private void importMedia() {
+        System.out.println("\n--- Import Media from File ---");
+        System.out.println("CSV files need a header row: type,title,genre,year,status,platform[,seasons,episodes,rating]");
+        String fileName = inputHandler.getStringInput("Enter file path (.csv or .jsonl): ").trim();
+        try {
+            Path file = Paths.get(fileName);
+            ImportFormat format = MediaImporter.formatOf(file);
+            ImportReport report = new MediaImporter(tracker).importFile(file, format);
+            System.out.println(report);
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles merging a CSV or JSON Lines file from another library, folding titles already
+     * tracked into the existing items instead of adding duplicates.
+     */
+    private void mergeMedia() {
+        System.out.println("\n--- Merge Media from File ---");
+        String fileName = inputHandler.getStringInput("Enter file path (.csv or .jsonl): ").trim();
+        System.out.println("When a duplicate differs from the tracked item, keep the one with:");
+        System.out.println("1. Highest rating  2. Most progress  3. Latest status (from the file)");
+        int choice = inputHandler.getIntInput("Enter choice: ");
+        if (choice < 1 || choice > MergePolicy.values().length) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        try {
+            Path file = Paths.get(fileName);
+            MergeReport report = new MediaImporter(tracker)
+                    .mergeFile(file, MediaImporter.formatOf(file), MergePolicy.values()[choice - 1]);
+            System.out.println(report);
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Merge failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles exporting the library, or the results of the last search or filter, to a file.
+     * The format follows the file extension: .csv, .bin for binary, otherwise JSON Lines.
+     */
+    private void exportMedia() {
+        System.out.println("\n--- Export Media to File ---");
+        String fileName = inputHandler.getStringInput("Enter file path (.csv, .jsonl or .bin): ").trim();
+        List<MediaItem> items = null; // The whole library
+        if (lastResults != null && !lastResults.isEmpty()) {
+            String answer = inputHandler.getStringInput("Export only the " + lastResults.size()
+                    + " results of the last search/filter? (y/n): ");
+            if (answer.trim().equalsIgnoreCase("y")) {
+                items = lastResults;
+            }
+        }
+        try {
+            Path file = Paths.get(fileName);
+            ExportReport report = new MediaExporter(tracker).exportFile(file, MediaExporter.formatOf(file), items);
+            System.out.println(report);
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Displays the library statistics. They are maintained on every change, so this does not scan the library.
+     */
+    private void viewStatistics() {
+        MediaStatistics stats = tracker.getStatistics();
+        out.println("\n--- Library Statistics ---");
+        out.println("Total items: " + stats.getTotalCount());
+        for (MovieStatus status : MovieStatus.values()) {
+            out.println("Movies " + status + ": " + stats.getMovieCount(status));
+        }
+        for (TVShowStatus status : TVShowStatus.values()) {
+            out.println("TV Shows " + status + ": " + stats.getTVShowCount(status));
+        }
+        out.printf("Average rating: %.2f (%d rated)%n", stats.getAverageRating(),
+                stats.getTotalCount() - stats.getRatingCount(0));
+        out.println("Episodes watched: " + stats.getTotalEpisodesWatched());
+        out.println("By genre: " + stats.getGenreCounts());
+        out.println("By platform: " + stats.getPlatformCounts());
+        out.println("By release year: " + stats.getReleaseYearCounts());
+        out.flush();
+    }
+
     /**
      * Handles search and filter operations.
      */
@@ -198,6 +411,8 @@ public class ConsoleUI {
         System.out.println("2. Filter by Status");
         System.out.println("3. Filter by Genre");
         System.out.println("4. Filter by Platform");
+        System.out.println("5. Filter by Release Year Range");
+        System.out.println("6. Top Rated");
         int choice = inputHandler.getIntInput("Choose an option: ");
 
         List<MediaItem> results = null;
@@ -225,18 +440,40 @@ public class ConsoleUI {
                 criteria.put("platform", platform);
                 results = tracker.filterMediaItems(criteria);
                 break;
+            case 5:
+                int fromYear = inputHandler.getIntInput("Enter first year: ");
+                int toYear = inputHandler.getIntInput("Enter last year: ");
+                if (fromYear > toYear) {
+                    System.out.println("The first year must not be after the last year.");
+                    return;
+                }
+                results = tracker.queryRange(RangeQuery.between(RangeKey.RELEASE_YEAR, fromYear, toYear));
+                break;
+            case 6:
+                int count = inputHandler.getIntInput("How many items? ");
+                if (count <= 0) {
+                    System.out.println("Please enter a positive number.");
+                    return;
+                }
+                String topGenre = inputHandler.getStringInput("Enter genre (leave blank for all): ").trim();
+                RangeQuery topRated = RangeQuery.top(RangeKey.RATING, count).within(1, 5); // Skip unrated items
+                if (!topGenre.isEmpty()) {
+                    criteria.put("genre", topGenre);
+                    topRated = topRated.filteredBy(FilterPlan.compile(criteria));
+                }
+                results = tracker.queryRange(topRated);
+                break;
             default:
                 System.out.println("Invalid filter option.");
                 return;
         }
 
         System.out.println("\n--- Search/Filter Results ---");
+        lastResults = results;
         if (results == null || results.isEmpty()) {
             System.out.println("No media found matching your criteria.");
         } else {
-            for (MediaItem item : results) {
-                System.out.println(item);
-            }
+            printItems(results, 0);
         }
     }
 }
\ No newline at end of file
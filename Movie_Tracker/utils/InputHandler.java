@@ -1,6 +1,5 @@
 package Movie_Tracker.utils;
 
-import java.util.InputMismatchException;
 import java.util.Scanner;
 
 /**
@@ -26,6 +25,7 @@ public class InputHandler {
 
     /**
      * Gets an integer input from the user, ensuring valid integer input.
+     * The whole line is read at once, so an invalid line is reported once and discarded.
      * @param prompt The message to display to the user.
      * @return The integer input.
      */
@@ -33,12 +33,9 @@ public class InputHandler {
         while (true) {
             System.out.print(prompt);
             try {
-                int input = scanner.nextInt();
-                scanner.nextLine(); // Consume newline left-over
-                return input;
-            } catch (InputMismatchException e) {
+                return Integer.parseInt(scanner.nextLine().trim());
+            } catch (NumberFormatException e) {
                 System.out.println("Invalid input. Please enter a number.");
-                scanner.next(); // Consume the invalid input
             }
         }
     }
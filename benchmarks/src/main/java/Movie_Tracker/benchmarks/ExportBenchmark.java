@@ -0,0 +1,65 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.enums.ExportFormat;
+import Movie_Tracker.io.ExportReport;
+import Movie_Tracker.io.MediaExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-library exports into a channel that discards the bytes, so only encoding is measured,
+ * not the disk. Divide the bytes of one export by the time per operation for the throughput.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class ExportBenchmark {
+    @Param({"CSV", "JSON_LINES", "BINARY"})
+    public ExportFormat format;
+
+    private MediaExporter exporter;
+    private final WritableByteChannel discard = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer source) {
+            int written = source.remaining();
+            source.position(source.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Setup
+    public void setUp(TrackerState state) {
+        exporter = new MediaExporter(state.tracker);
+    }
+
+    @Benchmark
+    public ExportReport exportLibrary() throws IOException {
+        return exporter.export(discard, format, null);
+    }
+}
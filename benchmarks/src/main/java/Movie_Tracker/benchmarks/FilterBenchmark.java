@@ -0,0 +1,55 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribute filters.
+ * - selective: status, genre and platform together, about 1 in 128 items.
+ * - unselective: a single status clause matching about a third of the items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class FilterBenchmark {
+    @Param({"selective", "unselective"})
+    public String selectivity;
+
+    private Map<String, String> criteria;
+
+    @Setup
+    public void setUp() {
+        criteria = new HashMap<>();
+        if (selectivity.equals("selective")) {
+            criteria.put("status", "WATCHED");
+            criteria.put("genre", "Horror");
+            criteria.put("platform", "Hulu");
+        } else {
+            criteria.put("status", "TO_WATCH");
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<MediaItem> filterMediaItems(TrackerState state) {
+        return state.tracker.filterMediaItems(criteria);
+    }
+}
@@ -0,0 +1,225 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.StorageEngine;
+import Movie_Tracker.server.MediaHttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Closed-loop load test for {@link MediaHttpServer}: starts the server in-process on a free port
+ * and keeps one request in flight on each of a fixed number of keep-alive connections for a
+ * fixed time. The mix is 80% title lookups, 10% searches and 10% listing pages. Prints
+ * throughput and latency percentiles.
+ * <p>
+ * The client is a single NIO selector speaking just enough HTTP/1.1 for these responses
+ * (Content-Length bodies), so thousands of connections cost it almost nothing and the numbers
+ * reflect the server rather than the client. Not a JMH benchmark; run it with
+ * ./gradlew :benchmarks:loadTest -PloadTestArgs="connections seconds size"
+ * (defaults: 2000 connections, 20 seconds, 100000 items).
+ */
+public final class HttpLoadTest {
+    private static final int MAX_SAMPLES = 1 << 24;
+    private static final int WARMUP_SECONDS = 5;
+    private static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final String CONTENT_LENGTH = "content-length:";
+
+    /**
+     * One keep-alive connection and the request currently in flight on it.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer response = ByteBuffer.allocate(RESPONSE_BUFFER_SIZE);
+        ByteBuffer request;
+        long sentAt;
+        int bodyStart = -1; // Offset of the body once the headers are complete
+        int bodyLength;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final InetSocketAddress server;
+    private final int size;
+    private final long[] latencies = new long[MAX_SAMPLES]; // Nanoseconds, in completion order
+    private int samples;
+    private long errors;
+    private long sequence;
+
+    private HttpLoadTest(InetSocketAddress server, int size) {
+        this.server = server;
+        this.size = size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        MediaTracker tracker = MediaFixtures.tracker(size, StorageEngine.OBJECTS);
+        try (MediaHttpServer mediaServer = MediaHttpServer.start(tracker, new InetSocketAddress("127.0.0.1", 0))) {
+            HttpLoadTest test = new HttpLoadTest(new InetSocketAddress("127.0.0.1", mediaServer.getPort()), size);
+            test.run(connections, seconds);
+        }
+    }
+
+    private void run(int connections, int seconds) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int c = 0; c < connections; c++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.connect(server);
+                channel.register(selector, SelectionKey.OP_CONNECT, new Connection(channel));
+            }
+            long warmupEnd = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+            long end = warmupEnd + seconds * 1_000_000_000L;
+            boolean recording = false;
+            while (System.nanoTime() < end) {
+                if (!recording && System.nanoTime() >= warmupEnd) {
+                    recording = true;
+                    samples = 0;
+                    errors = 0;
+                }
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        handle(key, (Connection) key.attachment());
+                    } catch (IOException e) {
+                        errors++;
+                        key.cancel();
+                        key.channel().close();
+                    }
+                }
+            }
+            int open = 0;
+            for (SelectionKey key : selector.keys()) {
+                open += key.isValid() ? 1 : 0;
+                key.channel().close();
+            }
+            report(connections, open, seconds);
+        }
+    }
+
+    private void handle(SelectionKey key, Connection connection) throws IOException {
+        if (key.isConnectable()) {
+            connection.channel.finishConnect();
+            send(key, connection);
+        } else if (key.isWritable()) {
+            connection.channel.write(connection.request);
+            if (!connection.request.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } else if (key.isReadable()) {
+            if (connection.channel.read(connection.response) < 0) {
+                throw new IOException("Connection closed by server");
+            }
+            if (isComplete(connection)) {
+                long latency = System.nanoTime() - connection.sentAt;
+                byte[] bytes = connection.response.array(); // "HTTP/1.1 200 ..."
+                if (bytes[9] == '2' && bytes[10] == '0' && bytes[11] == '0') {
+                    if (samples < MAX_SAMPLES) {
+                        latencies[samples++] = latency;
+                    }
+                } else {
+                    errors++;
+                }
+                send(key, connection);
+            }
+        }
+    }
+
+    private void send(SelectionKey key, Connection connection) throws IOException {
+        String request = "GET " + path() + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        connection.request = ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII));
+        connection.response.clear();
+        connection.bodyStart = -1;
+        connection.sentAt = System.nanoTime();
+        connection.channel.write(connection.request);
+        key.interestOps(connection.request.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * Checks whether the whole response has been read, parsing the headers once they are complete.
+     */
+    private static boolean isComplete(Connection connection) throws IOException {
+        ByteBuffer response = connection.response;
+        if (connection.bodyStart < 0) {
+            int headerEnd = indexOf(response.array(), response.position(), HEADER_END);
+            if (headerEnd < 0) {
+                if (!response.hasRemaining()) {
+                    throw new IOException("Response headers too long");
+                }
+                return false;
+            }
+            String headers = new String(response.array(), 0, headerEnd, StandardCharsets.US_ASCII);
+            int lengthStart = headers.toLowerCase(Locale.ROOT).indexOf(CONTENT_LENGTH);
+            if (lengthStart < 0) {
+                throw new IOException("Response without Content-Length");
+            }
+            int lengthEnd = headers.indexOf('\r', lengthStart);
+            String length = headers.substring(lengthStart + CONTENT_LENGTH.length(), lengthEnd < 0 ? headers.length() : lengthEnd);
+            connection.bodyStart = headerEnd + HEADER_END.length;
+            connection.bodyLength = Integer.parseInt(length.trim());
+            if (connection.bodyStart + connection.bodyLength > response.capacity()) {
+                throw new IOException("Response larger than " + response.capacity() + " bytes");
+            }
+        }
+        return response.position() >= connection.bodyStart + connection.bodyLength;
+    }
+
+    private static int indexOf(byte[] bytes, int limit, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= limit; i++) {
+            int j = 0;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String path() {
+        long pick = (++sequence * 2_654_435_761L) & Integer.MAX_VALUE; // Multiplicative hashing spreads the picks
+        String title = URLEncoder.encode(MediaFixtures.title((int) (pick % size)), StandardCharsets.UTF_8);
+        long kind = sequence % 10;
+        if (kind < 8) {
+            return "/items/find?title=" + title;
+        } else if (kind == 8) {
+            return "/items/search?q=" + title;
+        }
+        return "/items?sort=TITLE&limit=20";
+    }
+
+    private void report(int connections, int open, int seconds) {
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        System.out.printf("connections=%d (%d still open) requests=%d errors=%d throughput=%.0f req/s%n",
+                connections, open, samples, errors, samples / (double) seconds);
+        if (samples > 0) {
+            System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[samples - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * fraction))] / 1e6;
+    }
+}
@@ -0,0 +1,113 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaPage;
+import Movie_Tracker.core.MediaSnapshot;
+import Movie_Tracker.enums.SortKey;
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title lookups (hits and misses), paged listing, full listings, snapshots and statistics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private static final int PROBES = 1024; // Power of two, so the cursor can wrap with a mask
+
+    private String[] hits;
+    private String[] misses;
+    private int cursor;
+
+    @Setup
+    public void setUp(TrackerState state) {
+        hits = new String[PROBES];
+        for (int residue = 0; residue < 4; residue++) { // Mix movies and TV shows
+            System.arraycopy(MediaFixtures.titles(state.size, PROBES / 4, residue), 0, hits, residue * PROBES / 4, PROBES / 4);
+        }
+        misses = new String[PROBES];
+        for (int k = 0; k < PROBES; k++) {
+            misses[k] = MediaFixtures.title(state.size + k); // Same shape as real titles, but never added
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public MediaItem findHit(TrackerState state) {
+        return state.tracker.findMediaItemByTitle(hits[next()]);
+    }
+
+    @Benchmark
+    public MediaItem findMiss(TrackerState state) {
+        return state.tracker.findMediaItemByTitle(misses[next()]);
+    }
+
+    @Benchmark
+    public List<MediaItem> getAllMediaItems(TrackerState state) {
+        return state.tracker.getAllMediaItems();
+    }
+
+    @Benchmark
+    public long takeSnapshot(TrackerState state) {
+        try (MediaSnapshot snapshot = state.tracker.snapshot()) {
+            return snapshot.getVersion();
+        }
+    }
+
+    @Benchmark
+    public MediaPage listPageByTitle(TrackerState state) {
+        return state.tracker.listMediaItems(SortKey.TITLE, null, 20);
+    }
+
+    @Benchmark
+    public Map<String, Long> genreCounts(TrackerState state) {
+        return state.tracker.getStatistics().getGenreCounts();
+    }
+
+    @Benchmark
+    public double averageRating(TrackerState state) {
+        return state.tracker.getStatistics().getAverageRating();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterateAllMediaItems(TrackerState state) {
+        long ratings = 0;
+        for (MediaItem item : state.tracker.getAllMediaItems()) {
+            ratings += item.getRating();
+        }
+        return ratings;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterateSnapshot(TrackerState state) {
+        long ratings = 0;
+        try (MediaSnapshot snapshot = state.tracker.snapshot()) {
+            for (MediaItem item : snapshot) {
+                ratings += item.getRating();
+            }
+        }
+        return ratings;
+    }
+}
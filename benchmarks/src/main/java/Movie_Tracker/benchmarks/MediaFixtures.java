@@ -0,0 +1,103 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.StorageEngine;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic test data for the benchmarks. The item at position i is fully determined by i:
+ * - i % 4 == 0 or 2: a WATCHED movie (rating targets).
+ * - i % 4 == 1: a TO_WATCH movie (status update targets).
+ * - i % 4 == 3: a TV show (progress update targets).
+ * Titles are unique, genres and platforms cycle through small value sets so filters have a
+ * predictable selectivity.
+ */
+final class MediaFixtures {
+    static final String[] GENRES = {
+        "Drama", "Comedy", "Science Fiction", "Documentary", "Thriller", "Animation", "Horror", "Romance"
+    };
+    static final String[] PLATFORMS = {
+        "Netflix", "Hulu", "Prime Video", "Disney Plus", "HBO Max", "Apple TV", "Cinema", "Blu-ray"
+    };
+    private static final String[] WORDS = {
+        "Nebula", "Harbor", "Silent", "Crimson", "Atlas", "Echo", "Lantern", "Meridian",
+        "Orchid", "Quarry", "Summit", "Tundra", "Velvet", "Willow", "Zephyr", "Falcon"
+    };
+    private static final int BATCH_SIZE = 10_000;
+
+    private MediaFixtures() {
+    }
+
+    /**
+     * Gets the unique title of the item at the given position.
+     * @param i The position.
+     * @return The title.
+     */
+    static String title(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " #" + i;
+    }
+
+    /**
+     * Creates the item at the given position.
+     * @param i The position.
+     * @return A new Movie or TVShow.
+     */
+    static MediaItem item(int i) {
+        String genre = GENRES[(i / 4) % GENRES.length];
+        String platform = PLATFORMS[(i / 32) % PLATFORMS.length];
+        int year = 1950 + i % 75;
+        if (i % 4 == 3) {
+            TVShowStatus status = TVShowStatus.values()[(i / 4) % TVShowStatus.values().length];
+            return new TVShow(title(i), genre, year, status, platform, 1 + i % 10, i % 100);
+        }
+        MediaItem movie = new Movie(title(i), genre, year, i % 2 == 0 ? MovieStatus.WATCHED : MovieStatus.TO_WATCH, platform);
+        if (i % 2 == 0) {
+            movie.setRating(1 + i % 5);
+        }
+        return movie;
+    }
+
+    /**
+     * Builds a tracker holding the items at positions [0, size).
+     * @param size The number of items.
+     * @param engine How the tracker stores its items.
+     * @return The populated tracker, with its indexes built.
+     */
+    static MediaTracker tracker(int size, StorageEngine engine) {
+        MediaTracker tracker = new MediaTracker(engine);
+        List<MediaItem> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < size; i++) {
+            batch.add(item(i));
+            if (batch.size() == BATCH_SIZE) {
+                tracker.addMediaItems(batch);
+                batch.clear();
+            }
+        }
+        tracker.addMediaItems(batch);
+        return tracker;
+    }
+
+    /**
+     * Picks pseudo-random positions in [0, size) that satisfy i % 4 == residue.
+     * @param size The number of items in the tracker, at least 4.
+     * @param count The number of positions to pick.
+     * @param residue The required value of i % 4.
+     * @return The titles at the picked positions.
+     */
+    static String[] titles(int size, int count, int residue) {
+        String[] titles = new String[count];
+        long groups = size / 4;
+        for (int k = 0; k < count; k++) {
+            long group = (k * 2_654_435_761L) % groups; // Multiplicative hashing spreads picks over the tracker
+            titles[k] = title((int) (group * 4 + residue));
+        }
+        return titles;
+    }
+}
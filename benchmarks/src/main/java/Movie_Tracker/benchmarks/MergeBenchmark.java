@@ -0,0 +1,67 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MergeReport;
+import Movie_Tracker.enums.MergePolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges of one batch of {@link MediaTracker#MERGE_BATCH_SIZE} duplicates spread over the tracker.
+ * Identical duplicates measure the hash join alone; conflicting ones alternate between two states
+ * of the same movies, so every merge changes them and the tracker does not grow.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class MergeBenchmark {
+    private List<MediaItem> duplicates;
+    private List<MediaItem> watched;
+    private List<MediaItem> unwatched;
+    private boolean flip;
+
+    @Setup
+    public void setUp(TrackerState state) {
+        duplicates = new ArrayList<>(MediaTracker.MERGE_BATCH_SIZE);
+        watched = new ArrayList<>(MediaTracker.MERGE_BATCH_SIZE);
+        unwatched = new ArrayList<>(MediaTracker.MERGE_BATCH_SIZE);
+        long groups = state.size / 4;
+        for (int k = 0; k < MediaTracker.MERGE_BATCH_SIZE; k++) {
+            int i = (int) ((k * 2_654_435_761L) % groups * 4); // Spread over the tracker like MediaFixtures.titles
+            duplicates.add(MediaFixtures.item(i));
+            Movie movie = (Movie) MediaFixtures.item(i + 1); // An unwatched movie
+            watched.add(new Movie(movie.getTitle(), movie.getGenre(), movie.getReleaseYear(), MovieStatus.WATCHED,
+                    movie.getPlatform()));
+            unwatched.add(movie);
+        }
+    }
+
+    @Benchmark
+    public MergeReport mergeDuplicates(TrackerState state) {
+        return state.tracker.mergeMediaItems(duplicates, MergePolicy.HIGHEST_RATING);
+    }
+
+    @Benchmark
+    public MergeReport mergeConflicts(TrackerState state) {
+        flip = !flip;
+        return state.tracker.mergeMediaItems(flip ? watched : unwatched, MergePolicy.LATEST_STATUS);
+    }
+}
@@ -0,0 +1,108 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds and in-place updates. Each add gets a new item with a title the tracker has not seen,
+ * built outside the measured time (see {@link NewItem}); the tracker keeps growing during a trial.
+ * Each update benchmark works on its own group of items (see {@link MediaFixtures}), so one
+ * benchmark's changes never make another's updates fail.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class MutationBenchmark {
+    private static final int POOL = 4096; // Titles to update; a power of two, so the cursor can wrap with a mask
+    private static final int BATCH_SIZE = 64;
+
+    private String[] watchedMovies;
+    private String[] unwatchedMovies;
+    private String[] tvShows;
+    private List<MediaUpdate> batch;
+    private int cursor;
+
+    @Setup
+    public void setUp(TrackerState state) {
+        watchedMovies = MediaFixtures.titles(state.size, POOL, 0);
+        unwatchedMovies = MediaFixtures.titles(state.size, POOL, 1);
+        tvShows = MediaFixtures.titles(state.size, POOL, 3);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int k = 0; k < BATCH_SIZE; k++) {
+            batch.add(MediaUpdate.rating(watchedMovies[k], 1 + k % 5));
+            batch.add(MediaUpdate.tvShowStatus(tvShows[k], TVShowStatus.WATCHING, k));
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (POOL - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public void addMediaItem(TrackerState state, NewItem newItem) {
+        state.tracker.addMediaItem(newItem.item);
+    }
+
+    @Benchmark
+    public boolean updateMovieStatus(TrackerState state) {
+        int k = next();
+        return state.tracker.updateMovieStatus(unwatchedMovies[k], (k & 1) == 0 ? MovieStatus.WATCHED : MovieStatus.TO_WATCH);
+    }
+
+    @Benchmark
+    public boolean updateTVShowStatus(TrackerState state) {
+        int k = next();
+        return state.tracker.updateTVShowStatus(tvShows[k], TVShowStatus.values()[k % 3], k & 63);
+    }
+
+    @Benchmark
+    public boolean rateMediaItem(TrackerState state) {
+        int k = next();
+        return state.tracker.rateMediaItem(watchedMovies[k], 1 + k % 5);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<UpdateResult> applyUpdates(TrackerState state) {
+        return state.tracker.applyUpdates(batch);
+    }
+
+    /**
+     * A fresh item for every call of {@link #addMediaItem}. Numbers continue after the tracker's
+     * own items and are shared by all threads and trials, so no title is ever added twice.
+     */
+    @State(Scope.Thread)
+    public static class NewItem {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        MediaItem item;
+
+        @Setup(Level.Invocation)
+        public void setUp(TrackerState state) {
+            item = MediaFixtures.item(state.size + NEXT.getAndIncrement());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.enums.QueryExecution;
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached scans under each query execution mode; the query cache is cleared before every call.
+ * - short: a keyword below the trigram length, which scans every title.
+ * - unselective: a filter matching a third of the items, which materializes a large result.
+ * Compare SEQUENTIAL with PARALLEL for the speedup on the machine at hand, and ADAPTIVE with
+ * SEQUENTIAL on small sizes to check that the cost model leaves them alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class ParallelScanBenchmark {
+    @Param({"SEQUENTIAL", "ADAPTIVE", "PARALLEL"})
+    public QueryExecution execution;
+
+    private final Map<String, String> watched = Map.of("status", "WATCHED");
+
+    @Setup
+    public void setUp(TrackerState state) {
+        state.tracker.setQueryExecution(execution);
+    }
+
+    @Benchmark
+    public List<MediaItem> shortKeywordSearch(TrackerState state) {
+        state.tracker.getQueryCache().clear();
+        return state.tracker.searchMediaItems("ne");
+    }
+
+    @Benchmark
+    public List<MediaItem> unselectiveFilter(TrackerState state) {
+        state.tracker.getQueryCache().clear();
+        return state.tracker.filterMediaItems(watched);
+    }
+}
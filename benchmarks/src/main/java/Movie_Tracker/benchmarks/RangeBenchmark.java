@@ -0,0 +1,61 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.FilterPlan;
+import Movie_Tracker.core.RangeQuery;
+import Movie_Tracker.enums.RangeKey;
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range and top-K queries.
+ * - topRated: the 20 highest-rated items.
+ * - topRatedInGenre: the 20 highest-rated items of one genre, combined with a genre bitmap.
+ * - releaseYearRange: the first 50 items released in a ten-year range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class RangeBenchmark {
+    private RangeQuery topRated;
+    private RangeQuery topRatedInGenre;
+    private RangeQuery releaseYearRange;
+
+    @Setup
+    public void setUp() {
+        topRated = RangeQuery.top(RangeKey.RATING, 20);
+        topRatedInGenre = topRated.filteredBy(FilterPlan.compile(Map.of("genre", "Horror")));
+        releaseYearRange = RangeQuery.between(RangeKey.RELEASE_YEAR, 1990, 1999).limitedTo(50);
+    }
+
+    @Benchmark
+    public List<MediaItem> topRated(TrackerState state) {
+        return state.tracker.queryRange(topRated);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<MediaItem> topRatedInGenre(TrackerState state) {
+        return state.tracker.queryRange(topRatedInGenre);
+    }
+
+    @Benchmark
+    public List<MediaItem> releaseYearRange(TrackerState state) {
+        return state.tracker.queryRange(releaseYearRange);
+    }
+}
@@ -0,0 +1,63 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.models.MediaItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword search over titles and genres.
+ * - selective: one full title, a handful of hits.
+ * - unselective: a genre shared by an eighth of the items.
+ * - miss: a keyword no item contains.
+ * - short: a keyword below the trigram length, which falls back to a scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Thread)
+public class SearchBenchmark {
+    @Param({"selective", "unselective", "miss", "short"})
+    public String query;
+
+    private String keyword;
+
+    @Setup
+    public void setUp(TrackerState state) {
+        switch (query) {
+            case "selective":
+                keyword = MediaFixtures.title(state.size / 2);
+                break;
+            case "unselective":
+                keyword = "drama";
+                break;
+            case "miss":
+                keyword = "quixotic";
+                break;
+            case "short":
+                keyword = "ne";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown query: " + query);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<MediaItem> searchMediaItems(TrackerState state) {
+        return state.tracker.searchMediaItems(keyword);
+    }
+}
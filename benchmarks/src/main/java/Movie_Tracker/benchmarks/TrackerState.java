@@ -0,0 +1,31 @@
+package Movie_Tracker.benchmarks;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.StorageEngine;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A tracker pre-populated with {@link MediaFixtures} items, shared by all threads of a benchmark.
+ * The collection size and storage engine are JMH parameters; narrow them on the command line
+ * with e.g. -p size=1000 -p engine=COLUMNS.
+ */
+@State(Scope.Benchmark)
+public class TrackerState {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"OBJECTS", "COLUMNS"})
+    public StorageEngine engine;
+
+    public MediaTracker tracker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tracker = MediaFixtures.tracker(size, engine);
+        tracker.findMediaItemByTitle(MediaFixtures.title(0)); // Make sure indexes are built before measuring
+    }
+}
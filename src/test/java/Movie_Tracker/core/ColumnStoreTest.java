@@ -0,0 +1,67 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Column storage on top of stored rows, and items added to it.
+ */
+class ColumnStoreTest {
+
+    @Test
+    void changesStoredRowsWithoutCopyingTheRest() {
+        MediaTracker stored = new MediaTracker();
+        stored.addMediaItems(List.of(
+                new Movie("Heat", "Crime, Drama", 1995, MovieStatus.TO_WATCH, "Netflix"),
+                new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4))));
+        try (MediaSnapshot base = stored.snapshot()) {
+            ColumnStore store = new ColumnStore(base);
+            ReentrantLock writeLock = new ReentrantLock();
+            ItemOwner owner = new ItemOwner(writeLock);
+            store.setOwner(owner);
+            assertEquals(new ColumnStore().estimatedBytes(), store.estimatedBytes(), "stored rows are read in place");
+
+            writeLock.lock();
+            try {
+                owner.setApplying(true);
+                Movie heat = (Movie) store.get(0);
+                heat.setStatus(MovieStatus.WATCHED);
+                heat.setRating(4);
+                ((TVShow) store.get(1)).setEpisodeProgress(EpisodeProgress.of(4, 4).withWatched(1, 1, 2));
+            } finally {
+                owner.setApplying(false);
+                writeLock.unlock();
+            }
+
+            assertEquals(MovieStatus.WATCHED, store.movieStatus(0));
+            assertEquals(4, store.rating(0));
+            assertEquals("Heat", store.title(0));
+            assertEquals(1995, store.releaseYear(0));
+            assertEquals(2, store.episodesWatched(1));
+            assertEquals(TVShowStatus.WATCHING, store.tvShowStatus(1));
+            assertEquals(MovieStatus.TO_WATCH, base.movieStatus(0), "the stored rows are left alone");
+        }
+    }
+
+    @Test
+    void addsItemsWithoutStatus() {
+        ColumnStore store = new ColumnStore();
+        store.add(new Movie("Heat", "Crime", 1995, null, "Netflix"));
+        store.add(new TVShow("Dark", "Sci-Fi", 2017, null, "Netflix", 3, 0));
+
+        assertNull(((Movie) store.get(0)).getStatus());
+        assertNull(((TVShow) store.get(1)).getOverallStatus());
+        assertNull(store.tvShowStatus(0));
+        assertEquals("Dark", store.title(1));
+    }
+}
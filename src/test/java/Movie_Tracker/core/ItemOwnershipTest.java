@@ -0,0 +1,80 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MergePolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.StorageEngine;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Items tracked already cannot be added to a tracker again, so no item is shared by two positions.
+ */
+class ItemOwnershipTest {
+
+    @Test
+    void rejectsItemTrackedByAnotherTracker() {
+        MediaTracker first = new MediaTracker();
+        MediaTracker second = new MediaTracker();
+        Movie heat = movie("Heat");
+        first.addMediaItem(heat);
+
+        assertThrows(IllegalArgumentException.class, () -> second.addMediaItem(heat));
+        assertThrows(IllegalArgumentException.class, () -> second.addMediaItems(List.of(movie("Alien"), heat)));
+        assertThrows(IllegalArgumentException.class, () -> second.mergeMediaItems(List.of(heat), MergePolicy.LATEST_STATUS));
+        assertEquals(0, second.getAllMediaItems().size(), "nothing of a rejected batch is added");
+
+        // The item still belongs to the first tracker, whose indexes follow its changes
+        assertFalse(first.rateMediaItem("Heat", 5), "only watched items can be rated");
+        assertEquals(0, heat.getRating());
+        assertEquals(0, first.getStatistics().getAverageRating());
+        first.updateMovieStatus("Heat", MovieStatus.WATCHED);
+        first.rateMediaItem("Heat", 5);
+        assertEquals(5, heat.getRating());
+        assertEquals(5.0, first.getStatistics().getAverageRating());
+    }
+
+    @Test
+    void rejectsItemAddedTwice() {
+        MediaTracker tracker = new MediaTracker();
+        Movie heat = movie("Heat");
+        tracker.addMediaItem(heat);
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.addMediaItem(heat));
+        Movie alien = movie("Alien");
+        assertThrows(IllegalArgumentException.class, () -> tracker.addMediaItems(List.of(alien, alien)));
+        assertThrows(IllegalArgumentException.class, () -> tracker.mergeMediaItems(List.of(alien, alien), MergePolicy.LATEST_STATUS));
+        assertEquals(1, tracker.getAllMediaItems().size());
+    }
+
+    @Test
+    void rejectsViewsOfColumnStorage() {
+        MediaTracker columns = new MediaTracker(StorageEngine.COLUMNS);
+        columns.addMediaItem(movie("Heat"));
+        MediaItem view = columns.findMediaItemByTitle("Heat");
+
+        assertThrows(IllegalArgumentException.class, () -> new MediaTracker().addMediaItem(view));
+    }
+
+    @Test
+    void mergeFromCopiesTrackedItems() {
+        MediaTracker first = new MediaTracker();
+        first.addMediaItem(movie("Heat"));
+        MediaTracker second = new MediaTracker();
+
+        assertEquals(1, second.mergeFrom(first, MergePolicy.LATEST_STATUS).getAdded());
+        second.updateMovieStatus("Heat", MovieStatus.WATCHED);
+        assertEquals(MovieStatus.TO_WATCH, ((Movie) first.findMediaItemByTitle("Heat")).getStatus());
+        assertEquals(MovieStatus.WATCHED, ((Movie) second.findMediaItemByTitle("Heat")).getStatus());
+    }
+
+    private static Movie movie(String title) {
+        return new Movie(title, "Drama", 1995, MovieStatus.TO_WATCH, "Netflix");
+    }
+}
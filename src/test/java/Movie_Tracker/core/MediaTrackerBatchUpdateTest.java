@@ -0,0 +1,109 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Batches of update commands: the result of each command, and several commands for one item,
+ * each seeing the effect of the ones before it.
+ */
+class MediaTrackerBatchUpdateTest {
+    private MediaTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new MediaTracker();
+        tracker.addMediaItems(List.of(
+                new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"),
+                new Movie("Alien", "Sci-Fi", 1979, MovieStatus.WATCHED, "Hulu"),
+                new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4)),
+                new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.WATCHING, "Netflix", 3, 5)));
+    }
+
+    @Test
+    void reportsTheResultOfEveryCommand() {
+        List<UpdateResult> results = tracker.applyUpdates(List.of(
+                MediaUpdate.rating("Missing", 3),
+                MediaUpdate.rating("Heat", 4).forReleaseYear(2000), // A title without an item of that year
+                MediaUpdate.rating("Heat", 4),
+                MediaUpdate.rating("Lost", 4),
+                MediaUpdate.rating("Alien", 6),
+                MediaUpdate.movieStatus("Alien", null),
+                MediaUpdate.tvShowStatus("Dark", TVShowStatus.WATCHING, -1),
+                MediaUpdate.tvShowStatus("Lost", TVShowStatus.WATCHING, 3), // Marked episode by episode instead
+                MediaUpdate.episodesWatched("Lost", 3, 1, 1),
+                MediaUpdate.episodesWatched("Dark", 1, 1, 1), // Counted, not tracked per episode
+                MediaUpdate.movieStatus("Dark", MovieStatus.WATCHED),
+                MediaUpdate.rating("alien", 5)));
+
+        assertEquals(List.of(UpdateResult.NOT_FOUND, UpdateResult.NOT_FOUND, UpdateResult.NOT_WATCHED,
+                UpdateResult.NOT_WATCHED, UpdateResult.INVALID_VALUE, UpdateResult.INVALID_VALUE,
+                UpdateResult.INVALID_VALUE, UpdateResult.INVALID_VALUE, UpdateResult.INVALID_VALUE,
+                UpdateResult.INVALID_VALUE, UpdateResult.WRONG_TYPE, UpdateResult.APPLIED), results);
+        assertEquals(0, tracker.findMediaItemByTitle("Heat").getRating());
+        assertEquals(5, tracker.findMediaItemByTitle("Alien").getRating());
+        assertEquals(MovieStatus.WATCHED, ((Movie) tracker.findMediaItemByTitle("Alien")).getStatus());
+        assertEquals(5, ((TVShow) tracker.findMediaItemByTitle("Dark")).getEpisodesWatched());
+        assertEquals(0, ((TVShow) tracker.findMediaItemByTitle("Lost")).getEpisodesWatched());
+    }
+
+    @Test
+    void laterCommandsSeeEarlierOnes() {
+        List<UpdateResult> results = tracker.applyUpdates(List.of(
+                MediaUpdate.movieStatus("Heat", MovieStatus.WATCHED),
+                MediaUpdate.rating("Heat", 5),
+                MediaUpdate.movieStatus("HEAT", MovieStatus.TO_WATCH),
+                MediaUpdate.rating("heat", 3)));
+
+        assertEquals(List.of(UpdateResult.APPLIED, UpdateResult.APPLIED, UpdateResult.APPLIED,
+                UpdateResult.NOT_WATCHED), results);
+        Movie heat = (Movie) tracker.findMediaItemByTitle("Heat");
+        assertEquals(MovieStatus.TO_WATCH, heat.getStatus());
+        assertEquals(5, heat.getRating());
+        assertEquals(List.of("Alien"), titles(tracker.filterMediaItems(Map.of("status", "watched"))));
+        MediaStatistics statistics = tracker.getStatistics();
+        assertEquals(1, statistics.getMovieCount(MovieStatus.WATCHED));
+        assertEquals(1, statistics.getMovieCount(MovieStatus.TO_WATCH));
+        assertEquals(1, statistics.getRatingCount(5));
+    }
+
+    @Test
+    void severalCommandsCompleteAShow() {
+        List<UpdateResult> results = tracker.applyUpdates(List.of(
+                MediaUpdate.rating("Lost", 5), // Not completed yet
+                MediaUpdate.episodesWatched("Lost", 1, 1, 2),
+                MediaUpdate.episodesWatched("Lost", 1, 2, 4),
+                MediaUpdate.episodesWatched("Lost", 2, 1, 4),
+                MediaUpdate.rating("Lost", 5),
+                MediaUpdate.tvShowStatus("Dark", TVShowStatus.COMPLETED, 26),
+                MediaUpdate.rating("Dark", 4)));
+
+        assertEquals(List.of(UpdateResult.NOT_WATCHED, UpdateResult.APPLIED, UpdateResult.APPLIED,
+                UpdateResult.APPLIED, UpdateResult.APPLIED, UpdateResult.APPLIED, UpdateResult.APPLIED), results);
+        TVShow lost = (TVShow) tracker.findMediaItemByTitle("Lost");
+        assertEquals(TVShowStatus.COMPLETED, lost.getOverallStatus());
+        assertEquals(8, lost.getEpisodesWatched());
+        assertEquals(5, lost.getRating());
+        assertEquals(List.of("Lost", "Dark"), titles(tracker.filterMediaItems(Map.of("status", "completed"))));
+        MediaStatistics statistics = tracker.getStatistics();
+        assertEquals(2, statistics.getTVShowCount(TVShowStatus.COMPLETED));
+        assertEquals(34, statistics.getTotalEpisodesWatched());
+        assertEquals(4.5, statistics.getAverageRating());
+    }
+
+    private static List<String> titles(List<MediaItem> items) {
+        return items.stream().map(MediaItem::getTitle).toList();
+    }
+}
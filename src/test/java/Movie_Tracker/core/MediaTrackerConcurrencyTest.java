@@ -0,0 +1,264 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.StorageEngine;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test of concurrent writers and lock-free readers. Writers only move items forward
+ * (ratings go up, movies become WATCHED, batches of added items are appended in order), so every
+ * reader must observe each of these monotonically: a value it has seen is never taken back, and
+ * added items always appear as a prefix of whole batches. Afterwards the final state and every
+ * index must agree with the items themselves.
+ */
+class MediaTrackerConcurrencyTest {
+    private static final int SEEDS = 1_000;
+    private static final int WRITERS = 2;
+    private static final int READERS = 3;
+    private static final int ROUNDS = 5; // Ratings 1..5; movies become WATCHED in round 1, as only watched items are rated
+    private static final int UPDATE_BATCH = 50;
+    private static final int ADDED_BATCHES = 100;
+    private static final int ADDED_BATCH = 20;
+
+    private final ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+    @ParameterizedTest
+    @EnumSource(StorageEngine.class)
+    void concurrentUpdatesAndAddsAreSeenMonotonically(StorageEngine engine) throws InterruptedException {
+        MediaTracker tracker = new MediaTracker(engine);
+        List<MediaItem> seeds = new ArrayList<>();
+        for (int i = 0; i < SEEDS; i++) {
+            seeds.add(new Movie("Seed " + i, "Drama", 2000 + i % 20, MovieStatus.TO_WATCH, "Netflix"));
+        }
+        tracker.addMediaItems(seeds);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(thread(start, () -> updateOwnedSeeds(tracker, writer)));
+        }
+        writers.add(thread(start, () -> addBatches(tracker)));
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            long seed = r;
+            readers.add(thread(start, () -> {
+                Reader reader = new Reader(tracker, new Random(seed));
+                while (writing.get()) {
+                    reader.readOnce();
+                }
+                reader.readOnce(); // Once more after the last write
+            }));
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(violations.isEmpty(), () -> violations.size() + " violations, e.g. " + violations.peek());
+        assertFinalState(tracker);
+    }
+
+    private void updateOwnedSeeds(MediaTracker tracker, int writer) {
+        for (int round = 1; round <= ROUNDS; round++) {
+            List<MediaUpdate> batch = new ArrayList<>();
+            for (int i = writer; i < SEEDS; i += WRITERS) {
+                if (round == 1) {
+                    batch.add(MediaUpdate.movieStatus("Seed " + i, MovieStatus.WATCHED));
+                }
+                batch.add(MediaUpdate.rating("seed " + i, round)); // Titles resolve case-insensitively
+                if (batch.size() >= UPDATE_BATCH) {
+                    expectApplied(tracker.applyUpdates(batch));
+                    batch = new ArrayList<>();
+                }
+            }
+            expectApplied(tracker.applyUpdates(batch));
+        }
+    }
+
+    private void expectApplied(List<UpdateResult> results) {
+        for (UpdateResult result : results) {
+            if (result != UpdateResult.APPLIED) {
+                violations.add("update not applied: " + result);
+            }
+        }
+    }
+
+    private static void addBatches(MediaTracker tracker) {
+        int next = 0;
+        for (int batch = 0; batch < ADDED_BATCHES; batch++) {
+            if (batch % 10 == 0) {
+                for (int i = 0; i < ADDED_BATCH; i++) {
+                    tracker.addMediaItem(added(next++)); // Single adds interleaved with batches
+                }
+            } else {
+                List<MediaItem> items = new ArrayList<>();
+                for (int i = 0; i < ADDED_BATCH; i++) {
+                    items.add(added(next++));
+                }
+                tracker.addMediaItems(items);
+            }
+        }
+    }
+
+    private static MediaItem added(int number) {
+        return new Movie("Added " + number, "Drama", 2024, MovieStatus.WATCHED, "Hulu");
+    }
+
+    /**
+     * One reader thread and what it has observed so far.
+     */
+    private final class Reader {
+        private final MediaTracker tracker;
+        private final Random random;
+        private final int[] ratingSeen = new int[SEEDS];
+        private final boolean[] watchedSeen = new boolean[SEEDS];
+        private int addedSeen;
+        private int watchedCount;
+
+        Reader(MediaTracker tracker, Random random) {
+            this.tracker = tracker;
+            this.random = random;
+        }
+
+        void readOnce() {
+            switch (random.nextInt(4)) {
+                case 0:
+                    checkAddedPrefix(tracker.searchMediaItems("ADDED"));
+                    break;
+                case 1:
+                    checkWatchedFilter();
+                    break;
+                case 2:
+                    checkAddedPrefix(tracker.filterMediaItems(Map.of("platform", "hulu", "genre", "dram")));
+                    break;
+                default:
+                    for (int i = 0; i < 20; i++) {
+                        checkSeed(random.nextInt(SEEDS));
+                    }
+            }
+        }
+
+        private void checkAddedPrefix(List<MediaItem> results) {
+            for (int i = 0; i < results.size(); i++) {
+                if (!results.get(i).getTitle().equals("Added " + i)) {
+                    violations.add("added items are not a prefix: " + results.get(i).getTitle() + " at " + i);
+                    return;
+                }
+            }
+            int partialBatch = results.size() / ADDED_BATCH;
+            if (results.size() % ADDED_BATCH != 0 && partialBatch % 10 != 0) { // Only single adds show up one by one
+                violations.add("batch " + partialBatch + " is half visible: " + results.size() + " added items");
+            }
+            if (results.size() < addedSeen) {
+                violations.add("added items went back from " + addedSeen + " to " + results.size());
+            }
+            addedSeen = Math.max(addedSeen, results.size());
+        }
+
+        private void checkWatchedFilter() {
+            List<MediaItem> results = tracker.filterMediaItems(Map.of("status", "watched"));
+            for (MediaItem item : results) {
+                if (((Movie) item).getStatus() != MovieStatus.WATCHED) {
+                    violations.add("filter returned an unwatched movie: " + item.getTitle());
+                }
+            }
+            if (results.size() < watchedCount) {
+                violations.add("watched count went back from " + watchedCount + " to " + results.size());
+            }
+            watchedCount = Math.max(watchedCount, results.size());
+        }
+
+        private void checkSeed(int i) {
+            Movie movie = (Movie) tracker.findMediaItemByTitle("Seed " + i);
+            int rating = movie.getRating();
+            boolean watched = movie.getStatus() == MovieStatus.WATCHED;
+            if (rating < ratingSeen[i] || watchedSeen[i] && !watched) {
+                violations.add("Seed " + i + " went back to rating " + rating + ", watched " + watched);
+            }
+            ratingSeen[i] = Math.max(ratingSeen[i], rating);
+            watchedSeen[i] |= watched;
+        }
+    }
+
+    private static void assertFinalState(MediaTracker tracker) {
+        int added = ADDED_BATCHES * ADDED_BATCH;
+        List<MediaItem> all = tracker.getAllMediaItems();
+        assertEquals(SEEDS + added, all.size());
+        for (int i = 0; i < SEEDS; i++) {
+            Movie seed = (Movie) all.get(i);
+            assertEquals("Seed " + i, seed.getTitle());
+            assertEquals(ROUNDS, seed.getRating());
+            assertEquals(MovieStatus.WATCHED, seed.getStatus());
+        }
+        for (int i = 0; i < added; i++) {
+            assertEquals("Added " + i, all.get(SEEDS + i).getTitle());
+        }
+
+        MediaStatistics statistics = tracker.getStatistics();
+        assertEquals(SEEDS + added, statistics.getTotalCount());
+        assertEquals(SEEDS + added, statistics.getMovieCount(MovieStatus.WATCHED));
+        assertEquals(0, statistics.getMovieCount(MovieStatus.TO_WATCH));
+        assertEquals(SEEDS, statistics.getRatingCount(ROUNDS));
+        assertEquals(added, statistics.getPlatformCount("Hulu"));
+
+        // Cached and freshly computed results must both match the items themselves
+        Map<String, List<String>> expected = new HashMap<>();
+        expected.put("watched", titles(all));
+        expected.put("to_watch", List.of());
+        expected.put("hulu", titles(all.subList(SEEDS, all.size())));
+        expected.put("search", titles(all.subList(SEEDS, all.size())));
+        for (int pass = 0; pass < 2; pass++) {
+            assertEquals(expected.get("watched"), titles(tracker.filterMediaItems(Map.of("status", "watched"))));
+            assertEquals(expected.get("to_watch"), titles(tracker.filterMediaItems(Map.of("status", "to_watch"))));
+            assertEquals(expected.get("hulu"), titles(tracker.filterMediaItems(Map.of("platform", "Hulu"))));
+            assertEquals(expected.get("search"), titles(tracker.searchMediaItems("added")));
+            tracker.getQueryCache().clear();
+        }
+        for (int i = 0; i < SEEDS; i += 97) {
+            assertEquals("Seed " + i, tracker.findMediaItemByTitle("SEED " + i).getTitle());
+        }
+    }
+
+    private static List<String> titles(List<MediaItem> items) {
+        List<String> titles = new ArrayList<>(items.size());
+        for (MediaItem item : items) {
+            titles.add(item.getTitle());
+        }
+        return titles;
+    }
+
+    private Thread thread(CountDownLatch start, Runnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                start.await();
+                body.run();
+            } catch (Throwable e) {
+                violations.add(Thread.currentThread().getName() + " failed: " + e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
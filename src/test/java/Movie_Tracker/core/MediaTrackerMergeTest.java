@@ -0,0 +1,143 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MergePolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Merging items into a library: the policies, duplicates within a batch, duplicates that cannot
+ * be reconciled, and the rules a duplicate's state has to follow.
+ */
+class MediaTrackerMergeTest {
+
+    @Test
+    void highestRatingTakesBetterRatedDuplicates() {
+        MediaTracker tracker = tracker(movie("Heat", MovieStatus.WATCHED, 3));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(
+                movie("Heat", MovieStatus.WATCHED, 2), movie("heat", MovieStatus.WATCHED, 5)), MergePolicy.HIGHEST_RATING);
+
+        assertReport(report, 0, 2, 2, 0);
+        assertEquals(5, tracker.findMediaItemByTitle("Heat").getRating());
+
+        assertReport(tracker.mergeMediaItems(List.of(movie("Heat", MovieStatus.WATCHED, 5)), MergePolicy.HIGHEST_RATING),
+                0, 1, 0, 0); // The same state again is no conflict
+    }
+
+    @Test
+    void mostProgressTakesDuplicatesFurtherAlong() {
+        MediaTracker tracker = tracker(new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.WATCHING, "Netflix", 3, 10));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(
+                new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.TO_WATCH, "Netflix", 3, 0),
+                new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.COMPLETED, "Netflix", 3, 26)), MergePolicy.MOST_PROGRESS);
+
+        assertReport(report, 0, 2, 2, 0);
+        TVShow dark = (TVShow) tracker.findMediaItemByTitle("Dark");
+        assertEquals(TVShowStatus.COMPLETED, dark.getOverallStatus());
+        assertEquals(26, dark.getEpisodesWatched());
+    }
+
+    @Test
+    void latestStatusTakesEveryDifferingDuplicate() {
+        MediaTracker tracker = tracker(movie("Alien", MovieStatus.WATCHED, 4));
+
+        assertReport(tracker.mergeMediaItems(List.of(movie("Alien", MovieStatus.TO_WATCH, 0)), MergePolicy.LATEST_STATUS),
+                0, 1, 1, 0);
+        Movie alien = (Movie) tracker.findMediaItemByTitle("Alien");
+        assertEquals(MovieStatus.TO_WATCH, alien.getStatus());
+        assertEquals(4, alien.getRating(), "an unrated duplicate keeps the tracked rating");
+    }
+
+    @Test
+    void duplicatesWithinTheBatchFoldIntoTheAddedItem() {
+        MediaTracker tracker = tracker(movie("Alien", MovieStatus.WATCHED, 4));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(movie("Heat", MovieStatus.TO_WATCH, 0),
+                movie("Ronin", MovieStatus.TO_WATCH, 0), movie("HEAT", MovieStatus.WATCHED, 5)), MergePolicy.LATEST_STATUS);
+
+        assertReport(report, 2, 1, 1, 0);
+        List<MediaItem> items = tracker.getAllMediaItems();
+        assertEquals(3, items.size());
+        Movie heat = (Movie) items.get(1);
+        assertEquals("Heat", heat.getTitle());
+        assertEquals(MovieStatus.WATCHED, heat.getStatus());
+        assertEquals(5, heat.getRating(), "the status changes before the rating is applied");
+        assertEquals("Ronin", items.get(2).getTitle());
+        assertEquals(1, tracker.searchMediaItems("heat").size(), "the duplicate is not added");
+    }
+
+    @Test
+    void dropsDuplicatesThatCannotBeReconciled() {
+        MediaTracker tracker = tracker(new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.TO_WATCH, "Netflix", 3, 0),
+                new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4)));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(
+                new Movie("Dark", "Sci-Fi", 2017, MovieStatus.WATCHED, "Netflix"),
+                new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4, 4).withWatched(1, 1, 4)),
+                new TVShow("Lost", "Drama", 2005, "Hulu", EpisodeProgress.of(4))), MergePolicy.LATEST_STATUS);
+
+        assertReport(report, 1, 0, 0, 2);
+        assertEquals(3, tracker.getAllMediaItems().size(), "a different release year is another item");
+        assertEquals(TVShowStatus.TO_WATCH, ((TVShow) tracker.findMediaItemByTitle("Dark")).getOverallStatus());
+        assertEquals(0, ((TVShow) tracker.findMediaItemByTitle("Lost", 2004)).getEpisodesWatched());
+    }
+
+    @Test
+    void watchedEpisodesAreUnited() {
+        MediaTracker tracker = tracker(new TVShow("Lost", "Drama", 2004, "Hulu",
+                EpisodeProgress.of(4, 4).withWatched(1, 1, 2)));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(new TVShow("Lost", "Drama", 2004, "Hulu",
+                EpisodeProgress.of(4, 4).withWatched(1, 3, 4).withWatched(2, 2, 2))), MergePolicy.LATEST_STATUS);
+
+        assertReport(report, 0, 1, 1, 0);
+        EpisodeProgress expected = EpisodeProgress.of(4, 4).withWatched(1, 1, 4).withWatched(2, 2, 2);
+        TVShow lost = (TVShow) tracker.findMediaItemByTitle("Lost");
+        assertEquals(expected, lost.getEpisodeProgress());
+        assertEquals(5, lost.getEpisodesWatched());
+        assertEquals(TVShowStatus.WATCHING, lost.getOverallStatus());
+    }
+
+    @Test
+    void ratingOfUnwatchedDuplicateIsRefused() {
+        MediaTracker tracker = tracker(movie("Heat", MovieStatus.TO_WATCH, 0));
+
+        MergeReport report = tracker.mergeMediaItems(List.of(movie("Heat", MovieStatus.TO_WATCH, 5)), MergePolicy.LATEST_STATUS);
+
+        assertReport(report, 0, 1, 1, 0);
+        assertEquals(0, tracker.findMediaItemByTitle("Heat").getRating());
+        assertEquals(0, tracker.getStatistics().getAverageRating());
+    }
+
+    private static MediaTracker tracker(MediaItem... items) {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItems(List.of(items));
+        return tracker;
+    }
+
+    /**
+     * Creates an untracked movie; its rating is set directly, whatever its status.
+     */
+    private static Movie movie(String title, MovieStatus status, int rating) {
+        Movie movie = new Movie(title, "Crime", 1995, status, "Netflix");
+        movie.setRating(rating);
+        return movie;
+    }
+
+    private static void assertReport(MergeReport report, long added, long merged, long conflicting, long dropped) {
+        assertEquals(added, report.getAdded(), "added");
+        assertEquals(merged, report.getMerged(), "merged");
+        assertEquals(conflicting, report.getConflicting(), "conflicting");
+        assertEquals(dropped, report.getDropped(), "dropped");
+    }
+}
@@ -0,0 +1,120 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.enums.UpdateResult;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Mutations reach the MutationLog before they are applied, so a failing log leaves the tracker unchanged.
+ */
+class MutationLogTest {
+
+    @Test
+    void batchLogsOnlyCommandsThatWillApply() {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItem(new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"));
+        RecordingLog log = new RecordingLog();
+        tracker.setMutationLog(log);
+
+        List<UpdateResult> results = tracker.applyUpdates(List.of(
+                MediaUpdate.rating("Heat", 4), // Not watched yet
+                MediaUpdate.movieStatus("Heat", MovieStatus.WATCHED),
+                MediaUpdate.rating("heat", 5), // Sees the status set by the command before
+                MediaUpdate.tvShowStatus("Heat", TVShowStatus.WATCHING, 1),
+                MediaUpdate.rating("Missing", 3)));
+
+        assertEquals(List.of(UpdateResult.NOT_WATCHED, UpdateResult.APPLIED, UpdateResult.APPLIED,
+                UpdateResult.WRONG_TYPE, UpdateResult.NOT_FOUND), results);
+        assertEquals(List.of("MOVIE_STATUS Heat", "RATING heat"), log.records);
+        assertEquals(5, tracker.findMediaItemByTitle("Heat").getRating());
+    }
+
+    @Test
+    void failedLogLeavesUpdatesUnapplied() {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItem(new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"));
+        RecordingLog log = new RecordingLog();
+        log.failing = true;
+        tracker.setMutationLog(log);
+
+        assertThrows(UncheckedIOException.class, () -> tracker.applyUpdates(List.of(
+                MediaUpdate.movieStatus("Heat", MovieStatus.WATCHED), MediaUpdate.rating("Heat", 5))));
+
+        Movie heat = (Movie) tracker.findMediaItemByTitle("Heat");
+        assertEquals(MovieStatus.TO_WATCH, heat.getStatus());
+        assertEquals(0, heat.getRating());
+        assertEquals(0, tracker.filterMediaItems(Map.of("status", "watched")).size());
+    }
+
+    @Test
+    void failedLogLeavesItemsUnadded() {
+        MediaTracker tracker = new MediaTracker();
+        RecordingLog log = new RecordingLog();
+        log.failing = true;
+        tracker.setMutationLog(log);
+
+        MediaItem dune = new Movie("Dune", "Sci-Fi", 2021, MovieStatus.TO_WATCH, "Cinema");
+        assertThrows(UncheckedIOException.class, () -> tracker.addMediaItem(dune));
+        assertThrows(UncheckedIOException.class, () -> tracker.addMediaItems(List.of(dune)));
+
+        assertEquals(0, tracker.getAllMediaItems().size());
+        assertNull(tracker.findMediaItemByTitle("Dune"));
+        assertEquals(0, tracker.searchMediaItems("dune").size());
+    }
+
+    /**
+     * Records the logged operations, or fails every call like a journal that cannot be written.
+     */
+    private static final class RecordingLog implements MutationLog {
+        private final List<String> records = new ArrayList<>();
+        private boolean failing;
+
+        private void record(String record) {
+            if (failing) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+            records.add(record);
+        }
+
+        @Override
+        public void itemAdded(MediaItem item) {
+            record("ADD " + item.getTitle());
+        }
+
+        @Override
+        public void updatesApplied(List<MediaUpdate> updates) {
+            for (MediaUpdate update : updates) {
+                record(update.getType() + " " + update.getTitle());
+            }
+        }
+
+        @Override
+        public void movieStatusUpdated(String title, MovieStatus status) {
+        }
+
+        @Override
+        public void tvShowStatusUpdated(String title, TVShowStatus status, int episodesWatched) {
+        }
+
+        @Override
+        public void episodesWatched(String title, int season, int firstEpisode, int lastEpisode) {
+        }
+
+        @Override
+        public void itemRated(String title, int rating) {
+        }
+    }
+}
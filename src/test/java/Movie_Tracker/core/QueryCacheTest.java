@@ -0,0 +1,133 @@
+package Movie_Tracker.core;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.SymbolTable;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Cached search and filter results: which mutations evict them, which leave them alone, and
+ * results that must not be stored.
+ */
+class QueryCacheTest {
+    private MediaTracker tracker;
+    private QueryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new MediaTracker();
+        tracker.addMediaItems(List.of(
+                new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"),
+                new Movie("Alien", "Sci-Fi", 1979, MovieStatus.WATCHED, "Hulu"),
+                new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.TO_WATCH, "Netflix", 3, 0)));
+        cache = tracker.getQueryCache();
+    }
+
+    @Test
+    void resultsCachedBeforeAChangeAreRecomputed() {
+        assertEquals(List.of("Heat"), titles(tracker.searchMediaItems("HEAT")));
+        assertEquals(List.of("Alien"), titles(tracker.filterMediaItems(Map.of("status", "watched"))));
+
+        tracker.addMediaItem(new Movie("Heat Wave", "Drama", 2022, MovieStatus.TO_WATCH, "Max"));
+        assertEquals(List.of("Heat", "Heat Wave"), titles(tracker.searchMediaItems("heat")));
+
+        tracker.updateMovieStatus("Heat", MovieStatus.WATCHED);
+        assertEquals(List.of("Heat", "Alien"), titles(tracker.filterMediaItems(Map.of("status", "watched"))));
+        assertEquals(2, cache.getInvalidationCount());
+
+        // A rating is not part of the filter, so the result stays cached and shows the new rating
+        long hits = cache.getHitCount();
+        tracker.rateMediaItem("Alien", 4);
+        List<MediaItem> watched = tracker.filterMediaItems(Map.of("status", "watched"));
+        assertEquals(hits + 1, cache.getHitCount());
+        assertEquals(4, watched.get(1).getRating());
+        assertEquals(2, cache.getInvalidationCount());
+    }
+
+    @Test
+    void unrelatedResultsSurviveChanges() {
+        tracker.searchMediaItems("alien");
+        tracker.filterMediaItems(Map.of("platform", "hulu"));
+        tracker.filterMediaItems(Map.of("status", "to_watch", "platform", "netflix"));
+        tracker.filterMediaItems(Map.of("status", "completed"));
+        assertEquals(4, cache.size());
+
+        tracker.addMediaItem(new Movie("Ronin", "Crime", 1998, MovieStatus.WATCHED, "Netflix"));
+        assertEquals(4, cache.size(), "the added item is in none of the results");
+
+        tracker.updateMovieStatus("Heat", MovieStatus.WATCHED);
+        assertEquals(3, cache.size(), "only the Netflix to-watch filter names the old status");
+
+        long hits = cache.getHitCount();
+        assertEquals(List.of("Alien"), titles(tracker.searchMediaItems("alien")));
+        assertEquals(List.of("Alien"), titles(tracker.filterMediaItems(Map.of("platform", "HULU"))));
+        assertEquals(List.of(), titles(tracker.filterMediaItems(Map.of("status", "completed"))));
+        assertEquals(hits + 3, cache.getHitCount());
+        assertEquals(List.of("Dark"), titles(tracker.filterMediaItems(Map.of("status", "to_watch", "platform", "netflix"))));
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    void resultComputedAcrossAChangeIsNotStored() {
+        QueryCache cache = new QueryCache(QueryCache.DEFAULT_MAX_WEIGHT);
+        String key = QueryCache.searchKey("heat");
+        long version = cache.version();
+        cache.itemAdded("heat", SymbolTable.GENRES.internList("Crime"), SymbolTable.PLATFORMS.intern("Netflix"),
+                MovieStatus.TO_WATCH, null);
+
+        cache.putSearch(key, "heat", new int[] {0}, version);
+        assertEquals(0, cache.size(), "computed before the item was added");
+        cache.putSearch(key, "heat", new int[] {0}, cache.version());
+        assertArrayEquals(new int[] {0}, cache.get(key));
+
+        cache.changeStarted();
+        assertNull(cache.get(key), "lookups miss while a change is being invalidated");
+        cache.changeFinished();
+        assertArrayEquals(new int[] {0}, cache.get(key));
+    }
+
+    @Test
+    void searchesSpanningTheGenreSeparatorAreRecomputed() {
+        assertEquals(List.of(), titles(tracker.searchMediaItems("fi, dr")));
+
+        tracker.addMediaItem(new Movie("Solaris", "Sci-Fi, Drama", 1972, MovieStatus.TO_WATCH, "Criterion"));
+        assertEquals(List.of("Solaris"), titles(tracker.searchMediaItems("FI, DR")));
+        assertEquals(List.of("Solaris"), titles(tracker.searchMediaItems(" drama")));
+        assertEquals(List.of("Solaris"), titles(tracker.searchMediaItems(",")));
+        assertEquals(List.of("Alien", "Dark", "Solaris"), titles(tracker.searchMediaItems("sci-fi")));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        assertEquals(0, cache.getHitRate());
+        tracker.searchMediaItems("dark");
+        tracker.searchMediaItems("Dark");
+        tracker.filterMediaItems(Map.of("genre", "sci-fi"));
+        tracker.searchMediaItems("DARK");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(2, cache.size());
+    }
+
+    private static List<String> titles(List<MediaItem> items) {
+        List<String> titles = new ArrayList<>();
+        for (MediaItem item : items) {
+            titles.add(item.getTitle());
+        }
+        return titles;
+    }
+}
@@ -0,0 +1,130 @@
+package Movie_Tracker.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Walks of a RangeIndex after many adds, batches and moves, checked against a plain array of values.
+ */
+class RangeIndexTest {
+    private static final int ITEMS = 5_000;
+    private static final int VALUES = 6;
+
+    @Test
+    void selectAndCollectMatchSortedValues() {
+        Random random = new Random(11);
+        RangeIndex index = new RangeIndex();
+        int[] values = new int[ITEMS];
+        for (int id = 0; id < ITEMS; id++) {
+            values[id] = random.nextInt(VALUES);
+            index.add(id, values[id]);
+        }
+        for (int i = 0; i < 20_000; i++) { // Enough moves to split and drop blocks in every value
+            int id = random.nextInt(ITEMS);
+            int value = random.nextInt(VALUES);
+            index.move(id, values[id], value);
+            values[id] = value;
+        }
+
+        BitSet even = new BitSet();
+        for (int id = 0; id < ITEMS; id += 2) {
+            even.set(id);
+        }
+        assertArrayEquals(expected(values, 1, 4, false, null, ITEMS, ITEMS), index.select(1, 4, false, null, ITEMS, ITEMS));
+        assertArrayEquals(expected(values, 0, 5, true, even, ITEMS, 700), index.select(0, 5, true, even, ITEMS, 700));
+        assertArrayEquals(expected(values, 2, 2, false, null, 3_000, 10), index.select(2, 2, false, null, 3_000, 10));
+        assertArrayEquals(new int[0], index.select(VALUES, VALUES + 10, false, null, ITEMS, 10));
+
+        for (boolean descending : new boolean[] {false, true}) {
+            assertEquals(Arrays.toString(expected(values, 0, VALUES - 1, descending, null, ITEMS, ITEMS)),
+                    Arrays.toString(collectAll(index, descending, 97)));
+        }
+    }
+
+    @Test
+    void batchesMatchSingleAdds() {
+        Random random = new Random(5);
+        RangeIndex index = new RangeIndex();
+        int[] values = new int[ITEMS];
+        int[] batchIds = new int[ITEMS];
+        int[] batchValues = new int[ITEMS];
+        for (int first = 0; first < ITEMS; ) {
+            int count = Math.min(1 + random.nextInt(900), ITEMS - first); // Some fill whole blocks of a value
+            for (int i = 0; i < count; i++) {
+                batchIds[i] = first + i;
+                batchValues[i] = values[first + i] = random.nextInt(VALUES);
+            }
+            index.addAll(batchIds, batchValues, count);
+            first += count;
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int id = random.nextInt(ITEMS);
+            int value = random.nextInt(VALUES);
+            index.move(id, values[id], value);
+            values[id] = value;
+        }
+
+        assertArrayEquals(expected(values, 0, VALUES - 1, false, null, ITEMS, ITEMS),
+                index.select(0, VALUES - 1, false, null, ITEMS, ITEMS));
+        assertEquals(Arrays.toString(expected(values, 0, VALUES - 1, true, null, ITEMS, ITEMS)),
+                Arrays.toString(collectAll(index, true, 97)));
+    }
+
+    @Test
+    void movedItemsKeepPositionOrder() {
+        RangeIndex index = new RangeIndex();
+        for (int id = 0; id < 1_000; id++) {
+            index.add(id, 1);
+        }
+        for (int id = 999; id >= 0; id -= 3) {
+            index.move(id, 1, 2); // Inserted ahead of the positions already there
+        }
+        int[] moved = index.select(2, 2, false, null, 1_000, 1_000);
+        assertEquals(334, moved.length);
+        for (int i = 0; i < moved.length; i++) {
+            assertEquals(i * 3, moved[i]);
+        }
+        assertEquals(666, index.select(1, 1, false, null, 1_000, 1_000).length);
+    }
+
+    private static int[] collectAll(RangeIndex index, boolean descending, int pageSize) {
+        List<Integer> all = new ArrayList<>();
+        int[] ids = new int[pageSize];
+        int[] values = new int[pageSize];
+        int afterValue = 0;
+        int afterId = -1;
+        int count;
+        do {
+            count = index.collect(afterValue, afterId, descending, ITEMS, ids, values);
+            for (int i = 0; i < count; i++) {
+                all.add(ids[i]);
+            }
+            if (count > 0) {
+                afterValue = values[count - 1];
+                afterId = ids[count - 1];
+            }
+        } while (count == pageSize);
+        return all.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] expected(int[] values, int min, int max, boolean descending, BitSet filter, int visible, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (int step = 0; step <= max - min; step++) {
+            int value = descending ? max - step : min + step;
+            for (int id = 0; id < visible; id++) {
+                if (values[id] == value && (filter == null || filter.get(id)) && ids.size() < limit) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
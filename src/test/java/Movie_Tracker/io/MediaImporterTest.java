@@ -0,0 +1,117 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.ExportFormat;
+import Movie_Tracker.enums.ImportFormat;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Importing whole files: chunks cut at line boundaries, rejected lines, and files written by the exporter.
+ */
+class MediaImporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void importsValidLinesInFileOrder() throws IOException {
+        StringBuilder lines = new StringBuilder("type,title,genre,year,status,platform,seasons,episodes,rating\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 7 == 3) {
+                lines.append("movie,Broken ").append(i).append(",Drama,1990,LOST,Netflix,,,\n");
+            } else {
+                lines.append("movie,\"Movie, Part ").append(i).append("\",Drama,1990,WATCHED,Netflix,,,3\n");
+                expected.add("Movie, Part " + i);
+            }
+        }
+        lines.append("movie,\"").append("Long title ".repeat(20)).append("\",Drama,1990,WATCHED,Netflix,,,3"); // No final newline
+        expected.add("Long title ".repeat(20));
+        Path file = write("library.csv", lines.toString());
+        MediaTracker tracker = new MediaTracker();
+
+        ImportReport report = new MediaImporter(tracker, 3, 64).importFile(file, ImportFormat.CSV); // Lines span chunks
+
+        assertEquals(expected.size(), report.getImported());
+        assertEquals(200 - (expected.size() - 1), report.getRejected());
+        assertEquals(expected, titles(tracker.getAllMediaItems()));
+    }
+
+    @Test
+    void rejectsJsonLinesWithTrailingText() throws IOException {
+        Path file = write("library.jsonl",
+                "{\"type\":\"movie\",\"title\":\"Heat\",\"genre\":\"Crime\",\"year\":1995,\"status\":\"WATCHED\",\"platform\":\"Netflix\"}\n"
+                + "{\"type\":\"movie\",\"title\":\"Alien\",\"genre\":\"Sci-Fi\",\"year\":1979,\"status\":\"WATCHED\",\"platform\":\"Hulu\"},\n"
+                + "\n"
+                + "{\"type\":\"tv\",\"title\":\"Dark\",\"genre\":\"Sci-Fi\",\"year\":2017,\"status\":\"WATCHING\",\"platform\":\"Netflix\",\"seasons\":3,\"episodes\":5}\r\n");
+        MediaTracker tracker = new MediaTracker();
+
+        ImportReport report = new MediaImporter(tracker).importFile(file, ImportFormat.JSON_LINES);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of("Heat", "Dark"), titles(tracker.getAllMediaItems()));
+    }
+
+    @Test
+    void rejectsCsvWithoutHeader() throws IOException {
+        Path file = write("library.csv", "movie,Heat,Crime,1995,WATCHED,Netflix,,,\n");
+
+        assertThrows(IOException.class, () -> new MediaImporter(new MediaTracker()).importFile(file, ImportFormat.CSV));
+    }
+
+    @Test
+    void importsWhatTheExporterWrites() throws IOException {
+        MediaTracker source = new MediaTracker();
+        source.addMediaItems(List.of(
+                new Movie("Heat, the \"Director's Cut\"", "Crime, Drama", 1995, MovieStatus.WATCHED, "Netflix, Inc."),
+                new Movie("Am\u00e9lie", "Comedy", 2001, MovieStatus.TO_WATCH, "Cinema"),
+                new TVShow("Dark\tSeason", "Sci-Fi", 2017, TVShowStatus.WATCHING, "Netflix", 3, 14)));
+        source.rateMediaItem("Heat, the \"Director's Cut\"", 5);
+
+        for (ExportFormat format : new ExportFormat[] {ExportFormat.CSV, ExportFormat.JSON_LINES}) {
+            Path file = directory.resolve("export." + format);
+            new MediaExporter(source).exportFile(file, format);
+            MediaTracker target = new MediaTracker();
+
+            ImportReport report = new MediaImporter(target).importFile(file,
+                    format == ExportFormat.CSV ? ImportFormat.CSV : ImportFormat.JSON_LINES);
+
+            assertEquals(0, report.getRejected(), format.toString());
+            List<MediaItem> expected = source.getAllMediaItems();
+            List<MediaItem> actual = target.getAllMediaItems();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).toString(), actual.get(i).toString(), format.toString());
+                assertEquals(expected.get(i).getRating(), actual.get(i).getRating(), format.toString());
+            }
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> titles(List<MediaItem> items) {
+        List<String> titles = new ArrayList<>();
+        for (MediaItem item : items) {
+            titles.add(item.getTitle());
+        }
+        return titles;
+    }
+}
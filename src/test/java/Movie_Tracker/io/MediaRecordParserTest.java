@@ -0,0 +1,94 @@
+package Movie_Tracker.io;
+
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Parsing CSV and JSON Lines records, and the records that are rejected.
+ */
+class MediaRecordParserTest {
+    private static final String HEADER = "Title,Type,Notes,Genre,Year,Status,Platform,Seasons,Episodes,Rating";
+
+    @Test
+    void parsesQuotedCsvFields() {
+        MediaRecordParser parser = MediaRecordParser.forCsvHeader(HEADER);
+
+        Movie movie = (Movie) parser.parse("\"Crouching Tiger, Hidden Dragon\",movie,ignored,\"Action, Drama\",2000,watched,Netflix,,,4");
+        assertEquals("Crouching Tiger, Hidden Dragon", movie.getTitle());
+        assertEquals("Action, Drama", movie.getGenre());
+        assertEquals(MovieStatus.WATCHED, movie.getStatus());
+        assertEquals(4, movie.getRating());
+
+        TVShow show = (TVShow) parser.parse("\"The \"\"Office\"\"\",TV,,Comedy,2005,Watching,\"Peacock\",9,40,\r");
+        assertEquals("The \"Office\"", show.getTitle());
+        assertEquals(TVShowStatus.WATCHING, show.getOverallStatus());
+        assertEquals(9, show.getNumberOfSeasons());
+        assertEquals(40, show.getEpisodesWatched());
+        assertEquals(0, show.getRating());
+    }
+
+    @Test
+    void rejectsInvalidCsvRows() {
+        MediaRecordParser parser = MediaRecordParser.forCsvHeader(HEADER);
+
+        assertNull(parser.parse("Heat,movie,,Crime,1995,SEEN,Netflix,,,"), "unknown status");
+        assertNull(parser.parse("Heat,movie,,Crime,199x,WATCHED,Netflix,,,"), "year is not a number");
+        assertNull(parser.parse("Heat,movie,,Crime,1995,WATCHED,Netflix,,,6"), "rating above 5");
+        assertNull(parser.parse(",movie,,Crime,1995,WATCHED,Netflix,,,"), "missing title");
+        assertNull(parser.parse("Heat,film,,Crime,1995,WATCHED,Netflix,,,"), "unknown type");
+        assertNull(parser.parse("Dark,tv,,Sci-Fi,2017,WATCHING,Netflix,3,-1,"), "negative episodes");
+        assertNull(parser.parse("Heat,movie,,Crime"), "row cut short");
+        assertThrows(IllegalArgumentException.class, () -> MediaRecordParser.forCsvHeader("title,type,genre,year,status"));
+    }
+
+    @Test
+    void parsesJsonEscapesAndAliases() {
+        MediaRecordParser parser = MediaRecordParser.forJsonLines();
+
+        MediaItem item = parser.parse(" {\"type\": \"movie\", \"title\": \"Am\\u00e9lie \\\"2\\\"\\\\\\/\\t\", "
+                + "\"genre\": \"Comedy\", \"releaseYear\": 2001, \"status\": \"to_watch\", \"platform\": \"Cinema\", "
+                + "\"extra\": true, \"seasons\": null} ");
+        assertEquals("Am\u00e9lie \"2\"\\/\t", item.getTitle());
+        assertEquals(2001, ((Movie) item).getReleaseYear());
+
+        TVShow show = (TVShow) parser.parse("{\"type\":\"tv\",\"title\":\"Dark\",\"genre\":\"Sci-Fi\",\"firstReleaseYear\":2017,"
+                + "\"overallStatus\":\"COMPLETED\",\"platform\":\"Netflix\",\"numberOfSeasons\":3,\"episodesWatched\":26,"
+                + "\"totalEpisodes\":26,\"rating\":5}");
+        assertEquals(TVShowStatus.COMPLETED, show.getOverallStatus());
+        assertEquals(26, show.getEpisodesWatched());
+        assertEquals(5, show.getRating());
+    }
+
+    @Test
+    void rejectsInvalidJsonLines() {
+        MediaRecordParser parser = MediaRecordParser.forJsonLines();
+        String heat = "{\"type\":\"movie\",\"title\":\"Heat\",\"genre\":\"Crime\",\"year\":1995,\"status\":\"WATCHED\",\"platform\":\"Netflix\"}";
+
+        assertEquals("Heat", parser.parse(heat).getTitle());
+        assertNull(parser.parse(heat + " trailing"), "text after the object");
+        assertNull(parser.parse(heat + "}"), "a second closing brace");
+        assertNull(parser.parse(heat + heat), "two objects on one line");
+        assertNull(parser.parse(heat.substring(0, heat.length() - 1)), "unterminated object");
+        assertNull(parser.parse("{\"type\":\"movie\",\"title\":\"Heat"), "unterminated string");
+        assertNull(parser.parse("[" + heat + "]"), "not an object");
+    }
+
+    @Test
+    void dropsRatingOfUnwatchedItems() {
+        MediaRecordParser parser = MediaRecordParser.forCsvHeader(HEADER);
+
+        assertEquals(0, parser.parse("Heat,movie,,Crime,1995,TO_WATCH,Netflix,,,5").getRating());
+        assertEquals(0, parser.parse("Dark,tv,,Sci-Fi,2017,WATCHING,Netflix,3,10,4").getRating());
+        assertEquals(4, parser.parse("Dark,tv,,Sci-Fi,2017,COMPLETED,Netflix,3,26,4").getRating());
+        assertEquals(0, MediaRecordParser.forJsonLines().parse("{\"type\":\"movie\",\"title\":\"Heat\",\"genre\":\"Crime\","
+                + "\"year\":1995,\"status\":\"TO_WATCH\",\"platform\":\"Netflix\",\"rating\":3}").getRating());
+    }
+}
@@ -0,0 +1,89 @@
+package Movie_Tracker.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips of EpisodeProgress through its compact serialized form.
+ */
+class EpisodeProgressTest {
+
+    @Test
+    void roundTripsNothingWatched() throws IOException {
+        assertRoundTrip(EpisodeProgress.of(10, 10, 8));
+    }
+
+    @Test
+    void roundTripsPrefixAsRuns() throws IOException {
+        EpisodeProgress progress = EpisodeProgress.of(10, 10, 8).withWatched(1, 1, 10).withWatched(2, 1, 4);
+        byte[] bytes = assertRoundTrip(progress);
+        assertTrue(bytes.length < 10, "a watched prefix takes a few bytes, got " + bytes.length);
+    }
+
+    @Test
+    void roundTripsCompleteShow() throws IOException {
+        EpisodeProgress progress = EpisodeProgress.of(64, 64).withWatched(1, 1, 64).withWatched(2, 1, 64);
+        assertTrue(progress.isComplete());
+        assertRoundTrip(progress);
+    }
+
+    @Test
+    void roundTripsScatteredEpisodesAsBitmap() throws IOException {
+        Random random = new Random(7);
+        EpisodeProgress progress = EpisodeProgress.of(300, 300, 301);
+        for (int i = 0; i < 400; i++) {
+            int season = 1 + random.nextInt(3);
+            int episode = 1 + random.nextInt(300);
+            progress = progress.withWatched(season, episode, episode);
+        }
+        assertRoundTrip(progress);
+    }
+
+    @Test
+    void roundTripsThroughDataStreams() throws IOException {
+        EpisodeProgress first = EpisodeProgress.of(5).withWatched(1, 2, 3);
+        EpisodeProgress second = EpisodeProgress.of(3, 4).withWatched(2, 4, 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            first.writeTo(out);
+            second.writeTo(out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(first, EpisodeProgress.readFrom(in));
+        assertEquals(second, EpisodeProgress.readFrom(in)); // Each read stops at the end of its progress
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void rejectsRunsBeyondTheShow() {
+        byte[] bytes = EpisodeProgress.of(3).withWatched(1, 1, 3).toBytes();
+        byte[] longer = EpisodeProgress.of(5).withWatched(1, 1, 5).toBytes();
+        bytes[bytes.length - 1] = longer[longer.length - 1]; // Last run of 5 episodes in a show of 3
+        assertThrows(IOException.class, () -> EpisodeProgress.fromBytes(bytes));
+    }
+
+    private static byte[] assertRoundTrip(EpisodeProgress progress) throws IOException {
+        byte[] bytes = progress.toBytes();
+        EpisodeProgress read = EpisodeProgress.fromBytes(bytes);
+        assertEquals(progress, read);
+        assertEquals(progress.getWatchedCount(), read.getWatchedCount());
+        for (int season = 1; season <= progress.getSeasonCount(); season++) {
+            for (int episode = 1; episode <= progress.getEpisodeCount(season); episode++) {
+                assertEquals(progress.isWatched(season, episode), read.isWatched(season, episode));
+            }
+        }
+        assertArrayEquals(bytes, read.toBytes());
+        return bytes;
+    }
+}
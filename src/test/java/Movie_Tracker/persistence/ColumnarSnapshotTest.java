@@ -0,0 +1,144 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaSnapshot;
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.FsyncPolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round trips of the columnar snapshot, and opening snapshots written in the older version 2.
+ */
+class ColumnarSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryKindOfItem() throws IOException {
+        List<MediaItem> items = sampleItems();
+        TVShow tracked = new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4).withWatched(1, 1, 4));
+        tracked.setRating(2);
+        items.add(tracked);
+        Path file = directory.resolve("media.snapshot");
+
+        write(file, 42, items);
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+
+        assertEquals(42, snapshot.getLsn());
+        assertEquals(3, version(file));
+        assertItems(items, snapshot);
+        assertEquals(tracked.getEpisodeProgress(), ((TVShow) snapshot.materialize(3)).getEpisodeProgress());
+    }
+
+    @Test
+    void opensVersion2Snapshot() throws IOException {
+        List<MediaItem> items = sampleItems();
+        Path file = directory.resolve("media.snapshot");
+        writeVersion2(file, 7, items);
+
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+
+        assertEquals(7, snapshot.getLsn());
+        assertItems(items, snapshot);
+        assertNull(((TVShow) snapshot.materialize(1)).getEpisodeProgress());
+    }
+
+    @Test
+    void checkpointUpgradesVersion2Store() throws IOException {
+        List<MediaItem> items = sampleItems();
+        Path file = directory.resolve("media.snapshot");
+        writeVersion2(file, 0, items);
+
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            assertItems(items, store.getTracker().getAllMediaItems());
+            store.getTracker().addMediaItem(new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4)));
+            store.getTracker().markEpisodesWatched("Lost", 1, 1, 2);
+            store.checkpoint();
+        }
+        assertEquals(3, version(file));
+
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            List<MediaItem> reopened = store.getTracker().getAllMediaItems();
+            assertItems(items, reopened.subList(0, items.size()));
+            TVShow lost = (TVShow) reopened.get(items.size());
+            assertEquals(EpisodeProgress.of(4).withWatched(1, 1, 2), lost.getEpisodeProgress());
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersion() throws IOException {
+        Path file = directory.resolve("media.snapshot");
+        write(file, 0, sampleItems());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, 1);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(file));
+    }
+
+    private static List<MediaItem> sampleItems() {
+        Movie heat = new Movie("Heat", "Crime, Drama", 1995, MovieStatus.WATCHED, "Netflix");
+        heat.setRating(5);
+        TVShow dark = new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.WATCHING, "Netflix", 3, 14);
+        Movie amelie = new Movie("Am\u00e9lie", "Comedy", 2001, MovieStatus.TO_WATCH, "Cinema");
+        return new ArrayList<>(Arrays.asList(heat, dark, amelie));
+    }
+
+    private static void write(Path file, long lsn, List<MediaItem> items) throws IOException {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItems(items);
+        try (MediaSnapshot snapshot = tracker.snapshot()) {
+            ColumnarSnapshot.write(file, lsn, snapshot);
+        }
+    }
+
+    /**
+     * Writes a version 2 snapshot: the version 3 layout without the trailing progress section.
+     */
+    private static void writeVersion2(Path file, long lsn, List<MediaItem> items) throws IOException {
+        write(file, lsn, items);
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(0, ByteBuffer.wrap(bytes).getInt(bytes.length - Integer.BYTES), "no episode progress");
+        byte[] version2 = Arrays.copyOf(bytes, bytes.length - Integer.BYTES);
+        ByteBuffer.wrap(version2).putInt(4, 2);
+        Files.write(file, version2);
+    }
+
+    private static int version(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getInt(4);
+    }
+
+    private static void assertItems(List<MediaItem> expected, ColumnarSnapshot snapshot) {
+        List<MediaItem> actual = new ArrayList<>();
+        for (int id = 0; id < snapshot.size(); id++) {
+            actual.add(snapshot.materialize(id));
+        }
+        assertItems(expected, actual);
+    }
+
+    private static void assertItems(List<MediaItem> expected, List<MediaItem> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getRating(), actual.get(i).getRating());
+        }
+    }
+}
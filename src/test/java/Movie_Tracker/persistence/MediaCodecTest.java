@@ -0,0 +1,121 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.core.MediaUpdate;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.enums.TVShowStatus;
+import Movie_Tracker.models.EpisodeProgress;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import Movie_Tracker.models.TVShow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round trips of items and update operations through the binary journal encoding.
+ */
+class MediaCodecTest {
+
+    @Test
+    void roundTripsMovie() throws IOException {
+        Movie movie = new Movie("Heat", "Crime, Drama", 1995, MovieStatus.WATCHED, "Netflix");
+        movie.setRating(5);
+        Movie read = (Movie) roundTrip(movie);
+        assertEquals(movie.toString(), read.toString());
+        assertEquals(1995, read.getReleaseYear());
+        assertEquals(MovieStatus.WATCHED, read.getStatus());
+        assertEquals(5, read.getRating());
+    }
+
+    @Test
+    void roundTripsTVShowWithCounts() throws IOException {
+        TVShow tvShow = new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.WATCHING, "Netflix", 3, 14);
+        tvShow.setRating(4);
+        TVShow read = (TVShow) roundTrip(tvShow);
+        assertEquals(tvShow.toString(), read.toString());
+        assertEquals(3, read.getNumberOfSeasons());
+        assertEquals(14, read.getEpisodesWatched());
+        assertNull(read.getEpisodeProgress());
+    }
+
+    @Test
+    void roundTripsTVShowWithEpisodeProgress() throws IOException {
+        EpisodeProgress progress = EpisodeProgress.of(10, 10, 8).withWatched(1, 1, 10).withWatched(2, 3, 5);
+        TVShow tvShow = new TVShow("Dark", "Sci-Fi", 2017, "Netflix", progress);
+        tvShow.setStatus(TVShowStatus.COMPLETED); // Set by hand, so it differs from the progress
+        TVShow read = (TVShow) roundTrip(tvShow);
+        assertEquals(progress, read.getEpisodeProgress());
+        assertEquals(TVShowStatus.COMPLETED, read.getOverallStatus());
+        assertEquals(13, read.getEpisodesWatched());
+    }
+
+    @Test
+    void rejectsUnknownItemType() {
+        byte[] bytes = {42, 0, 0};
+        assertThrows(IOException.class, () -> MediaCodec.readItem(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    void replaysEveryUpdateType() throws IOException {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItem(new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"));
+        tracker.addMediaItem(new TVShow("Dark", "Sci-Fi", 2017, TVShowStatus.TO_WATCH, "Netflix", 3, 0));
+        tracker.addMediaItem(new TVShow("Lost", "Drama", 2004, "Hulu", EpisodeProgress.of(4, 4)));
+
+        replay(tracker, MediaUpdate.movieStatus("Heat", MovieStatus.WATCHED));
+        replay(tracker, MediaUpdate.rating("heat", 3));
+        replay(tracker, MediaUpdate.tvShowStatus("Dark", TVShowStatus.WATCHING, 7));
+        replay(tracker, MediaUpdate.episodesWatched("Lost", 2, 1, 3));
+
+        Movie heat = (Movie) tracker.findMediaItemByTitle("Heat");
+        assertEquals(MovieStatus.WATCHED, heat.getStatus());
+        assertEquals(3, heat.getRating());
+        TVShow dark = (TVShow) tracker.findMediaItemByTitle("Dark");
+        assertEquals(TVShowStatus.WATCHING, dark.getOverallStatus());
+        assertEquals(7, dark.getEpisodesWatched());
+        TVShow lost = (TVShow) tracker.findMediaItemByTitle("Lost");
+        assertEquals(3, lost.getEpisodesWatched());
+    }
+
+    @Test
+    void replaysUpdateNarrowedToReleaseYear() throws IOException {
+        MediaTracker tracker = new MediaTracker();
+        tracker.addMediaItem(new Movie("Dune", "Sci-Fi", 1984, MovieStatus.TO_WATCH, "Cinema"));
+        tracker.addMediaItem(new Movie("Dune", "Sci-Fi", 2021, MovieStatus.TO_WATCH, "Cinema"));
+
+        replay(tracker, MediaUpdate.movieStatus("Dune", MovieStatus.WATCHED).forReleaseYear(2021));
+
+        assertEquals(MovieStatus.TO_WATCH, ((Movie) tracker.findMediaItemByTitle("Dune", 1984)).getStatus());
+        assertEquals(MovieStatus.WATCHED, ((Movie) tracker.findMediaItemByTitle("Dune", 2021)).getStatus());
+    }
+
+    private static MediaItem roundTrip(MediaItem item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            MediaCodec.writeItem(out, item);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        MediaItem read = MediaCodec.readItem(in);
+        assertEquals(-1, in.read(), "the whole record is consumed");
+        return read;
+    }
+
+    private static void replay(MediaTracker tracker, MediaUpdate update) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            MediaCodec.writeUpdate(out, update);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        MediaCodec.applyOperation(in, tracker);
+        assertEquals(-1, in.read(), "the whole operation is consumed");
+    }
+}
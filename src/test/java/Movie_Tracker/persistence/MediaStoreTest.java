@@ -0,0 +1,106 @@
+package Movie_Tracker.persistence;
+
+import Movie_Tracker.core.MediaTracker;
+import Movie_Tracker.enums.FsyncPolicy;
+import Movie_Tracker.enums.MovieStatus;
+import Movie_Tracker.models.MediaItem;
+import Movie_Tracker.models.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checkpoints and journal compaction of a MediaStore.
+ */
+class MediaStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncateKeepsRecordsAfterTheCheckpoint() throws IOException {
+        Path file = directory.resolve("media.journal");
+        try (MediaJournal journal = MediaJournal.open(file, FsyncPolicy.OS_MANAGED, 0, (lsn, payload) -> { })) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append(new byte[] {(byte) i});
+            }
+            journal.truncate(3);
+            journal.append(new byte[] {6});
+        }
+        List<Long> replayed = new ArrayList<>();
+        try (MediaJournal journal = MediaJournal.open(file, FsyncPolicy.OS_MANAGED, 0, (lsn, payload) -> {
+            assertEquals(lsn, payload.get(0));
+            replayed.add(lsn);
+        })) {
+            assertEquals(6, journal.getLastLsn());
+        }
+        assertEquals(List.of(4L, 5L, 6L), replayed);
+    }
+
+    @Test
+    void checkpointCopiesMappedRowsWithoutMaterializingThem() throws IOException {
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            List<MediaItem> items = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                items.add(new Movie("Movie " + i, "Drama", 2000, MovieStatus.TO_WATCH, "Netflix"));
+            }
+            store.getTracker().addMediaItems(items);
+            store.checkpoint();
+        }
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            MediaTracker tracker = store.getTracker();
+            tracker.updateMovieStatus("Movie 7", MovieStatus.WATCHED);
+            long heapBefore = tracker.getMetrics().getEstimatedHeapBytes();
+            store.checkpoint();
+            assertEquals(heapBefore, tracker.getMetrics().getEstimatedHeapBytes(), "no row was materialized");
+        }
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            List<MediaItem> items = store.getTracker().getAllMediaItems();
+            assertEquals(1_000, items.size());
+            assertEquals(MovieStatus.WATCHED, ((Movie) items.get(7)).getStatus());
+            assertEquals(MovieStatus.TO_WATCH, ((Movie) items.get(8)).getStatus());
+        }
+    }
+
+    @Test
+    void rejectedRecordLeavesTrackerAndJournalUnchanged() throws IOException {
+        String longTitle = "x".repeat(70_000); // Longer than a journal string can hold
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            store.getTracker().addMediaItem(new Movie("Heat", "Crime", 1995, MovieStatus.TO_WATCH, "Netflix"));
+            assertThrows(UncheckedIOException.class, () -> store.getTracker().addMediaItem(
+                    new Movie(longTitle, "Drama", 2000, MovieStatus.TO_WATCH, "Netflix")));
+            assertEquals(1, store.getTracker().getAllMediaItems().size());
+        }
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            List<MediaItem> items = store.getTracker().getAllMediaItems();
+            assertEquals(1, items.size());
+            assertEquals("Heat", items.get(0).getTitle());
+        }
+    }
+
+    @Test
+    void automaticCheckpointsKeepEveryMutation() throws IOException {
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED, 10)) {
+            for (int i = 0; i < 95; i++) {
+                store.getTracker().addMediaItem(new Movie("Movie " + i, "Drama", 2000, MovieStatus.TO_WATCH, "Hulu"));
+                if (i % 3 == 0) {
+                    store.getTracker().updateMovieStatus("Movie " + i, MovieStatus.WATCHED);
+                }
+            }
+        }
+        try (MediaStore store = MediaStore.open(directory, FsyncPolicy.OS_MANAGED)) {
+            List<MediaItem> items = store.getTracker().getAllMediaItems();
+            assertEquals(95, items.size());
+            for (int i = 0; i < 95; i++) {
+                assertEquals(i % 3 == 0 ? MovieStatus.WATCHED : MovieStatus.TO_WATCH, ((Movie) items.get(i)).getStatus());
+            }
+        }
+    }
+}